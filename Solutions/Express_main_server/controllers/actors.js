@@ -1,4 +1,5 @@
 const AXIOS = require('axios'); // Importa la libreria Axios per effettuare richieste HTTP
+const { getSnapshot } = require('../utils/snapshotClient'); // Richieste condizionali agli snapshot di Spring (ETag)
 const JAVA_SPRING_SERVER_URL = 'http://localhost:8080'; // URL del server Java Spring per la gestione degli attori
 
 /**
@@ -9,14 +10,11 @@ const JAVA_SPRING_SERVER_URL = 'http://localhost:8080'; // URL del server Java S
 async function getAllActors(req, res) {
     try {
         // Esegue entrambe le richieste in parallelo per ridurre il tempo di attesa
-        const [actorsResponse, moviesResponse] = await Promise.all([
-            AXIOS.get(`${JAVA_SPRING_SERVER_URL}/actors/get-all`), // Recupera la lista degli attori
-            AXIOS.get(`${JAVA_SPRING_SERVER_URL}/movies/actors-home`) // Recupera la lista dei film con i relativi poster
+        const [actors, movies] = await Promise.all([
+            getSnapshot(`${JAVA_SPRING_SERVER_URL}/actors/get-all`), // Recupera la lista degli attori
+            getSnapshot(`${JAVA_SPRING_SERVER_URL}/movies/actors-home`) // Recupera la lista dei film con i relativi poster
         ]);
 
-        const actors = actorsResponse.data; // Lista degli attori
-        const movies = moviesResponse.data; // Lista dei film con i poster
-
         // Creazione di una mappa filmId
         const moviesMap = new Map(movies.map(movie => [movie.id, movie]));
 
@@ -70,29 +68,24 @@ async function getAllInfo(req, res) {
     try {
         const name = req.params.name; // Recupera il nome dell'attore dai parametri della richiesta
 
-        // Esegue entrambe le richieste in parallelo per ridurre il tempo di attesa
-        const [actorsResponse, moviesResponse] = await Promise.all([
-            AXIOS.get(`${JAVA_SPRING_SERVER_URL}/actors/get-actor-by-name?name=` + encodeURIComponent(name)),
-            AXIOS.get(`${JAVA_SPRING_SERVER_URL}/movies/actors-home`) // Recupera la lista dei film con i relativi poster
-        ]);
-
-        const actorsFilms = actorsResponse.data; // Lista dei film in cui ha recitato l'attore
-        const moviesData = moviesResponse.data; // Lista dei film con poster
-
-        // Creazione di una mappa filmId
-        const moviesMap = new Map(moviesData.map(movie => [movie.id, movie]));
-
-        // Arricchisce gli attori solo se il film ha un poster
-        const enrichedActors = actorsFilms
-            .map(actor => {
-                const movieDetails = moviesMap.get(actor.id); // Recupera i dettagli del film
-                return movieDetails?.posterUrl ? {
-                    ...actor,
-                    posterUrl: movieDetails.posterUrl, // Aggiunge il poster all'attore
-                    filmId: movieDetails.id
-                } : null;
-            })
-            .filter(Boolean); // Rimuove i valori null
+        // Recupera i film in cui ha recitato l'attore, già uniti ai poster dal server Spring
+        const response = await AXIOS.get(`${JAVA_SPRING_SERVER_URL}/people/${encodeURIComponent(name)}/filmography`, {
+            params: { type: 'actor', size: 200 },
+            validateStatus: status => status === 200 || status === 404 // 404: nessun film per questo nome
+        });
+        const credits = response.status === 200 ? response.data.credits : [];
+
+        // Mantiene solo i film con un poster
+        const enrichedActors = credits
+            .filter(credit => credit.posterUrl)
+            .map(credit => ({
+                id: credit.movieId,
+                name: name,
+                role: credit.role,
+                title: credit.title,
+                posterUrl: credit.posterUrl, // Poster del film
+                filmId: credit.movieId
+            }));
 
         // Renderizza la pagina con i dettagli dell'attore
         res.render('pages/actors_info', {
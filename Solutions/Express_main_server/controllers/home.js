@@ -1,4 +1,4 @@
-const axios = require('axios'); // Importa la libreria Axios per effettuare richieste HTTP
+const { getSnapshot } = require('../utils/snapshotClient'); // Richieste condizionali agli snapshot di Spring (ETag)
 
 // URL del backend Spring Boot che fornisce i film per la home page
 const JAVA_SPRING_SERVER_URL = 'http://localhost:8080/movies/get-home-movies';
@@ -11,8 +11,7 @@ const JAVA_SPRING_SERVER_URL = 'http://localhost:8080/movies/get-home-movies';
 exports.getMoviesHome = async (req, res) => {
     try {
         // Effettua una richiesta GET al server Java Spring Boot per ottenere i film
-        const response = await axios.get(JAVA_SPRING_SERVER_URL);
-        const movies = response.data; // Estrae i dati dei film dalla risposta
+        const movies = await getSnapshot(JAVA_SPRING_SERVER_URL);
 
         // Renderizza la pagina home con la lista dei film
         res.render('partials/home', { layout: 'main', movies });
@@ -1,9 +1,24 @@
 // Importazione della libreria Axios per effettuare richieste HTTP
 const AXIOS = require('axios');
+const { graphql } = require('../utils/graphqlClient'); // Query all'API GraphQL di Spring
 
 // URL del server Java Spring che gestisce i dati dei film
 const JAVA_SPRING_SERVER_URL = 'http://localhost:8080/movies';
 
+// Dati della pagina di dettaglio di un film, letti con una sola richiesta GraphQL
+const MOVIE_INFO_QUERY = `
+    query MovieInfo($id: ID!) {
+        movie(id: $id) {
+            id title date tagline description minute rating posterUrl
+            crew { name role }
+            countries
+            languages { language }
+            genres
+            studios
+            themes
+        }
+    }`;
+
 /**
  * Funzione per ottenere tutti i film dal server Java Spring.
  * Effettua una richiesta GET al backend e passa i dati ottenuti alla vista Handlebars.
@@ -43,38 +58,30 @@ async function getAllInfo(req, res) {
         // Ottiene l'ID del film dai parametri della richiesta
         const movieId = req.params.id;
 
-        // Effettua richieste parallele per recuperare tutte le informazioni del film
-        const endpoints = await Promise.all([
-            AXIOS.get(`${JAVA_SPRING_SERVER_URL}/get-movie-by-id?movieId=` + movieId), // Dati principali del film
-            AXIOS.get(`${JAVA_SPRING_SERVER_URL}/get-crew-by-id?movieId=` + movieId), // Crew (registi, attori, ecc.)
-            AXIOS.get(`${JAVA_SPRING_SERVER_URL}/get-countries-by-id?movieId=` + movieId), // Paesi di produzione
-            AXIOS.get(`${JAVA_SPRING_SERVER_URL}/get-languages-by-id?movieId=` + movieId), // Lingue disponibili
-            AXIOS.get(`${JAVA_SPRING_SERVER_URL}/get-genres-by-id?movieId=` + movieId), // Generi del film
-            AXIOS.get(`${JAVA_SPRING_SERVER_URL}/get-studios-by-id?movieId=` + movieId), // Studi cinematografici
-            AXIOS.get(`${JAVA_SPRING_SERVER_URL}/get-themes-by-id?movieId=` + movieId) // Temi del film
-        ]);
-
-        // Estrae i dati principali del film dalla prima richiesta
-        const movieData = endpoints[0].data;
+        // Recupera il film e tutte le informazioni correlate con un'unica richiesta GraphQL
+        const { movie } = await graphql(MOVIE_INFO_QUERY, { id: movieId });
+        if (!movie) {
+            return res.status(404).render('pages/error', { message: 'Film non trovato' });
+        }
 
         // Recupera il titolo del film
-        const movieName = movieData.title;
+        const movieName = movie.title;
 
         // Recupera la data di uscita del film (si assume che la data sia memorizzata nel campo 'date')
-        const releaseDate = movieData.date;
+        const releaseDate = movie.date;
 
         // Effettua una richiesta GET per ottenere le recensioni da un altro server
         const reviewsResponse = await AXIOS.get(`http://localhost:3001/reviews/${encodeURIComponent(movieName)}/${encodeURIComponent(releaseDate)}`);
 
-        // Struttura l'oggetto con tutti i dati raccolti
+        // Struttura l'oggetto con tutti i dati raccolti; le liste sono unite con ', ' come si aspetta la vista
         const data = {
-            movie: movieData, // Dati principali del film
-            crew: endpoints[1].data, // Informazioni sul cast e crew
-            countries: endpoints[2].data, // Paesi di produzione
-            languages: endpoints[3].data, // Lingue disponibili
-            genres: endpoints[4].data, // Generi cinematografici
-            studios: endpoints[5].data, // Studi cinematografici
-            themes: endpoints[6].data, // Temi del film
+            movie, // Dati principali del film
+            crew: movie.crew.map(member => `${member.name} (${member.role})`).join(', '), // Informazioni sul cast e crew
+            countries: movie.countries.join(', '), // Paesi di produzione
+            languages: movie.languages.map(language => language.language).join(', '), // Lingue disponibili
+            genres: movie.genres.join(', '), // Generi cinematografici
+            studios: movie.studios.join(', '), // Studi cinematografici
+            themes: movie.themes.join(', '), // Temi del film
             reviews: reviewsResponse.data // Recensioni del film
         };
 
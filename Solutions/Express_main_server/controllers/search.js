@@ -1,5 +1,16 @@
 // Importazione della libreria Axios per effettuare richieste HTTP
 const AXIOS = require('axios');
+const { graphql } = require('../utils/graphqlClient'); // Query all'API GraphQL di Spring
+
+// Partecipazioni degli attori trovati, ciascuna con il proprio film, in un'unica richiesta GraphQL
+const SEARCH_ACTORS_QUERY = `
+    query SearchActors($query: String!) {
+        searchActors(query: $query, size: 100) {
+            name
+            role
+            movie { id title tagline date posterUrl }
+        }
+    }`;
 
 /**
  * Funzione per gestire la ricerca di film o attori nel database.
@@ -33,44 +44,12 @@ async function search(req, res) {
 
         // Controlla se la ricerca riguarda gli attori
         if (type === 'actor') {
-            // Effettua una richiesta GET per cercare gli attori corrispondenti alla query
-            const first_response = await AXIOS.get(`http://localhost:8080/search-actors?query=${encodeURIComponent(query)}`);
-
-            // Verifica se la risposta contiene una lista di attori valida
-            if (Array.isArray(first_response.data.actors)) {
-                actors = first_response.data.actors; // Memorizza gli attori trovati
-
-                // Estrai gli ID degli attori dalla risposta
-                const actorIds = actors.map(actor => actor.id);
-
-                // Per ogni attore trovato, effettua una richiesta per ottenere i film associati
-                const actorDetailsPromises = actorIds.map(async id => {
-                    try {
-                        console.log('Richiesta per film dell\'attore con ID:', id);
-
-                        // Effettua la richiesta per ottenere i film in cui ha recitato l'attore
-                        const res = await AXIOS.get(`http://localhost:8080/movies/get-movie-by-id?movieId=${id}`);
-
-                        return res.data; // Restituisce i dati dei film trovati
-                    } catch (error) {
-                        // Se il server restituisce un errore 404, ignora l'errore e continua
-                        if (error.response && error.response.status === 404) {
-                            return null;
-                        } else {
-                            console.error('Errore inaspettato:', error);
-                            return null;
-                        }
-                    }
-                });
-
-                // Attende il completamento di tutte le richieste per ottenere i film associati agli attori
-                const moviesResults = await Promise.all(actorDetailsPromises);
+            // Cerca gli attori e recupera il film di ogni partecipazione con un'unica richiesta
+            const { searchActors } = await graphql(SEARCH_ACTORS_QUERY, { query });
+            actors = searchActors;
 
-                // Filtra i risultati rimuovendo eventuali valori null (cioè film non trovati)
-                movies = moviesResults.filter(item => item !== null);
-            } else {
-                console.error("La proprietà 'actors' non è un array:", first_response.data.actors);
-            }
+            // Un film per ogni partecipazione, nello stesso ordine degli attori; i film non trovati vengono esclusi
+            movies = actors.map(actor => actor.movie).filter(movie => movie !== null);
 
             // Stampa a console l'elenco degli attori trovati per debugging
             console.log(actors);
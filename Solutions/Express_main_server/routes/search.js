@@ -44,8 +44,6 @@ const searchController = require('../controllers/search');
  *                       type: integer
  *                     tagline:
  *                       type: string
- *                     description:
- *                       type: string
  *                     posterUrl:
  *                       type: string
  *                     rating:
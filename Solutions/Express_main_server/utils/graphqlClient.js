@@ -0,0 +1,24 @@
+const axios = require('axios'); // Importa la libreria Axios per effettuare richieste HTTP
+
+// Endpoint GraphQL del server Java Spring
+const GRAPHQL_URL = 'http://localhost:8080/graphql';
+
+/**
+ * Esegue una query sull'API GraphQL di Spring: una pagina viene composta con una sola richiesta
+ * invece di una chiamata REST per ogni parte.
+ *
+ * @param {string} query - Il documento GraphQL
+ * @param {Object} [variables] - Le variabili della query
+ * @returns {Promise<Object>} Il campo data della risposta
+ * @throws {Error} Se il server restituisce errori (ad esempio query troppo complessa)
+ */
+async function graphql(query, variables = {}) {
+    const response = await axios.post(GRAPHQL_URL, { query, variables });
+
+    if (response.data.errors?.length) {
+        throw new Error('Errore GraphQL: ' + response.data.errors.map(error => error.message).join('; '));
+    }
+    return response.data.data;
+}
+
+module.exports = { graphql };
@@ -0,0 +1,30 @@
+const axios = require('axios'); // Importa la libreria Axios per effettuare richieste HTTP
+
+// Ultima risposta ricevuta per ogni URL, con il relativo ETag
+const SNAPSHOTS = new Map();
+
+/**
+ * Recupera i dati di un endpoint Spring che restituisce uno snapshot con ETag.
+ * La richiesta include l'ETag dell'ultima risposta ricevuta: se i dati non sono cambiati
+ * il server risponde 304 Not Modified senza corpo e vengono riusati i dati già in memoria.
+ *
+ * @param {string} url - L'URL dell'endpoint
+ * @returns {Promise<*>} I dati della risposta
+ */
+async function getSnapshot(url) {
+    const cached = SNAPSHOTS.get(url);
+    const response = await axios.get(url, {
+        headers: cached ? { 'If-None-Match': cached.etag } : {},
+        validateStatus: status => status === 200 || (status === 304 && cached !== undefined)
+    });
+
+    if (response.status === 304) {
+        return cached.data;
+    }
+    if (response.headers.etag) {
+        SNAPSHOTS.set(url, { etag: response.headers.etag, data: response.data });
+    }
+    return response.data;
+}
+
+module.exports = { getSnapshot };
@@ -0,0 +1,82 @@
+package com.andrianigiordano.springboot;
+
+import java.util.Random;
+
+/**
+ * Dati sintetici e deterministici per i microbenchmark: titoli e nomi composti da parole comuni,
+ * così che le ricerche per sottostringa e per prefisso trovino molte corrispondenze come sul catalogo reale.
+ */
+public final class BenchmarkData {
+
+    private static final String[] TITLE_WORDS = {
+            "The", "Dark", "Night", "Love", "Last", "First", "Blade", "Runner", "Dream", "City", "Star", "War",
+            "House", "Shadow", "Return", "Secret", "Lost", "World", "Fire", "Ice", "Heart", "King", "Queen",
+            "River", "Road", "Summer", "Winter", "Ghost", "Island", "Moon", "Sun", "Time", "Game", "Song",
+            "Silent", "Wild", "Little", "Big", "Red", "Blue", "Black", "White", "Golden", "Broken", "Hidden"
+    };
+
+    private static final String[] FIRST_NAMES = {
+            "Anna", "Marco", "Giulia", "Luca", "Sofia", "Paolo", "Elena", "Davide", "Sara", "Matteo", "Kenji",
+            "Yuki", "Maria", "John", "Emma", "James", "Olivia", "Pierre", "Claire", "Hans", "Ryan", "Emily"
+    };
+
+    private static final String[] LAST_NAMES = {
+            "Rossi", "Bianchi", "Ferrari", "Russo", "Romano", "Smith", "Johnson", "Brown", "Taylor", "Martin",
+            "Tanaka", "Suzuki", "Dubois", "Moreau", "Schmidt", "Weber", "Garcia", "Lopez", "Wang", "Costa"
+    };
+
+    private BenchmarkData() {
+    }
+
+    /**
+     * Genera titoli di film da due a quattro parole.
+     *
+     * @param count il numero di titoli
+     * @param seed  il seme del generatore
+     * @return i titoli generati
+     */
+    public static String[] titles(int count, long seed) {
+        Random random = new Random(seed);
+        String[] titles = new String[count];
+        for (int i = 0; i < count; i++) {
+            StringBuilder title = new StringBuilder(TITLE_WORDS[random.nextInt(TITLE_WORDS.length)]);
+            int words = 1 + random.nextInt(3);
+            for (int w = 0; w < words; w++) {
+                title.append(' ').append(TITLE_WORDS[random.nextInt(TITLE_WORDS.length)]);
+            }
+            titles[i] = title.toString();
+        }
+        return titles;
+    }
+
+    /**
+     * Genera nomi di persone (nome e cognome), con ripetizioni.
+     *
+     * @param count il numero di nomi
+     * @param seed  il seme del generatore
+     * @return i nomi generati
+     */
+    public static String[] names(int count, long seed) {
+        Random random = new Random(seed);
+        String[] names = new String[count];
+        for (int i = 0; i < count; i++) {
+            names[i] = FIRST_NAMES[random.nextInt(FIRST_NAMES.length)] + " " + LAST_NAMES[random.nextInt(LAST_NAMES.length)]
+                    + (random.nextInt(4) == 0 ? " Jr." : "");
+        }
+        return names;
+    }
+
+    /**
+     * Genera una descrizione di lunghezza simile a quelle del catalogo (circa 300 caratteri).
+     *
+     * @param random il generatore da usare
+     * @return la descrizione generata
+     */
+    public static String description(Random random) {
+        StringBuilder description = new StringBuilder(320);
+        while (description.length() < 300) {
+            description.append(TITLE_WORDS[random.nextInt(TITLE_WORDS.length)].toLowerCase()).append(' ');
+        }
+        return description.toString().trim() + ".";
+    }
+}
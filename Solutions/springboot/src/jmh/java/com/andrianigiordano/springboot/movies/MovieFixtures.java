@@ -0,0 +1,45 @@
+package com.andrianigiordano.springboot.movies;
+
+import com.andrianigiordano.springboot.BenchmarkData;
+import com.andrianigiordano.springboot.posters.Posters;
+import org.springframework.util.ReflectionUtils;
+
+import java.lang.reflect.Field;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Film sintetici con poster, costruiti come li restituirebbe Hibernate (ID e poster valorizzati),
+ * per misurare mappatura e serializzazione senza database.
+ */
+final class MovieFixtures {
+
+    private static final Field ID = field("id");
+
+    private static final Field POSTER = field("poster");
+
+    private MovieFixtures() {
+    }
+
+    static List<Movies> movies(int count, long seed) {
+        Random random = new Random(seed);
+        String[] titles = BenchmarkData.titles(count, seed);
+        List<Movies> movies = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            Double rating = random.nextInt(10) == 0 ? null : Math.round(random.nextDouble() * 40 + 10) / 10.0;
+            Movies movie = new Movies(titles[i], 1920 + random.nextInt(105), "Tagline of " + titles[i],
+                    BenchmarkData.description(random), 80 + random.nextInt(100), rating);
+            ReflectionUtils.setField(ID, movie, 1_000_001L + i);
+            ReflectionUtils.setField(POSTER, movie, new Posters("https://a.ltrbxd.com/resized/film-poster/" + i + ".jpg"));
+            movies.add(movie);
+        }
+        return movies;
+    }
+
+    private static Field field(String name) {
+        Field field = ReflectionUtils.findField(Movies.class, name);
+        ReflectionUtils.makeAccessible(field);
+        return field;
+    }
+}
@@ -0,0 +1,34 @@
+package com.andrianigiordano.springboot.movies;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+/**
+ * Costo della conversione delle entità Movies in MovieDTO fatta da MoviesService
+ * per ogni lista restituita dagli endpoint (home, Oscar, pagine di /movies/get-all).
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class MovieMappingBenchmark {
+
+    @Param({"100", "10000"})
+    public int size;
+
+    private List<Movies> movies;
+
+    @Setup
+    public void setUp() {
+        movies = MovieFixtures.movies(size, 42);
+    }
+
+    @Benchmark
+    public List<MovieDTO> toDtoList() {
+        return movies.stream()
+                .map(MoviesService::toDto)
+                .collect(Collectors.toList());
+    }
+}
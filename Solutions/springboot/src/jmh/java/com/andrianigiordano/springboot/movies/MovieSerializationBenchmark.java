@@ -0,0 +1,58 @@
+package com.andrianigiordano.springboot.movies;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Costo della serializzazione JSON delle risposte: liste di card (home, pagine del catalogo),
+ * le stesse liste come MovieDTO completi, con la descrizione, e liste di entità Movies
+ * come quelle restituite da /search-movies.
+ * L'ObjectMapper è configurato come quello di Spring Boot.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class MovieSerializationBenchmark {
+
+    @Param({"20", "100", "1000"})
+    public int size;
+
+    private ObjectMapper objectMapper;
+
+    private List<Movies> movies;
+
+    private List<MovieDTO> dtos;
+
+    private List<MovieCardDTO> cards;
+
+    @Setup
+    public void setUp() {
+        objectMapper = Jackson2ObjectMapperBuilder.json().build();
+        movies = MovieFixtures.movies(size, 7);
+        dtos = movies.stream().map(MoviesService::toDto).toList();
+        cards = dtos.stream()
+                .map(movie -> new MovieCardDTO(movie.getId(), movie.getTitle(), movie.getDate(), movie.getTagline(),
+                        movie.getPosterUrl(), movie.getRating(), movie.getMinute()))
+                .toList();
+    }
+
+    @Benchmark
+    public byte[] movieCards() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(cards);
+    }
+
+    @Benchmark
+    public byte[] movieDtos() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(dtos);
+    }
+
+    @Benchmark
+    public byte[] movieEntities() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(movies);
+    }
+}
@@ -0,0 +1,105 @@
+package com.andrianigiordano.springboot.movies;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Confronto tra i formati delle risposte con liste di card (/movies/get-all, /movies/actors-home,
+ * /movies/top100): JSON, CBOR e Smile, senza compressione e con gzip come li invia il server.
+ * <p>
+ * Per ogni formato misura la scrittura lato server e la lettura lato client, in un albero generico
+ * come fa JSON.parse nei server Express; il contatore {@code wireBytes} riporta i byte inviati.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class PayloadFormatBenchmark {
+
+    @Param({"100", "1000"})
+    public int size;
+
+    @Param({"json", "cbor", "smile"})
+    public String format;
+
+    private ObjectMapper objectMapper;
+
+    private List<MovieCardDTO> cards;
+
+    private byte[] payload;
+
+    private byte[] compressedPayload;
+
+    /**
+     * Byte della risposta inviata, riportati da JMH insieme ai tempi.
+     */
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.EVENTS)
+    public static class WireSize {
+        public long wireBytes;
+    }
+
+    @Setup
+    public void setUp() throws IOException {
+        JsonFactory factory = switch (format) {
+            case "cbor" -> new CBORFactory();
+            case "smile" -> new SmileFactory();
+            default -> new JsonFactory();
+        };
+        objectMapper = Jackson2ObjectMapperBuilder.json().factory(factory).build();
+        cards = MovieFixtures.movies(size, 7).stream()
+                .map(MoviesService::toDto)
+                .map(movie -> new MovieCardDTO(movie.getId(), movie.getTitle(), movie.getDate(), movie.getTagline(),
+                        movie.getPosterUrl(), movie.getRating(), movie.getMinute()))
+                .toList();
+        payload = objectMapper.writeValueAsBytes(cards);
+        compressedPayload = gzip(payload);
+    }
+
+    @Benchmark
+    public byte[] serialize(WireSize wire) throws IOException {
+        byte[] body = objectMapper.writeValueAsBytes(cards);
+        wire.wireBytes = body.length;
+        return body;
+    }
+
+    @Benchmark
+    public byte[] serializeGzip(WireSize wire) throws IOException {
+        byte[] body = gzip(objectMapper.writeValueAsBytes(cards));
+        wire.wireBytes = body.length;
+        return body;
+    }
+
+    @Benchmark
+    public JsonNode deserialize() throws IOException {
+        return objectMapper.readTree(payload);
+    }
+
+    @Benchmark
+    public JsonNode deserializeGzip() throws IOException {
+        try (InputStream in = new GZIPInputStream(new ByteArrayInputStream(compressedPayload))) {
+            return objectMapper.readTree(in);
+        }
+    }
+
+    private static byte[] gzip(byte[] body) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(body.length / 4);
+        try (GZIPOutputStream gzip = new GZIPOutputStream(out)) {
+            gzip.write(body);
+        }
+        return out.toByteArray();
+    }
+}
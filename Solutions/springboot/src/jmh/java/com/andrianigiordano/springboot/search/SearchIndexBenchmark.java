@@ -0,0 +1,61 @@
+package com.andrianigiordano.springboot.search;
+
+import com.andrianigiordano.springboot.BenchmarkData;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Ricerca per sottostringa (TrigramIndex) e autocompletamento per prefisso (SuggestIndex)
+ * su un catalogo sintetico, con query corte (molte corrispondenze) e lunghe (poche).
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class SearchIndexBenchmark {
+
+    private static final String[] QUERIES = {"the", "dark", "night", "blade run", "summer moon", "ghost king", "xyz"};
+
+    private static final String[] PREFIXES = {"t", "th", "the", "d", "da", "dark n", "blade r", "s", "su", "summer"};
+
+    @Param({"100000"})
+    public int size;
+
+    private String[] titles;
+
+    private TrigramIndex trigramIndex;
+
+    private SuggestIndex suggestIndex;
+
+    private int next;
+
+    @Setup
+    public void setUp() {
+        titles = BenchmarkData.titles(size, 3);
+        float[] scores = new float[size];
+        Random random = new Random(3);
+        for (int i = 0; i < size; i++) {
+            scores[i] = random.nextFloat() * 5;
+        }
+        trigramIndex = TrigramIndex.build(titles);
+        suggestIndex = SuggestIndex.build(titles, scores);
+    }
+
+    @Benchmark
+    public int[] trigramSearch() {
+        return trigramIndex.search(QUERIES[next++ % QUERIES.length], 100);
+    }
+
+    @Benchmark
+    public int[] suggest() {
+        return suggestIndex.suggest(PREFIXES[next++ % PREFIXES.length], 10);
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.SingleShotTime)
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    public TrigramIndex buildTrigramIndex() {
+        return TrigramIndex.build(titles);
+    }
+}
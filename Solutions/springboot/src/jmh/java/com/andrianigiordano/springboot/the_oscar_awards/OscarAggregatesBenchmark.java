@@ -0,0 +1,65 @@
+package com.andrianigiordano.springboot.the_oscar_awards;
+
+import com.andrianigiordano.springboot.BenchmarkData;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Interrogazioni sugli aggregati degli Oscar su uno storico sintetico di circa un secolo
+ * di cerimonie: totali per categoria su un intervallo di anni e pagine dell'elenco delle candidature.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class OscarAggregatesBenchmark {
+
+    private static final String[] CATEGORIES = {
+            "BEST PICTURE", "ACTOR IN A LEADING ROLE", "ACTRESS IN A LEADING ROLE", "DIRECTING", "FILM EDITING",
+            "CINEMATOGRAPHY", "WRITING (Original Screenplay)", "WRITING (Adapted Screenplay)", "MUSIC (Original Score)",
+            "ANIMATED FEATURE FILM", "DOCUMENTARY FEATURE FILM", "COSTUME DESIGN", "PRODUCTION DESIGN", "SOUND"
+    };
+
+    private OscarAggregates aggregates;
+
+    private List<TheOscarAwards> nominations;
+
+    @Setup
+    public void setUp() {
+        Random random = new Random(5);
+        String[] titles = BenchmarkData.titles(5_000, 5);
+        String[] names = BenchmarkData.names(4_000, 5);
+        nominations = new ArrayList<>();
+        for (int year = 1929; year <= 2025; year++) {
+            for (String category : CATEGORIES) {
+                for (int n = 0; n < 5 + random.nextInt(6); n++) {
+                    nominations.add(new TheOscarAwards(year - 1, year, year - 1928, category,
+                            names[random.nextInt(names.length)], titles[random.nextInt(titles.length)], n == 0));
+                }
+            }
+        }
+        aggregates = new OscarAggregates(nominations.stream());
+    }
+
+    @Benchmark
+    public List<OscarTallyDTO> categoriesInRange() {
+        return aggregates.categories(1960, 1999);
+    }
+
+    @Benchmark
+    public List<TheOscarAwards> winnersPage() {
+        OscarAggregates.AwardList awards = aggregates.awards("BEST PICTURE", true);
+        int from = awards.lowerBound(1970);
+        return awards.slice(from, Math.min(from + 50, awards.lowerBound(2001)));
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.SingleShotTime)
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    public OscarAggregates build() {
+        return new OscarAggregates(nominations.stream());
+    }
+}
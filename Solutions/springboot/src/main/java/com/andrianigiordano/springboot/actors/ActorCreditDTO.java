@@ -0,0 +1,33 @@
+package com.andrianigiordano.springboot.actors;
+
+/**
+ * Partecipazione di un attore a un film, come riga di actors_data:
+ * {@code id} è l'ID del film, come nell'entità {@link Actors}.
+ */
+public class ActorCreditDTO {
+
+    private final Long id;
+
+    private final String name;
+
+    private final String role;
+
+    public ActorCreditDTO(Long id, String name, String role) {
+        this.id = id;
+        this.name = name;
+        this.role = role;
+    }
+
+    // Getter
+    public Long getId() {
+        return id;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public String getRole() {
+        return role;
+    }
+}
@@ -1,9 +1,17 @@
 package com.andrianigiordano.springboot.actors;
 
+import com.andrianigiordano.springboot.metrics.QueryBudget;
+import com.andrianigiordano.springboot.snapshot.SnapshotService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.media.ArraySchema;
+import io.swagger.v3.oas.annotations.media.Content;
+import io.swagger.v3.oas.annotations.media.Schema;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
 import java.util.List;
@@ -17,21 +25,27 @@ import java.util.List;
 public class ActorsController {
 
     private final ActorsService actorsService;
+    private final SnapshotService snapshotService;
 
     @Autowired
-    public ActorsController(ActorsService actorsService) {
+    public ActorsController(ActorsService actorsService, SnapshotService snapshotService) {
         this.actorsService = actorsService;
+        this.snapshotService = snapshotService;
     }
 
     /**
      * Endpoint per ottenere la lista completa di tutti gli attori disponibili.
+     * La risposta è precalcolata e servita con un ETag: se il client invia in If-None-Match
+     * la versione corrente, la risposta è 304 Not Modified senza corpo.
      *
-     * @return una lista di oggetti Actors contenente tutti gli attori presenti nel database
+     * @return il JSON della lista degli attori
      */
     @Operation(summary = "Ottieni tutti gli attori", description = "Restituisce una lista di tutti gli attori nel database")
+    @ApiResponse(responseCode = "200", content = @Content(mediaType = "application/json",
+            array = @ArraySchema(schema = @Schema(implementation = Actors.class))))
     @GetMapping("/get-all")
-    public List<Actors> getAllActors() {
-        return actorsService.getAllActors();
+    public ResponseEntity<byte[]> getAllActors(@Parameter(hidden = true) @RequestHeader(value = HttpHeaders.ACCEPT, required = false) String accept) {
+        return snapshotService.respond(SnapshotService.HOME_ACTORS, accept);
     }
 
     /**
@@ -41,6 +55,7 @@ public class ActorsController {
      * @return una lista di oggetti Actors che corrispondono al nome fornito
      */
     @Operation(summary = "Cerca attore per nome", description = "Restituisce gli attori che corrispondono al nome specificato")
+    @QueryBudget(1)
     @GetMapping("/get-actor-by-name")
     public List<Actors> getMovieDetails(
             @Parameter(description = "Nome dell'attore da cercare") @RequestParam String name) {
@@ -1,12 +1,17 @@
 package com.andrianigiordano.springboot.actors;
 
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
+import java.util.stream.Stream;
 
 /**
  * Repository per la gestione degli attori (Actors).
@@ -15,14 +20,32 @@ import java.util.List;
 public interface ActorsRepository extends JpaRepository<Actors, Long> {
 
     /**
-     * Cerca attori il cui nome contiene la stringa fornita, ignorando maiuscole e minuscole.
+     * Cerca le partecipazioni degli attori il cui nome contiene la stringa fornita, ignorando maiuscole
+     * e minuscole, nello stesso ordine di rilevanza dell'indice in memoria (nome identico, che inizia
+     * con la stringa, con la stringa dopo uno spazio, in mezzo a una parola; poi i nomi più corti).
+     * Usata per la ricerca finché l'indice in memoria non è pronto.
      *
      * @param name il nome (o parte di esso) dell'attore da cercare
-     * @param pageable parametro per gestire la paginazione dei risultati
-     * @return una lista di attori che corrispondono al criterio di ricerca
+     * @param pageable la pagina di risultati richiesta
+     * @return le partecipazioni della pagina, in ordine di rilevanza
      */
-    @Query("SELECT DISTINCT a FROM Actors a WHERE LOWER(a.name) LIKE LOWER(CONCAT('%', :name, '%'))")
-    List<Actors> findByNameContainingIgnoreCase(@Param("name") String name, Pageable pageable);
+    @Query("SELECT new com.andrianigiordano.springboot.actors.ActorCreditDTO(a.id, a.name, a.role) FROM Actors a " +
+            "WHERE LOWER(a.name) LIKE LOWER(CONCAT('%', :name, '%')) ORDER BY " +
+            "CASE WHEN LOWER(a.name) = LOWER(:name) THEN 0 " +
+            "WHEN LOWER(a.name) LIKE LOWER(CONCAT(:name, '%')) THEN 1 " +
+            "WHEN LOWER(a.name) LIKE LOWER(CONCAT('% ', :name, '%')) THEN 2 ELSE 3 END, LENGTH(a.name), a.name, a.id")
+    List<ActorCreditDTO> searchCreditsByName(@Param("name") String name, Pageable pageable);
+
+    /**
+     * Recupera gli ID dei film delle partecipazioni degli attori il cui nome contiene la stringa fornita.
+     * Con un Pageable limitato serve a contare le corrispondenze fino a una soglia.
+     *
+     * @param name il nome (o parte di esso) dell'attore da cercare
+     * @param pageable parametro per limitare il numero di risultati
+     * @return gli ID dei film delle partecipazioni trovate
+     */
+    @Query("SELECT a.id FROM Actors a WHERE LOWER(a.name) LIKE LOWER(CONCAT('%', :name, '%'))")
+    List<Long> findMovieIdsByName(@Param("name") String name, Pageable pageable);
 
     /**
      * Recupera un elenco predefinito di attori famosi da mostrare nella homepage.
@@ -41,4 +64,39 @@ public interface ActorsRepository extends JpaRepository<Actors, Long> {
      */
     @Query("SELECT a FROM Actors a WHERE a.name = :name")
     List<Actors> findActorByName(@Param("name") String name);
+
+    /**
+     * Scorre nome e ID del film di tutte le partecipazioni degli attori, ordinate per nome,
+     * usato per costruire l'indice di ricerca in memoria.
+     * Deve essere chiamato all'interno di una transazione; lo stream va chiuso dopo l'uso.
+     *
+     * @return uno stream di coppie [nome, id del film]
+     */
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "10000"))
+    @Query("SELECT a.name, a.id FROM Actors a WHERE a.name IS NOT NULL ORDER BY a.name, a.id")
+    Stream<Object[]> streamNamesAndMovieIds();
+
+    /**
+     * Recupera le partecipazioni degli attori indicati nei film indicati.
+     * Le righe sono costruite come DTO e non come entità, così che attori diversi dello stesso
+     * film (che condividono l'ID) non vengano fusi in un'unica entità.
+     *
+     * @param movieIds gli ID dei film
+     * @param names i nomi esatti degli attori
+     * @return le partecipazioni trovate
+     */
+    @Query("SELECT new com.andrianigiordano.springboot.actors.ActorCreditDTO(a.id, a.name, a.role) FROM Actors a " +
+            "WHERE a.id IN :movieIds AND a.name IN :names")
+    List<ActorCreditDTO> findCredits(@Param("movieIds") Collection<Long> movieIds, @Param("names") Collection<String> names);
+
+    /**
+     * Recupera le partecipazioni degli attori ai film indicati, come DTO per lo stesso motivo di
+     * {@link #findCredits(Collection, Collection)}.
+     *
+     * @param movieIds gli ID dei film
+     * @return le partecipazioni trovate, ordinate per film
+     */
+    @Query("SELECT new com.andrianigiordano.springboot.actors.ActorCreditDTO(a.id, a.name, a.role) FROM Actors a " +
+            "WHERE a.id IN :movieIds ORDER BY a.id")
+    List<ActorCreditDTO> findCreditsByMovieIds(@Param("movieIds") Collection<Long> movieIds);
 }
@@ -1,6 +1,7 @@
 package com.andrianigiordano.springboot.actors;
 
-import org.springframework.data.domain.PageRequest;
+import com.andrianigiordano.springboot.search.SearchHits;
+import com.andrianigiordano.springboot.search.SearchIndexService;
 import org.springframework.stereotype.Service;
 
 import java.util.List;
@@ -14,15 +15,18 @@ import java.util.List;
 public class ActorsService {
 
     private final ActorsRepository actorsRepository;
+    private final SearchIndexService searchIndexService;
 
     /**
      * Costruttore del servizio con iniezione delle dipendenze.
-     * L'istanza di ActorsRepository viene iniettata automaticamente da Spring.
+     * Le istanze di ActorsRepository e SearchIndexService vengono iniettate automaticamente da Spring.
      *
      * @param actorsRepository il repository per l'accesso ai dati sugli attori
+     * @param searchIndexService l'indice di ricerca in memoria
      */
-    public ActorsService(ActorsRepository actorsRepository) {
+    public ActorsService(ActorsRepository actorsRepository, SearchIndexService searchIndexService) {
         this.actorsRepository = actorsRepository;
+        this.searchIndexService = searchIndexService;
     }
 
     /**
@@ -35,15 +39,17 @@ public class ActorsService {
     }
 
     /**
-     * Cerca attori il cui nome contiene la stringa fornita, ignorando maiuscole e minuscole.
-     * Per limitare il numero di risultati, viene applicato un sistema di paginazione.
+     * Cerca le partecipazioni degli attori il cui nome contiene la stringa fornita, ignorando
+     * maiuscole e minuscole, una pagina alla volta. La ricerca usa l'indice a trigrammi in memoria
+     * e ordina i risultati per rilevanza del nome.
      *
      * @param query la stringa da cercare nel nome degli attori
-     * @return una lista di attori che corrispondono al criterio di ricerca
+     * @param page il numero della pagina, a partire da 0
+     * @param size il numero di partecipazioni per pagina
+     * @return le partecipazioni della pagina e il numero totale di partecipazioni trovate
      */
-    public List<Actors> searchActorsByName(String query) {
-        PageRequest pageable = PageRequest.of(0, 100); // Offset 0, massimo 100 risultati
-        return actorsRepository.findByNameContainingIgnoreCase(query, pageable);
+    public SearchHits<ActorCreditDTO> searchActorsByName(String query, int page, int size) {
+        return searchIndexService.searchActors(query, page, size);
     }
 
     /**
@@ -0,0 +1,77 @@
+package com.andrianigiordano.springboot.browse;
+
+import com.andrianigiordano.springboot.metrics.QueryBudget;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.tags.Tag;
+
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Controller per la navigazione del catalogo a faccette.
+ */
+@RestController
+@RequestMapping("/browse")
+@Tag(name = "Browse", description = "Navigazione del catalogo con filtri combinati e conteggi per faccetta")
+public class BrowseController {
+
+    private final BrowseService browseService;
+
+    public BrowseController(BrowseService browseService) {
+        this.browseService = browseService;
+    }
+
+    /**
+     * Filtra il catalogo combinando le faccette: all'interno di una faccetta basta uno dei valori
+     * indicati, tra faccette diverse devono valere tutti i filtri.
+     *
+     * @return la pagina di film, il totale e i conteggi delle faccette
+     */
+    @Operation(summary = "Filtra il catalogo per faccette",
+            description = "Combina filtri su genere, paese, lingua, studio, tema, decennio, durata e rating " +
+                    "(es. genre=Animation&language=Japanese&decade=1990&minRating=4). Per ogni faccetta " +
+                    "restituisce i valori più frequenti tra i film che rispettano gli altri filtri")
+    @QueryBudget(1)
+    @GetMapping
+    public BrowseResultDTO browse(
+            @Parameter(description = "Generi (parametro ripetibile)") @RequestParam(required = false) List<String> genre,
+            @Parameter(description = "Paesi di produzione (parametro ripetibile)") @RequestParam(required = false) List<String> country,
+            @Parameter(description = "Lingue (parametro ripetibile)") @RequestParam(required = false) List<String> language,
+            @Parameter(description = "Studi di produzione (parametro ripetibile)") @RequestParam(required = false) List<String> studio,
+            @Parameter(description = "Temi (parametro ripetibile)") @RequestParam(required = false) List<String> theme,
+            @Parameter(description = "Decenni, es. 1990 (parametro ripetibile)") @RequestParam(required = false) List<Integer> decade,
+            @Parameter(description = "Durata minima in minuti (inclusa)") @RequestParam(required = false) Integer minRuntime,
+            @Parameter(description = "Durata massima in minuti (inclusa)") @RequestParam(required = false) Integer maxRuntime,
+            @Parameter(description = "Rating minimo (incluso)") @RequestParam(required = false) Double minRating,
+            @Parameter(description = "Rating massimo (incluso)") @RequestParam(required = false) Double maxRating,
+            @Parameter(description = "Ordinamento: rating (decrescente), date (decrescente) o id") @RequestParam(defaultValue = "rating") String sort,
+            @Parameter(description = "Numero della pagina, a partire da 0") @RequestParam(defaultValue = "0") int page,
+            @Parameter(description = "Numero di film per pagina") @RequestParam(required = false) Integer size,
+            @Parameter(description = "Numero massimo di valori per faccetta (0 per non calcolarle)") @RequestParam(defaultValue = "10") int facets) {
+        BrowseFilter filter = new BrowseFilter()
+                .with(FacetIndex.GENRE, genre)
+                .with(FacetIndex.COUNTRY, country)
+                .with(FacetIndex.LANGUAGE, language)
+                .with(FacetIndex.STUDIO, studio)
+                .with(FacetIndex.THEME, theme)
+                .with(FacetIndex.DECADE, decade)
+                .runtime(minRuntime, maxRuntime)
+                .rating(minRating, maxRating);
+        return browseService.browse(filter, sort, page, size, facets);
+    }
+
+    /**
+     * Ricostruisce l'indice delle faccette dal database.
+     * Le richieste continuano a essere servite dal vecchio indice fino alla sostituzione.
+     *
+     * @return statistiche sull'indice costruito
+     */
+    @Operation(summary = "Ricostruisci l'indice delle faccette", description = "Ricarica dal database film e valori delle faccette")
+    @PostMapping("/refresh")
+    public Map<String, Object> refresh() {
+        return browseService.refresh();
+    }
+}
@@ -0,0 +1,64 @@
+package com.andrianigiordano.springboot.browse;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Filtri della navigazione a faccette: per ogni faccetta discreta i valori ammessi
+ * (basta uno), più gli intervalli di durata e di rating (estremi inclusi, null se liberi).
+ */
+final class BrowseFilter {
+
+    private final Map<String, List<String>> values = new HashMap<>();
+    private Integer minRuntime;
+    private Integer maxRuntime;
+    private Double minRating;
+    private Double maxRating;
+
+    /**
+     * Imposta i valori ammessi per una faccetta.
+     *
+     * @param dimension la faccetta (vedi {@link FacetIndex#DIMENSIONS})
+     * @param selected  i valori ammessi, null o vuoto per nessun filtro
+     * @return questo filtro
+     */
+    BrowseFilter with(String dimension, List<?> selected) {
+        if (selected != null && !selected.isEmpty()) {
+            values.put(dimension, selected.stream().map(String::valueOf).toList());
+        }
+        return this;
+    }
+
+    BrowseFilter runtime(Integer min, Integer max) {
+        this.minRuntime = min;
+        this.maxRuntime = max;
+        return this;
+    }
+
+    BrowseFilter rating(Double min, Double max) {
+        this.minRating = min;
+        this.maxRating = max;
+        return this;
+    }
+
+    List<String> values(String dimension) {
+        return values.getOrDefault(dimension, List.of());
+    }
+
+    Integer getMinRuntime() {
+        return minRuntime;
+    }
+
+    Integer getMaxRuntime() {
+        return maxRuntime;
+    }
+
+    Double getMinRating() {
+        return minRating;
+    }
+
+    Double getMaxRating() {
+        return maxRating;
+    }
+}
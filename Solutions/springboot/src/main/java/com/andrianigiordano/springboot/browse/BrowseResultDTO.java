@@ -0,0 +1,59 @@
+package com.andrianigiordano.springboot.browse;
+
+import com.andrianigiordano.springboot.movies.MovieCardDTO;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Risposta della navigazione a faccette: una pagina di film che rispettano tutti i filtri,
+ * il loro numero totale e, per ogni faccetta, i valori più frequenti con i conteggi.
+ */
+public class BrowseResultDTO {
+
+    private final int page;
+
+    private final int size;
+
+    private final long total;
+
+    private final boolean hasMore;
+
+    private final List<MovieCardDTO> movies;
+
+    private final Map<String, List<FacetCountDTO>> facets;
+
+    public BrowseResultDTO(int page, int size, long total, List<MovieCardDTO> movies, Map<String, List<FacetCountDTO>> facets) {
+        this.page = page;
+        this.size = size;
+        this.total = total;
+        this.hasMore = (long) (page + 1) * size < total;
+        this.movies = movies;
+        this.facets = facets;
+    }
+
+    // Getter
+    public int getPage() {
+        return page;
+    }
+
+    public int getSize() {
+        return size;
+    }
+
+    public long getTotal() {
+        return total;
+    }
+
+    public boolean isHasMore() {
+        return hasMore;
+    }
+
+    public List<MovieCardDTO> getMovies() {
+        return movies;
+    }
+
+    public Map<String, List<FacetCountDTO>> getFacets() {
+        return facets;
+    }
+}
@@ -0,0 +1,147 @@
+package com.andrianigiordano.springboot.browse;
+
+import com.andrianigiordano.springboot.index.RebuildableIndex;
+import com.andrianigiordano.springboot.movies.MovieCardDTO;
+import com.andrianigiordano.springboot.movies.MovieCursor;
+import com.andrianigiordano.springboot.movies.MoviesRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.util.*;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Servizio per la navigazione a faccette del catalogo: filtri combinati su genere, paese, lingua,
+ * studio, tema, decennio, durata e rating, con i conteggi dei valori di ogni faccetta.
+ * <p>
+ * I filtri vengono risolti sul {@link FacetIndex} in memoria, costruito all'avvio con due sole
+ * letture (film e tabelle figlie) e ricostruibile con {@link #refresh()}; il database viene
+ * interrogato solo per le card dei film della pagina.
+ */
+@Service
+public class BrowseService {
+
+    private static final Logger log = LoggerFactory.getLogger(BrowseService.class);
+
+    private final MoviesRepository moviesRepository;
+    private final TransactionTemplate readOnlyTransaction;
+    private final int defaultPageSize;
+    private final int maxPageSize;
+    private final RebuildableIndex<FacetIndex> index;
+
+    public BrowseService(MoviesRepository moviesRepository,
+                         PlatformTransactionManager transactionManager,
+                         @Value("${browse.index.enabled:true}") boolean enabled,
+                         @Value("${browse.page.default-size:50}") int defaultPageSize,
+                         @Value("${browse.page.max-size:200}") int maxPageSize) {
+        this.moviesRepository = moviesRepository;
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+        this.defaultPageSize = defaultPageSize;
+        this.maxPageSize = maxPageSize;
+        this.index = new RebuildableIndex<>("indice delle faccette", enabled, this::load);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void buildOnStartup() {
+        index.buildOnStartup();
+    }
+
+    /**
+     * Ricostruisce l'indice dal database e lo sostituisce a quello corrente.
+     *
+     * @return statistiche sull'indice costruito
+     */
+    public Map<String, Object> refresh() {
+        long start = System.nanoTime();
+        FacetIndex built = index.rebuild();
+        long elapsedMillis = (System.nanoTime() - start) / 1_000_000;
+
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("movies", built.movieCount());
+        for (String dimension : FacetIndex.DIMENSIONS) {
+            stats.put(dimension, built.valueCount(dimension));
+        }
+        stats.put("bitmapBytes", built.bitmapBytes());
+        stats.put("buildMillis", elapsedMillis);
+        return stats;
+    }
+
+    /**
+     * Costruisce un nuovo indice con due letture: i film e i valori delle tabelle figlie.
+     */
+    private FacetIndex load() {
+        long start = System.nanoTime();
+        FacetIndex built = readOnlyTransaction.execute(status -> {
+            FacetIndex.Builder builder = new FacetIndex.Builder();
+            try (Stream<Object[]> rows = moviesRepository.streamFacetMovies()) {
+                rows.forEach(row -> builder.movie((Long) row[0], (Integer) row[1], (Integer) row[2], (Double) row[3]));
+            }
+            try (Stream<Object[]> rows = moviesRepository.streamFacetValues()) {
+                rows.forEach(row -> builder.value((String) row[1], ((Number) row[0]).longValue(), (String) row[2]));
+            }
+            return builder.build();
+        });
+        log.info("Indice delle faccette costruito: {} film, {} KB di bitmap in {} ms",
+                built.movieCount(), built.bitmapBytes() / 1024, (System.nanoTime() - start) / 1_000_000);
+        return built;
+    }
+
+    /**
+     * Restituisce una pagina dei film che rispettano tutti i filtri, con i conteggi delle faccette.
+     *
+     * @param filter     i filtri da applicare
+     * @param sort       l'ordinamento dei risultati (rating, date o id)
+     * @param page       il numero della pagina, a partire da 0
+     * @param size       il numero di film per pagina, null per la dimensione predefinita
+     * @param facetLimit il numero massimo di valori per faccetta (0 per non calcolarle)
+     * @return la pagina di film, il totale e le faccette
+     * @throws ResponseStatusException 400 se pagina, ordinamento o intervalli non sono validi,
+     *                                 503 se l'indice non è ancora pronto
+     */
+    public BrowseResultDTO browse(BrowseFilter filter, String sort, int page, Integer size, int facetLimit) {
+        int pageSize = size != null ? size : defaultPageSize;
+        if (page < 0 || pageSize < 1 || pageSize > maxPageSize) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST,
+                    "Pagina non valida: page deve essere >= 0 e size tra 1 e " + maxPageSize);
+        }
+        checkRange("runtime", filter.getMinRuntime(), filter.getMaxRuntime());
+        checkRange("rating", filter.getMinRating(), filter.getMaxRating());
+        MovieCursor.Sort order = MovieCursor.Sort.parse(sort);
+        long offset = (long) page * pageSize;
+
+        FacetIndex.Result result = index.get().search(filter, order, (int) Math.min(offset, Integer.MAX_VALUE),
+                pageSize, Math.max(0, Math.min(facetLimit, 100)));
+        return new BrowseResultDTO(page, pageSize, result.total, cards(result.movieIds), result.facets);
+    }
+
+    private static <T extends Number & Comparable<T>> void checkRange(String name, T min, T max) {
+        if (min != null && max != null && min.compareTo(max) > 0) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST,
+                    "Intervallo di " + name + " non valido: " + min + " > " + max);
+        }
+    }
+
+    /**
+     * Recupera le card dei film con un'unica query, nell'ordine indicato.
+     */
+    private List<MovieCardDTO> cards(long[] movieIds) {
+        if (movieIds.length == 0) {
+            return List.of();
+        }
+        List<Long> ids = Arrays.stream(movieIds).boxed().toList();
+        Map<Long, MovieCardDTO> byId = moviesRepository.findCardsByIdIn(ids).stream()
+                .collect(Collectors.toMap(MovieCardDTO::getId, Function.identity()));
+        return ids.stream().map(byId::get).filter(Objects::nonNull).toList();
+    }
+}
@@ -0,0 +1,25 @@
+package com.andrianigiordano.springboot.browse;
+
+/**
+ * Valore di una faccetta con il numero di film che lo hanno tra quelli che rispettano gli altri filtri.
+ */
+public class FacetCountDTO {
+
+    private final String value;
+
+    private final int count;
+
+    public FacetCountDTO(String value, int count) {
+        this.value = value;
+        this.count = count;
+    }
+
+    // Getter
+    public String getValue() {
+        return value;
+    }
+
+    public int getCount() {
+        return count;
+    }
+}
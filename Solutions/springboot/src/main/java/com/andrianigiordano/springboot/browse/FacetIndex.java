@@ -0,0 +1,595 @@
+package com.andrianigiordano.springboot.browse;
+
+import com.andrianigiordano.springboot.movies.MovieCursor;
+import org.roaringbitmap.FastAggregation;
+import org.roaringbitmap.IntIterator;
+import org.roaringbitmap.PeekableIntIterator;
+import org.roaringbitmap.RoaringBitmap;
+
+import java.util.*;
+
+/**
+ * Indice immutabile per la navigazione a faccette del catalogo.
+ * <p>
+ * Ogni film è un documento, numerato in ordine di rating decrescente (i film senza rating in coda,
+ * a parità per ID): così l'ordine dei documenti in una bitmap è già l'ordine predefinito dei risultati.
+ * Per ogni valore di una faccetta (genere, paese, lingua, studio, tema, decennio) l'indice conserva
+ * la bitmap compressa (Roaring) dei documenti che lo hanno; durata e rating sono divisi in intervalli
+ * di ampiezza fissa, ognuno con la propria bitmap. Un filtro è l'unione delle bitmap dei valori scelti
+ * in una faccetta e l'intersezione tra faccette diverse.
+ * <p>
+ * I conteggi di una faccetta considerano tutti i filtri tranne quelli della faccetta stessa, così che
+ * gli altri valori restino selezionabili. Per le faccette con molti valori (studi, temi) l'indice
+ * conserva anche i valori di ogni documento: se i documenti da contare sono pochi si scorrono quelli,
+ * invece di intersecare la loro bitmap con quella di ogni valore.
+ */
+final class FacetIndex {
+
+    static final String GENRE = "genre";
+    static final String COUNTRY = "country";
+    static final String LANGUAGE = "language";
+    static final String STUDIO = "studio";
+    static final String THEME = "theme";
+    static final String DECADE = "decade";
+    static final String RUNTIME = "runtime";
+    static final String RATING = "rating";
+
+    /** Faccette a valori discreti, nell'ordine in cui compaiono nella risposta. */
+    static final List<String> DIMENSIONS = List.of(GENRE, COUNTRY, LANGUAGE, STUDIO, THEME, DECADE);
+
+    // Anno o durata mancanti
+    private static final int MISSING = Integer.MIN_VALUE;
+
+    // Ampiezza degli intervalli di durata (minuti) e di rating
+    private static final double RUNTIME_BUCKET = 30;
+    private static final double RATING_BUCKET = 0.5;
+
+    // Oltre questo numero di valori una faccetta conserva anche i valori di ogni documento
+    private static final int FORWARD_INDEX_MIN_VALUES = 64;
+
+    private final long[] movieIds;
+    private final int[] positionOf;
+    private final int[] docAt;
+    private final int[] dates;
+    private final RoaringBitmap all;
+    private final Map<String, Dimension> dimensions = new LinkedHashMap<>();
+    private final RangeIndex runtime;
+    private final RangeIndex rating;
+
+    private FacetIndex(Builder builder) {
+        int size = builder.size;
+        // Ordine dei documenti: rating decrescente, senza rating in coda, a parità per ID (posizione).
+        // I rating non negativi hanno la stessa relazione d'ordine dei bit del float corrispondente
+        long[] keys = new long[size];
+        for (int position = 0; position < size; position++) {
+            double value = builder.ratings[position];
+            long order = Double.isNaN(value) ? Integer.MAX_VALUE
+                    : 0x7f800000L - Float.floatToIntBits((float) Math.max(0, value));
+            keys[position] = (order << 32) | position;
+        }
+        Arrays.sort(keys);
+
+        movieIds = new long[size];
+        positionOf = new int[size];
+        docAt = new int[size];
+        dates = new int[size];
+        double[] minutes = new double[size];
+        double[] ratings = new double[size];
+        for (int doc = 0; doc < size; doc++) {
+            int position = (int) keys[doc];
+            movieIds[doc] = builder.ids[position];
+            positionOf[doc] = position;
+            docAt[position] = doc;
+            dates[doc] = builder.dates[position];
+            minutes[doc] = builder.minutes[position] == MISSING ? Double.NaN : builder.minutes[position];
+            ratings[doc] = builder.ratings[position];
+        }
+        all = new RoaringBitmap();
+        all.add(0L, size);
+
+        for (String name : DIMENSIONS) {
+            if (DECADE.equals(name)) {
+                dimensions.put(name, decades(size));
+                continue;
+            }
+            ValueRows rows = builder.values.getOrDefault(name, new ValueRows());
+            RoaringBitmap[] bitmaps = new RoaringBitmap[rows.labels.size()];
+            for (int v = 0; v < bitmaps.length; v++) {
+                bitmaps[v] = new RoaringBitmap();
+            }
+            for (int i = 0; i < rows.size; i++) {
+                // Le righe delle tabelle figlie senza un film corrispondente vengono ignorate
+                int position = Arrays.binarySearch(builder.ids, 0, size, rows.movieIds[i]);
+                if (position >= 0) {
+                    bitmaps[rows.valueIds[i]].add(docAt[position]);
+                }
+            }
+            dimensions.put(name, new Dimension(rows.labels.toArray(String[]::new), bitmaps, size, false));
+        }
+        runtime = new RangeIndex(minutes, RUNTIME_BUCKET);
+        rating = new RangeIndex(ratings, RATING_BUCKET);
+    }
+
+    private Dimension decades(int size) {
+        TreeMap<Integer, RoaringBitmap> byDecade = new TreeMap<>();
+        for (int doc = 0; doc < size; doc++) {
+            if (dates[doc] != MISSING) {
+                byDecade.computeIfAbsent(Math.floorDiv(dates[doc], 10) * 10, decade -> new RoaringBitmap()).add(doc);
+            }
+        }
+        String[] labels = byDecade.keySet().stream().map(String::valueOf).toArray(String[]::new);
+        return new Dimension(labels, byDecade.values().toArray(RoaringBitmap[]::new), size, true);
+    }
+
+    int movieCount() {
+        return movieIds.length;
+    }
+
+    int valueCount(String dimension) {
+        return dimensions.get(dimension).labels.length;
+    }
+
+    /**
+     * @return la memoria occupata dalle bitmap, in byte
+     */
+    long bitmapBytes() {
+        long bytes = runtime.bytes() + rating.bytes();
+        for (Dimension dimension : dimensions.values()) {
+            for (RoaringBitmap bitmap : dimension.bitmaps) {
+                bytes += bitmap.getSizeInBytes();
+            }
+        }
+        return bytes;
+    }
+
+    /**
+     * Applica i filtri e restituisce una pagina di film con i conteggi delle faccette.
+     *
+     * @param filter     i filtri da applicare
+     * @param sort       l'ordinamento dei risultati (rating, date o id)
+     * @param offset     il numero di film da saltare
+     * @param limit      il numero massimo di film restituiti
+     * @param facetLimit il numero massimo di valori per faccetta (0 per non calcolare le faccette)
+     * @return gli ID dei film della pagina, il totale dei film trovati e le faccette
+     */
+    Result search(BrowseFilter filter, MovieCursor.Sort sort, int offset, int limit, int facetLimit) {
+        Map<String, RoaringBitmap> filters = new LinkedHashMap<>();
+        for (String name : DIMENSIONS) {
+            List<String> values = filter.values(name);
+            if (!values.isEmpty()) {
+                filters.put(name, dimensions.get(name).select(values));
+            }
+        }
+        if (filter.getMinRuntime() != null || filter.getMaxRuntime() != null) {
+            filters.put(RUNTIME, runtime.range(toDouble(filter.getMinRuntime()), toDouble(filter.getMaxRuntime())));
+        }
+        if (filter.getMinRating() != null || filter.getMaxRating() != null) {
+            filters.put(RATING, rating.range(filter.getMinRating(), filter.getMaxRating()));
+        }
+        RoaringBitmap result = intersect(filters, null);
+        if (result == null) {
+            result = all;
+        }
+
+        Map<String, List<FacetCountDTO>> facets = new LinkedHashMap<>();
+        if (facetLimit > 0) {
+            for (String name : DIMENSIONS) {
+                facets.put(name, dimensions.get(name).top(intersect(filters, name), facetLimit));
+            }
+            facets.put(RUNTIME, runtime.counts(intersect(filters, RUNTIME)));
+            facets.put(RATING, rating.counts(intersect(filters, RATING)));
+        }
+        return new Result(page(result, sort, offset, limit), result.getCardinality(), facets);
+    }
+
+    private static Double toDouble(Integer value) {
+        return value != null ? value.doubleValue() : null;
+    }
+
+    /**
+     * Interseca i filtri, escluso quello della faccetta indicata.
+     *
+     * @return l'intersezione, null se non resta nessun filtro
+     */
+    private static RoaringBitmap intersect(Map<String, RoaringBitmap> filters, String excluded) {
+        List<RoaringBitmap> bitmaps = new ArrayList<>(filters.size());
+        filters.forEach((name, bitmap) -> {
+            if (!name.equals(excluded)) {
+                bitmaps.add(bitmap);
+            }
+        });
+        return switch (bitmaps.size()) {
+            case 0 -> null;
+            case 1 -> bitmaps.get(0);
+            default -> FastAggregation.and(bitmaps.toArray(RoaringBitmap[]::new));
+        };
+    }
+
+    /**
+     * Estrae gli ID dei film della pagina. Con l'ordinamento per rating basta scorrere la bitmap
+     * dalla posizione richiesta; con gli altri si selezionano i primi offset + limit documenti.
+     */
+    private long[] page(RoaringBitmap result, MovieCursor.Sort sort, int offset, int limit) {
+        int total = result.getCardinality();
+        if (offset >= total || limit <= 0) {
+            return new long[0];
+        }
+        int count = Math.min(limit, total - offset);
+        long[] page = new long[count];
+        if (sort == MovieCursor.Sort.RATING) {
+            PeekableIntIterator iterator = result.getIntIterator();
+            iterator.advanceIfNeeded(result.select(offset));
+            for (int i = 0; i < count; i++) {
+                page[i] = movieIds[iterator.next()];
+            }
+            return page;
+        }
+        long[] top = smallest(result, sort, offset + count);
+        for (int i = 0; i < count; i++) {
+            page[i] = movieIds[docAt[(int) top[offset + i]]];
+        }
+        return page;
+    }
+
+    /**
+     * Chiave di ordinamento di un documento: valore del criterio nei 32 bit alti e posizione
+     * in ordine di ID in quelli bassi, così che l'ordine naturale dei long sia quello richiesto.
+     */
+    private long sortKey(int doc, MovieCursor.Sort sort) {
+        long order = 0;
+        if (sort == MovieCursor.Sort.DATE) {
+            // Anno decrescente, film senza anno in coda
+            order = dates[doc] == MISSING ? Integer.MAX_VALUE : Integer.MAX_VALUE - 1L - Math.max(0, dates[doc]);
+        }
+        return (order << 32) | positionOf[doc];
+    }
+
+    /**
+     * Seleziona le k chiavi più piccole in ordine crescente con un max-heap limitato.
+     */
+    private long[] smallest(RoaringBitmap docs, MovieCursor.Sort sort, int k) {
+        long[] heap = new long[k];
+        int size = 0;
+        IntIterator iterator = docs.getIntIterator();
+        while (iterator.hasNext()) {
+            long key = sortKey(iterator.next(), sort);
+            if (size < k) {
+                // Risale fino alla posizione corretta
+                int child = size++;
+                while (child > 0 && heap[(child - 1) / 2] < key) {
+                    heap[child] = heap[(child - 1) / 2];
+                    child = (child - 1) / 2;
+                }
+                heap[child] = key;
+            } else if (key < heap[0]) {
+                heap[0] = key;
+                siftDown(heap, k);
+            }
+        }
+        Arrays.sort(heap, 0, size);
+        return heap;
+    }
+
+    private static void siftDown(long[] heap, int size) {
+        int index = 0;
+        while (true) {
+            int largest = index;
+            int left = 2 * index + 1;
+            int right = left + 1;
+            if (left < size && heap[left] > heap[largest]) {
+                largest = left;
+            }
+            if (right < size && heap[right] > heap[largest]) {
+                largest = right;
+            }
+            if (largest == index) {
+                return;
+            }
+            long swap = heap[index];
+            heap[index] = heap[largest];
+            heap[largest] = swap;
+            index = largest;
+        }
+    }
+
+    private static String normalize(String value) {
+        return value.trim().toLowerCase(Locale.ROOT);
+    }
+
+    /**
+     * Risultato di una ricerca: ID dei film della pagina, in ordine, totale e faccette.
+     */
+    static final class Result {
+        final long[] movieIds;
+        final int total;
+        final Map<String, List<FacetCountDTO>> facets;
+
+        private Result(long[] movieIds, int total, Map<String, List<FacetCountDTO>> facets) {
+            this.movieIds = movieIds;
+            this.total = total;
+            this.facets = facets;
+        }
+    }
+
+    /**
+     * Faccetta a valori discreti: una bitmap per valore e, se i valori sono molti,
+     * i valori di ogni documento in array compatti (offset + identificativi dei valori).
+     */
+    private static final class Dimension {
+        private final String[] labels;
+        private final Map<String, Integer> byKey = new HashMap<>();
+        private final RoaringBitmap[] bitmaps;
+        private final int[] cardinalities;
+        private final boolean ordered;
+        private final int[] offsets;
+        private final int[] values;
+
+        private Dimension(String[] labels, RoaringBitmap[] bitmaps, int docs, boolean ordered) {
+            this.labels = labels;
+            this.bitmaps = bitmaps;
+            this.ordered = ordered;
+            cardinalities = new int[labels.length];
+            long assignments = 0;
+            for (int v = 0; v < labels.length; v++) {
+                byKey.putIfAbsent(normalize(labels[v]), v);
+                bitmaps[v].runOptimize();
+                cardinalities[v] = bitmaps[v].getCardinality();
+                assignments += cardinalities[v];
+            }
+            if (labels.length < FORWARD_INDEX_MIN_VALUES) {
+                offsets = null;
+                values = null;
+                return;
+            }
+            offsets = new int[docs + 1];
+            values = new int[(int) assignments];
+            for (RoaringBitmap bitmap : bitmaps) {
+                bitmap.forEach((int doc) -> offsets[doc + 1]++);
+            }
+            for (int doc = 0; doc < docs; doc++) {
+                offsets[doc + 1] += offsets[doc];
+            }
+            int[] fill = Arrays.copyOf(offsets, docs);
+            for (int v = 0; v < bitmaps.length; v++) {
+                int value = v;
+                bitmaps[v].forEach((int doc) -> values[fill[doc]++] = value);
+            }
+        }
+
+        /**
+         * Unione delle bitmap dei valori indicati (senza distinzione tra maiuscole e minuscole);
+         * i valori sconosciuti non corrispondono a nessun film.
+         */
+        private RoaringBitmap select(List<String> selected) {
+            List<RoaringBitmap> matches = new ArrayList<>(selected.size());
+            for (String value : selected) {
+                Integer v = byKey.get(normalize(value));
+                if (v != null) {
+                    matches.add(bitmaps[v]);
+                }
+            }
+            return matches.isEmpty() ? new RoaringBitmap() : FastAggregation.or(matches.iterator());
+        }
+
+        /**
+         * Conta i documenti di base per ogni valore e restituisce i valori con almeno un documento:
+         * tutti nell'ordine dei valori se la faccetta è ordinata (decenni), altrimenti i primi
+         * per numero di documenti e poi per nome.
+         *
+         * @param base  i documenti da contare, null per tutti
+         * @param limit il numero massimo di valori restituiti
+         */
+        private List<FacetCountDTO> top(RoaringBitmap base, int limit) {
+            int[] counts = counts(base);
+            List<FacetCountDTO> facets = new ArrayList<>();
+            if (ordered) {
+                for (int v = 0; v < counts.length; v++) {
+                    if (counts[v] > 0) {
+                        facets.add(new FacetCountDTO(labels[v], counts[v]));
+                    }
+                }
+                return facets;
+            }
+            // Selezione per inserimento dei migliori limit valori, senza ordinare tutti i valori
+            int[] best = new int[limit];
+            int size = 0;
+            for (int v = 0; v < counts.length; v++) {
+                if (counts[v] == 0 || (size == limit && !before(counts, v, best[size - 1]))) {
+                    continue;
+                }
+                int at = size < limit ? size++ : size - 1;
+                while (at > 0 && before(counts, v, best[at - 1])) {
+                    best[at] = best[at - 1];
+                    at--;
+                }
+                best[at] = v;
+            }
+            for (int i = 0; i < size; i++) {
+                facets.add(new FacetCountDTO(labels[best[i]], counts[best[i]]));
+            }
+            return facets;
+        }
+
+        private boolean before(int[] counts, int a, int b) {
+            return counts[a] != counts[b] ? counts[a] > counts[b] : labels[a].compareTo(labels[b]) < 0;
+        }
+
+        private int[] counts(RoaringBitmap base) {
+            if (base == null) {
+                return cardinalities;
+            }
+            int[] counts = new int[labels.length];
+            long assignments = offsets != null ? values.length : Long.MAX_VALUE;
+            // Scorrere i documenti costa circa |base| * (valori medi per documento),
+            // intersecare le bitmap circa una operazione per valore
+            if (offsets != null && (long) base.getCardinality() * assignments / Math.max(1, offsets.length - 1) < labels.length) {
+                base.forEach((int doc) -> {
+                    for (int i = offsets[doc]; i < offsets[doc + 1]; i++) {
+                        counts[values[i]]++;
+                    }
+                });
+                return counts;
+            }
+            for (int v = 0; v < labels.length; v++) {
+                counts[v] = RoaringBitmap.andCardinality(base, bitmaps[v]);
+            }
+            return counts;
+        }
+    }
+
+    /**
+     * Valori numerici (durata o rating) divisi in intervalli di ampiezza fissa a partire da 0,
+     * ognuno con la bitmap dei suoi documenti.
+     */
+    private static final class RangeIndex {
+        private final double[] values;
+        private final double width;
+        private final boolean integral;
+        private final RoaringBitmap[] buckets;
+
+        private RangeIndex(double[] values, double width) {
+            this.values = values;
+            this.width = width;
+            this.integral = width == Math.rint(width);
+            double max = Arrays.stream(values).filter(value -> !Double.isNaN(value)).max().orElse(-1);
+            buckets = new RoaringBitmap[max < 0 ? 0 : bucket(max) + 1];
+            for (int b = 0; b < buckets.length; b++) {
+                buckets[b] = new RoaringBitmap();
+            }
+            for (int doc = 0; doc < values.length; doc++) {
+                if (!Double.isNaN(values[doc])) {
+                    buckets[bucket(values[doc])].add(doc);
+                }
+            }
+            for (RoaringBitmap bitmap : buckets) {
+                bitmap.runOptimize();
+            }
+        }
+
+        private int bucket(double value) {
+            return Math.max(0, (int) Math.floor(value / width));
+        }
+
+        /**
+         * Documenti con valore compreso tra min e max (inclusi): unione degli intervalli interamente
+         * contenuti, più i documenti degli intervalli ai bordi che rientrano nei limiti.
+         */
+        private RoaringBitmap range(Double min, Double max) {
+            double low = min != null ? min : Double.NEGATIVE_INFINITY;
+            double high = max != null ? max : Double.POSITIVE_INFINITY;
+            RoaringBitmap result = new RoaringBitmap();
+            if (buckets.length == 0 || low > high) {
+                return result;
+            }
+            int first = min != null ? bucket(low) : 0;
+            int last = max != null ? Math.min(bucket(high), buckets.length - 1) : buckets.length - 1;
+            for (int b = first; b <= last; b++) {
+                if (b * width >= low && (b + 1) * width <= high) {
+                    result.or(buckets[b]);
+                } else {
+                    buckets[b].forEach((int doc) -> {
+                        if (values[doc] >= low && values[doc] <= high) {
+                            result.add(doc);
+                        }
+                    });
+                }
+            }
+            return result;
+        }
+
+        private List<FacetCountDTO> counts(RoaringBitmap base) {
+            List<FacetCountDTO> counts = new ArrayList<>();
+            for (int b = 0; b < buckets.length; b++) {
+                int count = base == null ? buckets[b].getCardinality() : RoaringBitmap.andCardinality(base, buckets[b]);
+                if (count > 0) {
+                    counts.add(new FacetCountDTO(label(b * width) + "-" + label((b + 1) * width), count));
+                }
+            }
+            return counts;
+        }
+
+        private String label(double value) {
+            return integral ? String.valueOf((long) value) : String.valueOf(value);
+        }
+
+        private long bytes() {
+            long bytes = 0;
+            for (RoaringBitmap bitmap : buckets) {
+                bytes += bitmap.getSizeInBytes();
+            }
+            return bytes;
+        }
+    }
+
+    /**
+     * Valori di una faccetta letti dal database: coppie (ID del film, valore) con i valori
+     * distinti (senza distinzione tra maiuscole e minuscole) numerati in ordine di arrivo.
+     */
+    private static final class ValueRows {
+        private final Map<String, Integer> ids = new HashMap<>();
+        private final List<String> labels = new ArrayList<>();
+        private long[] movieIds = new long[1024];
+        private int[] valueIds = new int[1024];
+        private int size;
+
+        private void add(long movieId, String value) {
+            Integer id = ids.get(normalize(value));
+            if (id == null) {
+                id = labels.size();
+                ids.put(normalize(value), id);
+                labels.add(value.trim());
+            }
+            if (size == movieIds.length) {
+                movieIds = Arrays.copyOf(movieIds, size * 2);
+                valueIds = Arrays.copyOf(valueIds, size * 2);
+            }
+            movieIds[size] = movieId;
+            valueIds[size++] = id;
+        }
+    }
+
+    /**
+     * Raccoglie film e valori delle faccette letti dal database.
+     * I film devono essere aggiunti in ordine di ID crescente.
+     */
+    static final class Builder {
+        private long[] ids = new long[1024];
+        private int[] dates = new int[1024];
+        private int[] minutes = new int[1024];
+        private double[] ratings = new double[1024];
+        private int size;
+        private final Map<String, ValueRows> values = new HashMap<>();
+
+        Builder movie(long id, Integer date, Integer minute, Double rating) {
+            if (size > 0 && id <= ids[size - 1]) {
+                throw new IllegalStateException("Film non in ordine di ID: " + id + " dopo " + ids[size - 1]);
+            }
+            if (size == ids.length) {
+                ids = Arrays.copyOf(ids, size * 2);
+                dates = Arrays.copyOf(dates, size * 2);
+                minutes = Arrays.copyOf(minutes, size * 2);
+                ratings = Arrays.copyOf(ratings, size * 2);
+            }
+            ids[size] = id;
+            dates[size] = date != null ? date : MISSING;
+            minutes[size] = minute != null ? minute : MISSING;
+            ratings[size++] = rating != null ? rating : Double.NaN;
+            return this;
+        }
+
+        /**
+         * Aggiunge un valore di una faccetta (genre, country, language, studio o theme) a un film.
+         * I valori vuoti vengono ignorati.
+         */
+        Builder value(String dimension, long movieId, String value) {
+            if (value != null && !value.isBlank()) {
+                values.computeIfAbsent(dimension, name -> new ValueRows()).add(movieId, value);
+            }
+            return this;
+        }
+
+        FacetIndex build() {
+            return new FacetIndex(this);
+        }
+    }
+}
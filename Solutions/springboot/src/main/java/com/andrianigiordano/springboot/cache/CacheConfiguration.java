@@ -0,0 +1,65 @@
+package com.andrianigiordano.springboot.cache;
+
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.CaffeineSpec;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.annotation.EnableCaching;
+import org.springframework.cache.caffeine.CaffeineCache;
+import org.springframework.cache.support.SimpleCacheManager;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+import org.springframework.core.env.Environment;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Configurazione delle cache sulle letture del catalogo.
+ * <p>
+ * Ogni cache è una cache Caffeine con limiti e scadenza propri, letti dalla proprietà
+ * {@code catalog.cache.<nome>} in formato {@link CaffeineSpec} (es. {@code maximumSize=1000,expireAfterWrite=1h}).
+ * Con {@code maximumWeight} il peso dei valori è stimato da {@link CacheWeigher}.
+ * Le statistiche (hit, miss, eviction) sono sempre registrate.
+ * <p>
+ * L'intercettore della cache viene eseguito prima di quello delle transazioni,
+ * così un valore già in cache non apre una transazione.
+ */
+@Configuration
+@EnableCaching(order = Ordered.LOWEST_PRECEDENCE - 1)
+public class CacheConfiguration {
+
+    /** Film per ID (getMovieById). */
+    public static final String MOVIES = "movies";
+
+    /** Dettaglio completo dei film per ID (getMovieDetails). */
+    public static final String MOVIE_DETAILS = "movie-details";
+
+    /** Liste di film delle pagine principali (top100, actors-home, home). */
+    public static final String MOVIE_LISTS = "movie-lists";
+
+    /** Informazioni aggregate delle tabelle collegate (get-*-by-id). */
+    public static final String MOVIE_ATTRIBUTES = "movie-attributes";
+
+    private static final String DEFAULT_SPEC = "maximumSize=10000,expireAfterWrite=1h";
+
+    @Bean
+    public CacheManager cacheManager(Environment environment) {
+        List<CaffeineCache> caches = new ArrayList<>();
+        for (String name : List.of(MOVIES, MOVIE_DETAILS, MOVIE_LISTS, MOVIE_ATTRIBUTES)) {
+            String spec = environment.getProperty("catalog.cache." + name, DEFAULT_SPEC);
+            caches.add(new CaffeineCache(name, builder(spec).build()));
+        }
+        SimpleCacheManager cacheManager = new SimpleCacheManager();
+        cacheManager.setCaches(caches);
+        return cacheManager;
+    }
+
+    private static Caffeine<Object, Object> builder(String spec) {
+        Caffeine<Object, Object> builder = Caffeine.from(spec).recordStats();
+        if (spec.contains("maximumWeight")) {
+            builder.weigher(new CacheWeigher());
+        }
+        return builder;
+    }
+}
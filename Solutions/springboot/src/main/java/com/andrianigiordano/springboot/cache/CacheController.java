@@ -0,0 +1,92 @@
+package com.andrianigiordano.springboot.cache;
+
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.caffeine.CaffeineCache;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Controller per il monitoraggio e l'invalidazione delle cache del catalogo.
+ */
+@RestController
+@RequestMapping("/cache")
+@Tag(name = "Cache", description = "Statistiche e invalidazione delle cache del catalogo")
+public class CacheController {
+
+    private final CacheManager cacheManager;
+
+    public CacheController(CacheManager cacheManager) {
+        this.cacheManager = cacheManager;
+    }
+
+    /**
+     * Statistiche di ogni cache: richieste servite dalla cache e dal database, eviction e dimensione.
+     *
+     * @return le statistiche per nome della cache
+     */
+    @Operation(summary = "Statistiche delle cache", description = "Hit, miss, eviction, tempo medio di caricamento e dimensione di ogni cache")
+    @GetMapping("/stats")
+    public Map<String, Map<String, Object>> stats() {
+        Map<String, Map<String, Object>> stats = new LinkedHashMap<>();
+        for (String name : cacheManager.getCacheNames()) {
+            if (cacheManager.getCache(name) instanceof CaffeineCache cache) {
+                com.github.benmanes.caffeine.cache.Cache<Object, Object> nativeCache = cache.getNativeCache();
+                CacheStats cacheStats = nativeCache.stats();
+                Map<String, Object> values = new LinkedHashMap<>();
+                values.put("hits", cacheStats.hitCount());
+                values.put("misses", cacheStats.missCount());
+                values.put("hitRate", cacheStats.hitRate());
+                values.put("evictions", cacheStats.evictionCount());
+                values.put("evictionWeight", cacheStats.evictionWeight());
+                values.put("loads", cacheStats.loadCount());
+                values.put("loadFailures", cacheStats.loadFailureCount());
+                values.put("averageLoadMillis", cacheStats.averageLoadPenalty() / 1_000_000);
+                values.put("size", nativeCache.estimatedSize());
+                nativeCache.policy().eviction().ifPresent(eviction -> {
+                    if (eviction.isWeighted()) {
+                        values.put("weightedSize", eviction.weightedSize().orElse(0));
+                    }
+                    values.put("maximum", eviction.getMaximum());
+                });
+                stats.put(name, values);
+            }
+        }
+        return stats;
+    }
+
+    /**
+     * Svuota una cache o, se non viene indicato il nome, tutte le cache.
+     *
+     * @param name il nome della cache da svuotare
+     * @return i nomi delle cache svuotate, 404 se la cache non esiste
+     */
+    @Operation(summary = "Svuota le cache", description = "Invalida il contenuto di una cache o di tutte le cache del catalogo")
+    @PostMapping("/evict")
+    public ResponseEntity<List<String>> evict(
+            @Parameter(description = "Nome della cache da svuotare (tutte se assente)") @RequestParam(required = false) String name) {
+        List<String> names = name == null ? new ArrayList<>(cacheManager.getCacheNames()) : List.of(name);
+        for (String cacheName : names) {
+            Cache cache = cacheManager.getCache(cacheName);
+            if (cache == null) {
+                return ResponseEntity.status(HttpStatus.NOT_FOUND).body(null);
+            }
+            cache.invalidate();
+        }
+        return ResponseEntity.ok(names);
+    }
+}
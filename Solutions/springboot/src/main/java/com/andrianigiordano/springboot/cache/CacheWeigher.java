@@ -0,0 +1,63 @@
+package com.andrianigiordano.springboot.cache;
+
+import com.andrianigiordano.springboot.movies.MovieCardDTO;
+import com.andrianigiordano.springboot.movies.MovieDTO;
+import com.andrianigiordano.springboot.movies.MovieDetailsDTO;
+import com.github.benmanes.caffeine.cache.Weigher;
+
+import java.util.Collection;
+import java.util.Optional;
+
+/**
+ * Stima l'occupazione in memoria (in byte) dei valori in cache, per limitare le cache per peso
+ * invece che per numero di elementi: una lista con migliaia di film pesa quanto i film che contiene.
+ * La stima considera le stringhe e gli oggetti del catalogo, con un costo fisso per tutto il resto.
+ */
+class CacheWeigher implements Weigher<Object, Object> {
+
+    // Intestazione e campi di un oggetto con qualche riferimento
+    private static final int OBJECT_BYTES = 48;
+
+    @Override
+    public int weigh(Object key, Object value) {
+        return (int) Math.min(Integer.MAX_VALUE, estimate(value));
+    }
+
+    static long estimate(Object value) {
+        if (value == null) {
+            return 0;
+        }
+        if (value instanceof String text) {
+            return OBJECT_BYTES + text.length() * 2L;
+        }
+        if (value instanceof Optional<?> optional) {
+            return OBJECT_BYTES + estimate(optional.orElse(null));
+        }
+        if (value instanceof Collection<?> collection) {
+            long bytes = OBJECT_BYTES + collection.size() * 8L;
+            for (Object element : collection) {
+                bytes += estimate(element);
+            }
+            return bytes;
+        }
+        if (value instanceof MovieDTO movie) {
+            return OBJECT_BYTES * 2 + estimate(movie.getTitle()) + estimate(movie.getTagline())
+                    + estimate(movie.getDescription()) + estimate(movie.getPosterUrl());
+        }
+        if (value instanceof MovieCardDTO movie) {
+            return OBJECT_BYTES * 2 + estimate(movie.getTitle()) + estimate(movie.getTagline()) + estimate(movie.getPosterUrl());
+        }
+        if (value instanceof MovieDetailsDTO details) {
+            return OBJECT_BYTES + estimate(details.getMovie()) + estimate(details.getCrew())
+                    + estimate(details.getGenres()) + estimate(details.getCountries()) + estimate(details.getLanguages())
+                    + estimate(details.getStudios()) + estimate(details.getThemes());
+        }
+        if (value instanceof MovieDetailsDTO.CrewMemberDTO member) {
+            return OBJECT_BYTES + estimate(member.getName()) + estimate(member.getRole());
+        }
+        if (value instanceof MovieDetailsDTO.LanguageDTO language) {
+            return OBJECT_BYTES + estimate(language.getType()) + estimate(language.getLanguage());
+        }
+        return OBJECT_BYTES;
+    }
+}
@@ -0,0 +1,69 @@
+package com.andrianigiordano.springboot.database;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * File CSV prodotti dai notebook di pulizia (cleaning_scripts, cartella Data/clean_data) e tabella
+ * di ium_database in cui vengono caricati, con le colonne ammesse.
+ * <p>
+ * Le colonne da caricare si leggono dall'intestazione del file, così l'ordine delle colonne nel CSV
+ * non conta; una colonna che la tabella non ha fa fallire il caricamento prima di iniziare.
+ */
+enum CatalogFile {
+
+    MOVIES("movies_data", "movies_cleaned.csv", "id", "name", "date", "tagline", "description", "minute", "rating"),
+    POSTERS("posters_data", "posters_cleaned.csv", "id", "link"),
+    ACTORS("actors_data", "actors_cleaned.csv", "id", "name", "role"),
+    CREW("crew_data", "crew_cleaned.csv", "id", "role", "name"),
+    GENRES("genres_data", "genres_cleaned.csv", "id", "genre"),
+    COUNTRIES("countries_data", "countries_cleaned.csv", "id", "country"),
+    LANGUAGES("languages_data", "languages_cleaned.csv", "id", "type", "language"),
+    STUDIOS("studios_data", "studios_cleaned.csv", "id", "studio"),
+    THEMES("themes_data", "themes_cleaned.csv", "id", "theme"),
+    OSCAR_AWARDS("the_oscar_awards_data", "the_oscar_awards_cleaned.csv",
+            "year_film", "year_ceremony", "ceremony", "category", "name", "film", "winner");
+
+    private final String table;
+    private final String fileName;
+    private final List<String> columns;
+
+    CatalogFile(String table, String fileName, String... columns) {
+        this.table = table;
+        this.fileName = fileName;
+        this.columns = List.of(columns);
+    }
+
+    String getTable() {
+        return table;
+    }
+
+    String getFileName() {
+        return fileName;
+    }
+
+    List<String> getColumns() {
+        return columns;
+    }
+
+    /**
+     * Costruisce l'istruzione COPY per un file con l'intestazione indicata.
+     * I valori vuoti non tra virgolette diventano NULL, come i NaN scritti da pandas.
+     *
+     * @param headerLine la prima riga del file CSV
+     * @return l'istruzione COPY ... FROM STDIN
+     * @throws IllegalArgumentException se l'intestazione contiene colonne che la tabella non ha
+     */
+    String copyStatement(String headerLine) {
+        List<String> header = new ArrayList<>();
+        for (String column : headerLine.replace("\uFEFF", "").split(",", -1)) {
+            String name = column.trim().replace("\"", "").toLowerCase(Locale.ROOT);
+            if (!columns.contains(name)) {
+                throw new IllegalArgumentException("Colonna " + name + " di " + fileName + " non presente in " + table + " " + columns);
+            }
+            header.add(name);
+        }
+        return "COPY " + table + " (" + String.join(", ", header) + ") FROM STDIN WITH (FORMAT csv, HEADER true, ENCODING 'UTF8')";
+    }
+}
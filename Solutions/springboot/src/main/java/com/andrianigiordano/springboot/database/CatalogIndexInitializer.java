@@ -0,0 +1,41 @@
+package com.andrianigiordano.springboot.database;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.InitializingBean;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.sql.init.dependency.DependsOnDatabaseInitialization;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.jdbc.datasource.init.ResourceDatabasePopulator;
+import org.springframework.stereotype.Component;
+
+import javax.sql.DataSource;
+
+/**
+ * Crea all'avvio gli indici necessari alle query del backend (db/indexes.sql), se non esistono già.
+ * Lo schema di ium_database è gestito fuori dall'applicazione (ddl-auto=none), quindi gli indici
+ * vengono aggiunti con istruzioni idempotenti invece che tramite le entità JPA.
+ */
+@Component
+@DependsOnDatabaseInitialization
+@ConditionalOnProperty(name = "catalog.indexes.create-on-startup", havingValue = "true")
+public class CatalogIndexInitializer implements InitializingBean {
+
+    private static final Logger log = LoggerFactory.getLogger(CatalogIndexInitializer.class);
+
+    /** Script con gli indici del catalogo, usato anche dopo il caricamento dei CSV (vedi {@link CatalogIngestionService}). */
+    static final String INDEXES_SCRIPT = "db/indexes.sql";
+
+    private final DataSource dataSource;
+
+    public CatalogIndexInitializer(DataSource dataSource) {
+        this.dataSource = dataSource;
+    }
+
+    @Override
+    public void afterPropertiesSet() {
+        long start = System.nanoTime();
+        new ResourceDatabasePopulator(new ClassPathResource(INDEXES_SCRIPT)).execute(dataSource);
+        log.info("Indici del catalogo verificati in {} ms", (System.nanoTime() - start) / 1_000_000);
+    }
+}
@@ -0,0 +1,78 @@
+package com.andrianigiordano.springboot.database;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.SpringApplication;
+import org.springframework.context.ApplicationContext;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Component;
+
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Comando di caricamento dei CSV puliti, attivo con il profilo ingest (vedi application-ingest.properties):
+ * carica i file con {@link CatalogIngestionService}, stampa il riepilogo e chiude l'applicazione,
+ * con codice di uscita diverso da 0 se il caricamento fallisce.
+ */
+@Component
+@Profile("ingest")
+public class CatalogIngestionRunner implements ApplicationRunner {
+
+    private static final Logger log = LoggerFactory.getLogger(CatalogIngestionRunner.class);
+
+    private final CatalogIngestionService ingestionService;
+    private final ApplicationContext applicationContext;
+    private final Path directory;
+    private final List<String> tables;
+    private final boolean force;
+
+    public CatalogIngestionRunner(CatalogIngestionService ingestionService, ApplicationContext applicationContext,
+                                  @Value("${ingest.dir:../Data/clean_data}") Path directory,
+                                  @Value("${ingest.tables:}") List<String> tables,
+                                  @Value("${ingest.force:false}") boolean force) {
+        this.ingestionService = ingestionService;
+        this.applicationContext = applicationContext;
+        this.directory = directory;
+        this.tables = tables;
+        this.force = force;
+    }
+
+    @Override
+    public void run(ApplicationArguments args) throws Exception {
+        List<CatalogFile> files = selectedFiles();
+        log.info("Caricamento di {} tabelle da {}{}", files.size(), directory.toAbsolutePath(), force ? " (ricaricamento forzato)" : "");
+
+        List<IngestionReport> reports = ingestionService.ingest(directory, files, force);
+        for (IngestionReport report : reports) {
+            log.info(String.format("  %-24s %12d righe %10d ms %10d righe/s%s", report.getTable(), report.getRows(),
+                    report.getMillis(), report.getRowsPerSecond(), report.isSkipped() ? "  (già caricata)" : ""));
+        }
+        System.exit(SpringApplication.exit(applicationContext, () -> 0));
+    }
+
+    /**
+     * @return i file da caricare: tutti, o quelli delle tabelle indicate in ingest.tables
+     * (per nome della tabella, come movies_data, o del file, come movies)
+     */
+    private List<CatalogFile> selectedFiles() {
+        List<String> selected = tables.stream().map(String::trim).filter(table -> !table.isEmpty())
+                .map(table -> table.toLowerCase(Locale.ROOT)).toList();
+        if (selected.isEmpty()) {
+            return List.of(CatalogFile.values());
+        }
+        List<CatalogFile> files = Arrays.stream(CatalogFile.values())
+                .filter(file -> selected.contains(file.getTable()) || selected.contains(file.name().toLowerCase(Locale.ROOT)))
+                .toList();
+        if (files.size() != selected.size()) {
+            throw new IllegalArgumentException("Tabelle sconosciute in ingest.tables: " + selected + "; disponibili: " +
+                    Arrays.stream(CatalogFile.values()).map(CatalogFile::getTable).toList());
+        }
+        return files;
+    }
+}
@@ -0,0 +1,316 @@
+package com.andrianigiordano.springboot.database;
+
+import org.postgresql.PGConnection;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.jdbc.datasource.init.ResourceDatabasePopulator;
+import org.springframework.stereotype.Service;
+
+import javax.sql.DataSource;
+import java.io.BufferedReader;
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Carica i CSV puliti del catalogo in ium_database con {@code COPY ... FROM STDIN}, un worker
+ * (e una connessione) per tabella in parallelo.
+ * <p>
+ * Il database può essere vuoto: le tabelle del catalogo mancanti vengono create con
+ * {@code db/schema.sql} (l'applicazione usa ddl-auto=none), quelle già create dai notebook di
+ * pulizia restano come sono.
+ * <p>
+ * Ogni tabella viene caricata in una sola transazione: svuotamento, rimozione degli indici del
+ * catalogo, COPY e registrazione nella tabella {@value #PROGRESS_TABLE}. Se il processo si interrompe,
+ * le tabelle non completate tornano allo stato precedente e al riavvio vengono caricate solo quelle
+ * che non risultano già caricate dallo stesso file (stessa dimensione e data di modifica).
+ * Gli indici di {@code db/indexes.sql} vengono ricreati alla fine, una volta sola per tabella piena,
+ * invece di essere aggiornati riga per riga durante il caricamento.
+ */
+@Service
+public class CatalogIngestionService {
+
+    private static final Logger log = LoggerFactory.getLogger(CatalogIngestionService.class);
+
+    /** Registro delle tabelle caricate completamente, usato per riprendere un caricamento interrotto. */
+    static final String PROGRESS_TABLE = "ingestion_progress";
+
+    /** Script con le tabelle del catalogo, create se mancanti prima del caricamento. */
+    static final String SCHEMA_SCRIPT = "db/schema.sql";
+
+    private static final Pattern INDEX = Pattern.compile("CREATE INDEX IF NOT EXISTS (\\w+) ON (\\w+)", Pattern.CASE_INSENSITIVE);
+
+    private final DataSource dataSource;
+    private final long progressIntervalSeconds;
+
+    public CatalogIngestionService(DataSource dataSource,
+                                   @Value("${ingest.progress-interval-seconds:10}") long progressIntervalSeconds) {
+        this.dataSource = dataSource;
+        this.progressIntervalSeconds = progressIntervalSeconds;
+    }
+
+    /**
+     * Carica i file indicati dalla cartella, ricrea gli indici e aggiorna le statistiche delle tabelle.
+     * Le tabelle caricate con successo restano caricate anche se un'altra fallisce.
+     *
+     * @param directory la cartella con i CSV puliti (Data/clean_data)
+     * @param files     i file da caricare
+     * @param force     true per ricaricare anche le tabelle già caricate dagli stessi file
+     * @return l'esito per ogni tabella, nell'ordine dei file
+     * @throws IllegalStateException se mancano dei file o il caricamento di una tabella fallisce
+     */
+    List<IngestionReport> ingest(Path directory, Collection<CatalogFile> files, boolean force) throws IOException, SQLException {
+        List<String> missing = files.stream()
+                .map(CatalogFile::getFileName)
+                .filter(fileName -> !Files.isRegularFile(directory.resolve(fileName)))
+                .toList();
+        if (!missing.isEmpty()) {
+            throw new IllegalStateException("File mancanti in " + directory.toAbsolutePath() + ": " + missing);
+        }
+        createTables();
+        Map<String, List<String>> indexes = indexesByTable(new ClassPathResource(CatalogIndexInitializer.INDEXES_SCRIPT)
+                .getContentAsString(StandardCharsets.UTF_8));
+
+        long start = System.nanoTime();
+        Map<CatalogFile, AtomicLong> bytesRead = new LinkedHashMap<>();
+        files.forEach(file -> bytesRead.put(file, new AtomicLong()));
+        ExecutorService workers = Executors.newFixedThreadPool(files.size());
+        ScheduledExecutorService progress = Executors.newSingleThreadScheduledExecutor();
+        progress.scheduleAtFixedRate(() -> logProgress(directory, bytesRead, start),
+                progressIntervalSeconds, progressIntervalSeconds, TimeUnit.SECONDS);
+
+        Map<CatalogFile, Future<IngestionReport>> futures = new LinkedHashMap<>();
+        for (CatalogFile file : files) {
+            futures.put(file, workers.submit(() -> load(file, directory.resolve(file.getFileName()),
+                    indexes.getOrDefault(file.getTable(), List.of()), force, bytesRead.get(file))));
+        }
+        List<IngestionReport> reports = new ArrayList<>();
+        List<String> failed = new ArrayList<>();
+        try {
+            for (Map.Entry<CatalogFile, Future<IngestionReport>> entry : futures.entrySet()) {
+                try {
+                    reports.add(entry.getValue().get());
+                } catch (ExecutionException e) {
+                    log.error("Caricamento di {} fallito", entry.getKey().getTable(), e.getCause());
+                    failed.add(entry.getKey().getTable());
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    throw new IllegalStateException("Caricamento interrotto", e);
+                }
+            }
+        } finally {
+            progress.shutdownNow();
+            workers.shutdownNow();
+        }
+        if (!failed.isEmpty()) {
+            throw new IllegalStateException("Caricamento fallito per " + failed + ": rilanciare per riprendere dalle tabelle mancanti");
+        }
+
+        long loadMillis = (System.nanoTime() - start) / 1_000_000;
+        long rows = reports.stream().filter(report -> !report.isSkipped()).mapToLong(IngestionReport::getRows).sum();
+        log.info("Caricamento completato: {} righe in {} ms ({} righe/s)", rows, loadMillis, loadMillis > 0 ? rows * 1000 / loadMillis : rows);
+        buildIndexes(reports);
+        return reports;
+    }
+
+    /**
+     * Carica un file nella propria tabella in una sola transazione, se non è già stato caricato.
+     */
+    private IngestionReport load(CatalogFile file, Path path, List<String> indexes, boolean force, AtomicLong bytesRead)
+            throws IOException, SQLException {
+        long size = Files.size(path);
+        long modified = Files.getLastModifiedTime(path).toMillis();
+        try (Connection connection = dataSource.getConnection()) {
+            connection.setAutoCommit(false);
+            try {
+                Long loadedRows = force ? null : loadedRows(connection, file, size, modified);
+                if (loadedRows != null) {
+                    connection.commit();
+                    bytesRead.set(size);
+                    log.info("{}: già caricata da {} ({} righe), saltata", file.getTable(), file.getFileName(), loadedRows);
+                    return new IngestionReport(file.getTable(), loadedRows, 0, true);
+                }
+
+                String header;
+                try (BufferedReader reader = Files.newBufferedReader(path, StandardCharsets.UTF_8)) {
+                    header = reader.readLine();
+                }
+                if (header == null) {
+                    throw new IllegalStateException("File vuoto: " + path);
+                }
+                String copy = file.copyStatement(header);
+
+                try (Statement statement = connection.createStatement()) {
+                    statement.execute("DELETE FROM " + PROGRESS_TABLE + " WHERE table_name = '" + file.getTable() + "'");
+                    for (String index : indexes) {
+                        statement.execute("DROP INDEX IF EXISTS " + index);
+                    }
+                    statement.execute("TRUNCATE " + file.getTable());
+                }
+
+                long start = System.nanoTime();
+                long rows;
+                try (Reader reader = new InputStreamReader(new CountingInputStream(Files.newInputStream(path), bytesRead), StandardCharsets.UTF_8)) {
+                    rows = connection.unwrap(PGConnection.class).getCopyAPI().copyIn(copy, reader);
+                }
+                long millis = (System.nanoTime() - start) / 1_000_000;
+
+                try (PreparedStatement insert = connection.prepareStatement("INSERT INTO " + PROGRESS_TABLE +
+                        " (table_name, file_name, file_size, file_modified, rows_loaded, millis) VALUES (?, ?, ?, ?, ?, ?)")) {
+                    insert.setString(1, file.getTable());
+                    insert.setString(2, file.getFileName());
+                    insert.setLong(3, size);
+                    insert.setLong(4, modified);
+                    insert.setLong(5, rows);
+                    insert.setLong(6, millis);
+                    insert.executeUpdate();
+                }
+                connection.commit();
+
+                IngestionReport report = new IngestionReport(file.getTable(), rows, millis, false);
+                log.info("{}: {} righe da {} in {} ms ({} righe/s)", file.getTable(), rows, file.getFileName(), millis, report.getRowsPerSecond());
+                return report;
+            } catch (IOException | SQLException | RuntimeException e) {
+                connection.rollback();
+                throw e;
+            }
+        }
+    }
+
+    /**
+     * @return le righe caricate se la tabella risulta già caricata dallo stesso file, altrimenti null
+     */
+    private static Long loadedRows(Connection connection, CatalogFile file, long size, long modified) throws SQLException {
+        try (PreparedStatement select = connection.prepareStatement("SELECT rows_loaded FROM " + PROGRESS_TABLE +
+                " WHERE table_name = ? AND file_name = ? AND file_size = ? AND file_modified = ?")) {
+            select.setString(1, file.getTable());
+            select.setString(2, file.getFileName());
+            select.setLong(3, size);
+            select.setLong(4, modified);
+            try (ResultSet resultSet = select.executeQuery()) {
+                return resultSet.next() ? resultSet.getLong(1) : null;
+            }
+        }
+    }
+
+    /**
+     * Crea le tabelle del catalogo e il registro dei caricamenti, se non esistono già.
+     */
+    private void createTables() throws SQLException {
+        new ResourceDatabasePopulator(new ClassPathResource(SCHEMA_SCRIPT)).execute(dataSource);
+        try (Connection connection = dataSource.getConnection(); Statement statement = connection.createStatement()) {
+            statement.execute("CREATE TABLE IF NOT EXISTS " + PROGRESS_TABLE + " (" +
+                    "table_name VARCHAR(64) PRIMARY KEY, " +
+                    "file_name VARCHAR(255) NOT NULL, " +
+                    "file_size BIGINT NOT NULL, " +
+                    "file_modified BIGINT NOT NULL, " +
+                    "rows_loaded BIGINT NOT NULL, " +
+                    "millis BIGINT NOT NULL, " +
+                    "loaded_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP)");
+        }
+    }
+
+    /**
+     * Ricrea gli indici del catalogo e aggiorna le statistiche del planner delle tabelle caricate.
+     */
+    private void buildIndexes(List<IngestionReport> reports) throws SQLException {
+        long start = System.nanoTime();
+        new ResourceDatabasePopulator(new ClassPathResource(CatalogIndexInitializer.INDEXES_SCRIPT)).execute(dataSource);
+        try (Connection connection = dataSource.getConnection(); Statement statement = connection.createStatement()) {
+            for (IngestionReport report : reports) {
+                if (!report.isSkipped()) {
+                    statement.execute("ANALYZE " + report.getTable());
+                }
+            }
+        }
+        log.info("Indici del catalogo creati in {} ms", (System.nanoTime() - start) / 1_000_000);
+    }
+
+    private static void logProgress(Path directory, Map<CatalogFile, AtomicLong> bytesRead, long start) {
+        double seconds = Math.max((System.nanoTime() - start) / 1e9, 0.001);
+        bytesRead.forEach((file, read) -> {
+            try {
+                long size = Math.max(Files.size(directory.resolve(file.getFileName())), 1);
+                if (read.get() < size) {
+                    log.info("{}: {}% del file letto ({} MB/s)", file.getTable(), read.get() * 100 / size,
+                            String.format("%.1f", read.get() / seconds / (1024 * 1024)));
+                }
+            } catch (IOException e) {
+                log.debug("Avanzamento di {} non disponibile", file.getTable(), e);
+            }
+        });
+    }
+
+    /**
+     * Legge dallo script degli indici il nome degli indici di ogni tabella.
+     *
+     * @param script il contenuto di db/indexes.sql
+     * @return i nomi degli indici per nome della tabella
+     */
+    static Map<String, List<String>> indexesByTable(String script) {
+        Map<String, List<String>> indexes = new HashMap<>();
+        Matcher matcher = INDEX.matcher(script);
+        while (matcher.find()) {
+            indexes.computeIfAbsent(matcher.group(2), table -> new ArrayList<>()).add(matcher.group(1));
+        }
+        return indexes;
+    }
+
+    /**
+     * Conta i byte letti dal file, per il log di avanzamento.
+     */
+    private static final class CountingInputStream extends FilterInputStream {
+
+        private final AtomicLong count;
+
+        CountingInputStream(InputStream in, AtomicLong count) {
+            super(in);
+            this.count = count;
+        }
+
+        @Override
+        public int read() throws IOException {
+            int b = super.read();
+            if (b >= 0) {
+                count.incrementAndGet();
+            }
+            return b;
+        }
+
+        @Override
+        public int read(byte[] buffer, int offset, int length) throws IOException {
+            int n = super.read(buffer, offset, length);
+            if (n > 0) {
+                count.addAndGet(n);
+            }
+            return n;
+        }
+    }
+}
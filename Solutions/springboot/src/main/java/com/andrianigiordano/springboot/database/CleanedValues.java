@@ -0,0 +1,24 @@
+package com.andrianigiordano.springboot.database;
+
+/**
+ * Valori segnaposto scritti dai notebook di pulizia (cleaning_scripts) al posto dei dati mancanti.
+ */
+public final class CleanedValues {
+
+    /** Segnaposto usato dai notebook per nomi, generi, paesi e lingue mancanti. */
+    public static final String UNKNOWN = "Unknown";
+
+    private CleanedValues() {
+    }
+
+    /**
+     * Indica se un valore manca: null, vuoto o il segnaposto {@value #UNKNOWN}.
+     * Un segnaposto non va trattato come un valore reale condiviso da migliaia di film.
+     *
+     * @param value il valore letto dal database
+     * @return true se il valore è assente
+     */
+    public static boolean isMissing(String value) {
+        return value == null || value.isBlank() || value.trim().equalsIgnoreCase(UNKNOWN);
+    }
+}
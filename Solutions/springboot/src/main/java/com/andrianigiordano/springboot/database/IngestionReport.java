@@ -0,0 +1,46 @@
+package com.andrianigiordano.springboot.database;
+
+/**
+ * Esito del caricamento di un file CSV in una tabella.
+ */
+public class IngestionReport {
+
+    private final String table;
+
+    private final long rows;
+
+    private final long millis;
+
+    private final boolean skipped;
+
+    public IngestionReport(String table, long rows, long millis, boolean skipped) {
+        this.table = table;
+        this.rows = rows;
+        this.millis = millis;
+        this.skipped = skipped;
+    }
+
+    // Getter
+    public String getTable() {
+        return table;
+    }
+
+    public long getRows() {
+        return rows;
+    }
+
+    public long getMillis() {
+        return millis;
+    }
+
+    /**
+     * @return true se la tabella era già stata caricata dallo stesso file e non è stata ricaricata
+     */
+    public boolean isSkipped() {
+        return skipped;
+    }
+
+    public long getRowsPerSecond() {
+        return millis > 0 ? rows * 1000 / millis : rows;
+    }
+}
@@ -0,0 +1,74 @@
+package com.andrianigiordano.springboot.encoding;
+
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.InvalidMediaTypeException;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.cbor.MappingJackson2CborHttpMessageConverter;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.http.converter.smile.MappingJackson2SmileHttpMessageConverter;
+import org.springframework.util.MimeTypeUtils;
+
+import java.util.List;
+
+/**
+ * Formati binari delle risposte, oltre al JSON: CBOR ({@code application/cbor}) e Smile
+ * ({@code application/x-jackson-smile}), scelti dal client con l'header Accept.
+ * <p>
+ * Entrambi codificano lo stesso modello di dati del JSON (gli stessi DTO, con gli stessi nomi dei
+ * campi), ma in forma binaria: numeri senza conversione in testo e stringhe con la lunghezza in
+ * testa, quindi risposte più piccole e più veloci da scrivere e da leggere. Gli ObjectMapper sono
+ * costruiti dal builder di Spring Boot, quindi con la stessa configurazione di quello JSON.
+ * Le risposte grandi vengono anche compresse con gzip se il client lo accetta (server.compression.*).
+ */
+@Configuration
+public class EncodingConfiguration {
+
+    /** Media type di Smile. */
+    public static final MediaType APPLICATION_SMILE = new MediaType("application", "x-jackson-smile");
+
+    /** Formati supportati, nell'ordine di preferenza a parità di qualità nell'header Accept. */
+    private static final List<MediaType> FORMATS = List.of(MediaType.APPLICATION_JSON, MediaType.APPLICATION_CBOR, APPLICATION_SMILE);
+
+    @Bean
+    public MappingJackson2CborHttpMessageConverter cborHttpMessageConverter(Jackson2ObjectMapperBuilder builder) {
+        return new MappingJackson2CborHttpMessageConverter(builder.factory(new CBORFactory()).build());
+    }
+
+    @Bean
+    public MappingJackson2SmileHttpMessageConverter smileHttpMessageConverter(Jackson2ObjectMapperBuilder builder) {
+        return new MappingJackson2SmileHttpMessageConverter(builder.factory(new SmileFactory()).build());
+    }
+
+    /**
+     * Sceglie il formato della risposta in base all'header Accept, per gli endpoint che scrivono
+     * direttamente i byte (come gli snapshot) invece di passare dai converter di Spring MVC.
+     *
+     * @param accept il valore dell'header Accept, null se assente
+     * @return JSON, CBOR o Smile; JSON se l'header manca, non è valido o non indica nessuno dei tre
+     */
+    public static MediaType negotiate(String accept) {
+        if (accept == null || accept.isBlank()) {
+            return MediaType.APPLICATION_JSON;
+        }
+        try {
+            List<MediaType> accepted = MediaType.parseMediaTypes(accept);
+            MimeTypeUtils.sortBySpecificity(accepted);
+            for (MediaType mediaType : accepted) {
+                if (mediaType.getQualityValue() == 0) {
+                    continue;
+                }
+                for (MediaType format : FORMATS) {
+                    if (mediaType.includes(format)) {
+                        return format;
+                    }
+                }
+            }
+        } catch (InvalidMediaTypeException e) {
+            // Header non valido: si risponde in JSON
+        }
+        return MediaType.APPLICATION_JSON;
+    }
+}
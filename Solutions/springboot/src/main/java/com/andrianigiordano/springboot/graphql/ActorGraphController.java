@@ -0,0 +1,47 @@
+package com.andrianigiordano.springboot.graphql;
+
+import com.andrianigiordano.springboot.actors.ActorCreditDTO;
+import com.andrianigiordano.springboot.actors.ActorsService;
+import com.andrianigiordano.springboot.movies.MovieCardDTO;
+import com.andrianigiordano.springboot.movies.MoviesRepository;
+import org.springframework.graphql.data.method.annotation.Argument;
+import org.springframework.graphql.data.method.annotation.BatchMapping;
+import org.springframework.graphql.data.method.annotation.QueryMapping;
+import org.springframework.stereotype.Controller;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Query GraphQL sugli attori: la ricerca per nome e il film di ogni partecipazione,
+ * letto con una sola query per tutte le partecipazioni della risposta.
+ */
+@Controller
+public class ActorGraphController {
+
+    private final ActorsService actorsService;
+    private final MoviesRepository moviesRepository;
+
+    public ActorGraphController(ActorsService actorsService, MoviesRepository moviesRepository) {
+        this.actorsService = actorsService;
+        this.moviesRepository = moviesRepository;
+    }
+
+    @QueryMapping
+    public List<ActorCreditDTO> searchActors(@Argument String query, @Argument int page, @Argument int size) {
+        return actorsService.searchActorsByName(query, page, size).getItems();
+    }
+
+    @BatchMapping(typeName = "ActorCredit")
+    public Map<ActorCreditDTO, MovieCardDTO> movie(List<ActorCreditDTO> credits) {
+        List<Long> ids = credits.stream().map(ActorCreditDTO::getId).distinct().toList();
+        Map<Long, MovieCardDTO> movies = moviesRepository.findCardsByIdIn(ids).stream()
+                .collect(Collectors.toMap(MovieCardDTO::getId, Function.identity(), (first, second) -> first));
+        Map<ActorCreditDTO, MovieCardDTO> result = new LinkedHashMap<>();
+        credits.forEach(credit -> result.put(credit, movies.get(credit.getId())));
+        return result;
+    }
+}
@@ -0,0 +1,61 @@
+package com.andrianigiordano.springboot.graphql;
+
+import graphql.analysis.FieldComplexityCalculator;
+import graphql.analysis.MaxQueryComplexityInstrumentation;
+import graphql.analysis.MaxQueryDepthInstrumentation;
+import graphql.schema.GraphQLList;
+import graphql.schema.GraphQLTypeUtil;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.List;
+
+/**
+ * Limiti delle query GraphQL, verificati sul documento prima dell'esecuzione: una query troppo
+ * profonda o troppo costosa viene rifiutata con un errore senza eseguire nessuna query SQL.
+ * <p>
+ * Le istanze di {@link graphql.execution.instrumentation.Instrumentation} vengono registrate da
+ * Spring Boot sul motore GraphQL.
+ */
+@Configuration
+public class GraphQlConfiguration {
+
+    @Bean
+    public MaxQueryDepthInstrumentation maxQueryDepthInstrumentation(@Value("${graphql.max-depth:6}") int maxDepth) {
+        return new MaxQueryDepthInstrumentation(maxDepth);
+    }
+
+    @Bean
+    public MaxQueryComplexityInstrumentation maxQueryComplexityInstrumentation(
+            @Value("${graphql.max-complexity:2000}") int maxComplexity,
+            @Value("${graphql.complexity.list-fan-out:10}") int listFanOut) {
+        return new MaxQueryComplexityInstrumentation(maxComplexity, complexityCalculator(listFanOut));
+    }
+
+    /**
+     * Stima il costo di un campo come 1 più il costo dei sottocampi moltiplicato per il numero atteso
+     * di elementi: l'argomento size se presente, altrimenti il numero di ids, altrimenti listFanOut
+     * per i campi lista (crew, cast, premi, ...) e 1 per gli oggetti singoli.
+     *
+     * @param listFanOut il numero di elementi stimato per le liste senza argomenti di dimensione
+     * @return il calcolatore della complessità dei campi
+     */
+    static FieldComplexityCalculator complexityCalculator(int listFanOut) {
+        return (environment, childComplexity) -> {
+            Object size = environment.getArguments().get("size");
+            Object ids = environment.getArguments().get("ids");
+            int items;
+            if (size instanceof Integer n) {
+                items = Math.max(n, 1);
+            } else if (ids instanceof List<?> list) {
+                items = Math.max(list.size(), 1);
+            } else if (GraphQLTypeUtil.unwrapNonNull(environment.getFieldDefinition().getType()) instanceof GraphQLList) {
+                items = listFanOut;
+            } else {
+                items = 1;
+            }
+            return 1 + childComplexity * items;
+        };
+    }
+}
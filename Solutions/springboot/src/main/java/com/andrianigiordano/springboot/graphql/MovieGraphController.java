@@ -0,0 +1,170 @@
+package com.andrianigiordano.springboot.graphql;
+
+import com.andrianigiordano.springboot.actors.ActorCreditDTO;
+import com.andrianigiordano.springboot.actors.ActorsRepository;
+import com.andrianigiordano.springboot.movies.MovieAttributeRow;
+import com.andrianigiordano.springboot.movies.MovieCardDTO;
+import com.andrianigiordano.springboot.movies.MovieDetailsDTO;
+import com.andrianigiordano.springboot.movies.MoviesRepository;
+import com.andrianigiordano.springboot.movies.MoviesService;
+import com.andrianigiordano.springboot.the_oscar_awards.TheOscarAwards;
+import com.andrianigiordano.springboot.the_oscar_awards.TheOscarAwardsRepository;
+import org.dataloader.DataLoader;
+import org.springframework.graphql.data.method.annotation.Argument;
+import org.springframework.graphql.data.method.annotation.BatchMapping;
+import org.springframework.graphql.data.method.annotation.QueryMapping;
+import org.springframework.graphql.data.method.annotation.SchemaMapping;
+import org.springframework.graphql.execution.BatchLoaderRegistry;
+import org.springframework.stereotype.Controller;
+import reactor.core.publisher.Mono;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Query GraphQL sui film e campi collegati del tipo Movie.
+ * <p>
+ * Ogni campo collegato è caricato a lotti: graphql-java raccoglie i film di un livello della risposta
+ * e il DataLoader del campo li legge tutti con una sola query. Crew, generi, paesi, lingue, studi e temi
+ * condividono lo stesso DataLoader, che legge le sei tabelle figlie con la query UNION del dettaglio,
+ * quindi costano una query in tutto anche se richiesti insieme.
+ */
+@Controller
+public class MovieGraphController {
+
+    /** Nome del DataLoader delle righe delle tabelle figlie, per ID del film. */
+    static final String MOVIE_ATTRIBUTES = "movieAttributes";
+
+    private final MoviesService moviesService;
+    private final MoviesRepository moviesRepository;
+    private final ActorsRepository actorsRepository;
+    private final TheOscarAwardsRepository theOscarAwardsRepository;
+
+    public MovieGraphController(MoviesService moviesService, MoviesRepository moviesRepository,
+                                ActorsRepository actorsRepository, TheOscarAwardsRepository theOscarAwardsRepository,
+                                BatchLoaderRegistry batchLoaderRegistry) {
+        this.moviesService = moviesService;
+        this.moviesRepository = moviesRepository;
+        this.actorsRepository = actorsRepository;
+        this.theOscarAwardsRepository = theOscarAwardsRepository;
+        batchLoaderRegistry.<Long, List<MovieAttributeRow>>forName(MOVIE_ATTRIBUTES)
+                .registerMappedBatchLoader((ids, environment) -> Mono.fromCallable(() ->
+                        moviesRepository.findAttributesByMovieIds(ids).stream()
+                                .collect(Collectors.groupingBy(MovieAttributeRow::getMovieId))));
+    }
+
+    @QueryMapping
+    public MovieCardDTO movie(@Argument Long id) {
+        List<MovieCardDTO> movies = moviesService.getMoviesByIds(List.of(id)).getMovies();
+        return movies.isEmpty() ? null : movies.get(0);
+    }
+
+    @QueryMapping
+    public List<MovieCardDTO> movies(@Argument List<Long> ids) {
+        return moviesService.getMoviesByIds(ids).getMovies();
+    }
+
+    @QueryMapping
+    public List<MovieCardDTO> searchMovies(@Argument String query, @Argument int page, @Argument int size) {
+        return moviesService.searchMoviesByName(query, page, size).getItems();
+    }
+
+    @BatchMapping(typeName = "Movie")
+    public Map<MovieCardDTO, String> description(List<MovieCardDTO> movies) {
+        Map<Long, String> descriptions = new HashMap<>();
+        for (Object[] row : moviesRepository.findDescriptionsByIdIn(ids(movies))) {
+            descriptions.put((Long) row[0], (String) row[1]);
+        }
+        return byMovie(movies, movie -> descriptions.get(movie.getId()));
+    }
+
+    @BatchMapping(typeName = "Movie")
+    public Map<MovieCardDTO, List<ActorCreditDTO>> cast(List<MovieCardDTO> movies) {
+        Map<Long, List<ActorCreditDTO>> credits = actorsRepository.findCreditsByMovieIds(ids(movies)).stream()
+                .collect(Collectors.groupingBy(ActorCreditDTO::getId));
+        return byMovie(movies, movie -> credits.getOrDefault(movie.getId(), List.of()));
+    }
+
+    /**
+     * Candidature agli Oscar dei film, collegate come in {@code /oscar/top100/by-category}:
+     * stesso titolo e anno del film.
+     */
+    @BatchMapping(typeName = "Movie")
+    public Map<MovieCardDTO, List<TheOscarAwards>> oscars(List<MovieCardDTO> movies) {
+        List<String> titles = movies.stream().map(MovieCardDTO::getTitle).filter(Objects::nonNull).distinct().toList();
+        Map<String, List<TheOscarAwards>> awards = titles.isEmpty() ? Map.of() : theOscarAwardsRepository.findByFilmIn(titles).stream()
+                .collect(Collectors.groupingBy(award -> award.getFilm() + '|' + award.getYearFilm()));
+        return byMovie(movies, movie -> awards.getOrDefault(movie.getTitle() + '|' + movie.getDate(), List.of()));
+    }
+
+    @SchemaMapping(typeName = "Movie")
+    public CompletableFuture<List<MovieDetailsDTO.CrewMemberDTO>> crew(MovieCardDTO movie, DataLoader<Long, List<MovieAttributeRow>> movieAttributes) {
+        return attributes(movie, movieAttributes, "CREW", row -> new MovieDetailsDTO.CrewMemberDTO(row.getValue(), row.getDetail()));
+    }
+
+    @SchemaMapping(typeName = "Movie")
+    public CompletableFuture<List<String>> genres(MovieCardDTO movie, DataLoader<Long, List<MovieAttributeRow>> movieAttributes) {
+        return attributes(movie, movieAttributes, "GENRE", MovieAttributeRow::getValue);
+    }
+
+    @SchemaMapping(typeName = "Movie")
+    public CompletableFuture<List<String>> countries(MovieCardDTO movie, DataLoader<Long, List<MovieAttributeRow>> movieAttributes) {
+        return attributes(movie, movieAttributes, "COUNTRY", MovieAttributeRow::getValue);
+    }
+
+    @SchemaMapping(typeName = "Movie")
+    public CompletableFuture<List<MovieDetailsDTO.LanguageDTO>> languages(MovieCardDTO movie, DataLoader<Long, List<MovieAttributeRow>> movieAttributes) {
+        return attributes(movie, movieAttributes, "LANGUAGE", row -> new MovieDetailsDTO.LanguageDTO(row.getDetail(), row.getValue()));
+    }
+
+    @SchemaMapping(typeName = "Movie")
+    public CompletableFuture<List<String>> studios(MovieCardDTO movie, DataLoader<Long, List<MovieAttributeRow>> movieAttributes) {
+        return attributes(movie, movieAttributes, "STUDIO", MovieAttributeRow::getValue);
+    }
+
+    @SchemaMapping(typeName = "Movie")
+    public CompletableFuture<List<String>> themes(MovieCardDTO movie, DataLoader<Long, List<MovieAttributeRow>> movieAttributes) {
+        return attributes(movie, movieAttributes, "THEME", MovieAttributeRow::getValue);
+    }
+
+    /**
+     * Richiede al DataLoader le righe delle tabelle figlie del film e ne estrae quelle di un tipo.
+     *
+     * @param movie           il film
+     * @param movieAttributes il DataLoader delle righe, condiviso dai sei campi
+     * @param kind            il tipo di riga (vedi {@link MovieAttributeRow#getKind()})
+     * @param mapper          la conversione della riga nel valore del campo
+     * @return i valori del campo, nell'ordine delle righe
+     */
+    private static <T> CompletableFuture<List<T>> attributes(MovieCardDTO movie, DataLoader<Long, List<MovieAttributeRow>> movieAttributes,
+                                                             String kind, Function<MovieAttributeRow, T> mapper) {
+        return movieAttributes.load(movie.getId()).thenApply(rows -> {
+            List<T> values = new ArrayList<>();
+            if (rows != null) {
+                for (MovieAttributeRow row : rows) {
+                    if (kind.equals(row.getKind())) {
+                        values.add(mapper.apply(row));
+                    }
+                }
+            }
+            return values;
+        });
+    }
+
+    private static List<Long> ids(List<MovieCardDTO> movies) {
+        return movies.stream().map(MovieCardDTO::getId).distinct().toList();
+    }
+
+    private static <V> Map<MovieCardDTO, V> byMovie(List<MovieCardDTO> movies, Function<MovieCardDTO, V> value) {
+        Map<MovieCardDTO, V> result = new LinkedHashMap<>();
+        movies.forEach(movie -> result.put(movie, value.apply(movie)));
+        return result;
+    }
+}
@@ -0,0 +1,50 @@
+package com.andrianigiordano.springboot.graphql;
+
+import com.andrianigiordano.springboot.movies.MovieCardDTO;
+import com.andrianigiordano.springboot.movies.MoviesRepository;
+import com.andrianigiordano.springboot.the_oscar_awards.TheOscarAwards;
+import com.andrianigiordano.springboot.the_oscar_awards.TheOscarAwardsService;
+import org.springframework.graphql.data.method.annotation.BatchMapping;
+import org.springframework.graphql.data.method.annotation.QueryMapping;
+import org.springframework.stereotype.Controller;
+
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Query GraphQL sui premi Oscar e sul film del catalogo collegato a ogni premio.
+ */
+@Controller
+public class OscarGraphController {
+
+    private final TheOscarAwardsService theOscarAwardsService;
+    private final MoviesRepository moviesRepository;
+
+    public OscarGraphController(TheOscarAwardsService theOscarAwardsService, MoviesRepository moviesRepository) {
+        this.theOscarAwardsService = theOscarAwardsService;
+        this.moviesRepository = moviesRepository;
+    }
+
+    @QueryMapping
+    public List<TheOscarAwards> oscarWinners() {
+        return theOscarAwardsService.getTop100Oscars();
+    }
+
+    /**
+     * Film dei premi, collegati per titolo e anno con una sola query sui titoli;
+     * a parità di titolo e anno viene scelto il film con ID minore, come in {@code /oscar/top100/by-category}.
+     */
+    @BatchMapping(typeName = "OscarAward")
+    public Map<TheOscarAwards, MovieCardDTO> movie(List<TheOscarAwards> awards) {
+        List<String> titles = awards.stream().map(TheOscarAwards::getFilm).distinct().toList();
+        Map<String, MovieCardDTO> movies = new HashMap<>();
+        for (MovieCardDTO movie : moviesRepository.findCardsByNameIn(titles)) {
+            movies.putIfAbsent(movie.getTitle() + '|' + movie.getDate(), movie);
+        }
+        Map<TheOscarAwards, MovieCardDTO> result = new LinkedHashMap<>();
+        awards.forEach(award -> result.put(award, movies.get(award.getFilm() + '|' + award.getYearFilm())));
+        return result;
+    }
+}
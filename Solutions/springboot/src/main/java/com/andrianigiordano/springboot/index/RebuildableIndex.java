@@ -0,0 +1,114 @@
+package com.andrianigiordano.springboot.index;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * Contenitore di una struttura in memoria costruita dal database e ricostruibile a caldo.
+ * <p>
+ * Le richieste leggono sempre l'ultima versione completa: una ricostruzione prepara la nuova struttura
+ * a parte e la sostituisce atomicamente, mentre le ricostruzioni concorrenti vengono serializzate.
+ * Se la struttura non è ancora pronta (costruzione disattivata all'avvio o fallita) la richiesta non la
+ * costruisce sul proprio thread, che ha un budget di poche query: la costruzione parte in background e
+ * la richiesta riceve 503 finché non è terminata.
+ *
+ * @param <T> il tipo della struttura
+ */
+public final class RebuildableIndex<T> {
+
+    private static final Logger log = LoggerFactory.getLogger(RebuildableIndex.class);
+
+    private final String name;
+    private final boolean buildOnStartup;
+    private final Supplier<T> loader;
+    private final AtomicBoolean building = new AtomicBoolean();
+
+    private volatile T current;
+
+    /**
+     * @param name           il nome della struttura, usato nei messaggi (es. "indice delle faccette")
+     * @param buildOnStartup se costruire la struttura all'avvio dell'applicazione
+     * @param loader         legge il database e costruisce una nuova struttura
+     */
+    public RebuildableIndex(String name, boolean buildOnStartup, Supplier<T> loader) {
+        this.name = name;
+        this.buildOnStartup = buildOnStartup;
+        this.loader = loader;
+    }
+
+    /**
+     * Costruisce la struttura all'avvio, se abilitato. Un errore viene registrato nel log e la
+     * struttura verrà costruita in background alla prima richiesta.
+     */
+    public void buildOnStartup() {
+        if (!buildOnStartup) {
+            return;
+        }
+        try {
+            rebuild();
+        } catch (RuntimeException e) {
+            log.error("Costruzione fallita: {}", name, e);
+        }
+    }
+
+    /**
+     * Costruisce una nuova struttura e la sostituisce a quella corrente.
+     *
+     * @return la struttura costruita
+     */
+    public synchronized T rebuild() {
+        T built = loader.get();
+        current = built;
+        return built;
+    }
+
+    /**
+     * Esegue un'operazione sulla struttura corrente (null se non è ancora pronta) escludendo le
+     * ricostruzioni concorrenti, ad esempio un aggiornamento parziale.
+     *
+     * @param action l'operazione da eseguire
+     * @return il risultato dell'operazione
+     */
+    public synchronized <R> R modify(Function<T, R> action) {
+        return action.apply(current);
+    }
+
+    /**
+     * Restituisce la struttura corrente.
+     *
+     * @return la struttura corrente
+     * @throws ResponseStatusException 503 se la struttura non è ancora pronta; la costruzione parte in background
+     */
+    public T get() {
+        T index = current;
+        if (index == null) {
+            rebuildInBackground();
+            throw new ResponseStatusException(HttpStatus.SERVICE_UNAVAILABLE,
+                    "Non ancora disponibile (" + name + " in costruzione), riprovare tra poco");
+        }
+        return index;
+    }
+
+    private void rebuildInBackground() {
+        if (!building.compareAndSet(false, true)) {
+            return;
+        }
+        Thread thread = new Thread(() -> {
+            try {
+                rebuild();
+            } catch (RuntimeException e) {
+                log.error("Costruzione fallita: {}", name, e);
+            } finally {
+                building.set(false);
+            }
+        }, "rebuild-index");
+        thread.setDaemon(true);
+        thread.start();
+    }
+}
@@ -0,0 +1,65 @@
+package com.andrianigiordano.springboot.metrics;
+
+import net.ttddyy.dsproxy.listener.logging.SLF4JLogLevel;
+import net.ttddyy.dsproxy.support.ProxyDataSourceBuilder;
+import org.hibernate.cfg.AvailableSettings;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+import javax.sql.DataSource;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Collega Hibernate e il DataSource alle metriche e ai controlli sulle query:
+ * <ul>
+ *     <li>ogni statement preparato da Hibernate viene contato per la richiesta in corso,
+ *     e il conteggio è confrontato con il budget dell'endpoint ({@link QueryBudget});</li>
+ *     <li>le query più lente di metrics.slow-query.threshold-ms vengono registrate nel log
+ *     {@code slow-query} con i parametri effettivi (0 per disattivare).</li>
+ * </ul>
+ * Le statistiche di Hibernate (caricamenti di entità, flush, query) sono esportate da hibernate-micrometer
+ * quando hibernate.generate_statistics è attivo.
+ */
+@Configuration
+public class MetricsConfiguration implements WebMvcConfigurer {
+
+    static final String SLOW_QUERY_LOGGER = "slow-query";
+
+    private final QueryBudgetInterceptor queryBudgetInterceptor;
+
+    public MetricsConfiguration(QueryBudgetInterceptor queryBudgetInterceptor) {
+        this.queryBudgetInterceptor = queryBudgetInterceptor;
+    }
+
+    @Bean
+    public HibernatePropertiesCustomizer queryCountingCustomizer() {
+        return properties -> properties.put(AvailableSettings.STATEMENT_INSPECTOR, new QueryCountingStatementInspector());
+    }
+
+    @Override
+    public void addInterceptors(InterceptorRegistry registry) {
+        registry.addInterceptor(queryBudgetInterceptor);
+    }
+
+    @Bean
+    public static BeanPostProcessor slowQueryLoggingPostProcessor(Environment environment) {
+        long thresholdMillis = environment.getProperty("metrics.slow-query.threshold-ms", Long.class, 200L);
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                if (thresholdMillis <= 0 || !(bean instanceof DataSource dataSource)) {
+                    return bean;
+                }
+                return ProxyDataSourceBuilder.create(dataSource)
+                        .name(beanName)
+                        .logSlowQueryBySlf4j(thresholdMillis, TimeUnit.MILLISECONDS, SLF4JLogLevel.WARN, SLOW_QUERY_LOGGER)
+                        .build();
+            }
+        };
+    }
+}
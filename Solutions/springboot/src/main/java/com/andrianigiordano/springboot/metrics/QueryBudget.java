@@ -0,0 +1,20 @@
+package com.andrianigiordano.springboot.metrics;
+
+import java.lang.annotation.*;
+
+/**
+ * Numero massimo di statement SQL che un endpoint può eseguire per richiesta.
+ * Se superato, {@link QueryBudgetInterceptor} lo segnala nel log e nella metrica
+ * {@code http.server.requests.queries.over.budget}; i test possono verificarlo per ogni endpoint.
+ * Sulla classe vale per tutti i metodi che non ne dichiarano uno proprio.
+ */
+@Target({ElementType.METHOD, ElementType.TYPE})
+@Retention(RetentionPolicy.RUNTIME)
+@Documented
+public @interface QueryBudget {
+
+    /**
+     * @return il numero massimo di statement per richiesta
+     */
+    int value();
+}
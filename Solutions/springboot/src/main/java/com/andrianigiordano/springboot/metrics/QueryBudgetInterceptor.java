@@ -0,0 +1,74 @@
+package com.andrianigiordano.springboot.metrics;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.annotation.AnnotatedElementUtils;
+import org.springframework.stereotype.Component;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.HandlerInterceptor;
+import org.springframework.web.servlet.HandlerMapping;
+
+/**
+ * Confronta a fine richiesta gli statement SQL contati da {@link QueryCounter} con il budget
+ * dell'endpoint ({@link QueryBudget}, oppure metrics.query-budget.default se non dichiarato).
+ * Un superamento viene registrato nel log con il numero di query e nella metrica
+ * {@code http.server.requests.queries.over.budget}: è il segnale tipico di un problema N+1.
+ */
+@Component
+public class QueryBudgetInterceptor implements HandlerInterceptor {
+
+    private static final Logger log = LoggerFactory.getLogger(QueryBudgetInterceptor.class);
+
+    static final String METRIC_NAME = "http.server.requests.queries.over.budget";
+
+    private final MeterRegistry meterRegistry;
+    private final int defaultBudget;
+
+    public QueryBudgetInterceptor(MeterRegistry meterRegistry,
+                                  @Value("${metrics.query-budget.default:20}") int defaultBudget) {
+        this.meterRegistry = meterRegistry;
+        this.defaultBudget = defaultBudget;
+    }
+
+    @Override
+    public void afterCompletion(HttpServletRequest request, HttpServletResponse response, Object handler, Exception ex) {
+        if (!(handler instanceof HandlerMethod handlerMethod)) {
+            return;
+        }
+        int budget = budgetOf(handlerMethod);
+        int queries = QueryCounter.current();
+        if (queries <= budget) {
+            return;
+        }
+        Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+        String uri = pattern != null ? pattern.toString() : request.getRequestURI();
+        log.warn("{} {} ha eseguito {} query SQL, oltre il budget di {} ({})",
+                request.getMethod(), uri, queries, budget, handlerMethod.getShortLogMessage());
+        Counter.builder(METRIC_NAME)
+                .description("Richieste che hanno superato il budget di query SQL")
+                .tag("method", request.getMethod())
+                .tag("uri", uri)
+                .register(meterRegistry)
+                .increment();
+    }
+
+    /**
+     * Restituisce il budget dichiarato sul metodo, o in mancanza sulla classe del controller,
+     * o il budget predefinito.
+     *
+     * @param handlerMethod il metodo del controller
+     * @return il numero massimo di statement per richiesta
+     */
+    public int budgetOf(HandlerMethod handlerMethod) {
+        QueryBudget budget = handlerMethod.getMethodAnnotation(QueryBudget.class);
+        if (budget == null) {
+            budget = AnnotatedElementUtils.findMergedAnnotation(handlerMethod.getBeanType(), QueryBudget.class);
+        }
+        return budget != null ? budget.value() : defaultBudget;
+    }
+}
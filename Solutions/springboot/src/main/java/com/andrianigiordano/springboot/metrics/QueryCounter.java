@@ -0,0 +1,46 @@
+package com.andrianigiordano.springboot.metrics;
+
+/**
+ * Conta gli statement SQL preparati da Hibernate sul thread corrente, dall'inizio della richiesta HTTP
+ * che lo sta servendo. Fuori da una richiesta (avvio, job in background) non conta nulla.
+ */
+public final class QueryCounter {
+
+    private static final ThreadLocal<int[]> COUNT = new ThreadLocal<>();
+
+    private QueryCounter() {
+    }
+
+    /**
+     * Inizia il conteggio sul thread corrente.
+     */
+    public static void start() {
+        COUNT.set(new int[1]);
+    }
+
+    /**
+     * Termina il conteggio sul thread corrente.
+     *
+     * @return il numero di statement contati dall'inizio
+     */
+    public static int stop() {
+        int count = current();
+        COUNT.remove();
+        return count;
+    }
+
+    /**
+     * @return il numero di statement contati finora sul thread corrente (0 se il conteggio non è attivo)
+     */
+    public static int current() {
+        int[] count = COUNT.get();
+        return count != null ? count[0] : 0;
+    }
+
+    static void increment() {
+        int[] count = COUNT.get();
+        if (count != null) {
+            count[0]++;
+        }
+    }
+}
@@ -0,0 +1,21 @@
+package com.andrianigiordano.springboot.metrics;
+
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+
+import java.io.Serial;
+
+/**
+ * Intercetta ogni statement SQL preparato da Hibernate per aggiornare {@link QueryCounter}.
+ * L'SQL non viene modificato.
+ */
+public class QueryCountingStatementInspector implements StatementInspector {
+
+    @Serial
+    private static final long serialVersionUID = 1L;
+
+    @Override
+    public String inspect(String sql) {
+        QueryCounter.increment();
+        return sql;
+    }
+}
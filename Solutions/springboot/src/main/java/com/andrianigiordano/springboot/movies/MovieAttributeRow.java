@@ -0,0 +1,18 @@
+package com.andrianigiordano.springboot.movies;
+
+/**
+ * Proiezione di una singola riga delle tabelle figlie di un film
+ * (crew, generi, paesi, lingue, studi, temi).
+ * Il campo kind indica la tabella di provenienza, value il valore principale
+ * e detail l'informazione aggiuntiva (ruolo per la crew, tipo per le lingue).
+ */
+public interface MovieAttributeRow {
+
+    Long getMovieId();
+
+    String getKind();
+
+    String getValue();
+
+    String getDetail();
+}
@@ -0,0 +1,28 @@
+package com.andrianigiordano.springboot.movies;
+
+import java.util.List;
+
+/**
+ * Risultato di una ricerca di più film per ID: le card dei film trovati, nell'ordine degli ID richiesti,
+ * e gli ID a cui non corrisponde nessun film.
+ */
+public class MovieBatchDTO {
+
+    private final List<MovieCardDTO> movies;
+
+    private final List<Long> missing;
+
+    public MovieBatchDTO(List<MovieCardDTO> movies, List<Long> missing) {
+        this.movies = movies;
+        this.missing = missing;
+    }
+
+    // Getter
+    public List<MovieCardDTO> getMovies() {
+        return movies;
+    }
+
+    public List<Long> getMissing() {
+        return missing;
+    }
+}
@@ -0,0 +1,74 @@
+package com.andrianigiordano.springboot.movies;
+
+/**
+ * Film come appare nelle liste (home, catalogo, Oscar, risultati per attore): i soli campi
+ * mostrati nelle card, senza la descrizione, che viene letta solo per il dettaglio del film.
+ * <p>
+ * Viene costruito direttamente dalle query del {@link MoviesRepository} (espressione
+ * {@code SELECT new}), quindi le liste non caricano entità nel contesto di persistenza.
+ */
+public class MovieCardDTO {
+
+    private final Long id;
+
+    private final String title;
+
+    private final Integer date;
+
+    private final String tagline;
+
+    private final String posterUrl;
+
+    private final Double rating;
+
+    private final Integer minute;
+
+    public MovieCardDTO(Long id, String title, Integer date, String tagline, String posterUrl, Double rating, Integer minute) {
+        this.id = id;
+        this.title = title;
+        this.date = date;
+        this.tagline = tagline;
+        this.posterUrl = posterUrl;
+        this.rating = rating;
+        this.minute = minute;
+    }
+
+    // Getter
+    public Long getId() {
+        return id;
+    }
+
+    public String getTitle() {
+        return title;
+    }
+
+    public Integer getDate() {
+        return date;
+    }
+
+    public String getTagline() {
+        return tagline;
+    }
+
+    public String getPosterUrl() {
+        return posterUrl;
+    }
+
+    public Double getRating() {
+        return rating;
+    }
+
+    public Integer getMinute() {
+        return minute;
+    }
+
+    @Override
+    public String toString() {
+        return "MovieCardDTO{" +
+                "id=" + id +
+                ", title='" + title + '\'' +
+                ", date=" + date +
+                ", rating=" + rating +
+                '}';
+    }
+}
@@ -0,0 +1,138 @@
+package com.andrianigiordano.springboot.movies;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.Locale;
+
+/**
+ * Posizione nella paginazione keyset del catalogo: criterio di ordinamento, valore della chiave
+ * di ordinamento e ID dell'ultimo film restituito.
+ * <p>
+ * Al client viene passata come token opaco (Base64 URL-safe); la pagina successiva riparte dai
+ * film che seguono questa posizione, quindi il costo di ogni pagina non dipende dalla profondità.
+ * Con l'ordinamento per rating o anno i film senza valore vengono elencati in coda, per ID:
+ * in quella fase {@code value} è null.
+ */
+public final class MovieCursor {
+
+    /**
+     * Criteri di ordinamento disponibili. Rating e anno sono decrescenti, a parità si ordina per ID.
+     */
+    public enum Sort {
+        ID, RATING, DATE;
+
+        /**
+         * Converte il parametro della richiesta nel criterio di ordinamento.
+         *
+         * @param value il nome del criterio (id, rating o date), senza distinzione tra maiuscole e minuscole
+         * @return il criterio corrispondente
+         * @throws ResponseStatusException 400 se il criterio non esiste
+         */
+        public static Sort parse(String value) {
+            try {
+                return valueOf(value.trim().toUpperCase(Locale.ROOT));
+            } catch (IllegalArgumentException e) {
+                throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Ordinamento non valido: " + value);
+            }
+        }
+    }
+
+    private static final String VERSION = "v1";
+
+    private final Sort sort;
+    private final Number value;
+    private final long lastId;
+
+    MovieCursor(Sort sort, Number value, long lastId) {
+        this.sort = sort;
+        this.value = value;
+        this.lastId = lastId;
+    }
+
+    /**
+     * Posizione iniziale, prima del primo film.
+     *
+     * @param sort il criterio di ordinamento
+     * @return la posizione iniziale
+     */
+    static MovieCursor first(Sort sort) {
+        Number value = switch (sort) {
+            case ID -> null;
+            case RATING -> Double.MAX_VALUE;
+            case DATE -> Integer.MAX_VALUE;
+        };
+        return new MovieCursor(sort, value, Long.MIN_VALUE);
+    }
+
+    /**
+     * Posizione subito dopo il film indicato.
+     *
+     * @param sort  il criterio di ordinamento
+     * @param movie l'ultimo film restituito
+     * @return la posizione successiva al film
+     */
+    static MovieCursor after(Sort sort, MovieCardDTO movie) {
+        Number value = switch (sort) {
+            case ID -> null;
+            case RATING -> movie.getRating();
+            case DATE -> movie.getDate();
+        };
+        return new MovieCursor(sort, value, movie.getId());
+    }
+
+    /**
+     * Decodifica un token ricevuto dal client.
+     *
+     * @param token il token restituito con la pagina precedente
+     * @param sort  il criterio di ordinamento della richiesta corrente
+     * @return la posizione codificata nel token
+     * @throws ResponseStatusException 400 se il token è malformato o è stato generato con un altro ordinamento
+     */
+    static MovieCursor decode(String token, Sort sort) {
+        try {
+            String[] parts = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8).split("\\|", -1);
+            if (parts.length != 4 || !VERSION.equals(parts[0]) || Sort.valueOf(parts[1]) != sort) {
+                throw new IllegalArgumentException(token);
+            }
+            Number value = null;
+            if (!parts[2].isEmpty()) {
+                value = sort == Sort.RATING ? (Number) Double.valueOf(parts[2]) : (Number) Integer.valueOf(parts[2]);
+            }
+            return new MovieCursor(sort, value, Long.parseLong(parts[3]));
+        } catch (IllegalArgumentException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Cursore non valido per l'ordinamento " + sort.name().toLowerCase(Locale.ROOT));
+        }
+    }
+
+    /**
+     * Codifica la posizione nel token opaco da restituire al client.
+     *
+     * @return il token
+     */
+    String encode() {
+        String plain = VERSION + "|" + sort.name() + "|" + (value == null ? "" : value) + "|" + lastId;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(plain.getBytes(StandardCharsets.UTF_8));
+    }
+
+    Sort getSort() {
+        return sort;
+    }
+
+    Number getValue() {
+        return value;
+    }
+
+    long getLastId() {
+        return lastId;
+    }
+
+    /**
+     * Indica se la posizione è nella coda dei film senza valore per la chiave di ordinamento.
+     */
+    boolean isInNullTail() {
+        return sort != Sort.ID && value == null;
+    }
+}
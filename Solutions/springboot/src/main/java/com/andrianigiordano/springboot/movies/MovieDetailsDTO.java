@@ -0,0 +1,103 @@
+package com.andrianigiordano.springboot.movies;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Dettaglio completo di un film: dati principali con poster e tutte le informazioni
+ * delle tabelle collegate, già strutturate in liste tipizzate.
+ * La forma ricalca l'oggetto composto dal server Express per la pagina del film.
+ */
+public class MovieDetailsDTO {
+
+    private final MovieDTO movie;
+
+    private final List<CrewMemberDTO> crew = new ArrayList<>();
+
+    private final List<String> genres = new ArrayList<>();
+
+    private final List<String> countries = new ArrayList<>();
+
+    private final List<LanguageDTO> languages = new ArrayList<>();
+
+    private final List<String> studios = new ArrayList<>();
+
+    private final List<String> themes = new ArrayList<>();
+
+    public MovieDetailsDTO(MovieDTO movie) {
+        this.movie = movie;
+    }
+
+    // Getter
+    public MovieDTO getMovie() {
+        return movie;
+    }
+
+    public List<CrewMemberDTO> getCrew() {
+        return crew;
+    }
+
+    public List<String> getGenres() {
+        return genres;
+    }
+
+    public List<String> getCountries() {
+        return countries;
+    }
+
+    public List<LanguageDTO> getLanguages() {
+        return languages;
+    }
+
+    public List<String> getStudios() {
+        return studios;
+    }
+
+    public List<String> getThemes() {
+        return themes;
+    }
+
+    /**
+     * Membro della crew con il relativo ruolo.
+     */
+    public static class CrewMemberDTO {
+        private final String name;
+
+        private final String role;
+
+        public CrewMemberDTO(String name, String role) {
+            this.name = name;
+            this.role = role;
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        public String getRole() {
+            return role;
+        }
+    }
+
+    /**
+     * Lingua del film con il relativo tipo (es. lingua originale o parlata).
+     */
+    public static class LanguageDTO {
+        private final String type;
+
+        private final String language;
+
+        public LanguageDTO(String type, String language) {
+            this.type = type;
+            this.language = language;
+        }
+
+        public String getType() {
+            return type;
+        }
+
+        public String getLanguage() {
+            return language;
+        }
+    }
+}
@@ -0,0 +1,114 @@
+package com.andrianigiordano.springboot.movies;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Stream;
+
+/**
+ * Servizio che esporta l'intero catalogo dei film in formato NDJSON (un oggetto JSON per riga),
+ * con la stessa forma di /movies/{id}/details.
+ * <p>
+ * I film vengono letti con uno stream JDBC a fetch size limitata e i dettagli delle tabelle
+ * collegate vengono caricati a blocchi con una query per blocco: in memoria c'è al più un blocco
+ * di film alla volta, quindi l'occupazione non dipende dalla dimensione del catalogo.
+ */
+@Service
+public class MovieExportService {
+
+    private static final Logger log = LoggerFactory.getLogger(MovieExportService.class);
+
+    // Numero di film per cui i dettagli vengono caricati con una sola query
+    private static final int CHUNK_SIZE = 500;
+
+    private final MoviesRepository moviesRepository;
+    private final TransactionTemplate readOnlyTransaction;
+    private final ObjectMapper objectMapper;
+
+    public MovieExportService(MoviesRepository moviesRepository,
+                              PlatformTransactionManager transactionManager,
+                              ObjectMapper objectMapper) {
+        this.moviesRepository = moviesRepository;
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+        this.objectMapper = objectMapper;
+    }
+
+    /**
+     * Scrive tutti i film sullo stream di output, uno per riga, in ordine di ID.
+     * Lo stream di output non viene chiuso.
+     *
+     * @param output lo stream su cui scrivere
+     * @return il numero di film esportati
+     */
+    public long export(OutputStream output) {
+        long start = System.nanoTime();
+        Long exported = readOnlyTransaction.execute(status -> {
+            try (Stream<Object[]> rows = moviesRepository.streamExportRows();
+                 JsonGenerator generator = objectMapper.getFactory().createGenerator(output)) {
+                generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+                generator.setRootValueSeparator(null);
+                ObjectWriter writer = objectMapper.writerFor(MovieDetailsDTO.class);
+
+                long count = 0;
+                Map<Long, MovieDetailsDTO> chunk = new LinkedHashMap<>();
+                Iterator<Object[]> iterator = rows.iterator();
+                while (iterator.hasNext()) {
+                    MovieDetailsDTO details = new MovieDetailsDTO(toMovieDTO(iterator.next()));
+                    chunk.put(details.getMovie().getId(), details);
+                    if (chunk.size() == CHUNK_SIZE || !iterator.hasNext()) {
+                        count += writeChunk(chunk, writer, generator);
+                        chunk.clear();
+                    }
+                }
+                return count;
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        });
+        log.info("Export del catalogo completato: {} film in {} ms", exported, (System.nanoTime() - start) / 1_000_000);
+        return exported;
+    }
+
+    /**
+     * Completa i film del blocco con i dettagli delle tabelle collegate e li scrive, uno per riga.
+     */
+    private int writeChunk(Map<Long, MovieDetailsDTO> chunk, ObjectWriter writer, JsonGenerator generator) throws IOException {
+        for (MovieAttributeRow row : moviesRepository.findAttributesByMovieIds(new ArrayList<>(chunk.keySet()))) {
+            MoviesService.addAttribute(chunk.get(row.getMovieId()), row);
+        }
+        for (MovieDetailsDTO details : chunk.values()) {
+            writer.writeValue(generator, details);
+            generator.writeRaw('\n');
+        }
+        generator.flush();
+        return chunk.size();
+    }
+
+    private static MovieDTO toMovieDTO(Object[] row) {
+        return new MovieDTO(
+                (Long) row[0],
+                (String) row[1],
+                (Integer) row[2],
+                (String) row[3],
+                (String) row[4],
+                (String) row[7],
+                (Double) row[6],
+                (Integer) row[5]
+        );
+    }
+}
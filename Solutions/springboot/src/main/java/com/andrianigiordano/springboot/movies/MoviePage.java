@@ -0,0 +1,27 @@
+package com.andrianigiordano.springboot.movies;
+
+import java.util.List;
+
+/**
+ * Pagina del catalogo restituita dalla paginazione keyset: le card dei film della pagina e il token
+ * per richiedere la successiva (null se la pagina è l'ultima).
+ */
+public class MoviePage {
+
+    private final List<MovieCardDTO> movies;
+
+    private final String nextCursor;
+
+    public MoviePage(List<MovieCardDTO> movies, String nextCursor) {
+        this.movies = movies;
+        this.nextCursor = nextCursor;
+    }
+
+    public List<MovieCardDTO> getMovies() {
+        return movies;
+    }
+
+    public String getNextCursor() {
+        return nextCursor;
+    }
+}
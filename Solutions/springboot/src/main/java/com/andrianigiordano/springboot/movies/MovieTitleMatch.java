@@ -0,0 +1,16 @@
+package com.andrianigiordano.springboot.movies;
+
+/**
+ * Film individuato per titolo e anno, con il poster: usato per collegare ai film
+ * i dati che li identificano solo per nome (ad esempio i premi Oscar).
+ */
+public interface MovieTitleMatch {
+
+    Long getId();
+
+    String getName();
+
+    Integer getDate();
+
+    String getPosterUrl();
+}
@@ -1,12 +1,21 @@
 package com.andrianigiordano.springboot.movies;
 
+import com.andrianigiordano.springboot.metrics.QueryBudget;
+import com.andrianigiordano.springboot.snapshot.SnapshotService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.media.ArraySchema;
+import io.swagger.v3.oas.annotations.media.Content;
+import io.swagger.v3.oas.annotations.media.Schema;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.tags.Tag;
 
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import java.util.List;
 
@@ -15,19 +24,47 @@ import java.util.List;
 @Tag(name = "Movies", description = "API per la gestione dei film e dei relativi dettagli")
 public class MoviesController {
 
+    static final String NEXT_CURSOR_HEADER = "X-Next-Cursor";
+
     private final MoviesService movieService;
+    private final MovieExportService movieExportService;
+    private final SnapshotService snapshotService;
 
-    public MoviesController(MoviesService movieService) {
+    public MoviesController(MoviesService movieService, MovieExportService movieExportService, SnapshotService snapshotService) {
         this.movieService = movieService;
+        this.movieExportService = movieExportService;
+        this.snapshotService = snapshotService;
     }
 
-    @Operation(summary = "Recupera tutti i film con poster")
+    @Operation(summary = "Recupera tutti i film con poster",
+            description = "Restituisce una pagina del catalogo; se esistono altri film il token per la pagina " +
+                    "successiva è nell'header X-Next-Cursor, da passare nel parametro cursor")
+    @QueryBudget(2)
     @GetMapping("/get-all")
-    public ResponseEntity<List<MovieDTO>> getMoviesWithPosters() {
-        return ResponseEntity.ok(movieService.getAllMoviesWithPosters());
+    public ResponseEntity<List<MovieCardDTO>> getMoviesWithPosters(
+            @Parameter(description = "Ordinamento: id, rating (decrescente) o date (decrescente)") @RequestParam(defaultValue = "id") String sort,
+            @Parameter(description = "Token della pagina successiva, ricevuto nell'header X-Next-Cursor") @RequestParam(required = false) String cursor,
+            @Parameter(description = "Numero di film per pagina") @RequestParam(required = false) Integer size) {
+        MoviePage page = movieService.getAllMoviesWithPosters(sort, cursor, size);
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok();
+        if (page.getNextCursor() != null) {
+            response.header(NEXT_CURSOR_HEADER, page.getNextCursor());
+        }
+        return response.body(page.getMovies());
+    }
+
+    @Operation(summary = "Esporta l'intero catalogo",
+            description = "Restituisce tutti i film in formato NDJSON, un oggetto per riga con la stessa forma di " +
+                    "/movies/{id}/details; la risposta viene scritta man mano che i film vengono letti")
+    @GetMapping(value = "/export", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> exportCatalog() {
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_NDJSON)
+                .body(movieExportService::export);
     }
 
     @Operation(summary = "Dettagli film per ID")
+    @QueryBudget(1)
     @GetMapping("/get-movie-by-id")
     public ResponseEntity<MovieDTO> getMovieDetails(
             @Parameter(description = "ID del film") @RequestParam Long movieId) {
@@ -36,76 +73,122 @@ public class MoviesController {
                 .orElse(ResponseEntity.status(HttpStatus.NOT_FOUND).body(null));
     }
 
-    @Operation(summary = "Cerca film per nome")
+    @Operation(summary = "Film per lista di ID",
+            description = "Restituisce in un'unica risposta i film con gli ID indicati (parametro ids ripetuto), " +
+                    "nell'ordine richiesto, e gli ID non trovati")
+    @QueryBudget(1)
+    @GetMapping("/get-by-ids")
+    public MovieBatchDTO getMoviesByIds(
+            @Parameter(description = "ID dei film") @RequestParam List<Long> ids) {
+        return movieService.getMoviesByIds(ids);
+    }
+
+    @Operation(summary = "Film per lista di ID (POST)",
+            description = "Come GET /movies/get-by-ids, con gli ID passati come array JSON nel corpo della richiesta")
+    @QueryBudget(1)
+    @PostMapping("/get-by-ids")
+    public MovieBatchDTO postMoviesByIds(@RequestBody List<Long> ids) {
+        return movieService.getMoviesByIds(ids);
+    }
+
+    @Operation(summary = "Dettaglio completo del film per ID",
+            description = "Restituisce film, poster, crew, generi, paesi, lingue, studi e temi in un'unica risposta")
+    @QueryBudget(2)
+    @GetMapping("/{id}/details")
+    public ResponseEntity<MovieDetailsDTO> getMovieFullDetails(
+            @Parameter(description = "ID del film") @PathVariable Long id) {
+        return movieService.getMovieDetails(id)
+                .map(ResponseEntity::ok)
+                .orElse(ResponseEntity.status(HttpStatus.NOT_FOUND).body(null));
+    }
+
+    @Operation(summary = "Cerca film per nome", description = "Restituisce i primi 100 film per rilevanza del titolo; " +
+            "per le pagine successive e il totale usare /search-movies")
+    @QueryBudget(2)
     @GetMapping("/search-movies")
-    public List<Movies> searchMoviesByName(
+    public List<MovieCardDTO> searchMoviesByName(
             @Parameter(description = "Nome del film da cercare") @RequestParam String name) {
-        return movieService.searchMoviesByName(name);
+        return movieService.searchMoviesByName(name, 0, 100).getItems(); // Massimo 100 risultati
     }
 
-    @Operation(summary = "Top 100 film premiati agli Oscar")
+    @Operation(summary = "Top 100 film premiati agli Oscar",
+            description = "Risposta precalcolata con ETag: con If-None-Match uguale alla versione corrente restituisce 304")
+    @ApiResponse(responseCode = "200", content = @Content(mediaType = "application/json",
+            array = @ArraySchema(schema = @Schema(implementation = MovieCardDTO.class))))
     @GetMapping("/top100")
-    public List<MovieDTO> oscarsTop100() {
-        return movieService.oscarsTop100();
+    public ResponseEntity<byte[]> oscarsTop100(@Parameter(hidden = true) @RequestHeader(value = HttpHeaders.ACCEPT, required = false) String accept) {
+        return snapshotService.respond(SnapshotService.OSCAR_MOVIES, accept);
     }
 
-    @Operation(summary = "Film in base agli attori")
+    @Operation(summary = "Film in base agli attori",
+            description = "Risposta precalcolata con ETag: con If-None-Match uguale alla versione corrente restituisce 304")
+    @ApiResponse(responseCode = "200", content = @Content(mediaType = "application/json",
+            array = @ArraySchema(schema = @Schema(implementation = MovieCardDTO.class))))
     @GetMapping("/actors-home")
-    public List<MovieDTO> getActorsHome() {
-        return movieService.getActors();
+    public ResponseEntity<byte[]> getActorsHome(@Parameter(hidden = true) @RequestHeader(value = HttpHeaders.ACCEPT, required = false) String accept) {
+        return snapshotService.respond(SnapshotService.ACTORS_HOME_MOVIES, accept);
     }
 
-    @Operation(summary = "Film per la home page")
+    @Operation(summary = "Film per la home page",
+            description = "Risposta precalcolata con ETag: con If-None-Match uguale alla versione corrente restituisce 304")
+    @ApiResponse(responseCode = "200", content = @Content(mediaType = "application/json",
+            array = @ArraySchema(schema = @Schema(implementation = MovieCardDTO.class))))
     @GetMapping("/get-home-movies")
-    public List<MovieDTO> getHomeMovies() {
-        return movieService.getPosters();
+    public ResponseEntity<byte[]> getHomeMovies(@Parameter(hidden = true) @RequestHeader(value = HttpHeaders.ACCEPT, required = false) String accept) {
+        return snapshotService.respond(SnapshotService.HOME_MOVIES, accept);
     }
 
     @Operation(summary = "Temi del film per ID")
+    @QueryBudget(1)
     @GetMapping("/get-themes-by-id")
     public ResponseEntity<String> getThemesByMovieId(
             @Parameter(description = "ID del film") @RequestParam Long movieId) {
         String themes = movieService.getThemesByMovieId(movieId);
-        return themes.isEmpty() ? ResponseEntity.notFound().build() : ResponseEntity.ok(themes);
+        return themes == null || themes.isEmpty() ? ResponseEntity.notFound().build() : ResponseEntity.ok(themes);
     }
 
     @Operation(summary = "Cast e crew del film per ID")
+    @QueryBudget(1)
     @GetMapping("/get-crew-by-id")
     public ResponseEntity<String> getCrewByMovieId(
             @Parameter(description = "ID del film") @RequestParam Long movieId) {
         String crew = movieService.getCrewByMovieId(movieId);
-        return crew.isEmpty() ? ResponseEntity.notFound().build() : ResponseEntity.ok(crew);
+        return crew == null || crew.isEmpty() ? ResponseEntity.notFound().build() : ResponseEntity.ok(crew);
     }
 
     @Operation(summary = "Generi del film per ID")
+    @QueryBudget(1)
     @GetMapping("/get-genres-by-id")
     public ResponseEntity<String> getGenresByMovieId(
             @Parameter(description = "ID del film") @RequestParam Long movieId) {
         String genres = movieService.getGenresByMovieId(movieId);
-        return genres.isEmpty() ? ResponseEntity.notFound().build() : ResponseEntity.ok(genres);
+        return genres == null || genres.isEmpty() ? ResponseEntity.notFound().build() : ResponseEntity.ok(genres);
     }
 
     @Operation(summary = "Paesi di produzione del film per ID")
+    @QueryBudget(1)
     @GetMapping("/get-countries-by-id")
     public ResponseEntity<String> getCountriesByMovieId(
             @Parameter(description = "ID del film") @RequestParam Long movieId) {
         String countries = movieService.getCountriesByMovieId(movieId);
-        return countries.isEmpty() ? ResponseEntity.notFound().build() : ResponseEntity.ok(countries);
+        return countries == null || countries.isEmpty() ? ResponseEntity.notFound().build() : ResponseEntity.ok(countries);
     }
 
     @Operation(summary = "Lingue del film per ID")
+    @QueryBudget(1)
     @GetMapping("/get-languages-by-id")
     public ResponseEntity<String> getLanguagesByMovieId(
             @Parameter(description = "ID del film") @RequestParam Long movieId) {
         String languages = movieService.getLanguagesByMovieId(movieId);
-        return languages.isEmpty() ? ResponseEntity.notFound().build() : ResponseEntity.ok(languages);
+        return languages == null || languages.isEmpty() ? ResponseEntity.notFound().build() : ResponseEntity.ok(languages);
     }
 
     @Operation(summary = "Studi di produzione del film per ID")
+    @QueryBudget(1)
     @GetMapping("/get-studios-by-id")
     public ResponseEntity<String> getStudiosByMovieId(
             @Parameter(description = "ID del film") @RequestParam Long movieId) {
         String studios = movieService.getStudiosByMovieId(movieId);
-        return studios.isEmpty() ? ResponseEntity.notFound().build() : ResponseEntity.ok(studios);
+        return studios == null || studios.isEmpty() ? ResponseEntity.notFound().build() : ResponseEntity.ok(studios);
     }
 }
@@ -1,13 +1,18 @@
 package com.andrianigiordano.springboot.movies;
 
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 /**
  * Repository per la gestione delle operazioni di accesso ai dati dei film.
@@ -16,24 +21,242 @@ import java.util.Optional;
 public interface MoviesRepository extends JpaRepository<Movies, Long> {
 
     /**
-     * Cerca i film il cui nome contiene una determinata stringa, ignorando maiuscole e minuscole.
-     * La ricerca è limitata a un numero massimo di risultati specificato dal Pageable.
+     * Inizio delle query che restituiscono le card dei film ({@link MovieCardDTO}): legge solo le colonne
+     * mostrate nelle liste, senza la descrizione, e non carica entità nel contesto di persistenza.
+     */
+    String CARD_QUERY = "SELECT new com.andrianigiordano.springboot.movies.MovieCardDTO(" +
+            "m.id, m.name, m.date, m.tagline, p.link, m.rating, m.minute) FROM Movies m LEFT JOIN m.poster p ";
+
+    /**
+     * Cerca le card dei film il cui nome contiene una determinata stringa, ignorando maiuscole e minuscole,
+     * nello stesso ordine di rilevanza dell'indice in memoria: titolo identico, poi che inizia con la stringa,
+     * poi con la stringa dopo uno spazio, infine in mezzo a una parola; a parità, i titoli più corti.
+     * Usata per la ricerca finché l'indice in memoria non è pronto.
+     *
+     * @param name     Il nome (o parte del nome) del film da cercare.
+     * @param pageable La pagina di risultati richiesta.
+     * @return Le card dei film della pagina, in ordine di rilevanza.
+     */
+    @Query(CARD_QUERY + "WHERE LOWER(m.name) LIKE LOWER(CONCAT('%', :name, '%')) ORDER BY " +
+            "CASE WHEN LOWER(m.name) = LOWER(:name) THEN 0 " +
+            "WHEN LOWER(m.name) LIKE LOWER(CONCAT(:name, '%')) THEN 1 " +
+            "WHEN LOWER(m.name) LIKE LOWER(CONCAT('% ', :name, '%')) THEN 2 ELSE 3 END, LENGTH(m.name), m.id")
+    List<MovieCardDTO> searchCardsByName(@Param("name") String name, Pageable pageable);
+
+    /**
+     * Recupera gli ID dei film il cui nome contiene una determinata stringa, ignorando maiuscole e minuscole.
+     * Con un Pageable limitato serve a contare le corrispondenze fino a una soglia, senza scandire tutta la tabella.
      *
      * @param name     Il nome (o parte del nome) del film da cercare.
      * @param pageable L'oggetto Pageable per limitare il numero di risultati.
-     * @return Una lista di film corrispondenti alla ricerca.
+     * @return Gli ID dei film trovati.
+     */
+    @Query("SELECT m.id FROM Movies m WHERE LOWER(m.name) LIKE LOWER(CONCAT('%', :name, '%'))")
+    List<Long> findIdsByName(@Param("name") String name, Pageable pageable);
+
+    /**
+     * Scorre ID, titolo e rating di tutti i film, usato per costruire gli indici di ricerca in memoria.
+     * Deve essere chiamato all'interno di una transazione; lo stream va chiuso dopo l'uso.
+     *
+     * @return Uno stream di terne [id, titolo, rating] ordinate per ID.
+     */
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "10000"))
+    @Query("SELECT m.id, m.name, m.rating FROM Movies m ORDER BY m.id")
+    Stream<Object[]> streamSearchRows();
+
+    /**
+     * Scorre tutti i film con il link del poster, usato per l'export dell'intero catalogo.
+     * Restituisce valori scalari e non entità, quindi il contesto di persistenza non cresce
+     * durante la lettura. Deve essere chiamato all'interno di una transazione; lo stream va chiuso dopo l'uso.
+     *
+     * @return Uno stream di righe [id, titolo, anno, tagline, descrizione, durata, rating, poster] ordinate per ID.
      */
-    @Query("SELECT DISTINCT m FROM Movies m WHERE LOWER(m.name) LIKE LOWER(CONCAT('%', :name, '%'))")
-    List<Movies> findByNameContainingIgnoreCase(@Param("name") String name, Pageable pageable);
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("SELECT m.id, m.name, m.date, m.tagline, m.description, m.minute, m.rating, p.link " +
+            "FROM Movies m LEFT JOIN m.poster p ORDER BY m.id")
+    Stream<Object[]> streamExportRows();
 
     /**
-     * Recupera tutti i film con i relativi poster, limitando il risultato a 100 elementi.
-     * Viene utilizzata una LEFT JOIN FETCH per caricare i poster associati ai film.
+     * Scorre ID, anno, durata e rating di tutti i film, usato per costruire l'indice delle faccette.
+     * Deve essere chiamato all'interno di una transazione; lo stream va chiuso dopo l'uso.
      *
-     * @return Una lista di film con i relativi poster.
+     * @return Uno stream di righe [id, anno, durata, rating] ordinate per ID.
      */
-    @Query("SELECT m FROM Movies m LEFT JOIN FETCH m.poster ORDER BY m.id limit 100")
-    List<Movies> findAllWithPosters();
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "10000"))
+    @Query("SELECT m.id, m.date, m.minute, m.rating FROM Movies m ORDER BY m.id")
+    Stream<Object[]> streamFacetMovies();
+
+    /**
+     * Scorre in un'unica query le righe di generi, paesi, lingue, studi e temi di tutti i film,
+     * usato per costruire l'indice delle faccette. Ogni riga è etichettata con la faccetta
+     * (genre, country, language, studio, theme). Deve essere chiamato all'interno di una transazione;
+     * lo stream va chiuso dopo l'uso.
+     *
+     * @return Uno stream di righe [id del film, faccetta, valore].
+     */
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "10000"))
+    @Query(value = "SELECT g.id, 'genre', g.genre FROM genres_data g " +
+            "UNION ALL SELECT co.id, 'country', co.country FROM countries_data co " +
+            "UNION ALL SELECT l.id, 'language', l.language FROM languages_data l " +
+            "UNION ALL SELECT s.id, 'studio', s.studio FROM studios_data s " +
+            "UNION ALL SELECT t.id, 'theme', t.theme FROM themes_data t",
+            nativeQuery = true)
+    Stream<Object[]> streamFacetValues();
+
+    /**
+     * Scorre in un'unica query temi, generi e persone della crew di tutti i film, usato per costruire
+     * l'indice dei film simili. Ogni riga è etichettata con il tipo (theme, genre, crew).
+     * Deve essere chiamato all'interno di una transazione; lo stream va chiuso dopo l'uso.
+     *
+     * @return Uno stream di righe [id del film, tipo, valore].
+     */
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "10000"))
+    @Query(value = "SELECT t.id, 'theme', t.theme FROM themes_data t " +
+            "UNION ALL SELECT g.id, 'genre', g.genre FROM genres_data g " +
+            "UNION ALL SELECT c.id, 'crew', c.name FROM crew_data c",
+            nativeQuery = true)
+    Stream<Object[]> streamSimilarityFeatures();
+
+    /**
+     * Scorre ID, anno, durata e rating dei film con rating, usato per costruire le classifiche.
+     * Deve essere chiamato all'interno di una transazione; lo stream va chiuso dopo l'uso.
+     *
+     * @return Uno stream di righe [id, anno, durata, rating].
+     */
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "10000"))
+    @Query("SELECT m.id, m.date, m.minute, m.rating FROM Movies m WHERE m.rating IS NOT NULL")
+    Stream<Object[]> streamRankingMovies();
+
+    /**
+     * Scorre in un'unica query generi e paesi di tutti i film, usato per costruire le classifiche.
+     * Ogni riga è etichettata con la dimensione (genre o country). Deve essere chiamato all'interno
+     * di una transazione; lo stream va chiuso dopo l'uso.
+     *
+     * @return Uno stream di righe [id del film, dimensione, valore].
+     */
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "10000"))
+    @Query(value = "SELECT g.id, 'genre', g.genre FROM genres_data g " +
+            "UNION ALL SELECT c.id, 'country', c.country FROM countries_data c",
+            nativeQuery = true)
+    Stream<Object[]> streamRankingValues();
+
+    /**
+     * Recupera ID, anno, durata e rating dei film indicati, usato per aggiornare le classifiche.
+     *
+     * @param ids Gli ID dei film.
+     * @return Le righe [id, anno, durata, rating] dei film esistenti.
+     */
+    @Query("SELECT m.id, m.date, m.minute, m.rating FROM Movies m WHERE m.id IN :ids")
+    List<Object[]> findRankingMovies(@Param("ids") Collection<Long> ids);
+
+    /**
+     * Recupera generi e paesi dei film indicati, usato per aggiornare le classifiche.
+     *
+     * @param ids Gli ID dei film.
+     * @return Le righe [id del film, dimensione, valore].
+     */
+    @Query(value = "SELECT g.id, 'genre', g.genre FROM genres_data g WHERE g.id IN (:ids) " +
+            "UNION ALL SELECT c.id, 'country', c.country FROM countries_data c WHERE c.id IN (:ids)",
+            nativeQuery = true)
+    List<Object[]> findRankingValues(@Param("ids") Collection<Long> ids);
+
+    /**
+     * Recupera le card dei film con gli ID indicati.
+     *
+     * @param ids Gli ID dei film da recuperare.
+     * @return Le card dei film trovati, in ordine non specificato.
+     */
+    @Query(CARD_QUERY + "WHERE m.id IN :ids")
+    List<MovieCardDTO> findCardsByIdIn(@Param("ids") Collection<Long> ids);
+
+    /**
+     * Recupera le card dei film con uno dei titoli indicati, per collegare ai film
+     * i premi Oscar, che li identificano per titolo e anno.
+     *
+     * @param titles i titoli esatti dei film
+     * @return le card dei film trovati, ordinate per ID
+     */
+    @Query(CARD_QUERY + "WHERE m.name IN :titles ORDER BY m.id")
+    List<MovieCardDTO> findCardsByNameIn(@Param("titles") Collection<String> titles);
+
+    /**
+     * Recupera la descrizione dei film indicati, che le card non contengono.
+     *
+     * @param ids gli ID dei film
+     * @return coppie [id, descrizione] dei film trovati
+     */
+    @Query("SELECT m.id, m.description FROM Movies m WHERE m.id IN :ids")
+    List<Object[]> findDescriptionsByIdIn(@Param("ids") Collection<Long> ids);
+
+    /**
+     * Recupera le card dei film successivi a un ID, in ordine di ID (paginazione keyset).
+     *
+     * @param afterId  L'ID dell'ultimo film della pagina precedente.
+     * @param pageable L'oggetto Pageable per limitare il numero di risultati.
+     * @return Le card dei film della pagina.
+     */
+    @Query(CARD_QUERY + "WHERE m.id > :afterId ORDER BY m.id")
+    List<MovieCardDTO> findPageById(@Param("afterId") Long afterId, Pageable pageable);
+
+    /**
+     * Recupera le card dei film che seguono la posizione (rating, ID) indicata,
+     * in ordine di rating decrescente e poi di ID. I film senza rating sono esclusi.
+     *
+     * @param rating   Il rating dell'ultimo film della pagina precedente.
+     * @param afterId  L'ID dell'ultimo film della pagina precedente.
+     * @param pageable L'oggetto Pageable per limitare il numero di risultati.
+     * @return Le card dei film della pagina.
+     */
+    @Query(CARD_QUERY +
+            "WHERE m.rating < :rating OR (m.rating = :rating AND m.id > :afterId) ORDER BY m.rating DESC, m.id")
+    List<MovieCardDTO> findPageByRating(@Param("rating") Double rating, @Param("afterId") Long afterId, Pageable pageable);
+
+    /**
+     * Recupera le card dei film senza rating successivi a un ID, in ordine di ID.
+     *
+     * @param afterId  L'ID dell'ultimo film della pagina precedente.
+     * @param pageable L'oggetto Pageable per limitare il numero di risultati.
+     * @return Le card dei film della pagina.
+     */
+    @Query(CARD_QUERY + "WHERE m.rating IS NULL AND m.id > :afterId ORDER BY m.id")
+    List<MovieCardDTO> findPageWithoutRating(@Param("afterId") Long afterId, Pageable pageable);
+
+    /**
+     * Recupera le card dei film che seguono la posizione (anno, ID) indicata,
+     * in ordine di anno decrescente e poi di ID. I film senza anno sono esclusi.
+     *
+     * @param date     L'anno dell'ultimo film della pagina precedente.
+     * @param afterId  L'ID dell'ultimo film della pagina precedente.
+     * @param pageable L'oggetto Pageable per limitare il numero di risultati.
+     * @return Le card dei film della pagina.
+     */
+    @Query(CARD_QUERY +
+            "WHERE m.date < :date OR (m.date = :date AND m.id > :afterId) ORDER BY m.date DESC, m.id")
+    List<MovieCardDTO> findPageByDate(@Param("date") Integer date, @Param("afterId") Long afterId, Pageable pageable);
+
+    /**
+     * Recupera le card dei film senza anno successivi a un ID, in ordine di ID.
+     *
+     * @param afterId  L'ID dell'ultimo film della pagina precedente.
+     * @param pageable L'oggetto Pageable per limitare il numero di risultati.
+     * @return Le card dei film della pagina.
+     */
+    @Query(CARD_QUERY + "WHERE m.date IS NULL AND m.id > :afterId ORDER BY m.id")
+    List<MovieCardDTO> findPageWithoutDate(@Param("afterId") Long afterId, Pageable pageable);
+
+    /**
+     * Recupera ID, titolo, anno e poster dei film con uno dei titoli indicati.
+     * Usa l'indice su movies_data(name, date).
+     *
+     * @param titles I titoli dei film da cercare.
+     * @return I film trovati, in ordine di ID.
+     */
+    @Query("SELECT m.id AS id, m.name AS name, m.date AS date, p.link AS posterUrl " +
+            "FROM Movies m LEFT JOIN m.poster p WHERE m.name IN :titles ORDER BY m.id")
+    List<MovieTitleMatch> findTitleMatches(@Param("titles") Collection<String> titles);
 
     /**
      * Recupera un film specifico dato il suo ID, includendo il poster associato.
@@ -48,29 +271,48 @@ public interface MoviesRepository extends JpaRepository<Movies, Long> {
      * Recupera i film che hanno partecipato agli Oscar nel 2024.
      * Viene considerata solo la data di uscita a partire dal 2015.
      *
-     * @return Una lista di film che hanno partecipato agli Oscar nel 2024.
+     * @return Le card dei film che hanno partecipato agli Oscar nel 2024.
      */
-    @Query("SELECT DISTINCT m FROM Movies m LEFT JOIN FETCH m.poster WHERE m.date >= 2015")
-    List<Movies> getOscarsIn2024();
+    @Query(CARD_QUERY + "WHERE m.date >= 2015")
+    List<MovieCardDTO> getOscarsIn2024();
 
     /**
      * Recupera i film che contengono attori specifici e che sono stati rilasciati dal 2020 in poi.
      *
-     * @return Una lista di film con attori specifici rilasciati dal 2020.
+     * @return Le card dei film con attori specifici rilasciati dal 2020.
      */
-    @Query("SELECT DISTINCT m FROM Movies m LEFT JOIN FETCH m.poster p WHERE m.date >= 2020")
-    List<Movies> getActors();
+    @Query(CARD_QUERY + "WHERE m.date >= 2020")
+    List<MovieCardDTO> getActors();
 
     /**
      * Recupera un elenco specifico di film iconici con i loro poster.
      * La query filtra solo alcuni film predefiniti con i rispettivi anni di uscita.
      *
-     * @return Una lista di film specifici con i relativi poster.
+     * @return Le card dei film specifici con i relativi poster.
      */
-    @Query("SELECT DISTINCT m FROM Movies m WHERE (m.name = 'Interstellar' AND m.date = 2014) " +
+    @Query(CARD_QUERY + "WHERE (m.name = 'Interstellar' AND m.date = 2014) " +
             "OR (m.name = 'Akira' AND m.date = 1988) " +
             "OR (m.name = 'Perfect Days' AND m.date = 2023) " +
             "OR (m.name = 'Blade Runner 2049' AND m.date = 2017) " +
             "OR (m.name = 'Shrek' AND m.date = 2001)")
-    List<Movies> getAllPosters();
+    List<MovieCardDTO> getAllPosters();
+
+    /**
+     * Recupera in un'unica query tutte le righe delle tabelle figlie (crew, generi, paesi,
+     * lingue, studi e temi) dei film indicati, al posto delle sei query STRING_AGG separate.
+     * Ogni riga è etichettata con la tabella di provenienza tramite la colonna kind.
+     * Le righe sono ordinate per film, tipo e valore, così liste e risposte in cache hanno sempre lo stesso ordine.
+     *
+     * @param ids Gli ID dei film di cui recuperare i dettagli.
+     * @return Le righe dei dettagli di tutti i film richiesti.
+     */
+    @Query(value = "SELECT c.id AS movieId, 'CREW' AS kind, c.name AS value, c.role AS detail FROM crew_data c WHERE c.id IN (:ids) " +
+            "UNION ALL SELECT g.id, 'GENRE', g.genre, CAST(NULL AS VARCHAR) FROM genres_data g WHERE g.id IN (:ids) " +
+            "UNION ALL SELECT co.id, 'COUNTRY', co.country, CAST(NULL AS VARCHAR) FROM countries_data co WHERE co.id IN (:ids) " +
+            "UNION ALL SELECT l.id, 'LANGUAGE', l.language, l.type FROM languages_data l WHERE l.id IN (:ids) " +
+            "UNION ALL SELECT s.id, 'STUDIO', s.studio, CAST(NULL AS VARCHAR) FROM studios_data s WHERE s.id IN (:ids) " +
+            "UNION ALL SELECT t.id, 'THEME', t.theme, CAST(NULL AS VARCHAR) FROM themes_data t WHERE t.id IN (:ids) " +
+            "ORDER BY movieId, kind, value, detail",
+            nativeQuery = true)
+    List<MovieAttributeRow> findAttributesByMovieIds(@Param("ids") Collection<Long> ids);
 }
@@ -1,14 +1,22 @@
 package com.andrianigiordano.springboot.movies;
 
+import com.andrianigiordano.springboot.cache.CacheConfiguration;
 import com.andrianigiordano.springboot.countries.CountriesRepository;
 import com.andrianigiordano.springboot.crew.CrewRepository;
 import com.andrianigiordano.springboot.genres.GenresRepository;
 import com.andrianigiordano.springboot.languages.LanguagesRepository;
+import com.andrianigiordano.springboot.search.SearchHits;
+import com.andrianigiordano.springboot.search.SearchIndexService;
 import com.andrianigiordano.springboot.studios.StudiosRepository;
 import com.andrianigiordano.springboot.themes.ThemesRepository;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.annotation.Cacheable;
 import org.springframework.data.domain.PageRequest;
+import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.web.server.ResponseStatusException;
 
 import java.util.*;
 import java.util.stream.Collectors;
@@ -16,6 +24,7 @@ import java.util.stream.Collectors;
 /**
  * Servizio per la gestione dei film.
  * Questo servizio fornisce metodi per ottenere informazioni sui film, come dettagli, poster, attori e premi.
+ * Le letture per ID e le liste delle pagine principali sono in cache (vedi {@link CacheConfiguration}).
  */
 @Service
 public class MoviesService {
@@ -35,68 +44,84 @@ public class MoviesService {
     private LanguagesRepository languagesRepository;
     @Autowired
     private StudiosRepository studiosRepository;
+    @Autowired
+    private SearchIndexService searchIndexService;
+
+    // Dimensione predefinita e massima delle pagine di /movies/get-all
+    @Value("${movies.page.default-size:100}")
+    private int defaultPageSize;
+    @Value("${movies.page.max-size:500}")
+    private int maxPageSize;
+    // Numero massimo di ID per /movies/get-by-ids
+    @Value("${movies.batch.max-size:500}")
+    private int maxBatchSize;
 
     /**
-     * Recupera tutti i film con i rispettivi poster.
+     * Recupera una pagina del catalogo con i rispettivi poster, usando la paginazione keyset:
+     * ogni pagina riparte dalla posizione dell'ultimo film della precedente, quindi il costo
+     * della query non cresce con la profondità della pagina. I film sono letti come card,
+     * senza la descrizione.
      *
-     * @return una lista di oggetti MovieDTO contenenti informazioni sui film con i poster
+     * @param sort   il criterio di ordinamento (id, rating o date)
+     * @param cursor il token restituito con la pagina precedente, null per la prima pagina
+     * @param size   il numero di film per pagina, null per la dimensione predefinita
+     * @return i film della pagina e il token per la pagina successiva
      */
-    public List<MovieDTO> getAllMoviesWithPosters() {
-        return movieRepository.findAllWithPosters()
-                .stream()
-                .map(movie -> new MovieDTO(
-                        movie.getId(),
-                        movie.getName(),
-                        movie.getDate(),
-                        movie.getTagline(),
-                        movie.getDescription(),
-                        movie.getPosterUrl(),
-                        movie.getRating(),
-                        movie.getMinute()
-                ))
-                .collect(Collectors.toList());
+    @Transactional(readOnly = true)
+    public MoviePage getAllMoviesWithPosters(String sort, String cursor, Integer size) {
+        MovieCursor.Sort order = MovieCursor.Sort.parse(sort);
+        MovieCursor position = cursor == null || cursor.isBlank()
+                ? MovieCursor.first(order)
+                : MovieCursor.decode(cursor, order);
+        int pageSize = Math.max(1, Math.min(size != null ? size : defaultPageSize, maxPageSize));
+
+        // Si legge un film in più per sapere se esiste una pagina successiva
+        List<MovieCardDTO> movies = new ArrayList<>(findPage(position, pageSize + 1));
+        if (movies.size() <= pageSize && order != MovieCursor.Sort.ID && !position.isInNullTail()) {
+            // Finiti i film con un valore si prosegue con quelli senza, in ordine di ID
+            movies.addAll(findPage(new MovieCursor(order, null, Long.MIN_VALUE), pageSize + 1 - movies.size()));
+        }
+
+        String nextCursor = null;
+        if (movies.size() > pageSize) {
+            movies = movies.subList(0, pageSize);
+            nextCursor = MovieCursor.after(order, movies.get(pageSize - 1)).encode();
+        }
+        return new MoviePage(movies, nextCursor);
+    }
+
+    private List<MovieCardDTO> findPage(MovieCursor position, int limit) {
+        PageRequest page = PageRequest.of(0, limit);
+        Long afterId = position.getLastId();
+        return switch (position.getSort()) {
+            case ID -> movieRepository.findPageById(afterId, page);
+            case RATING -> position.isInNullTail()
+                    ? movieRepository.findPageWithoutRating(afterId, page)
+                    : movieRepository.findPageByRating(position.getValue().doubleValue(), afterId, page);
+            case DATE -> position.isInNullTail()
+                    ? movieRepository.findPageWithoutDate(afterId, page)
+                    : movieRepository.findPageByDate(position.getValue().intValue(), afterId, page);
+        };
     }
 
     /**
      * Recupera i 100 migliori film premiati agli Oscar nel 2024.
      *
-     * @return una lista di oggetti MovieDTO con i dettagli dei film vincitori degli Oscar
+     * @return le card dei film vincitori degli Oscar
      */
-    public List<MovieDTO> oscarsTop100() {
-        return movieRepository.getOscarsIn2024()
-                .stream()
-                .map(movie -> new MovieDTO(
-                        movie.getId(),
-                        movie.getName(),
-                        movie.getDate(),
-                        movie.getTagline(),
-                        movie.getDescription(),
-                        movie.getPosterUrl(),
-                        movie.getRating(),
-                        movie.getMinute()
-                ))
-                .collect(Collectors.toList());
+    @Cacheable(cacheNames = CacheConfiguration.MOVIE_LISTS, key = "#root.methodName", sync = true)
+    public List<MovieCardDTO> oscarsTop100() {
+        return movieRepository.getOscarsIn2024();
     }
 
     /**
      * Recupera una lista di film basati sugli attori.
      *
-     * @return una lista di oggetti MovieDTO contenenti film con attori specifici
+     * @return le card dei film con attori specifici
      */
-    public List<MovieDTO> getActors() {
-        return movieRepository.getActors()
-                .stream()
-                .map(movie -> new MovieDTO(
-                        movie.getId(),
-                        movie.getName(),
-                        movie.getDate(),
-                        movie.getTagline(),
-                        movie.getDescription(),
-                        movie.getPosterUrl(),
-                        movie.getRating(),
-                        movie.getMinute()
-                ))
-                .collect(Collectors.toList());
+    @Cacheable(cacheNames = CacheConfiguration.MOVIE_LISTS, key = "#root.methodName", sync = true)
+    public List<MovieCardDTO> getActors() {
+        return movieRepository.getActors();
     }
 
     /**
@@ -105,50 +130,121 @@ public class MoviesService {
      * @param id l'ID del film da cercare
      * @return un Optional contenente il MovieDTO del film se trovato, altrimenti vuoto
      */
+    @Cacheable(cacheNames = CacheConfiguration.MOVIES, sync = true)
     public Optional<MovieDTO> getMovieById(Long id) {
         return movieRepository.findMovieById(id)
-                .map(movie -> new MovieDTO(
-                        movie.getId(),
-                        movie.getName(),
-                        movie.getDate(),
-                        movie.getTagline(),
-                        movie.getDescription(),
-                        movie.getPosterUrl(),
-                        movie.getRating(),
-                        movie.getMinute()
-                ));
+                .map(MoviesService::toDto);
+    }
+
+    /**
+     * Recupera le card di più film con i rispettivi poster in un'unica query.
+     * Gli ID ripetuti vengono considerati una sola volta.
+     *
+     * @param ids gli ID dei film da cercare
+     * @return i film trovati nell'ordine degli ID richiesti e gli ID non trovati
+     * @throws ResponseStatusException 400 se gli ID sono più di quelli consentiti (movies.batch.max-size)
+     */
+    public MovieBatchDTO getMoviesByIds(List<Long> ids) {
+        if (ids.size() > maxBatchSize) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST,
+                    "Troppi ID richiesti: " + ids.size() + " (massimo " + maxBatchSize + ")");
+        }
+        Set<Long> requested = new LinkedHashSet<>(ids);
+        requested.remove(null);
+        if (requested.isEmpty()) {
+            return new MovieBatchDTO(List.of(), List.of());
+        }
+
+        Map<Long, MovieCardDTO> found = movieRepository.findCardsByIdIn(requested).stream()
+                .collect(Collectors.toMap(MovieCardDTO::getId, movie -> movie, (first, second) -> first));
+        List<MovieCardDTO> movies = new ArrayList<>(found.size());
+        List<Long> missing = new ArrayList<>();
+        for (Long id : requested) {
+            MovieCardDTO movie = found.get(id);
+            if (movie == null) {
+                missing.add(id);
+                continue;
+            }
+            movies.add(movie);
+        }
+        return new MovieBatchDTO(movies, missing);
+    }
+
+    /**
+     * Recupera il dettaglio completo di un film (dati principali, poster, crew, generi, paesi,
+     * lingue, studi e temi) con due sole query nella stessa transazione,
+     * invece delle sette chiamate separate agli endpoint get-*-by-id.
+     *
+     * @param id l'ID del film da cercare
+     * @return un Optional contenente il dettaglio del film se trovato, altrimenti vuoto
+     */
+    @Cacheable(cacheNames = CacheConfiguration.MOVIE_DETAILS, sync = true)
+    @Transactional(readOnly = true)
+    public Optional<MovieDetailsDTO> getMovieDetails(Long id) {
+        Optional<MovieDetailsDTO> details = getMovieById(id).map(MovieDetailsDTO::new);
+        details.ifPresent(movie -> movieRepository.findAttributesByMovieIds(List.of(id))
+                .forEach(row -> addAttribute(movie, row)));
+        return details;
+    }
+
+    /**
+     * Converte un film nel DTO completo restituito dagli endpoint di dettaglio, con il link del poster.
+     *
+     * @param movie il film da convertire (con il poster già caricato)
+     * @return il MovieDTO corrispondente
+     */
+    static MovieDTO toDto(Movies movie) {
+        return new MovieDTO(
+                movie.getId(),
+                movie.getName(),
+                movie.getDate(),
+                movie.getTagline(),
+                movie.getDescription(),
+                movie.getPosterUrl(),
+                movie.getRating(),
+                movie.getMinute()
+        );
+    }
+
+    /**
+     * Aggiunge al dettaglio del film una riga proveniente da una delle tabelle figlie.
+     *
+     * @param details il dettaglio del film da completare
+     * @param row     la riga da aggiungere
+     */
+    static void addAttribute(MovieDetailsDTO details, MovieAttributeRow row) {
+        switch (row.getKind()) {
+            case "CREW" -> details.getCrew().add(new MovieDetailsDTO.CrewMemberDTO(row.getValue(), row.getDetail()));
+            case "GENRE" -> details.getGenres().add(row.getValue());
+            case "COUNTRY" -> details.getCountries().add(row.getValue());
+            case "LANGUAGE" -> details.getLanguages().add(new MovieDetailsDTO.LanguageDTO(row.getDetail(), row.getValue()));
+            case "STUDIO" -> details.getStudios().add(row.getValue());
+            case "THEME" -> details.getThemes().add(row.getValue());
+            default -> throw new IllegalStateException("Tipo di dettaglio sconosciuto: " + row.getKind());
+        }
     }
 
     /**
      * Recupera i film principali con i loro poster.
      *
-     * @return una lista di oggetti MovieDTO con i poster dei film
+     * @return le card dei film con i relativi poster
      */
-    public List<MovieDTO> getPosters() {
-        return movieRepository.getAllPosters()
-                .stream()
-                .map(movie -> new MovieDTO(
-                        movie.getId(),
-                        movie.getName(),
-                        movie.getDate(),
-                        movie.getTagline(),
-                        movie.getDescription(),
-                        movie.getPosterUrl(),
-                        movie.getRating(),
-                        movie.getMinute()
-                ))
-                .collect(Collectors.toList());
+    @Cacheable(cacheNames = CacheConfiguration.MOVIE_LISTS, key = "#root.methodName", sync = true)
+    public List<MovieCardDTO> getPosters() {
+        return movieRepository.getAllPosters();
     }
 
     /**
-     * Cerca film per nome con un limite massimo di 100 risultati.
+     * Cerca film per nome, una pagina alla volta.
+     * La ricerca usa l'indice a trigrammi in memoria e ordina i risultati per rilevanza.
      *
      * @param name il nome del film da cercare
-     * @return una lista di oggetti Movies contenenti i film trovati
+     * @param page il numero della pagina, a partire da 0
+     * @param size il numero di film per pagina
+     * @return le card dei film della pagina e il numero totale di film trovati
      */
-    public List<Movies> searchMoviesByName(String name) {
-        PageRequest pageable = PageRequest.of(0, 100); // Offset 0, massimo 100 risultati
-        return movieRepository.findByNameContainingIgnoreCase(name, pageable);
+    public SearchHits<MovieCardDTO> searchMoviesByName(String name, int page, int size) {
+        return searchIndexService.searchMovies(name, page, size);
     }
 
     /**
@@ -157,6 +253,7 @@ public class MoviesService {
      * @param movieId l'ID del film
      * @return una stringa contenente i temi del film, se presenti
      */
+    @Cacheable(cacheNames = CacheConfiguration.MOVIE_ATTRIBUTES, key = "#root.methodName + ':' + #movieId", sync = true)
     public String getThemesByMovieId(Long movieId) {
         return themesRepository.findByMovieId(movieId);
     }
@@ -167,6 +264,7 @@ public class MoviesService {
      * @param movieId l'ID del film
      * @return una stringa contenente il cast e la troupe del film, se presenti
      */
+    @Cacheable(cacheNames = CacheConfiguration.MOVIE_ATTRIBUTES, key = "#root.methodName + ':' + #movieId", sync = true)
     public String getCrewByMovieId(Long movieId) {
         return crewRepository.findByMovieId(movieId);
     }
@@ -177,6 +275,7 @@ public class MoviesService {
      * @param movieId l'ID del film
      * @return una stringa contenente i generi del film, se presenti
      */
+    @Cacheable(cacheNames = CacheConfiguration.MOVIE_ATTRIBUTES, key = "#root.methodName + ':' + #movieId", sync = true)
     public String getGenresByMovieId(Long movieId) {
         return genresRepository.findByMovieId(movieId);
     }
@@ -187,6 +286,7 @@ public class MoviesService {
      * @param movieId l'ID del film
      * @return una stringa contenente i paesi del film, se presenti
      */
+    @Cacheable(cacheNames = CacheConfiguration.MOVIE_ATTRIBUTES, key = "#root.methodName + ':' + #movieId", sync = true)
     public String getCountriesByMovieId(Long movieId) {
         return countriesRepository.findByMovieId(movieId);
     }
@@ -197,6 +297,7 @@ public class MoviesService {
      * @param movieId l'ID del film
      * @return una stringa contenente le lingue del film, se presenti
      */
+    @Cacheable(cacheNames = CacheConfiguration.MOVIE_ATTRIBUTES, key = "#root.methodName + ':' + #movieId", sync = true)
     public String getLanguagesByMovieId(Long movieId) {
         return languagesRepository.findByMovieId(movieId);
     }
@@ -207,6 +308,7 @@ public class MoviesService {
      * @param movieId l'ID del film
      * @return una stringa contenente gli studi del film, se presenti
      */
+    @Cacheable(cacheNames = CacheConfiguration.MOVIE_ATTRIBUTES, key = "#root.methodName + ':' + #movieId", sync = true)
     public String getStudiosByMovieId(Long movieId) {
         return studiosRepository.findByMovieId(movieId);
     }
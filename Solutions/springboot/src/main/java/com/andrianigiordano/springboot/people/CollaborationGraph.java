@@ -0,0 +1,314 @@
+package com.andrianigiordano.springboot.people;
+
+import com.andrianigiordano.springboot.database.CleanedValues;
+
+import java.util.*;
+
+/**
+ * Grafo immutabile delle collaborazioni: persone (attori e membri della crew) e film a cui hanno
+ * partecipato, come grafo bipartito in array compatti (CSR). Due persone collaborano se hanno
+ * partecipato allo stesso film.
+ * <p>
+ * Persone e film sono numerati con interi: le persone in ordine di nome (la ricerca per nome è una
+ * ricerca binaria), i film in ordine di ID. Per ogni persona l'indice conserva i suoi film e per
+ * ogni film le sue persone, ognuna una sola volta anche se ha più ruoli. Il grafo tra persone non
+ * viene materializzato: i collaboratori di una persona sono le persone dei suoi film, quindi la
+ * memoria resta proporzionale al numero di partecipazioni anche per film con cast molto numerosi.
+ */
+final class CollaborationGraph {
+
+    private final String[] names;
+    private final long[] movieIds;
+    private final int[] personOffsets;
+    private final int[] personMovies;
+    private final int[] movieOffsets;
+    private final int[] moviePeople;
+
+    private CollaborationGraph(Builder builder) {
+        // Persone in ordine di nome
+        names = builder.people.keySet().toArray(String[]::new);
+        Arrays.sort(names);
+        int[] personOf = new int[names.length];
+        builder.people.forEach((name, id) -> personOf[id] = Arrays.binarySearch(names, name));
+
+        // Film in ordine di ID, solo quelli con almeno una partecipazione
+        long[] ids = Arrays.copyOf(builder.movieIds, builder.size);
+        Arrays.sort(ids);
+        int movies = 0;
+        for (int i = 0; i < ids.length; i++) {
+            if (i == 0 || ids[i] != ids[i - 1]) {
+                ids[movies++] = ids[i];
+            }
+        }
+        movieIds = Arrays.copyOf(ids, movies);
+
+        // Coppie (film, persona) ordinate e senza duplicati
+        long[] pairs = new long[builder.size];
+        for (int i = 0; i < builder.size; i++) {
+            pairs[i] = ((long) Arrays.binarySearch(movieIds, builder.movieIds[i]) << 32) | personOf[builder.persons[i]];
+        }
+        Arrays.sort(pairs);
+        int size = 0;
+        for (int i = 0; i < pairs.length; i++) {
+            if (i == 0 || pairs[i] != pairs[i - 1]) {
+                pairs[size++] = pairs[i];
+            }
+        }
+
+        movieOffsets = new int[movies + 1];
+        moviePeople = new int[size];
+        personOffsets = new int[names.length + 1];
+        for (int i = 0; i < size; i++) {
+            movieOffsets[(int) (pairs[i] >>> 32) + 1]++;
+            personOffsets[(int) pairs[i] + 1]++;
+            moviePeople[i] = (int) pairs[i];
+        }
+        prefixSum(movieOffsets);
+        prefixSum(personOffsets);
+        // Le coppie sono in ordine di film, quindi anche i film di ogni persona risultano ordinati
+        personMovies = new int[size];
+        int[] fill = Arrays.copyOf(personOffsets, names.length);
+        for (int i = 0; i < size; i++) {
+            personMovies[fill[(int) pairs[i]]++] = (int) (pairs[i] >>> 32);
+        }
+    }
+
+    private static void prefixSum(int[] offsets) {
+        for (int i = 1; i < offsets.length; i++) {
+            offsets[i] += offsets[i - 1];
+        }
+    }
+
+    /**
+     * @return il numero della persona con il nome indicato (esatto), -1 se non ha partecipazioni
+     */
+    int person(String name) {
+        int person = Arrays.binarySearch(names, name);
+        return person >= 0 ? person : -1;
+    }
+
+    String name(int person) {
+        return names[person];
+    }
+
+    long movieId(int movie) {
+        return movieIds[movie];
+    }
+
+    int movieCount(int person) {
+        return personOffsets[person + 1] - personOffsets[person];
+    }
+
+    /**
+     * Restituisce i collaboratori di una persona, in ordine di film in comune decrescente e a parità per nome.
+     *
+     * @param person il numero della persona
+     * @param limit  il numero massimo di collaboratori restituiti
+     * @return coppie [persona, film in comune]
+     */
+    List<int[]> topCollaborators(int person, int limit) {
+        // Tutte le persone dei film della persona, ordinate: ogni collaboratore compare una volta per film in comune
+        int total = 0;
+        for (int i = personOffsets[person]; i < personOffsets[person + 1]; i++) {
+            int movie = personMovies[i];
+            total += movieOffsets[movie + 1] - movieOffsets[movie];
+        }
+        int[] others = new int[total];
+        int size = 0;
+        for (int i = personOffsets[person]; i < personOffsets[person + 1]; i++) {
+            int movie = personMovies[i];
+            for (int j = movieOffsets[movie]; j < movieOffsets[movie + 1]; j++) {
+                if (moviePeople[j] != person) {
+                    others[size++] = moviePeople[j];
+                }
+            }
+        }
+        Arrays.sort(others, 0, size);
+
+        // Conteggio per sequenze, poi selezione dei migliori: a parità di film vince il nome minore
+        List<int[]> counts = new ArrayList<>();
+        for (int i = 0; i < size; ) {
+            int j = i;
+            while (j < size && others[j] == others[i]) {
+                j++;
+            }
+            counts.add(new int[]{others[i], j - i});
+            i = j;
+        }
+        counts.sort((a, b) -> a[1] != b[1] ? Integer.compare(b[1], a[1]) : Integer.compare(a[0], b[0]));
+        return counts.size() > limit ? List.copyOf(counts.subList(0, limit)) : counts;
+    }
+
+    /**
+     * Cerca il percorso più breve tra due persone con una BFS bidirezionale: a ogni passo si espande
+     * per un livello la frontiera più piccola delle due, finché le ricerche si incontrano.
+     * I film già attraversati da una delle due ricerche non vengono riletti.
+     *
+     * @param from       il numero della prima persona
+     * @param to         il numero della seconda persona
+     * @param maxDegrees il numero massimo di film nel percorso
+     * @return le persone del percorso alternate ai film che le collegano
+     *         ([persona, film, persona, ..., persona]), null se non esiste entro maxDegrees
+     */
+    int[] shortestPath(int from, int to, int maxDegrees) {
+        if (from == to) {
+            return new int[]{from};
+        }
+        Search forward = new Search(from);
+        Search backward = new Search(to);
+        int degrees = 0;
+        while (degrees < maxDegrees && forward.frontierSize > 0 && backward.frontierSize > 0) {
+            degrees++;
+            boolean expandForward = forward.frontierWork() <= backward.frontierWork();
+            Search current = expandForward ? forward : backward;
+            Search other = expandForward ? backward : forward;
+            int[] meeting = current.expand(other);
+            if (meeting != null) {
+                // meeting = [persona di questa ricerca, film, persona già raggiunta dall'altra]
+                int[] first = expandForward ? meeting : new int[]{meeting[2], meeting[1], meeting[0]};
+                return join(forward, backward, first);
+            }
+        }
+        return null;
+    }
+
+    private static int[] join(Search forward, Search backward, int[] link) {
+        List<Integer> path = new ArrayList<>();
+        for (int person = link[0]; ; person = forward.parent[person]) {
+            path.add(0, person);
+            if (forward.parent[person] == person) {
+                break;
+            }
+            path.add(0, forward.via[person]);
+        }
+        path.add(link[1]);
+        for (int person = link[2]; ; person = backward.parent[person]) {
+            path.add(person);
+            if (backward.parent[person] == person) {
+                break;
+            }
+            path.add(backward.via[person]);
+        }
+        return path.stream().mapToInt(Integer::intValue).toArray();
+    }
+
+    int personCount() {
+        return names.length;
+    }
+
+    int movieCount() {
+        return movieIds.length;
+    }
+
+    int creditCount() {
+        return moviePeople.length;
+    }
+
+    /**
+     * @return la memoria occupata dagli array del grafo (nomi esclusi), in byte
+     */
+    long sizeInBytes() {
+        return 8L * movieIds.length + 4L * (personOffsets.length + personMovies.length + movieOffsets.length + moviePeople.length);
+    }
+
+    /**
+     * Stato di una delle due direzioni della BFS: per ogni persona raggiunta la persona precedente
+     * e il film che le collega (la persona di partenza è precedente di sé stessa).
+     */
+    private final class Search {
+        private final int[] parent = new int[names.length];
+        private final int[] via = new int[names.length];
+        private final BitSet moviesSeen = new BitSet(movieIds.length);
+        private int[] frontier = new int[16];
+        private int frontierSize;
+
+        private Search(int start) {
+            Arrays.fill(parent, -1);
+            parent[start] = start;
+            frontier[frontierSize++] = start;
+        }
+
+        /**
+         * @return il numero di film da leggere per espandere la frontiera
+         */
+        private long frontierWork() {
+            long work = 0;
+            for (int f = 0; f < frontierSize; f++) {
+                work += movieCount(frontier[f]);
+            }
+            return work;
+        }
+
+        /**
+         * Espande la frontiera di un livello e si ferma appena raggiunge una persona già raggiunta
+         * dall'altra ricerca: a quel punto il percorso è minimo, perché un incontro più corto sarebbe
+         * stato trovato in un livello precedente.
+         *
+         * @return [persona della frontiera, film, persona dell'altra ricerca], null se non si incontrano
+         */
+        private int[] expand(Search other) {
+            int[] next = new int[Math.max(16, frontierSize)];
+            int nextSize = 0;
+            for (int f = 0; f < frontierSize; f++) {
+                int person = frontier[f];
+                for (int i = personOffsets[person]; i < personOffsets[person + 1]; i++) {
+                    int movie = personMovies[i];
+                    if (moviesSeen.get(movie)) {
+                        continue;
+                    }
+                    moviesSeen.set(movie);
+                    for (int j = movieOffsets[movie]; j < movieOffsets[movie + 1]; j++) {
+                        int collaborator = moviePeople[j];
+                        if (other.parent[collaborator] >= 0) {
+                            return new int[]{person, movie, collaborator};
+                        }
+                        if (parent[collaborator] < 0) {
+                            parent[collaborator] = person;
+                            via[collaborator] = movie;
+                            if (nextSize == next.length) {
+                                next = Arrays.copyOf(next, nextSize * 2);
+                            }
+                            next[nextSize++] = collaborator;
+                        }
+                    }
+                }
+            }
+            frontier = next;
+            frontierSize = nextSize;
+            return null;
+        }
+    }
+
+    /**
+     * Raccoglie le partecipazioni lette dal database: coppie (ID del film, nome della persona).
+     */
+    static final class Builder {
+        private final Map<String, Integer> people = new HashMap<>();
+        private long[] movieIds = new long[1024];
+        private int[] persons = new int[1024];
+        private int size;
+
+        /**
+         * Aggiunge una partecipazione. I nomi vuoti e il segnaposto "Unknown" dei notebook di pulizia
+         * vengono ignorati: il segnaposto collegherebbe migliaia di film come se fosse una sola persona.
+         * Più ruoli della stessa persona nello stesso film contano come una sola partecipazione.
+         */
+        Builder credit(long movieId, String name) {
+            if (CleanedValues.isMissing(name)) {
+                return this;
+            }
+            Integer person = people.computeIfAbsent(name, key -> people.size());
+            if (size == movieIds.length) {
+                movieIds = Arrays.copyOf(movieIds, size * 2);
+                persons = Arrays.copyOf(persons, size * 2);
+            }
+            movieIds[size] = movieId;
+            persons[size++] = person;
+            return this;
+        }
+
+        CollaborationGraph build() {
+            return new CollaborationGraph(this);
+        }
+    }
+}
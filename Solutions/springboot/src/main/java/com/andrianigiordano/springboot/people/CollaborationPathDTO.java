@@ -0,0 +1,42 @@
+package com.andrianigiordano.springboot.people;
+
+import java.util.List;
+
+/**
+ * Percorso più breve tra due persone nel grafo delle collaborazioni: i gradi di separazione sono
+ * il numero di film del percorso (1 se hanno lavorato insieme, 0 se sono la stessa persona).
+ */
+public class CollaborationPathDTO {
+
+    private final String from;
+
+    private final String to;
+
+    private final int degrees;
+
+    private final List<CollaborationStepDTO> steps;
+
+    public CollaborationPathDTO(String from, String to, int degrees, List<CollaborationStepDTO> steps) {
+        this.from = from;
+        this.to = to;
+        this.degrees = degrees;
+        this.steps = steps;
+    }
+
+    // Getter
+    public String getFrom() {
+        return from;
+    }
+
+    public String getTo() {
+        return to;
+    }
+
+    public int getDegrees() {
+        return degrees;
+    }
+
+    public List<CollaborationStepDTO> getSteps() {
+        return steps;
+    }
+}
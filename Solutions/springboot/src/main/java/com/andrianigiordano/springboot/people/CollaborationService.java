@@ -0,0 +1,160 @@
+package com.andrianigiordano.springboot.people;
+
+import com.andrianigiordano.springboot.index.RebuildableIndex;
+import com.andrianigiordano.springboot.movies.MovieCardDTO;
+import com.andrianigiordano.springboot.movies.MoviesRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.util.*;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Servizio per le collaborazioni tra persone: collaboratori più frequenti e gradi di separazione.
+ * <p>
+ * Le ricerche usano il {@link CollaborationGraph} in memoria, costruito all'avvio con una sola lettura
+ * di actors_data e crew_data e ricostruibile con {@link #refresh()}; il database viene interrogato
+ * solo per le card dei film di un percorso.
+ */
+@Service
+public class CollaborationService {
+
+    private static final Logger log = LoggerFactory.getLogger(CollaborationService.class);
+
+    private final PeopleRepository peopleRepository;
+    private final MoviesRepository moviesRepository;
+    private final TransactionTemplate readOnlyTransaction;
+    private final int defaultLimit;
+    private final int maxLimit;
+    private final int maxDegrees;
+    private final RebuildableIndex<CollaborationGraph> graph;
+
+    public CollaborationService(PeopleRepository peopleRepository,
+                                MoviesRepository moviesRepository,
+                                PlatformTransactionManager transactionManager,
+                                @Value("${people.graph.enabled:true}") boolean enabled,
+                                @Value("${people.collaborators.default-size:20}") int defaultLimit,
+                                @Value("${people.collaborators.max-size:200}") int maxLimit,
+                                @Value("${people.path.max-degrees:6}") int maxDegrees) {
+        this.peopleRepository = peopleRepository;
+        this.moviesRepository = moviesRepository;
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+        this.defaultLimit = defaultLimit;
+        this.maxLimit = maxLimit;
+        this.maxDegrees = maxDegrees;
+        this.graph = new RebuildableIndex<>("grafo delle collaborazioni", enabled, this::load);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void buildOnStartup() {
+        graph.buildOnStartup();
+    }
+
+    /**
+     * Ricostruisce il grafo dal database e lo sostituisce a quello corrente.
+     *
+     * @return statistiche sul grafo costruito
+     */
+    public Map<String, Object> refresh() {
+        long start = System.nanoTime();
+        CollaborationGraph built = graph.rebuild();
+        long elapsedMillis = (System.nanoTime() - start) / 1_000_000;
+
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("people", built.personCount());
+        stats.put("movies", built.movieCount());
+        stats.put("credits", built.creditCount());
+        stats.put("sizeInBytes", built.sizeInBytes());
+        stats.put("buildMillis", elapsedMillis);
+        return stats;
+    }
+
+    /**
+     * Costruisce un nuovo grafo con una sola lettura delle partecipazioni di attori e crew.
+     */
+    private CollaborationGraph load() {
+        long start = System.nanoTime();
+        CollaborationGraph.Builder builder = new CollaborationGraph.Builder();
+        readOnlyTransaction.executeWithoutResult(status -> {
+            try (Stream<Object[]> rows = peopleRepository.streamCredits()) {
+                rows.forEach(row -> builder.credit(((Number) row[0]).longValue(), (String) row[1]));
+            }
+        });
+        CollaborationGraph built = builder.build();
+        log.info("Grafo delle collaborazioni costruito: {} persone, {} film, {} partecipazioni in {} ms",
+                built.personCount(), built.movieCount(), built.creditCount(), (System.nanoTime() - start) / 1_000_000);
+        return built;
+    }
+
+    /**
+     * Restituisce le persone che hanno partecipato più spesso agli stessi film della persona indicata.
+     *
+     * @param name  il nome esatto della persona
+     * @param limit il numero massimo di collaboratori, null per il valore predefinito
+     * @return i collaboratori per numero di film in comune, vuoto se la persona non ha partecipazioni
+     * @throws ResponseStatusException 400 se limit non è tra 1 e il massimo configurato, 503 se il grafo non è ancora pronto
+     */
+    public Optional<List<CollaboratorDTO>> getTopCollaborators(String name, Integer limit) {
+        int size = limit != null ? limit : defaultLimit;
+        if (size < 1 || size > maxLimit) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "limit deve essere tra 1 e " + maxLimit);
+        }
+        CollaborationGraph current = graph.get();
+        int person = current.person(name);
+        if (person < 0) {
+            return Optional.empty();
+        }
+        return Optional.of(current.topCollaborators(person, size).stream()
+                .map(entry -> new CollaboratorDTO(current.name(entry[0]), entry[1]))
+                .toList());
+    }
+
+    /**
+     * Cerca il percorso più breve tra due persone, con i film che collegano ogni coppia di persone consecutive.
+     *
+     * @param from il nome esatto della prima persona
+     * @param to   il nome esatto della seconda persona
+     * @return il percorso, vuoto se una delle due persone non ha partecipazioni o se non esiste un
+     *         percorso entro il numero massimo di gradi configurato
+     * @throws ResponseStatusException 503 se il grafo non è ancora pronto
+     */
+    public Optional<CollaborationPathDTO> getShortestPath(String from, String to) {
+        CollaborationGraph current = graph.get();
+        int source = current.person(from);
+        int target = current.person(to);
+        if (source < 0 || target < 0) {
+            return Optional.empty();
+        }
+        int[] path = current.shortestPath(source, target, maxDegrees);
+        if (path == null) {
+            return Optional.empty();
+        }
+        if (path.length == 1) {
+            return Optional.of(new CollaborationPathDTO(from, to, 0, List.of()));
+        }
+
+        List<Long> movieIds = new ArrayList<>();
+        for (int i = 1; i < path.length; i += 2) {
+            movieIds.add(current.movieId(path[i]));
+        }
+        Map<Long, MovieCardDTO> cards = moviesRepository.findCardsByIdIn(movieIds).stream()
+                .collect(Collectors.toMap(MovieCardDTO::getId, Function.identity()));
+        List<CollaborationStepDTO> steps = new ArrayList<>();
+        for (int i = 1; i < path.length; i += 2) {
+            steps.add(new CollaborationStepDTO(current.name(path[i - 1]), current.name(path[i + 1]),
+                    cards.get(current.movieId(path[i]))));
+        }
+        return Optional.of(new CollaborationPathDTO(from, to, steps.size(), steps));
+    }
+}
@@ -0,0 +1,34 @@
+package com.andrianigiordano.springboot.people;
+
+import com.andrianigiordano.springboot.movies.MovieCardDTO;
+
+/**
+ * Passo di un percorso tra due persone: le due persone e il film a cui hanno partecipato entrambe.
+ */
+public class CollaborationStepDTO {
+
+    private final String from;
+
+    private final String to;
+
+    private final MovieCardDTO movie;
+
+    public CollaborationStepDTO(String from, String to, MovieCardDTO movie) {
+        this.from = from;
+        this.to = to;
+        this.movie = movie;
+    }
+
+    // Getter
+    public String getFrom() {
+        return from;
+    }
+
+    public String getTo() {
+        return to;
+    }
+
+    public MovieCardDTO getMovie() {
+        return movie;
+    }
+}
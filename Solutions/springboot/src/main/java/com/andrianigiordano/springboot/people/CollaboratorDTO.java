@@ -0,0 +1,25 @@
+package com.andrianigiordano.springboot.people;
+
+/**
+ * Collaboratore di una persona, con il numero di film a cui hanno partecipato entrambi.
+ */
+public class CollaboratorDTO {
+
+    private final String name;
+
+    private final int sharedMovies;
+
+    public CollaboratorDTO(String name, int sharedMovies) {
+        this.name = name;
+        this.sharedMovies = sharedMovies;
+    }
+
+    // Getter
+    public String getName() {
+        return name;
+    }
+
+    public int getSharedMovies() {
+        return sharedMovies;
+    }
+}
@@ -0,0 +1,60 @@
+package com.andrianigiordano.springboot.people;
+
+/**
+ * Partecipazione di una persona a un film, come attore o come membro della crew.
+ */
+public class CreditDTO {
+
+    private final String creditType;
+
+    private final String role;
+
+    private final Long movieId;
+
+    private final String title;
+
+    private final Integer year;
+
+    private final Double rating;
+
+    private final String posterUrl;
+
+    public CreditDTO(String creditType, String role, Long movieId, String title, Integer year, Double rating, String posterUrl) {
+        this.creditType = creditType;
+        this.role = role;
+        this.movieId = movieId;
+        this.title = title;
+        this.year = year;
+        this.rating = rating;
+        this.posterUrl = posterUrl;
+    }
+
+    // Getter
+    public String getCreditType() {
+        return creditType;
+    }
+
+    public String getRole() {
+        return role;
+    }
+
+    public Long getMovieId() {
+        return movieId;
+    }
+
+    public String getTitle() {
+        return title;
+    }
+
+    public Integer getYear() {
+        return year;
+    }
+
+    public Double getRating() {
+        return rating;
+    }
+
+    public String getPosterUrl() {
+        return posterUrl;
+    }
+}
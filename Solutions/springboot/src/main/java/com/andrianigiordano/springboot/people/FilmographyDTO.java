@@ -0,0 +1,56 @@
+package com.andrianigiordano.springboot.people;
+
+import java.util.List;
+
+/**
+ * Pagina della filmografia di una persona: le partecipazioni della pagina, dalla più recente,
+ * con il numero totale di partecipazioni.
+ */
+public class FilmographyDTO {
+
+    private final String name;
+
+    private final int page;
+
+    private final int size;
+
+    private final long total;
+
+    private final boolean hasMore;
+
+    private final List<CreditDTO> credits;
+
+    public FilmographyDTO(String name, int page, int size, long total, boolean hasMore, List<CreditDTO> credits) {
+        this.name = name;
+        this.page = page;
+        this.size = size;
+        this.total = total;
+        this.hasMore = hasMore;
+        this.credits = credits;
+    }
+
+    // Getter
+    public String getName() {
+        return name;
+    }
+
+    public int getPage() {
+        return page;
+    }
+
+    public int getSize() {
+        return size;
+    }
+
+    public long getTotal() {
+        return total;
+    }
+
+    public boolean isHasMore() {
+        return hasMore;
+    }
+
+    public List<CreditDTO> getCredits() {
+        return credits;
+    }
+}
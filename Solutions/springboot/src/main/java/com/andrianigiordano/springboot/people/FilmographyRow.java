@@ -0,0 +1,28 @@
+package com.andrianigiordano.springboot.people;
+
+/**
+ * Riga della filmografia letta dal database: una partecipazione (come attore o nella crew)
+ * con i dati principali del film.
+ */
+public interface FilmographyRow {
+
+    /**
+     * Il tipo di partecipazione: ACTOR o CREW.
+     */
+    String getCreditType();
+
+    /**
+     * Il personaggio interpretato (attori) o la mansione (crew).
+     */
+    String getRole();
+
+    Long getMovieId();
+
+    String getTitle();
+
+    Integer getReleaseYear();
+
+    Double getRating();
+
+    String getPosterUrl();
+}
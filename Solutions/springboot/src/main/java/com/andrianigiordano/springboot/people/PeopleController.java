@@ -0,0 +1,102 @@
+package com.andrianigiordano.springboot.people;
+
+import com.andrianigiordano.springboot.metrics.QueryBudget;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Controller REST per le informazioni sulle persone (attori e membri della crew).
+ */
+@RestController
+@RequestMapping("/people")
+@Tag(name = "People", description = "Filmografia e collaborazioni di attori e membri della crew")
+public class PeopleController {
+
+    private final PeopleService peopleService;
+    private final CollaborationService collaborationService;
+
+    public PeopleController(PeopleService peopleService, CollaborationService collaborationService) {
+        this.peopleService = peopleService;
+        this.collaborationService = collaborationService;
+    }
+
+    /**
+     * Endpoint per ottenere la filmografia di una persona, paginata.
+     *
+     * @param name il nome esatto della persona
+     * @param type il tipo di partecipazioni (actor o crew), entrambi se assente
+     * @param page il numero della pagina, a partire da 0
+     * @param size il numero di partecipazioni per pagina
+     * @return la pagina della filmografia, 404 se la persona non ha partecipazioni
+     */
+    @Operation(summary = "Filmografia di una persona",
+            description = "Partecipazioni come attore e nella crew, con ruolo, film, anno e poster, dalla più recente")
+    @QueryBudget(2)
+    @GetMapping("/{name}/filmography")
+    public ResponseEntity<FilmographyDTO> getFilmography(
+            @Parameter(description = "Nome della persona") @PathVariable String name,
+            @Parameter(description = "Tipo di partecipazione: actor o crew (entrambi se assente)") @RequestParam(required = false) String type,
+            @Parameter(description = "Numero della pagina, a partire da 0") @RequestParam(defaultValue = "0") int page,
+            @Parameter(description = "Numero di partecipazioni per pagina") @RequestParam(required = false) Integer size) {
+        return peopleService.getFilmography(name, type, page, size)
+                .map(ResponseEntity::ok)
+                .orElse(ResponseEntity.status(HttpStatus.NOT_FOUND).body(null));
+    }
+
+    /**
+     * Endpoint per ottenere i collaboratori più frequenti di una persona.
+     *
+     * @param name  il nome esatto della persona
+     * @param limit il numero massimo di collaboratori
+     * @return i collaboratori per numero di film in comune, 404 se la persona non ha partecipazioni
+     */
+    @Operation(summary = "Collaboratori di una persona",
+            description = "Attori e membri della crew che hanno partecipato più spesso agli stessi film, con il numero di film in comune")
+    @QueryBudget(0)
+    @GetMapping("/{name}/collaborators")
+    public ResponseEntity<List<CollaboratorDTO>> getTopCollaborators(
+            @Parameter(description = "Nome della persona") @PathVariable String name,
+            @Parameter(description = "Numero massimo di collaboratori") @RequestParam(required = false) Integer limit) {
+        return collaborationService.getTopCollaborators(name, limit)
+                .map(ResponseEntity::ok)
+                .orElse(ResponseEntity.status(HttpStatus.NOT_FOUND).body(null));
+    }
+
+    /**
+     * Endpoint per ottenere i gradi di separazione tra due persone.
+     *
+     * @param from il nome esatto della prima persona
+     * @param to   il nome esatto della seconda persona
+     * @return il percorso più breve con i film che lo compongono, 404 se non esiste
+     */
+    @Operation(summary = "Gradi di separazione tra due persone",
+            description = "Percorso più breve tra due persone attraverso i film a cui hanno partecipato (come attori o nella crew)")
+    @QueryBudget(1)
+    @GetMapping("/degrees-of-separation")
+    public ResponseEntity<CollaborationPathDTO> getDegreesOfSeparation(
+            @Parameter(description = "Nome della prima persona") @RequestParam String from,
+            @Parameter(description = "Nome della seconda persona") @RequestParam String to) {
+        return collaborationService.getShortestPath(from, to)
+                .map(ResponseEntity::ok)
+                .orElse(ResponseEntity.status(HttpStatus.NOT_FOUND).body(null));
+    }
+
+    /**
+     * Ricostruisce il grafo delle collaborazioni dal database.
+     * Le richieste continuano a essere servite dal vecchio grafo fino alla sostituzione.
+     *
+     * @return statistiche sul grafo costruito
+     */
+    @Operation(summary = "Ricostruisci il grafo delle collaborazioni", description = "Ricarica dal database le partecipazioni come attore e nella crew")
+    @PostMapping("/graph/refresh")
+    public Map<String, Object> refreshGraph() {
+        return collaborationService.refresh();
+    }
+}
@@ -0,0 +1,73 @@
+package com.andrianigiordano.springboot.people;
+
+import com.andrianigiordano.springboot.movies.Movies;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+import java.util.stream.Stream;
+
+/**
+ * Repository per le partecipazioni delle persone ai film, lette insieme da actors_data e crew_data.
+ * Le query filtrano per nome, quindi usano gli indici su actors_data(name) e crew_data(name)
+ * definiti in db/indexes.sql.
+ */
+@Repository
+public interface PeopleRepository extends org.springframework.data.repository.Repository<Movies, Long> {
+
+    /**
+     * Recupera una pagina delle partecipazioni di una persona, con titolo, anno, rating e poster
+     * del film, dalla più recente. I film senza anno sono in fondo.
+     *
+     * @param name     Il nome esatto della persona.
+     * @param actor    Se includere le partecipazioni come attore.
+     * @param crew     Se includere le partecipazioni nella crew.
+     * @param limit    Il numero massimo di righe.
+     * @param offset   Il numero di righe da saltare.
+     * @return Le partecipazioni della pagina.
+     */
+    @Query(value = "SELECT c.credit_type AS creditType, c.role AS role, m.id AS movieId, m.name AS title, " +
+            "m.date AS releaseYear, m.rating AS rating, p.link AS posterUrl " +
+            "FROM (SELECT a.id AS movie_id, 'ACTOR' AS credit_type, a.role AS role FROM actors_data a WHERE a.name = :name AND :actor = TRUE " +
+            "      UNION ALL SELECT cr.id, 'CREW', cr.role FROM crew_data cr WHERE cr.name = :name AND :crew = TRUE) c " +
+            "JOIN movies_data m ON m.id = c.movie_id " +
+            "LEFT JOIN posters_data p ON p.id = m.id " +
+            "ORDER BY m.date DESC NULLS LAST, m.id, c.credit_type, c.role " +
+            "LIMIT :limit OFFSET :offset",
+            nativeQuery = true)
+    List<FilmographyRow> findCredits(@Param("name") String name, @Param("actor") boolean actor, @Param("crew") boolean crew,
+                                     @Param("limit") int limit, @Param("offset") long offset);
+
+    /**
+     * Conta le partecipazioni di una persona a film presenti nel catalogo.
+     *
+     * @param name  Il nome esatto della persona.
+     * @param actor Se contare le partecipazioni come attore.
+     * @param crew  Se contare le partecipazioni nella crew.
+     * @return Il numero di partecipazioni.
+     */
+    @Query(value = "SELECT COUNT(*) FROM (SELECT a.id AS movie_id FROM actors_data a WHERE a.name = :name AND :actor = TRUE " +
+            "      UNION ALL SELECT cr.id FROM crew_data cr WHERE cr.name = :name AND :crew = TRUE) c " +
+            "JOIN movies_data m ON m.id = c.movie_id",
+            nativeQuery = true)
+    long countCredits(@Param("name") String name, @Param("actor") boolean actor, @Param("crew") boolean crew);
+
+    /**
+     * Scorre le partecipazioni come attore e nella crew di tutti i film del catalogo, usato per
+     * costruire il grafo delle collaborazioni. Deve essere chiamato all'interno di una transazione;
+     * lo stream va chiuso dopo l'uso.
+     *
+     * @return Uno stream di righe [id del film, nome della persona].
+     */
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "10000"))
+    @Query(value = "SELECT c.movie_id, c.name " +
+            "FROM (SELECT a.id AS movie_id, a.name AS name FROM actors_data a " +
+            "      UNION ALL SELECT cr.id, cr.name FROM crew_data cr) c " +
+            "JOIN movies_data m ON m.id = c.movie_id",
+            nativeQuery = true)
+    Stream<Object[]> streamCredits();
+}
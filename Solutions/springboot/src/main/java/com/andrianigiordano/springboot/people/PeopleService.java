@@ -0,0 +1,70 @@
+package com.andrianigiordano.springboot.people;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.util.List;
+import java.util.Locale;
+import java.util.Optional;
+
+/**
+ * Servizio per la filmografia delle persone (attori e membri della crew).
+ */
+@Service
+public class PeopleService {
+
+    private final PeopleRepository peopleRepository;
+    private final int defaultPageSize;
+    private final int maxPageSize;
+
+    public PeopleService(PeopleRepository peopleRepository,
+                         @Value("${people.filmography.default-size:50}") int defaultPageSize,
+                         @Value("${people.filmography.max-size:200}") int maxPageSize) {
+        this.peopleRepository = peopleRepository;
+        this.defaultPageSize = defaultPageSize;
+        this.maxPageSize = maxPageSize;
+    }
+
+    /**
+     * Recupera una pagina della filmografia di una persona, dalla partecipazione più recente.
+     *
+     * @param name il nome esatto della persona
+     * @param type il tipo di partecipazioni: actor, crew o null per entrambi
+     * @param page il numero della pagina, a partire da 0
+     * @param size il numero di partecipazioni per pagina, null per la dimensione predefinita
+     * @return la pagina della filmografia, vuoto se la persona non ha partecipazioni del tipo richiesto
+     * @throws ResponseStatusException 400 se il tipo non è valido
+     */
+    @Transactional(readOnly = true)
+    public Optional<FilmographyDTO> getFilmography(String name, String type, int page, Integer size) {
+        boolean actor = type == null || type.equalsIgnoreCase("actor");
+        boolean crew = type == null || type.equalsIgnoreCase("crew");
+        if (!actor && !crew) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Tipo di partecipazione non valido: " + type.toLowerCase(Locale.ROOT));
+        }
+        long total = peopleRepository.countCredits(name, actor, crew);
+        if (total == 0) {
+            return Optional.empty();
+        }
+
+        int pageNumber = Math.max(0, page);
+        int pageSize = Math.max(1, Math.min(size != null ? size : defaultPageSize, maxPageSize));
+        long offset = (long) pageNumber * pageSize;
+        List<CreditDTO> credits = offset >= total ? List.of()
+                : peopleRepository.findCredits(name, actor, crew, pageSize, offset).stream()
+                .map(row -> new CreditDTO(
+                        row.getCreditType(),
+                        row.getRole(),
+                        row.getMovieId(),
+                        row.getTitle(),
+                        row.getReleaseYear(),
+                        row.getRating(),
+                        row.getPosterUrl()
+                ))
+                .toList();
+        return Optional.of(new FilmographyDTO(name, pageNumber, pageSize, total, offset + credits.size() < total, credits));
+    }
+}
@@ -0,0 +1,53 @@
+package com.andrianigiordano.springboot.rankings;
+
+import java.util.Comparator;
+import java.util.Locale;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Film come lo vede l'indice delle classifiche: rating, durata, decennio, generi e paesi.
+ * I generi e i paesi sono normalizzati in minuscolo, così come i valori richiesti.
+ */
+final class RankedMovie {
+
+    static final int MISSING = Integer.MIN_VALUE;
+
+    /** Ordine delle classifiche: rating decrescente, a parità per ID. */
+    static final Comparator<RankedMovie> RANKING = Comparator.comparingDouble((RankedMovie movie) -> movie.rating)
+            .reversed()
+            .thenComparingLong(movie -> movie.id);
+
+    final long id;
+    final double rating;
+    final int minute;
+    final int decade;
+    final Set<String> genres;
+    final Set<String> countries;
+
+    RankedMovie(long id, double rating, Integer minute, Integer date, Set<String> genres, Set<String> countries) {
+        this.id = id;
+        this.rating = rating;
+        this.minute = minute != null ? minute : MISSING;
+        this.decade = date != null ? decade(date) : MISSING;
+        this.genres = genres.stream().map(RankedMovie::normalize).collect(Collectors.toUnmodifiableSet());
+        this.countries = countries.stream().map(RankedMovie::normalize).collect(Collectors.toUnmodifiableSet());
+    }
+
+    static int decade(int year) {
+        return Math.floorDiv(year, 10) * 10;
+    }
+
+    static String normalize(String value) {
+        return value.trim().toLowerCase(Locale.ROOT);
+    }
+
+    /**
+     * @return true se il film appartiene alla classifica (i valori null non filtrano)
+     */
+    boolean matches(String genre, Integer decade, String country) {
+        return (genre == null || genres.contains(genre))
+                && (decade == null || this.decade == decade)
+                && (country == null || countries.contains(country));
+    }
+}
@@ -0,0 +1,57 @@
+package com.andrianigiordano.springboot.rankings;
+
+import com.andrianigiordano.springboot.metrics.QueryBudget;
+import com.andrianigiordano.springboot.movies.MovieCardDTO;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.tags.Tag;
+
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Controller per le classifiche dei film per rating.
+ */
+@RestController
+@RequestMapping("/rankings")
+@Tag(name = "Rankings", description = "Classifiche dei film per rating per genere, decennio e paese")
+public class RankingController {
+
+    private final RankingService rankingService;
+
+    public RankingController(RankingService rankingService) {
+        this.rankingService = rankingService;
+    }
+
+    @Operation(summary = "Film con il rating più alto",
+            description = "Classifica per qualsiasi combinazione di genere, decennio e paese (es. genre=Horror&decade=1980&country=Italy), " +
+                    "eventualmente solo con i film di durata minima indicata")
+    @QueryBudget(1)
+    @GetMapping("/top-rated")
+    public List<MovieCardDTO> getTopRated(
+            @Parameter(description = "Genere") @RequestParam(required = false) String genre,
+            @Parameter(description = "Decennio, es. 1990") @RequestParam(required = false) Integer decade,
+            @Parameter(description = "Paese di produzione") @RequestParam(required = false) String country,
+            @Parameter(description = "Durata minima in minuti") @RequestParam(required = false) Integer minRuntime,
+            @Parameter(description = "Numero di film") @RequestParam(required = false) Integer limit) {
+        return rankingService.getTopRated(genre, decade, country, minRuntime, limit);
+    }
+
+    /**
+     * Aggiorna le classifiche: solo quelle dei film indicati o, senza film, tutte.
+     *
+     * @param movieIds gli ID dei film modificati, null o vuoto per ricostruire tutte le classifiche
+     * @return statistiche sull'aggiornamento
+     */
+    @Operation(summary = "Aggiorna le classifiche",
+            description = "Con un elenco di ID aggiorna solo le classifiche dei film modificati; senza corpo le ricostruisce tutte")
+    @PostMapping("/refresh")
+    public Map<String, Object> refresh(@RequestBody(required = false) List<Long> movieIds) {
+        if (movieIds == null || movieIds.isEmpty()) {
+            return rankingService.refresh();
+        }
+        return rankingService.refresh(movieIds);
+    }
+}
@@ -0,0 +1,226 @@
+package com.andrianigiordano.springboot.rankings;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Predicate;
+
+/**
+ * Classifiche dei film per rating, precalcolate per ogni combinazione di genere, decennio e paese.
+ * <p>
+ * Ogni film con rating appartiene alle classifiche di tutte le combinazioni dei suoi valori, con
+ * ogni dimensione presente o libera (per esempio "Drama", "Drama negli anni '90", "Drama, anni '90,
+ * Italia", "tutti i film"). Ogni classifica conserva solo i primi {@code capacity} film, costruiti con
+ * un heap limitato, e il numero totale dei suoi film.
+ * <p>
+ * Le classifiche vengono aggiornate in modo incrementale con {@link #update}: per ogni film modificato
+ * si aggiornano solo le classifiche a cui apparteneva o appartiene. Una classifica viene ricalcolata
+ * dall'elenco dei film solo se perde un film e aveva film oltre la capacità da cui attingere.
+ * Le classifiche sono immutabili e vengono sostituite una per una, quindi le letture non si bloccano;
+ * gli aggiornamenti devono essere eseguiti da un solo thread alla volta.
+ */
+final class RankingIndex {
+
+    private final int capacity;
+    private final Map<Long, RankedMovie> movies;
+    private final Map<String, Bucket> buckets = new ConcurrentHashMap<>();
+
+    RankingIndex(Collection<RankedMovie> movies, int capacity) {
+        this.capacity = capacity;
+        this.movies = new ConcurrentHashMap<>(movies.size() * 2);
+        // Heap limitati per classifica: in cima il film peggiore, che esce quando la classifica è piena
+        Map<String, PriorityQueue<RankedMovie>> heaps = new HashMap<>();
+        Map<String, int[]> sizes = new HashMap<>();
+        for (RankedMovie movie : movies) {
+            this.movies.put(movie.id, movie);
+            for (String key : keys(movie)) {
+                sizes.computeIfAbsent(key, k -> new int[1])[0]++;
+                PriorityQueue<RankedMovie> heap = heaps.computeIfAbsent(key, k -> new PriorityQueue<>(RankedMovie.RANKING.reversed()));
+                heap.offer(movie);
+                if (heap.size() > capacity) {
+                    heap.poll();
+                }
+            }
+        }
+        heaps.forEach((key, heap) -> {
+            RankedMovie[] top = heap.toArray(RankedMovie[]::new);
+            Arrays.sort(top, RankedMovie.RANKING);
+            buckets.put(key, new Bucket(top, sizes.get(key)[0]));
+        });
+    }
+
+    /**
+     * Chiave della classifica di una combinazione; i valori null indicano una dimensione libera.
+     */
+    static String key(String genre, Integer decade, String country) {
+        return (genre != null ? genre : "*") + '|' + (decade != null ? decade : "*") + '|' + (country != null ? country : "*");
+    }
+
+    /**
+     * @return le chiavi di tutte le classifiche a cui appartiene il film
+     */
+    private static Set<String> keys(RankedMovie movie) {
+        List<String> genres = new ArrayList<>(movie.genres);
+        genres.add(null);
+        List<Integer> decades = new ArrayList<>();
+        if (movie.decade != RankedMovie.MISSING) {
+            decades.add(movie.decade);
+        }
+        decades.add(null);
+        List<String> countries = new ArrayList<>(movie.countries);
+        countries.add(null);
+
+        Set<String> keys = new HashSet<>();
+        for (String genre : genres) {
+            for (Integer decade : decades) {
+                for (String country : countries) {
+                    keys.add(key(genre, decade, country));
+                }
+            }
+        }
+        return keys;
+    }
+
+    /**
+     * Restituisce i primi film di una classifica.
+     *
+     * @param genre      il genere (normalizzato), null per tutti
+     * @param decade     il decennio, null per tutti
+     * @param country    il paese (normalizzato), null per tutti
+     * @param minRuntime la durata minima in minuti, null per nessun limite
+     * @param limit      il numero massimo di film, al più la capacità delle classifiche
+     * @return gli ID dei film in ordine di rating decrescente
+     */
+    List<Long> top(String genre, Integer decade, String country, Integer minRuntime, int limit) {
+        Bucket bucket = buckets.get(key(genre, decade, country));
+        if (bucket == null) {
+            return List.of();
+        }
+        List<Long> ids = new ArrayList<>(limit);
+        for (RankedMovie movie : bucket.top) {
+            if (ids.size() == limit) {
+                return ids;
+            }
+            if (minRuntime == null || movie.minute >= minRuntime) {
+                ids.add(movie.id);
+            }
+        }
+        if (minRuntime == null || ids.size() == limit || bucket.size == bucket.top.length) {
+            return ids;
+        }
+        // Troppi film della classifica sono più brevi della durata minima: la classifica conserva solo
+        // i primi film, quindi si scorrono tutti quelli della combinazione
+        return select(movie -> movie.matches(genre, decade, country) && movie.minute >= minRuntime, limit).stream()
+                .map(movie -> movie.id)
+                .toList();
+    }
+
+    /**
+     * Aggiorna le classifiche dopo la modifica di alcuni film.
+     *
+     * @param changed per ogni film modificato il nuovo stato, null se non deve più comparire
+     *                (eliminato o senza rating)
+     * @return il numero di classifiche aggiornate
+     */
+    int update(Map<Long, RankedMovie> changed) {
+        Set<String> touched = new HashSet<>();
+        changed.forEach((id, movie) -> {
+            RankedMovie previous = movie != null ? movies.put(id, movie) : movies.remove(id);
+            Set<String> previousKeys = previous != null ? keys(previous) : Set.of();
+            Set<String> currentKeys = movie != null ? keys(movie) : Set.of();
+            Set<String> keys = new HashSet<>(previousKeys);
+            keys.addAll(currentKeys);
+            for (String key : keys) {
+                update(key, id, previousKeys.contains(key), currentKeys.contains(key) ? movie : null);
+            }
+            touched.addAll(keys);
+        });
+        return touched.size();
+    }
+
+    /**
+     * Aggiorna una classifica per la modifica di un film.
+     *
+     * @param wasMember se il film apparteneva alla classifica
+     * @param movie     il nuovo stato del film se appartiene alla classifica, altrimenti null
+     */
+    private void update(String key, long id, boolean wasMember, RankedMovie movie) {
+        Bucket bucket = buckets.getOrDefault(key, new Bucket(new RankedMovie[0], 0));
+        boolean isMember = movie != null;
+        int size = bucket.size - (wasMember ? 1 : 0) + (isMember ? 1 : 0);
+        if (size == 0) {
+            buckets.remove(key);
+            return;
+        }
+
+        // La classifica ha film oltre la capacità, tutti peggiori dell'ultimo conservato
+        boolean truncated = bucket.size > bucket.top.length;
+        List<RankedMovie> top = new ArrayList<>(Arrays.asList(bucket.top));
+        boolean removed = top.removeIf(entry -> entry.id == id);
+        if (isMember) {
+            int at = -Collections.binarySearch(top, movie, RankedMovie.RANKING) - 1;
+            // In coda solo se non ci sono film esclusi che potrebbero precederlo
+            if (at < top.size() || !truncated) {
+                top.add(at, movie);
+                if (top.size() > capacity) {
+                    top.remove(top.size() - 1);
+                }
+            }
+        }
+        if (removed && truncated && top.size() < Math.min(capacity, size)) {
+            // È uscito un film e la classifica aveva film oltre la capacità: va ricalcolata
+            String[] parts = key.split("\\|", -1);
+            String genre = parts[0].equals("*") ? null : parts[0];
+            Integer decade = parts[1].equals("*") ? null : Integer.valueOf(parts[1]);
+            String country = parts[2].equals("*") ? null : parts[2];
+            top = select(entry -> entry.matches(genre, decade, country), capacity);
+        }
+        buckets.put(key, new Bucket(top.toArray(RankedMovie[]::new), size));
+    }
+
+    /**
+     * Seleziona con un heap limitato i primi film che rispettano il filtro, scorrendo tutti i film.
+     */
+    private List<RankedMovie> select(Predicate<RankedMovie> filter, int limit) {
+        PriorityQueue<RankedMovie> heap = new PriorityQueue<>(RankedMovie.RANKING.reversed());
+        for (RankedMovie movie : movies.values()) {
+            if (filter.test(movie)) {
+                heap.offer(movie);
+                if (heap.size() > limit) {
+                    heap.poll();
+                }
+            }
+        }
+        List<RankedMovie> top = new ArrayList<>(heap);
+        top.sort(RankedMovie.RANKING);
+        return top;
+    }
+
+    int movieCount() {
+        return movies.size();
+    }
+
+    int bucketCount() {
+        return buckets.size();
+    }
+
+    /**
+     * @return il numero di film della classifica, 0 se non esiste
+     */
+    int size(String genre, Integer decade, String country) {
+        Bucket bucket = buckets.get(key(genre, decade, country));
+        return bucket != null ? bucket.size : 0;
+    }
+
+    /**
+     * Classifica di una combinazione: i primi film in ordine e il numero totale dei suoi film.
+     */
+    private static final class Bucket {
+        private final RankedMovie[] top;
+        private final int size;
+
+        private Bucket(RankedMovie[] top, int size) {
+            this.top = top;
+            this.size = size;
+        }
+    }
+}
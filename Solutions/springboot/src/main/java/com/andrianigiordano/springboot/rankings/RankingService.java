@@ -0,0 +1,187 @@
+package com.andrianigiordano.springboot.rankings;
+
+import com.andrianigiordano.springboot.index.RebuildableIndex;
+import com.andrianigiordano.springboot.movies.MovieCardDTO;
+import com.andrianigiordano.springboot.movies.MoviesRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.util.*;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Servizio per le classifiche dei film per rating, per qualsiasi combinazione di genere, decennio e paese.
+ * <p>
+ * Le classifiche vengono servite dal {@link RankingIndex} in memoria, costruito all'avvio con due sole
+ * letture; {@link #refresh()} lo ricostruisce, {@link #refresh(Collection)} aggiorna solo le classifiche
+ * dei film modificati. Il database viene interrogato solo per le card dei film restituiti.
+ */
+@Service
+public class RankingService {
+
+    private static final Logger log = LoggerFactory.getLogger(RankingService.class);
+
+    private final MoviesRepository moviesRepository;
+    private final TransactionTemplate readOnlyTransaction;
+    private final int capacity;
+    private final int defaultLimit;
+    private final RebuildableIndex<RankingIndex> index;
+
+    public RankingService(MoviesRepository moviesRepository,
+                          PlatformTransactionManager transactionManager,
+                          @Value("${rankings.index.enabled:true}") boolean enabled,
+                          @Value("${rankings.bucket-size:100}") int capacity,
+                          @Value("${rankings.default-size:20}") int defaultLimit) {
+        this.moviesRepository = moviesRepository;
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+        this.capacity = capacity;
+        this.defaultLimit = defaultLimit;
+        this.index = new RebuildableIndex<>("classifiche", enabled, this::load);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void buildOnStartup() {
+        index.buildOnStartup();
+    }
+
+    /**
+     * Ricostruisce tutte le classifiche dal database e le sostituisce a quelle correnti.
+     *
+     * @return statistiche sulle classifiche costruite
+     */
+    public Map<String, Object> refresh() {
+        long start = System.nanoTime();
+        RankingIndex built = index.rebuild();
+        long elapsedMillis = (System.nanoTime() - start) / 1_000_000;
+
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("movies", built.movieCount());
+        stats.put("rankings", built.bucketCount());
+        stats.put("buildMillis", elapsedMillis);
+        return stats;
+    }
+
+    /**
+     * Costruisce tutte le classifiche con due letture: i valori di generi e paesi e i film.
+     */
+    private RankingIndex load() {
+        long start = System.nanoTime();
+        Map<Long, Set<String>> genres = new HashMap<>();
+        Map<Long, Set<String>> countries = new HashMap<>();
+        Collection<RankedMovie> movies = readOnlyTransaction.execute(status -> {
+            try (Stream<Object[]> rows = moviesRepository.streamRankingValues()) {
+                collectValues(rows, genres, countries);
+            }
+            try (Stream<Object[]> rows = moviesRepository.streamRankingMovies()) {
+                return rankedMovies(rows, genres, countries).values();
+            }
+        });
+        RankingIndex built = new RankingIndex(movies, capacity);
+        log.info("Classifiche costruite: {} film in {} classifiche in {} ms",
+                built.movieCount(), built.bucketCount(), (System.nanoTime() - start) / 1_000_000);
+        return built;
+    }
+
+    /**
+     * Aggiorna le classifiche dei film indicati, rileggendoli dal database: le altre classifiche
+     * non vengono toccate. I film che non esistono più o non hanno rating escono dalle classifiche.
+     * Se le classifiche non sono ancora pronte vengono costruite per intero.
+     *
+     * @param movieIds gli ID dei film modificati
+     * @return statistiche sull'aggiornamento
+     */
+    public Map<String, Object> refresh(Collection<Long> movieIds) {
+        return index.modify(current -> current == null ? refresh() : update(current, movieIds));
+    }
+
+    private Map<String, Object> update(RankingIndex current, Collection<Long> movieIds) {
+        long start = System.nanoTime();
+        Set<Long> ids = new HashSet<>(movieIds);
+        Map<Long, Set<String>> genres = new HashMap<>();
+        Map<Long, Set<String>> countries = new HashMap<>();
+        Map<Long, RankedMovie> loaded = readOnlyTransaction.execute(status -> {
+            collectValues(moviesRepository.findRankingValues(ids).stream(), genres, countries);
+            return rankedMovies(moviesRepository.findRankingMovies(ids).stream(), genres, countries);
+        });
+        Map<Long, RankedMovie> changed = new HashMap<>();
+        ids.forEach(id -> changed.put(id, loaded.get(id)));
+        int updated = current.update(changed);
+        long elapsedMillis = (System.nanoTime() - start) / 1_000_000;
+
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("movies", ids.size());
+        stats.put("updatedRankings", updated);
+        stats.put("buildMillis", elapsedMillis);
+        return stats;
+    }
+
+    /**
+     * Raggruppa per film le righe [id del film, dimensione, valore] di generi e paesi.
+     */
+    private static void collectValues(Stream<Object[]> valueRows, Map<Long, Set<String>> genres, Map<Long, Set<String>> countries) {
+        valueRows.forEach(row -> {
+            String value = (String) row[2];
+            if (value != null && !value.isBlank()) {
+                Map<Long, Set<String>> target = "genre".equals(row[1]) ? genres : countries;
+                target.computeIfAbsent(((Number) row[0]).longValue(), id -> new HashSet<>()).add(value);
+            }
+        });
+    }
+
+    /**
+     * Unisce le righe dei film con i loro generi e paesi; i film senza rating vengono esclusi.
+     */
+    private static Map<Long, RankedMovie> rankedMovies(Stream<Object[]> movieRows, Map<Long, Set<String>> genres,
+                                                      Map<Long, Set<String>> countries) {
+        Map<Long, RankedMovie> movies = new HashMap<>();
+        movieRows.forEach(row -> {
+            Long id = (Long) row[0];
+            if (row[3] != null) {
+                movies.put(id, new RankedMovie(id, (Double) row[3], (Integer) row[2], (Integer) row[1],
+                        genres.getOrDefault(id, Set.of()), countries.getOrDefault(id, Set.of())));
+            }
+        });
+        return movies;
+    }
+
+    /**
+     * Restituisce i film con il rating più alto per una combinazione di genere, decennio e paese.
+     *
+     * @param genre      il genere, null per tutti
+     * @param decade     il decennio (es. 1990; un anno indica il suo decennio), null per tutti
+     * @param country    il paese di produzione, null per tutti
+     * @param minRuntime la durata minima in minuti, null per nessun limite
+     * @param limit      il numero di film, null per il valore predefinito
+     * @return i film in ordine di rating decrescente, a parità per ID
+     * @throws ResponseStatusException 400 se limit non è tra 1 e la dimensione delle classifiche,
+     *                                 503 se le classifiche non sono ancora pronte
+     */
+    public List<MovieCardDTO> getTopRated(String genre, Integer decade, String country, Integer minRuntime, Integer limit) {
+        int size = limit != null ? limit : defaultLimit;
+        if (size < 1 || size > capacity) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "limit deve essere tra 1 e " + capacity);
+        }
+        List<Long> ids = index.get().top(
+                genre != null && !genre.isBlank() ? RankedMovie.normalize(genre) : null,
+                decade != null ? RankedMovie.decade(decade) : null,
+                country != null && !country.isBlank() ? RankedMovie.normalize(country) : null,
+                minRuntime, size);
+        if (ids.isEmpty()) {
+            return List.of();
+        }
+        Map<Long, MovieCardDTO> cards = moviesRepository.findCardsByIdIn(ids).stream()
+                .collect(Collectors.toMap(MovieCardDTO::getId, Function.identity()));
+        return ids.stream().map(cards::get).filter(Objects::nonNull).toList();
+    }
+}
@@ -0,0 +1,22 @@
+package com.andrianigiordano.springboot.search;
+
+import com.andrianigiordano.springboot.actors.ActorCreditDTO;
+
+import java.util.List;
+
+/**
+ * Risposta di /search-actors: una pagina di partecipazioni, ordinate per rilevanza del nome dell'attore.
+ */
+public class ActorSearchDTO extends SearchResultDTO {
+
+    private final List<ActorCreditDTO> actors;
+
+    public ActorSearchDTO(String query, int page, int size, SearchHits<ActorCreditDTO> hits) {
+        super(query, page, size, hits);
+        this.actors = hits.getItems();
+    }
+
+    public List<ActorCreditDTO> getActors() {
+        return actors;
+    }
+}
@@ -0,0 +1,22 @@
+package com.andrianigiordano.springboot.search;
+
+import com.andrianigiordano.springboot.movies.MovieCardDTO;
+
+import java.util.List;
+
+/**
+ * Risposta di /search-movies: una pagina di film ordinati per rilevanza del titolo.
+ */
+public class MovieSearchDTO extends SearchResultDTO {
+
+    private final List<MovieCardDTO> movies;
+
+    public MovieSearchDTO(String query, int page, int size, SearchHits<MovieCardDTO> hits) {
+        super(query, page, size, hits);
+        this.movies = hits.getItems();
+    }
+
+    public List<MovieCardDTO> getMovies() {
+        return movies;
+    }
+}
@@ -1,20 +1,18 @@
 package com.andrianigiordano.springboot.search;
 
 import com.andrianigiordano.springboot.actors.ActorsService;
-import com.andrianigiordano.springboot.actors.Actors;
+import com.andrianigiordano.springboot.metrics.QueryBudget;
 import com.andrianigiordano.springboot.movies.MoviesService;
-import com.andrianigiordano.springboot.movies.Movies;
 
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.tags.Tag;
 
 import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 
-import java.util.HashMap;
-import java.util.List;
 import java.util.Map;
 
 /**
@@ -26,49 +24,87 @@ public class SearchController {
 
     private final ActorsService actorsService;
     private final MoviesService moviesService;
+    private final SearchIndexService searchIndexService;
 
-    public SearchController(ActorsService actorsService, MoviesService moviesService) {
+    public SearchController(ActorsService actorsService, MoviesService moviesService, SearchIndexService searchIndexService) {
         this.actorsService = actorsService;
         this.moviesService = moviesService;
+        this.searchIndexService = searchIndexService;
     }
 
     /**
      * Ricerca attori per nome.
      *
      * @param query la stringa di ricerca
-     * @return risultati della ricerca e query
+     * @param page  il numero della pagina, a partire da 0
+     * @param size  il numero di partecipazioni per pagina
+     * @return la pagina di partecipazioni, ordinate per rilevanza, con il totale e la query
      */
-    @Operation(summary = "Cerca attori", description = "Cerca attori tramite una stringa di testo")
+    @Operation(summary = "Cerca attori", description = "Cerca attori tramite una stringa di testo; restituisce una pagina " +
+            "di partecipazioni ordinate per rilevanza del nome, con il totale (totalExact false se stimato)")
+    @QueryBudget(2)
     @GetMapping("/search-actors")
-    public Map<String, Object> searchActors(
-            @Parameter(description = "Testo da cercare nel nome degli attori") @RequestParam("query") String query) {
-
-        List<Actors> actorsResults = actorsService.searchActorsByName(query);
-
-        Map<String, Object> response = new HashMap<>();
-        response.put("actors", actorsResults);
-        response.put("query", query);
-
-        return response;
+    public ActorSearchDTO searchActors(
+            @Parameter(description = "Testo da cercare nel nome degli attori") @RequestParam("query") String query,
+            @Parameter(description = "Numero della pagina, a partire da 0") @RequestParam(defaultValue = "0") int page,
+            @Parameter(description = "Numero di partecipazioni per pagina") @RequestParam(defaultValue = "${search.page.default-size:100}") int size) {
+        return new ActorSearchDTO(query, page, size, actorsService.searchActorsByName(query, page, size));
     }
 
     /**
      * Ricerca film per nome.
      *
      * @param query la stringa di ricerca
-     * @return risultati della ricerca e query
+     * @param page  il numero della pagina, a partire da 0
+     * @param size  il numero di film per pagina
+     * @return la pagina di film, ordinati per rilevanza, con il totale e la query
      */
-    @Operation(summary = "Cerca film", description = "Cerca film tramite una stringa di testo")
+    @Operation(summary = "Cerca film", description = "Cerca film tramite una stringa di testo; restituisce una pagina " +
+            "di film ordinati per rilevanza del titolo, con il totale (totalExact false se stimato)")
+    @QueryBudget(2)
     @GetMapping("/search-movies")
-    public Map<String, Object> searchMovies(
-            @Parameter(description = "Testo da cercare nel nome dei film") @RequestParam("query") String query) {
+    public MovieSearchDTO searchMovies(
+            @Parameter(description = "Testo da cercare nel nome dei film") @RequestParam("query") String query,
+            @Parameter(description = "Numero della pagina, a partire da 0") @RequestParam(defaultValue = "0") int page,
+            @Parameter(description = "Numero di film per pagina") @RequestParam(defaultValue = "${search.page.default-size:100}") int size) {
+        return new MovieSearchDTO(query, page, size, moviesService.searchMoviesByName(query, page, size));
+    }
 
-        List<Movies> moviesResult = moviesService.searchMoviesByName(query);
+    /**
+     * Autocompletamento per prefisso su titoli dei film e nomi degli attori.
+     *
+     * @param query il prefisso digitato
+     * @param limit il numero massimo di suggerimenti per tipo (massimo 50)
+     * @return i suggerimenti per film (ordinati per rating) e attori (ordinati per numero di film)
+     */
+    @Operation(summary = "Suggerimenti di ricerca", description = "Completa un prefisso con i titoli dei film e i nomi degli attori più rilevanti")
+    @GetMapping("/suggest")
+    public SuggestResultDTO suggest(
+            @Parameter(description = "Prefisso da completare") @RequestParam("q") String query,
+            @Parameter(description = "Numero massimo di suggerimenti per tipo") @RequestParam(defaultValue = "10") int limit) {
+        return searchIndexService.suggest(query, Math.max(1, Math.min(limit, 50)));
+    }
 
-        Map<String, Object> response = new HashMap<>();
-        response.put("movies", moviesResult);
-        response.put("query", query);
+    /**
+     * Statistiche sulle strutture dell'autocompletamento, inclusa l'occupazione in memoria.
+     *
+     * @return numero di chiavi e byte occupati per film e attori
+     */
+    @Operation(summary = "Statistiche dei suggerimenti", description = "Numero di chiavi e memoria occupata dagli indici di autocompletamento")
+    @GetMapping("/suggest/stats")
+    public Map<String, Object> suggestStats() {
+        return searchIndexService.suggestStats();
+    }
 
-        return response;
+    /**
+     * Ricostruisce l'indice di ricerca in memoria dal database.
+     * Le ricerche continuano a essere servite dal vecchio indice fino alla sostituzione.
+     *
+     * @return statistiche sull'indice costruito
+     */
+    @Operation(summary = "Ricostruisci l'indice di ricerca", description = "Ricarica dal database l'indice in memoria su film e attori")
+    @PostMapping("/search-index/refresh")
+    public Map<String, Object> refreshIndex() {
+        return searchIndexService.refresh();
     }
 }
@@ -0,0 +1,38 @@
+package com.andrianigiordano.springboot.search;
+
+import java.util.List;
+
+/**
+ * Risultati di una pagina di ricerca, con il numero totale di corrispondenze.
+ * Il totale è esatto quando viene dall'indice in memoria o quando le corrispondenze sono poche;
+ * sul database, oltre {@code search.total.exact-limit} corrispondenze, è un limite inferiore.
+ *
+ * @param <T> il tipo dei risultati
+ */
+public final class SearchHits<T> {
+
+    private final List<T> items;
+
+    private final long total;
+
+    private final boolean exact;
+
+    public SearchHits(List<T> items, long total, boolean exact) {
+        this.items = items;
+        this.total = total;
+        this.exact = exact;
+    }
+
+    // Getter
+    public List<T> getItems() {
+        return items;
+    }
+
+    public long getTotal() {
+        return total;
+    }
+
+    public boolean isExact() {
+        return exact;
+    }
+}
@@ -0,0 +1,392 @@
+package com.andrianigiordano.springboot.search;
+
+import com.andrianigiordano.springboot.actors.ActorCreditDTO;
+import com.andrianigiordano.springboot.actors.ActorsRepository;
+import com.andrianigiordano.springboot.movies.MovieCardDTO;
+import com.andrianigiordano.springboot.movies.MoviesRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.util.*;
+import java.util.function.Function;
+import java.util.function.ToIntFunction;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Servizio che mantiene in memoria gli indici a trigrammi su titoli dei film e nomi degli attori
+ * e risponde alle ricerche per sottostringa senza scansionare movies_data e actors_data.
+ * Sugli stessi dati mantiene anche gli indici per l'autocompletamento per prefisso.
+ * <p>
+ * Gli indici vengono costruiti all'avvio e possono essere ricostruiti con {@link #refresh()}:
+ * il nuovo indice viene preparato a parte e sostituito in un colpo solo, quindi le ricerche
+ * continuano a essere servite durante la ricostruzione. Finché il primo indice non è pronto
+ * le ricerche vengono eseguite sul database come in precedenza.
+ * <p>
+ * Le ricerche sono paginate: l'indice conta esattamente le corrispondenze e ordina solo quelle
+ * fino alla pagina richiesta; sul database le corrispondenze vengono contate solo fino a
+ * {@code search.total.exact-limit}, oltre il totale è un limite inferiore.
+ */
+@Service
+public class SearchIndexService {
+
+    private static final Logger log = LoggerFactory.getLogger(SearchIndexService.class);
+
+    private final MoviesRepository moviesRepository;
+    private final ActorsRepository actorsRepository;
+    private final TransactionTemplate readOnlyTransaction;
+    private final boolean enabled;
+    private final int maxPageSize;
+    private final int maxResults;
+    private final int exactTotalLimit;
+
+    // Indice corrente, sostituito atomicamente a ogni ricostruzione (null finché non è pronto)
+    private volatile CatalogIndex index;
+
+    public SearchIndexService(MoviesRepository moviesRepository,
+                              ActorsRepository actorsRepository,
+                              PlatformTransactionManager transactionManager,
+                              @Value("${search.index.enabled:true}") boolean enabled,
+                              @Value("${search.page.max-size:500}") int maxPageSize,
+                              @Value("${search.page.max-results:10000}") int maxResults,
+                              @Value("${search.total.exact-limit:1000}") int exactTotalLimit) {
+        this.moviesRepository = moviesRepository;
+        this.actorsRepository = actorsRepository;
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+        this.enabled = enabled;
+        this.maxPageSize = maxPageSize;
+        this.maxResults = maxResults;
+        this.exactTotalLimit = exactTotalLimit;
+    }
+
+    /**
+     * Costruisce gli indici all'avvio dell'applicazione.
+     * In caso di errore le ricerche continuano a essere servite dal database.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void buildOnStartup() {
+        if (!enabled) {
+            return;
+        }
+        try {
+            refresh();
+        } catch (RuntimeException e) {
+            log.error("Costruzione dell'indice di ricerca fallita, uso le query sul database", e);
+        }
+    }
+
+    /**
+     * Ricostruisce gli indici dal database e li sostituisce a quelli correnti.
+     *
+     * @return statistiche sull'indice costruito
+     */
+    public synchronized Map<String, Object> refresh() {
+        long start = System.nanoTime();
+        CatalogIndex built = readOnlyTransaction.execute(status -> {
+            try (Stream<Object[]> movieRows = moviesRepository.streamSearchRows();
+                 Stream<Object[]> actorRows = actorsRepository.streamNamesAndMovieIds()) {
+                return new CatalogIndex(movieRows, actorRows);
+            }
+        });
+        index = built;
+        long elapsedMillis = (System.nanoTime() - start) / 1_000_000;
+        log.info("Indice di ricerca costruito: {} film, {} attori in {} ms",
+                built.movieIds.length, built.actorNames.length, elapsedMillis);
+
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("movies", built.movieIds.length);
+        stats.put("actors", built.actorNames.length);
+        stats.put("credits", built.creditMovieIds.length);
+        stats.put("buildMillis", elapsedMillis);
+        return stats;
+    }
+
+    /**
+     * Restituisce i migliori completamenti del prefisso tra i titoli dei film (ordinati per rating)
+     * e tra i nomi degli attori (ordinati per numero di film).
+     * Se l'indice non è ancora pronto o il prefisso è vuoto restituisce liste vuote.
+     *
+     * @param prefix il prefisso digitato
+     * @param limit  il numero massimo di suggerimenti per ciascuna lista
+     * @return i suggerimenti per film e attori
+     */
+    public SuggestResultDTO suggest(String prefix, int limit) {
+        CatalogIndex current = index;
+        SuggestResultDTO suggestions = new SuggestResultDTO(prefix);
+        if (current == null || prefix == null || prefix.isBlank()) {
+            return suggestions;
+        }
+        for (int doc : current.movieSuggestions.suggest(prefix, limit)) {
+            suggestions.getMovies().add(new SuggestionDTO(current.movieIds[doc], current.movieTitles[doc], current.movieRatings[doc]));
+        }
+        for (int doc : current.actorSuggestions.suggest(prefix, limit)) {
+            int credits = current.creditOffsets[doc + 1] - current.creditOffsets[doc];
+            suggestions.getActors().add(new SuggestionDTO(null, current.actorNames[doc], credits));
+        }
+        return suggestions;
+    }
+
+    /**
+     * Restituisce dimensioni e occupazione in memoria delle strutture per l'autocompletamento.
+     *
+     * @return le statistiche degli indici, vuote se non ancora costruiti
+     */
+    public Map<String, Object> suggestStats() {
+        CatalogIndex current = index;
+        Map<String, Object> stats = new LinkedHashMap<>();
+        if (current != null) {
+            stats.put("movieKeys", current.movieSuggestions.size());
+            stats.put("movieBytes", current.movieSuggestions.memoryBytes());
+            stats.put("actorKeys", current.actorSuggestions.size());
+            stats.put("actorBytes", current.actorSuggestions.memoryBytes());
+            stats.put("totalBytes", current.movieSuggestions.memoryBytes() + current.actorSuggestions.memoryBytes());
+        }
+        return stats;
+    }
+
+    /**
+     * Cerca i film il cui titolo contiene la query, ignorando maiuscole e minuscole,
+     * ordinati per qualità della corrispondenza.
+     *
+     * @param query la stringa da cercare
+     * @param page  il numero della pagina, a partire da 0
+     * @param size  il numero di film per pagina
+     * @return le card dei film della pagina e il numero totale di film trovati
+     * @throws ResponseStatusException 400 se la pagina non è valida o va oltre search.page.max-results
+     */
+    public SearchHits<MovieCardDTO> searchMovies(String query, int page, int size) {
+        checkPage(page, size);
+        CatalogIndex current = index;
+        if (current == null) {
+            List<MovieCardDTO> movies = moviesRepository.searchCardsByName(query, PageRequest.of(page, size));
+            return withTotal(movies, page, size, limit -> moviesRepository.findIdsByName(query, limit).size());
+        }
+        TrigramIndex.Result result = current.movies.search(query, page * size, size);
+        List<Long> ids = new ArrayList<>(result.getDocs().length);
+        for (int doc : result.getDocs()) {
+            ids.add(current.movieIds[doc]);
+        }
+        if (ids.isEmpty()) {
+            return new SearchHits<>(List.of(), result.getTotal(), true);
+        }
+        Map<Long, MovieCardDTO> byId = moviesRepository.findCardsByIdIn(ids).stream()
+                .collect(Collectors.toMap(MovieCardDTO::getId, Function.identity()));
+        List<MovieCardDTO> movies = ids.stream().map(byId::get).filter(Objects::nonNull).toList();
+        return new SearchHits<>(movies, result.getTotal(), true);
+    }
+
+    /**
+     * Cerca le partecipazioni degli attori il cui nome contiene la query, ignorando maiuscole
+     * e minuscole, ordinate per qualità della corrispondenza del nome.
+     *
+     * @param query la stringa da cercare
+     * @param page  il numero della pagina, a partire da 0
+     * @param size  il numero di partecipazioni per pagina
+     * @return le partecipazioni della pagina (ID del film, nome e ruolo) e il numero totale di partecipazioni trovate
+     * @throws ResponseStatusException 400 se la pagina non è valida o va oltre search.page.max-results
+     */
+    public SearchHits<ActorCreditDTO> searchActors(String query, int page, int size) {
+        checkPage(page, size);
+        CatalogIndex current = index;
+        if (current == null) {
+            List<ActorCreditDTO> credits = actorsRepository.searchCreditsByName(query, PageRequest.of(page, size));
+            return withTotal(credits, page, size, limit -> actorsRepository.findMovieIdsByName(query, limit).size());
+        }
+        // Ogni attore ha almeno una partecipazione, quindi bastano i primi offset + size nomi per
+        // riempire la pagina; il totale delle partecipazioni si ricava dagli offset senza query
+        int offset = page * size;
+        TrigramIndex.Result result = current.actors.search(query, 0, offset + size);
+        long total = 0;
+        for (int doc : result.getMatches()) {
+            total += current.creditOffsets[doc + 1] - current.creditOffsets[doc];
+        }
+        // I nomi sono già ordinati per rilevanza: si espandono nelle rispettive partecipazioni,
+        // saltando quelle delle pagine precedenti, fino a riempire la pagina. Un attore con più ruoli
+        // nello stesso film ha più partecipazioni con lo stesso film: si distinguono per occorrenza
+        List<String> names = new ArrayList<>();
+        Set<Long> movieIds = new LinkedHashSet<>();
+        Map<String, Integer> rankByCredit = new HashMap<>();
+        int skipped = 0;
+        for (int doc : result.getDocs()) {
+            if (rankByCredit.size() >= size) {
+                break;
+            }
+            String name = current.actorNames[doc];
+            int from = current.creditOffsets[doc];
+            int to = current.creditOffsets[doc + 1];
+            if (skipped + (to - from) <= offset) {
+                skipped += to - from;
+                continue;
+            }
+            from += offset - skipped;
+            skipped = offset;
+            names.add(name);
+            for (int c = from; c < to && rankByCredit.size() < size; c++) {
+                long movieId = current.creditMovieIds[c];
+                int occurrence = 0;
+                for (int earlier = current.creditOffsets[doc]; earlier < c; earlier++) {
+                    if (current.creditMovieIds[earlier] == movieId) {
+                        occurrence++;
+                    }
+                }
+                movieIds.add(movieId);
+                rankByCredit.put(creditKey(name, movieId, occurrence), rankByCredit.size());
+            }
+        }
+        if (names.isEmpty()) {
+            return new SearchHits<>(List.of(), total, true);
+        }
+        // Le righe dello stesso attore e film vengono numerate in ordine di ruolo, così ogni
+        // occorrenza corrisponde sempre alla stessa riga e la pagina non supera size
+        List<ActorCreditDTO> rows = new ArrayList<>(actorsRepository.findCredits(movieIds, names));
+        rows.sort(Comparator.comparing(ActorCreditDTO::getName)
+                .thenComparing(ActorCreditDTO::getId)
+                .thenComparing(ActorCreditDTO::getRole, Comparator.nullsFirst(Comparator.naturalOrder())));
+        Map<String, Integer> occurrences = new HashMap<>();
+        ActorCreditDTO[] ranked = new ActorCreditDTO[rankByCredit.size()];
+        for (ActorCreditDTO row : rows) {
+            int occurrence = occurrences.merge(row.getId() + "|" + row.getName(), 1, Integer::sum) - 1;
+            Integer rank = rankByCredit.get(creditKey(row.getName(), row.getId(), occurrence));
+            if (rank != null) {
+                ranked[rank] = row;
+            }
+        }
+        List<ActorCreditDTO> credits = Arrays.stream(ranked).filter(Objects::nonNull).toList();
+        return new SearchHits<>(credits, total, true);
+    }
+
+    private void checkPage(int page, int size) {
+        if (page < 0 || size < 1 || size > maxPageSize) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST,
+                    "Pagina non valida: page deve essere >= 0 e size tra 1 e " + maxPageSize);
+        }
+        if ((long) (page + 1) * size > maxResults) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST,
+                    "Sono consultabili solo i primi " + maxResults + " risultati: restringere la ricerca");
+        }
+    }
+
+    /**
+     * Completa i risultati di una ricerca sul database con il totale. Se la pagina non è piena
+     * il totale si ricava senza altre query; altrimenti le corrispondenze vengono contate fino
+     * a search.total.exact-limit, oltre il quale il totale è un limite inferiore.
+     */
+    private <T> SearchHits<T> withTotal(List<T> items, int page, int size, ToIntFunction<PageRequest> countUpTo) {
+        long seen = (long) page * size + items.size();
+        if (items.size() < size && (!items.isEmpty() || page == 0)) {
+            return new SearchHits<>(items, seen, true);
+        }
+        int counted = countUpTo.applyAsInt(PageRequest.of(0, exactTotalLimit));
+        if (counted < exactTotalLimit) {
+            return new SearchHits<>(items, counted, true);
+        }
+        return new SearchHits<>(items, Math.max(counted, seen), false);
+    }
+
+    private static String creditKey(String name, long movieId, int occurrence) {
+        return movieId + "|" + occurrence + "|" + name;
+    }
+
+    /**
+     * Istantanea immutabile degli indici: titoli dei film e nomi distinti degli attori,
+     * con le partecipazioni di ogni attore memorizzate in array compatti (offset + ID dei film).
+     */
+    private static final class CatalogIndex {
+        private final long[] movieIds;
+        private final String[] movieTitles;
+        private final double[] movieRatings;
+        private final TrigramIndex movies;
+        private final SuggestIndex movieSuggestions;
+        private final String[] actorNames;
+        private final int[] creditOffsets;
+        private final long[] creditMovieIds;
+        private final TrigramIndex actors;
+        private final SuggestIndex actorSuggestions;
+
+        private CatalogIndex(Stream<Object[]> movieRows, Stream<Object[]> actorRows) {
+            LongList ids = new LongList();
+            List<String> titles = new ArrayList<>();
+            List<Double> ratings = new ArrayList<>();
+            movieRows.forEach(row -> {
+                ids.add((Long) row[0]);
+                titles.add((String) row[1]);
+                ratings.add((Double) row[2]);
+            });
+            movieIds = ids.toArray();
+            movieTitles = titles.toArray(String[]::new);
+            // I film senza rating vengono proposti dopo tutti gli altri
+            movieRatings = new double[movieTitles.length];
+            float[] movieScores = new float[movieTitles.length];
+            for (int i = 0; i < movieRatings.length; i++) {
+                movieRatings[i] = ratings.get(i) != null ? ratings.get(i) : -1;
+                movieScores[i] = (float) movieRatings[i];
+            }
+            movies = TrigramIndex.build(movieTitles);
+            movieSuggestions = SuggestIndex.build(movieTitles, movieScores);
+
+            // Le righe arrivano ordinate per nome: ogni cambio di nome apre un nuovo attore
+            List<String> names = new ArrayList<>();
+            LongList offsets = new LongList();
+            LongList credits = new LongList();
+            actorRows.forEach(row -> {
+                String name = (String) row[0];
+                if (names.isEmpty() || !names.get(names.size() - 1).equals(name)) {
+                    offsets.add(credits.size());
+                    names.add(name);
+                }
+                credits.add((Long) row[1]);
+            });
+            offsets.add(credits.size());
+            creditOffsets = offsets.toIntArray();
+            creditMovieIds = credits.toArray();
+            actorNames = names.toArray(String[]::new);
+            actors = TrigramIndex.build(actorNames);
+            float[] popularity = new float[actorNames.length];
+            for (int i = 0; i < popularity.length; i++) {
+                popularity[i] = creditOffsets[i + 1] - creditOffsets[i];
+            }
+            actorSuggestions = SuggestIndex.build(actorNames, popularity);
+        }
+    }
+
+    /**
+     * Lista di long primitivi a crescita dinamica, per evitare il boxing durante la costruzione.
+     */
+    private static final class LongList {
+        private long[] values = new long[1024];
+        private int size;
+
+        void add(long value) {
+            if (size == values.length) {
+                values = Arrays.copyOf(values, size * 2);
+            }
+            values[size++] = value;
+        }
+
+        int size() {
+            return size;
+        }
+
+        long[] toArray() {
+            return Arrays.copyOf(values, size);
+        }
+
+        int[] toIntArray() {
+            int[] result = new int[size];
+            for (int i = 0; i < size; i++) {
+                result[i] = (int) values[i];
+            }
+            return result;
+        }
+    }
+}
@@ -0,0 +1,56 @@
+package com.andrianigiordano.springboot.search;
+
+/**
+ * Parte comune delle risposte di /search-movies e /search-actors: query, pagina e totale dei risultati.
+ * I risultati sono esposti dalle sottoclassi con la chiave usata dai client ({@code movies} o {@code actors}).
+ */
+public abstract class SearchResultDTO {
+
+    private final String query;
+
+    private final int page;
+
+    private final int size;
+
+    private final long total;
+
+    private final boolean totalExact;
+
+    private final boolean hasMore;
+
+    protected SearchResultDTO(String query, int page, int size, SearchHits<?> hits) {
+        this.query = query;
+        this.page = page;
+        this.size = size;
+        this.total = hits.getTotal();
+        this.totalExact = hits.isExact();
+        // Con un totale stimato si assume che una pagina piena abbia un seguito
+        long seen = (long) page * size + hits.getItems().size();
+        this.hasMore = seen < hits.getTotal() || (!hits.isExact() && hits.getItems().size() == size);
+    }
+
+    // Getter
+    public String getQuery() {
+        return query;
+    }
+
+    public int getPage() {
+        return page;
+    }
+
+    public int getSize() {
+        return size;
+    }
+
+    public long getTotal() {
+        return total;
+    }
+
+    public boolean isTotalExact() {
+        return totalExact;
+    }
+
+    public boolean isHasMore() {
+        return hasMore;
+    }
+}
@@ -0,0 +1,201 @@
+package com.andrianigiordano.springboot.search;
+
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.PriorityQueue;
+
+/**
+ * Indice compatto per l'autocompletamento per prefisso, con risultati ordinati per punteggio.
+ * <p>
+ * Le chiavi normalizzate sono ordinate lessicograficamente e memorizzate in un unico array di
+ * caratteri con gli offset di inizio: è la forma "appiattita" di un trie, in cui ogni nodo
+ * (cioè ogni prefisso) corrisponde a un intervallo contiguo di chiavi, trovato con due ricerche
+ * binarie. Sopra i punteggi è costruito un segment tree che restituisce la posizione con punteggio
+ * massimo in un intervallo, così i migliori k completamenti si estraggono in O(k log n) senza
+ * visitare tutte le chiavi del prefisso. Tutta la struttura è fatta di array primitivi.
+ */
+public final class SuggestIndex {
+
+    private final char[] chars;
+    private final int[] offsets;
+    private final int[] docs;
+    private final float[] scores;
+    private final int[] tree;
+    private final int leaves;
+
+    private SuggestIndex(char[] chars, int[] offsets, int[] docs, float[] scores) {
+        this.chars = chars;
+        this.offsets = offsets;
+        this.docs = docs;
+        this.scores = scores;
+        int size = 1;
+        while (size < Math.max(1, docs.length)) {
+            size <<= 1;
+        }
+        this.leaves = size;
+        this.tree = new int[2 * size];
+        Arrays.fill(tree, -1);
+        for (int i = 0; i < docs.length; i++) {
+            tree[size + i] = i;
+        }
+        for (int node = size - 1; node >= 1; node--) {
+            tree[node] = best(tree[2 * node], tree[2 * node + 1]);
+        }
+    }
+
+    /**
+     * Costruisce l'indice.
+     *
+     * @param keys   i testi da completare, la posizione nell'array è l'identificativo del documento
+     * @param scores il punteggio di ogni documento (valori più alti vengono proposti prima)
+     * @return l'indice costruito
+     */
+    public static SuggestIndex build(String[] keys, float[] scores) {
+        String[] normalized = new String[keys.length];
+        Integer[] order = new Integer[keys.length];
+        long totalChars = 0;
+        for (int doc = 0; doc < keys.length; doc++) {
+            normalized[doc] = TrigramIndex.normalize(keys[doc]);
+            order[doc] = doc;
+            totalChars += normalized[doc].length();
+        }
+        Arrays.sort(order, Comparator.comparing(doc -> normalized[doc]));
+
+        char[] chars = new char[Math.toIntExact(totalChars)];
+        int[] offsets = new int[keys.length + 1];
+        int[] docs = new int[keys.length];
+        float[] sortedScores = new float[keys.length];
+        int position = 0;
+        for (int i = 0; i < order.length; i++) {
+            String key = normalized[order[i]];
+            key.getChars(0, key.length(), chars, position);
+            offsets[i] = position;
+            position += key.length();
+            docs[i] = order[i];
+            sortedScores[i] = scores[order[i]];
+        }
+        offsets[keys.length] = position;
+        return new SuggestIndex(chars, offsets, docs, sortedScores);
+    }
+
+    public int size() {
+        return docs.length;
+    }
+
+    /**
+     * Occupazione stimata in memoria della struttura, in byte (solo il contenuto degli array).
+     *
+     * @return i byte occupati
+     */
+    public long memoryBytes() {
+        return chars.length * 2L + (offsets.length + docs.length + tree.length) * 4L + scores.length * 4L;
+    }
+
+    /**
+     * Restituisce i documenti la cui chiave inizia con il prefisso, in ordine di punteggio decrescente.
+     *
+     * @param prefix il prefisso da completare
+     * @param limit  il numero massimo di risultati
+     * @return gli identificativi dei documenti trovati
+     */
+    public int[] suggest(String prefix, int limit) {
+        String needle = TrigramIndex.normalize(prefix);
+        int from = lowerBound(needle, false);
+        int to = lowerBound(needle, true);
+        if (from >= to || limit <= 0) {
+            return new int[0];
+        }
+
+        // Ogni intervallo in coda è rappresentato dalla sua posizione migliore; estratta quella,
+        // l'intervallo si divide nelle due metà rimanenti
+        PriorityQueue<int[]> ranges = new PriorityQueue<>((a, b) -> compare(b[2], a[2]));
+        ranges.add(new int[]{from, to, rangeBest(from, to)});
+        int[] result = new int[Math.min(limit, to - from)];
+        int count = 0;
+        while (count < result.length) {
+            int[] range = ranges.poll();
+            int best = range[2];
+            result[count++] = docs[best];
+            if (range[0] < best) {
+                ranges.add(new int[]{range[0], best, rangeBest(range[0], best)});
+            }
+            if (best + 1 < range[1]) {
+                ranges.add(new int[]{best + 1, range[1], rangeBest(best + 1, range[1])});
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Prima posizione la cui chiave è maggiore o uguale al prefisso; con {@code past} a true,
+     * prima posizione la cui chiave è maggiore di tutte quelle che iniziano con il prefisso.
+     */
+    private int lowerBound(String prefix, boolean past) {
+        int low = 0;
+        int high = docs.length;
+        while (low < high) {
+            int middle = (low + high) >>> 1;
+            int comparison = comparePrefix(middle, prefix);
+            if (comparison < 0 || (past && comparison == 0)) {
+                low = middle + 1;
+            } else {
+                high = middle;
+            }
+        }
+        return low;
+    }
+
+    /**
+     * Confronta la chiave in posizione {@code position}, troncata alla lunghezza del prefisso, con il prefisso.
+     */
+    private int comparePrefix(int position, String prefix) {
+        int start = offsets[position];
+        int length = offsets[position + 1] - start;
+        int common = Math.min(length, prefix.length());
+        for (int i = 0; i < common; i++) {
+            int difference = chars[start + i] - prefix.charAt(i);
+            if (difference != 0) {
+                return difference;
+            }
+        }
+        return length >= prefix.length() ? 0 : -1;
+    }
+
+    /**
+     * Posizione con punteggio massimo nell'intervallo [from, to) tramite il segment tree.
+     */
+    private int rangeBest(int from, int to) {
+        int result = -1;
+        for (int low = from + leaves, high = to + leaves; low < high; low >>= 1, high >>= 1) {
+            if ((low & 1) == 1) {
+                result = best(result, tree[low++]);
+            }
+            if ((high & 1) == 1) {
+                result = best(result, tree[--high]);
+            }
+        }
+        return result;
+    }
+
+    private int best(int a, int b) {
+        if (a < 0) {
+            return b;
+        }
+        if (b < 0) {
+            return a;
+        }
+        return compare(a, b) >= 0 ? a : b;
+    }
+
+    /**
+     * Ordine tra due posizioni: punteggio maggiore, a parità la chiave più corta e poi la prima in ordine alfabetico.
+     */
+    private int compare(int a, int b) {
+        int byScore = Float.compare(scores[a], scores[b]);
+        if (byScore != 0) {
+            return byScore;
+        }
+        int byLength = Integer.compare(offsets[b + 1] - offsets[b], offsets[a + 1] - offsets[a]);
+        return byLength != 0 ? byLength : Integer.compare(b, a);
+    }
+}
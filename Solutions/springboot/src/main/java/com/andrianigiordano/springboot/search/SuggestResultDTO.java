@@ -0,0 +1,32 @@
+package com.andrianigiordano.springboot.search;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Risposta di /suggest: i completamenti del prefisso tra i titoli dei film e tra i nomi degli attori.
+ */
+public class SuggestResultDTO {
+
+    private final String query;
+
+    private final List<SuggestionDTO> movies = new ArrayList<>();
+
+    private final List<SuggestionDTO> actors = new ArrayList<>();
+
+    public SuggestResultDTO(String query) {
+        this.query = query;
+    }
+
+    public String getQuery() {
+        return query;
+    }
+
+    public List<SuggestionDTO> getMovies() {
+        return movies;
+    }
+
+    public List<SuggestionDTO> getActors() {
+        return actors;
+    }
+}
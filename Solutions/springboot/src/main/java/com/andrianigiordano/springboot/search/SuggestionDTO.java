@@ -0,0 +1,32 @@
+package com.andrianigiordano.springboot.search;
+
+/**
+ * Suggerimento dell'autocompletamento: un film (con ID e rating)
+ * oppure un attore (senza ID, con il numero di film come punteggio).
+ */
+public class SuggestionDTO {
+
+    private final Long id;
+
+    private final String text;
+
+    private final double score;
+
+    public SuggestionDTO(Long id, String text, double score) {
+        this.id = id;
+        this.text = text;
+        this.score = score;
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public String getText() {
+        return text;
+    }
+
+    public double getScore() {
+        return score;
+    }
+}
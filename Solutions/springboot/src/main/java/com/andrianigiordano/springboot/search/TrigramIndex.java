@@ -0,0 +1,331 @@
+package com.andrianigiordano.springboot.search;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Indice a trigrammi immutabile per la ricerca per sottostringa, senza distinzione
+ * tra maiuscole e minuscole, su un insieme di testi (titoli dei film o nomi degli attori).
+ * <p>
+ * Ogni testo è identificato dalla sua posizione (documento) nell'array passato a {@link #build}.
+ * Per ogni trigramma l'indice conserva la lista ordinata dei documenti che lo contengono:
+ * una ricerca interseca le liste dei trigrammi della query e verifica i candidati con
+ * {@link String#contains}, quindi ha la stessa semantica di {@code LOWER(name) LIKE '%query%'}.
+ * Le query più corte di tre caratteri vengono risolte con una scansione dei testi in memoria.
+ */
+public final class TrigramIndex {
+
+    private static final int[] EMPTY = new int[0];
+
+    private final String[] texts;
+
+    private final Map<Long, int[]> postings;
+
+    private TrigramIndex(String[] texts, Map<Long, int[]> postings) {
+        this.texts = texts;
+        this.postings = postings;
+    }
+
+    /**
+     * Costruisce l'indice sui testi forniti.
+     *
+     * @param values i testi da indicizzare, la posizione nell'array è l'identificativo del documento
+     * @return l'indice costruito
+     */
+    public static TrigramIndex build(String[] values) {
+        String[] texts = new String[values.length];
+        Map<Long, int[]> counts = new HashMap<>();
+        for (int doc = 0; doc < values.length; doc++) {
+            texts[doc] = normalize(values[doc]);
+            for (long trigram : trigrams(texts[doc])) {
+                counts.computeIfAbsent(trigram, key -> new int[1])[0]++;
+            }
+        }
+
+        Map<Long, int[]> postings = new HashMap<>(counts.size() * 2);
+        for (Map.Entry<Long, int[]> entry : counts.entrySet()) {
+            postings.put(entry.getKey(), new int[entry.getValue()[0]]);
+            entry.getValue()[0] = 0;
+        }
+        // I trigrammi vengono ricalcolati invece di essere tenuti in memoria tra le due passate;
+        // i documenti sono visitati in ordine, quindi ogni lista risulta già ordinata
+        for (int doc = 0; doc < values.length; doc++) {
+            for (long trigram : trigrams(texts[doc])) {
+                int[] fill = counts.get(trigram);
+                postings.get(trigram)[fill[0]++] = doc;
+            }
+        }
+        return new TrigramIndex(texts, postings);
+    }
+
+    /**
+     * Normalizza un testo per la ricerca (minuscolo, indipendente dalla lingua di sistema).
+     *
+     * @param value il testo da normalizzare
+     * @return il testo normalizzato, stringa vuota se null
+     */
+    public static String normalize(String value) {
+        return value == null ? "" : value.toLowerCase(Locale.ROOT);
+    }
+
+    public int size() {
+        return texts.length;
+    }
+
+    /**
+     * Restituisce il testo normalizzato di un documento.
+     *
+     * @param doc l'identificativo del documento
+     * @return il testo normalizzato
+     */
+    public String text(int doc) {
+        return texts[doc];
+    }
+
+    /**
+     * Restituisce i documenti che contengono la query, ordinati per qualità della corrispondenza:
+     * prima il testo identico, poi quello che inizia con la query, poi la corrispondenza
+     * all'inizio di una parola e infine quella in mezzo a una parola; a parità, i testi più corti
+     * e infine i documenti con identificativo minore.
+     *
+     * @param query la stringa da cercare
+     * @param limit il numero massimo di risultati
+     * @return gli identificativi dei documenti trovati, in ordine di rilevanza
+     */
+    public int[] search(String query, int limit) {
+        return search(query, 0, limit).getDocs();
+    }
+
+    /**
+     * Restituisce una pagina dei documenti che contengono la query, nello stesso ordine di
+     * {@link #search(String, int)}, insieme a tutti i documenti trovati.
+     * Vengono ordinati solo i primi {@code offset + limit} documenti, non tutti quelli trovati.
+     *
+     * @param query  la stringa da cercare
+     * @param offset il numero di documenti da saltare
+     * @param limit  il numero massimo di documenti restituiti
+     * @return i documenti della pagina e tutti i documenti trovati
+     */
+    public Result search(String query, int offset, int limit) {
+        String needle = normalize(query);
+        int[] matches = matches(needle);
+        if (limit <= 0 || offset >= matches.length) {
+            return new Result(EMPTY, matches);
+        }
+        long[] keys = new long[matches.length];
+        for (int i = 0; i < matches.length; i++) {
+            keys[i] = rankKey(matches[i], needle);
+        }
+        long[] top = smallest(keys, (int) Math.min((long) offset + limit, matches.length));
+        int[] result = new int[top.length - offset];
+        for (int i = 0; i < result.length; i++) {
+            result[i] = (int) top[offset + i];
+        }
+        return new Result(result, matches);
+    }
+
+    /**
+     * Restituisce tutti i documenti che contengono la query normalizzata, in ordine di identificativo.
+     *
+     * @param needle la query già normalizzata
+     * @return i documenti che contengono la query
+     */
+    private int[] matches(String needle) {
+        if (needle.length() < 3) {
+            return scan(needle);
+        }
+        long[] trigrams = trigrams(needle);
+        int[][] lists = new int[trigrams.length][];
+        for (int i = 0; i < trigrams.length; i++) {
+            lists[i] = postings.get(trigrams[i]);
+            if (lists[i] == null) {
+                return EMPTY;
+            }
+        }
+        Arrays.sort(lists, (a, b) -> Integer.compare(a.length, b.length));
+
+        int[] candidates = lists[0];
+        for (int i = 1; i < lists.length && candidates.length > 0; i++) {
+            candidates = intersect(candidates, lists[i]);
+        }
+        int count = 0;
+        int[] verified = new int[candidates.length];
+        for (int doc : candidates) {
+            if (texts[doc].contains(needle)) {
+                verified[count++] = doc;
+            }
+        }
+        return count == verified.length ? verified : Arrays.copyOf(verified, count);
+    }
+
+    private int[] scan(String needle) {
+        int count = 0;
+        int[] found = new int[16];
+        for (int doc = 0; doc < texts.length; doc++) {
+            if (texts[doc].contains(needle)) {
+                if (count == found.length) {
+                    found = Arrays.copyOf(found, count * 2);
+                }
+                found[count++] = doc;
+            }
+        }
+        return Arrays.copyOf(found, count);
+    }
+
+    /**
+     * Chiave di ordinamento: classe di corrispondenza (2 bit), lunghezza del testo (20 bit)
+     * e documento (32 bit), così che l'ordine naturale dei long coincida con la rilevanza.
+     * Le classi sono le stesse delle query di ripiego sul database: testo identico, che inizia con la
+     * stringa, con un'occorrenza qualsiasi preceduta da uno spazio (LIKE '% stringa%'), altrimenti in
+     * mezzo a una parola.
+     */
+    private long rankKey(int doc, String needle) {
+        String text = texts[doc];
+        long quality;
+        if (text.length() == needle.length()) {
+            quality = 0;
+        } else if (text.startsWith(needle)) {
+            quality = 1;
+        } else if (followsSpace(text, needle)) {
+            quality = 2;
+        } else {
+            quality = 3;
+        }
+        long length = Math.min(text.length(), (1 << 20) - 1);
+        return (quality << 52) | (length << 32) | doc;
+    }
+
+    private static boolean followsSpace(String text, String needle) {
+        for (int position = text.indexOf(needle, 1); position > 0; position = text.indexOf(needle, position + 1)) {
+            if (text.charAt(position - 1) == ' ') {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Seleziona i k valori più piccoli in ordine crescente con un max-heap limitato.
+     */
+    private static long[] smallest(long[] values, int k) {
+        if (values.length <= k) {
+            long[] sorted = values.clone();
+            Arrays.sort(sorted);
+            return sorted;
+        }
+        long[] heap = Arrays.copyOf(values, k);
+        for (int i = k / 2 - 1; i >= 0; i--) {
+            siftDown(heap, i, k);
+        }
+        for (int i = k; i < values.length; i++) {
+            if (values[i] < heap[0]) {
+                heap[0] = values[i];
+                siftDown(heap, 0, k);
+            }
+        }
+        Arrays.sort(heap);
+        return heap;
+    }
+
+    private static void siftDown(long[] heap, int index, int size) {
+        while (true) {
+            int largest = index;
+            int left = 2 * index + 1;
+            int right = left + 1;
+            if (left < size && heap[left] > heap[largest]) {
+                largest = left;
+            }
+            if (right < size && heap[right] > heap[largest]) {
+                largest = right;
+            }
+            if (largest == index) {
+                return;
+            }
+            long swap = heap[index];
+            heap[index] = heap[largest];
+            heap[largest] = swap;
+            index = largest;
+        }
+    }
+
+    /**
+     * Interseca due liste ordinate; la più corta guida la ricerca binaria sulla più lunga.
+     */
+    private static int[] intersect(int[] shorter, int[] longer) {
+        int[] result = new int[shorter.length];
+        int count = 0;
+        int from = 0;
+        for (int doc : shorter) {
+            int position = Arrays.binarySearch(longer, from, longer.length, doc);
+            if (position >= 0) {
+                result[count++] = doc;
+                from = position + 1;
+            } else {
+                from = -position - 1;
+            }
+            if (from == longer.length) {
+                break;
+            }
+        }
+        return Arrays.copyOf(result, count);
+    }
+
+    /**
+     * Estrae i trigrammi distinti di un testo, codificando i tre caratteri in un long.
+     */
+    private static long[] trigrams(String text) {
+        if (text.length() < 3) {
+            return new long[0];
+        }
+        long[] trigrams = new long[text.length() - 2];
+        for (int i = 0; i < trigrams.length; i++) {
+            trigrams[i] = ((long) text.charAt(i) << 32) | ((long) text.charAt(i + 1) << 16) | text.charAt(i + 2);
+        }
+        Arrays.sort(trigrams);
+        int unique = 0;
+        for (int i = 0; i < trigrams.length; i++) {
+            if (i == 0 || trigrams[i] != trigrams[i - 1]) {
+                trigrams[unique++] = trigrams[i];
+            }
+        }
+        return Arrays.copyOf(trigrams, unique);
+    }
+
+    /**
+     * Pagina di documenti restituita da {@link #search(String, int, int)}.
+     */
+    public static final class Result {
+
+        private final int[] docs;
+
+        private final int[] matches;
+
+        Result(int[] docs, int[] matches) {
+            this.docs = docs;
+            this.matches = matches;
+        }
+
+        /**
+         * @return i documenti della pagina, in ordine di rilevanza
+         */
+        public int[] getDocs() {
+            return docs;
+        }
+
+        /**
+         * @return il numero di documenti che contengono la query
+         */
+        public int getTotal() {
+            return matches.length;
+        }
+
+        /**
+         * @return tutti i documenti che contengono la query, in ordine di identificativo (da non modificare)
+         */
+        public int[] getMatches() {
+            return matches;
+        }
+    }
+}
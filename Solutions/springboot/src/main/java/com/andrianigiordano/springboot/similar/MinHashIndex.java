@@ -0,0 +1,286 @@
+package com.andrianigiordano.springboot.similar;
+
+import com.andrianigiordano.springboot.database.CleanedValues;
+
+import java.util.*;
+import java.util.stream.IntStream;
+
+/**
+ * Indice immutabile per la ricerca dei film simili.
+ * <p>
+ * Ogni film è descritto dall'insieme delle sue caratteristiche (temi, generi e persone della crew) e
+ * la somiglianza tra due film è l'indice di Jaccard dei due insiemi. Per non confrontare un film con
+ * tutto il catalogo, di ogni insieme si calcola una firma MinHash di {@code bands * rows} valori, divisa
+ * in {@code bands} bande: i film con almeno una banda identica finiscono nello stesso bucket (LSH) e solo
+ * questi vengono confrontati. Due film con somiglianza s condividono un bucket con probabilità
+ * 1 - (1 - s^rows)^bands, quindi più bande aumentano i candidati trovati, più righe li rendono più selettivi.
+ * <p>
+ * I candidati vengono poi ordinati per somiglianza esatta, calcolata sugli insiemi di caratteristiche
+ * conservati in array compatti. Le firme non vengono conservate: quella del film richiesto viene
+ * ricalcolata a ogni ricerca.
+ */
+final class MinHashIndex {
+
+    private final long[] movieIds;
+    private final int[] offsets;
+    private final int[] features;
+    private final int bands;
+    private final int rows;
+    private final long[] seeds;
+    // Per ogni banda: chiavi dei bucket in ordine crescente e documenti corrispondenti
+    private final int[][] bucketKeys;
+    private final int[][] bucketDocs;
+
+    private MinHashIndex(Builder builder, int bands, int rows) {
+        this.bands = bands;
+        this.rows = rows;
+        this.seeds = new SplittableRandom(0x5EED).longs(bands * rows).toArray();
+
+        // Numerazione densa dei film che hanno almeno una caratteristica, in ordine di ID
+        long[] ids = Arrays.copyOf(builder.movieIds, builder.size);
+        Arrays.sort(ids);
+        int count = 0;
+        for (int i = 0; i < ids.length; i++) {
+            if (i == 0 || ids[i] != ids[i - 1]) {
+                ids[count++] = ids[i];
+            }
+        }
+        movieIds = Arrays.copyOf(ids, count);
+        int docs = count;
+
+        // Coppie (documento, caratteristica) ordinate e senza duplicati, in formato CSR
+        long[] pairs = new long[builder.size];
+        for (int i = 0; i < builder.size; i++) {
+            pairs[i] = ((long) Arrays.binarySearch(movieIds, builder.movieIds[i]) << 32) | builder.features[i];
+        }
+        Arrays.sort(pairs);
+        offsets = new int[docs + 1];
+        int[] values = new int[pairs.length];
+        int size = 0;
+        for (int i = 0; i < pairs.length; i++) {
+            if (i > 0 && pairs[i] == pairs[i - 1]) {
+                continue;
+            }
+            offsets[(int) (pairs[i] >>> 32) + 1]++;
+            values[size++] = (int) pairs[i];
+        }
+        for (int doc = 0; doc < docs; doc++) {
+            offsets[doc + 1] += offsets[doc];
+        }
+        features = Arrays.copyOf(values, size);
+
+        // Chiavi delle bande di ogni documento, calcolate in parallelo
+        int[][] keys = new int[bands][docs];
+        IntStream.range(0, docs).parallel().forEach(doc -> {
+            int[] bandKeys = bandKeys(doc);
+            for (int band = 0; band < bands; band++) {
+                keys[band][doc] = bandKeys[band];
+            }
+        });
+        bucketKeys = new int[bands][];
+        bucketDocs = new int[bands][];
+        IntStream.range(0, bands).parallel().forEach(band -> {
+            long[] sorted = new long[docs];
+            for (int doc = 0; doc < docs; doc++) {
+                sorted[doc] = ((long) keys[band][doc] << 32) | doc;
+            }
+            Arrays.sort(sorted);
+            int[] bandKeys = new int[docs];
+            int[] bandDocs = new int[docs];
+            for (int i = 0; i < docs; i++) {
+                bandKeys[i] = (int) (sorted[i] >> 32);
+                bandDocs[i] = (int) sorted[i];
+            }
+            bucketKeys[band] = bandKeys;
+            bucketDocs[band] = bandDocs;
+        });
+    }
+
+    /**
+     * Calcola la firma MinHash del documento e ne ricava la chiave di ogni banda.
+     */
+    private int[] bandKeys(int doc) {
+        int[] signature = new int[seeds.length];
+        Arrays.fill(signature, Integer.MAX_VALUE);
+        for (int i = offsets[doc]; i < offsets[doc + 1]; i++) {
+            long feature = features[i] * 0x9E3779B97F4A7C15L;
+            for (int h = 0; h < seeds.length; h++) {
+                int hash = (int) (mix(feature ^ seeds[h]) >>> 33);
+                if (hash < signature[h]) {
+                    signature[h] = hash;
+                }
+            }
+        }
+        int[] keys = new int[bands];
+        for (int band = 0; band < bands; band++) {
+            long key = band;
+            for (int row = 0; row < rows; row++) {
+                key = key * 0x100000001B3L + signature[band * rows + row];
+            }
+            keys[band] = (int) mix(key);
+        }
+        return keys;
+    }
+
+    /**
+     * Funzione di mescolamento a 64 bit (finalizzatore di SplitMix64).
+     */
+    private static long mix(long z) {
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return z ^ (z >>> 31);
+    }
+
+    /**
+     * @return true se il film ha almeno una caratteristica nell'indice
+     */
+    boolean contains(long movieId) {
+        return Arrays.binarySearch(movieIds, movieId) >= 0;
+    }
+
+    /**
+     * Restituisce i film più simili a quello indicato tra quelli che condividono almeno un bucket,
+     * in ordine di somiglianza decrescente e a parità per ID.
+     *
+     * @param movieId      l'ID del film
+     * @param limit        il numero massimo di film restituiti
+     * @param maxBucketDocs il numero massimo di documenti letti da ogni bucket: i bucket molto grandi
+     *                     (film con poche caratteristiche molto comuni) vengono letti solo in parte
+     * @return i film simili, vuoto se il film non è nell'indice
+     */
+    List<Match> similar(long movieId, int limit, int maxBucketDocs) {
+        int doc = Arrays.binarySearch(movieIds, movieId);
+        if (doc < 0) {
+            return List.of();
+        }
+        int[] keys = bandKeys(doc);
+        int[] candidates = new int[16];
+        int size = 0;
+        for (int band = 0; band < bands; band++) {
+            int[] bandKeys = bucketKeys[band];
+            int from = lowerBound(bandKeys, keys[band]);
+            int to = Math.min(bandKeys.length, from + maxBucketDocs);
+            for (int i = from; i < to && bandKeys[i] == keys[band]; i++) {
+                if (size == candidates.length) {
+                    candidates = Arrays.copyOf(candidates, size * 2);
+                }
+                candidates[size++] = bucketDocs[band][i];
+            }
+        }
+        Arrays.sort(candidates, 0, size);
+
+        List<Match> matches = new ArrayList<>();
+        for (int i = 0; i < size; i++) {
+            int candidate = candidates[i];
+            if (candidate != doc && (i == 0 || candidate != candidates[i - 1])) {
+                matches.add(new Match(movieIds[candidate], jaccard(doc, candidate)));
+            }
+        }
+        // I candidati sono in ordine di documento, quindi di ID: l'ordinamento stabile mantiene l'ID a parità
+        matches.sort(Comparator.comparingDouble((Match match) -> match.similarity).reversed());
+        return matches.size() > limit ? List.copyOf(matches.subList(0, limit)) : matches;
+    }
+
+    private static int lowerBound(int[] keys, int key) {
+        int low = 0;
+        int high = keys.length;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (keys[mid] < key) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    /**
+     * Indice di Jaccard esatto tra le caratteristiche di due documenti (array ordinati).
+     */
+    double jaccard(int a, int b) {
+        int i = offsets[a];
+        int j = offsets[b];
+        int shared = 0;
+        while (i < offsets[a + 1] && j < offsets[b + 1]) {
+            if (features[i] == features[j]) {
+                shared++;
+                i++;
+                j++;
+            } else if (features[i] < features[j]) {
+                i++;
+            } else {
+                j++;
+            }
+        }
+        int union = (offsets[a + 1] - offsets[a]) + (offsets[b + 1] - offsets[b]) - shared;
+        return union == 0 ? 0 : (double) shared / union;
+    }
+
+    int movieCount() {
+        return movieIds.length;
+    }
+
+    int featureCount() {
+        return features.length;
+    }
+
+    /**
+     * @return la memoria occupata dagli array dell'indice, in byte
+     */
+    long sizeInBytes() {
+        return 8L * movieIds.length + 4L * offsets.length + 4L * features.length + 8L * bands * movieIds.length;
+    }
+
+    /**
+     * Film simile con la relativa somiglianza (indice di Jaccard tra 0 e 1).
+     */
+    static final class Match {
+        final long movieId;
+        final double similarity;
+
+        private Match(long movieId, double similarity) {
+            this.movieId = movieId;
+            this.similarity = similarity;
+        }
+    }
+
+    /**
+     * Raccoglie le caratteristiche dei film lette dal database. Ogni caratteristica è identificata
+     * dal tipo (tema, genere, crew) e dal valore, senza distinzione tra maiuscole e minuscole.
+     * Il segnaposto "Unknown" dei notebook di pulizia non è una caratteristica: condiviso da gran parte
+     * del catalogo, gonfierebbe la somiglianza tra film non collegati e riempirebbe i bucket LSH.
+     */
+    static final class Builder {
+        private final Map<String, Integer> dictionary = new HashMap<>();
+        private long[] movieIds = new long[1024];
+        private int[] features = new int[1024];
+        private int size;
+
+        Builder feature(long movieId, String kind, String value) {
+            if (CleanedValues.isMissing(value)) {
+                return this;
+            }
+            Integer feature = dictionary.computeIfAbsent(kind + ':' + value.trim().toLowerCase(Locale.ROOT),
+                    key -> dictionary.size());
+            if (size == movieIds.length) {
+                movieIds = Arrays.copyOf(movieIds, size * 2);
+                features = Arrays.copyOf(features, size * 2);
+            }
+            movieIds[size] = movieId;
+            features[size++] = feature;
+            return this;
+        }
+
+        /**
+         * @param bands il numero di bande della firma
+         * @param rows  il numero di valori della firma per banda
+         */
+        MinHashIndex build(int bands, int rows) {
+            if (bands < 1 || rows < 1) {
+                throw new IllegalArgumentException("Bande e righe devono essere almeno 1: " + bands + "x" + rows);
+            }
+            return new MinHashIndex(this, bands, rows);
+        }
+    }
+}
@@ -0,0 +1,28 @@
+package com.andrianigiordano.springboot.similar;
+
+import com.andrianigiordano.springboot.movies.MovieCardDTO;
+
+/**
+ * Film simile a quello richiesto, con la somiglianza tra i due: indice di Jaccard tra 0 e 1
+ * calcolato su temi, generi e persone della crew.
+ */
+public class SimilarMovieDTO {
+
+    private final MovieCardDTO movie;
+
+    private final double similarity;
+
+    public SimilarMovieDTO(MovieCardDTO movie, double similarity) {
+        this.movie = movie;
+        this.similarity = similarity;
+    }
+
+    // Getter
+    public MovieCardDTO getMovie() {
+        return movie;
+    }
+
+    public double getSimilarity() {
+        return similarity;
+    }
+}
@@ -0,0 +1,54 @@
+package com.andrianigiordano.springboot.similar;
+
+import com.andrianigiordano.springboot.metrics.QueryBudget;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.tags.Tag;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Controller per i film simili.
+ */
+@RestController
+@RequestMapping("/movies")
+@Tag(name = "Similar movies", description = "Film simili per temi, generi e crew")
+public class SimilarMoviesController {
+
+    private final SimilarMoviesService similarMoviesService;
+
+    public SimilarMoviesController(SimilarMoviesService similarMoviesService) {
+        this.similarMoviesService = similarMoviesService;
+    }
+
+    @Operation(summary = "Film simili",
+            description = "Restituisce i film con più temi, generi e persone della crew in comune con il film indicato, " +
+                    "con la somiglianza (indice di Jaccard). I candidati vengono trovati con un indice MinHash/LSH, " +
+                    "quindi un film con somiglianza bassa può non comparire")
+    @QueryBudget(1)
+    @GetMapping("/{id}/similar")
+    public ResponseEntity<List<SimilarMovieDTO>> getSimilarMovies(
+            @Parameter(description = "ID del film") @PathVariable Long id,
+            @Parameter(description = "Numero massimo di film restituiti") @RequestParam(defaultValue = "10") int limit) {
+        return similarMoviesService.getSimilarMovies(id, limit)
+                .map(ResponseEntity::ok)
+                .orElse(ResponseEntity.status(HttpStatus.NOT_FOUND).body(null));
+    }
+
+    /**
+     * Ricostruisce l'indice dei film simili dal database.
+     * Le richieste continuano a essere servite dal vecchio indice fino alla sostituzione.
+     *
+     * @return statistiche sull'indice costruito
+     */
+    @Operation(summary = "Ricostruisci l'indice dei film simili", description = "Ricarica dal database temi, generi e crew dei film")
+    @PostMapping("/similar/refresh")
+    public Map<String, Object> refresh() {
+        return similarMoviesService.refresh();
+    }
+}
@@ -0,0 +1,130 @@
+package com.andrianigiordano.springboot.similar;
+
+import com.andrianigiordano.springboot.index.RebuildableIndex;
+import com.andrianigiordano.springboot.movies.MovieCardDTO;
+import com.andrianigiordano.springboot.movies.MoviesRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.util.*;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Servizio per i film simili: per un film restituisce quelli con più temi, generi e persone della
+ * crew in comune.
+ * <p>
+ * La ricerca usa il {@link MinHashIndex} in memoria, costruito all'avvio con una sola lettura delle
+ * tabelle figlie e ricostruibile con {@link #refresh()}; il database viene interrogato solo per le
+ * card dei film restituiti.
+ */
+@Service
+public class SimilarMoviesService {
+
+    private static final Logger log = LoggerFactory.getLogger(SimilarMoviesService.class);
+
+    private final MoviesRepository moviesRepository;
+    private final TransactionTemplate readOnlyTransaction;
+    private final int bands;
+    private final int rows;
+    private final int maxBucketDocs;
+    private final int maxLimit;
+    private final RebuildableIndex<MinHashIndex> index;
+
+    public SimilarMoviesService(MoviesRepository moviesRepository,
+                                PlatformTransactionManager transactionManager,
+                                @Value("${similar.index.enabled:true}") boolean enabled,
+                                @Value("${similar.lsh.bands:16}") int bands,
+                                @Value("${similar.lsh.rows:2}") int rows,
+                                @Value("${similar.lsh.max-bucket-docs:1000}") int maxBucketDocs,
+                                @Value("${similar.max-limit:100}") int maxLimit) {
+        this.moviesRepository = moviesRepository;
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+        this.bands = bands;
+        this.rows = rows;
+        this.maxBucketDocs = maxBucketDocs;
+        this.maxLimit = maxLimit;
+        this.index = new RebuildableIndex<>("indice dei film simili", enabled, this::load);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void buildOnStartup() {
+        index.buildOnStartup();
+    }
+
+    /**
+     * Ricostruisce l'indice dal database e lo sostituisce a quello corrente.
+     *
+     * @return statistiche sull'indice costruito
+     */
+    public Map<String, Object> refresh() {
+        long start = System.nanoTime();
+        MinHashIndex built = index.rebuild();
+        long elapsedMillis = (System.nanoTime() - start) / 1_000_000;
+
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("movies", built.movieCount());
+        stats.put("features", built.featureCount());
+        stats.put("bands", bands);
+        stats.put("rows", rows);
+        stats.put("sizeInBytes", built.sizeInBytes());
+        stats.put("buildMillis", elapsedMillis);
+        return stats;
+    }
+
+    /**
+     * Costruisce un nuovo indice con una sola lettura delle caratteristiche dei film.
+     */
+    private MinHashIndex load() {
+        long start = System.nanoTime();
+        MinHashIndex.Builder builder = new MinHashIndex.Builder();
+        readOnlyTransaction.executeWithoutResult(status -> {
+            try (Stream<Object[]> rows = moviesRepository.streamSimilarityFeatures()) {
+                rows.forEach(row -> builder.feature(((Number) row[0]).longValue(), (String) row[1], (String) row[2]));
+            }
+        });
+        MinHashIndex built = builder.build(bands, rows);
+        log.info("Indice dei film simili costruito: {} film, {} caratteristiche in {} ms",
+                built.movieCount(), built.featureCount(), (System.nanoTime() - start) / 1_000_000);
+        return built;
+    }
+
+    /**
+     * Restituisce i film più simili a quello indicato, in ordine di somiglianza decrescente.
+     *
+     * @param movieId l'ID del film
+     * @param limit   il numero massimo di film restituiti
+     * @return i film simili (vuoto se il film non ha temi, generi o crew), vuoto se il film non esiste
+     * @throws ResponseStatusException 400 se limit non è tra 1 e il massimo configurato, 503 se l'indice non è ancora pronto
+     */
+    public Optional<List<SimilarMovieDTO>> getSimilarMovies(Long movieId, int limit) {
+        if (limit < 1 || limit > maxLimit) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "limit deve essere tra 1 e " + maxLimit);
+        }
+        MinHashIndex current = index.get();
+        if (!current.contains(movieId)) {
+            return moviesRepository.existsById(movieId) ? Optional.of(List.of()) : Optional.empty();
+        }
+        List<MinHashIndex.Match> matches = current.similar(movieId, limit, maxBucketDocs);
+        if (matches.isEmpty()) {
+            return Optional.of(List.of());
+        }
+        Map<Long, MovieCardDTO> cards = moviesRepository.findCardsByIdIn(matches.stream().map(match -> match.movieId).toList())
+                .stream()
+                .collect(Collectors.toMap(MovieCardDTO::getId, Function.identity()));
+        return Optional.of(matches.stream()
+                .filter(match -> cards.containsKey(match.movieId))
+                .map(match -> new SimilarMovieDTO(cards.get(match.movieId), match.similarity))
+                .toList());
+    }
+}
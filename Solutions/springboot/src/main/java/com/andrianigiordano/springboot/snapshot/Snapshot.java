@@ -0,0 +1,77 @@
+package com.andrianigiordano.springboot.snapshot;
+
+import org.springframework.http.MediaType;
+
+import java.time.Instant;
+import java.util.Map;
+
+/**
+ * Risposta precalcolata e immutabile di un endpoint: il contenuto già serializzato in JSON e nei
+ * formati binari (CBOR e Smile) e la sua versione, cioè l'hash SHA-256 del JSON usato come ETag forte.
+ */
+public final class Snapshot {
+
+    private final String name;
+    private final Map<MediaType, byte[]> bodies;
+    private final String version;
+    private final Instant builtAt;
+
+    Snapshot(String name, Map<MediaType, byte[]> bodies, String version, Instant builtAt) {
+        this.name = name;
+        this.bodies = Map.copyOf(bodies);
+        this.version = version;
+        this.builtAt = builtAt;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * Il JSON serializzato; l'array è condiviso e non va modificato.
+     */
+    public byte[] getBody() {
+        return getBody(MediaType.APPLICATION_JSON);
+    }
+
+    /**
+     * Il contenuto serializzato nel formato indicato; l'array è condiviso e non va modificato.
+     *
+     * @param format JSON, CBOR o Smile
+     */
+    public byte[] getBody(MediaType format) {
+        byte[] body = bodies.get(format);
+        if (body == null) {
+            throw new IllegalArgumentException("Formato non disponibile per lo snapshot " + name + ": " + format);
+        }
+        return body;
+    }
+
+    public String getVersion() {
+        return version;
+    }
+
+    /**
+     * La versione nel formato di un ETag forte (tra virgolette).
+     */
+    public String getEtag() {
+        return "\"" + version + "\"";
+    }
+
+    /**
+     * L'ETag della rappresentazione nel formato indicato: i formati binari hanno un suffisso,
+     * perché un ETag forte identifica esattamente i byte della risposta.
+     *
+     * @param format JSON, CBOR o Smile
+     */
+    public String getEtag(MediaType format) {
+        if (MediaType.APPLICATION_JSON.equals(format)) {
+            return getEtag();
+        }
+        return "\"" + version + "-" + format.getSubtype().replace("x-jackson-", "") + "\"";
+    }
+
+    public Instant getBuiltAt() {
+        return builtAt;
+    }
+}
@@ -0,0 +1,49 @@
+package com.andrianigiordano.springboot.snapshot;
+
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Controller per la consultazione e la ricostruzione degli snapshot delle pagine principali.
+ */
+@RestController
+@RequestMapping("/snapshots")
+@Tag(name = "Snapshots", description = "Risposte precalcolate delle pagine home, attori e Oscar")
+public class SnapshotController {
+
+    private final SnapshotService snapshotService;
+
+    public SnapshotController(SnapshotService snapshotService) {
+        this.snapshotService = snapshotService;
+    }
+
+    /**
+     * Elenca gli snapshot correnti.
+     *
+     * @return nome, versione, dimensione e data di costruzione di ogni snapshot
+     */
+    @Operation(summary = "Elenco degli snapshot", description = "Versione (ETag), dimensione e data di costruzione di ogni snapshot")
+    @GetMapping
+    public List<Map<String, Object>> list() {
+        return snapshotService.describe();
+    }
+
+    /**
+     * Ricalcola tutti gli snapshot dal database. Se i dati non sono cambiati la versione resta
+     * la stessa e i client continuano a ricevere 304.
+     *
+     * @return gli snapshot ricostruiti
+     */
+    @Operation(summary = "Ricostruisci gli snapshot", description = "Ricalcola dal database le risposte precalcolate")
+    @PostMapping("/refresh")
+    public List<Map<String, Object>> refresh() {
+        return snapshotService.refresh();
+    }
+}
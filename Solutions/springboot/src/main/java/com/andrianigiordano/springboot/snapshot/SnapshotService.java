@@ -0,0 +1,203 @@
+package com.andrianigiordano.springboot.snapshot;
+
+import com.andrianigiordano.springboot.actors.ActorsService;
+import com.andrianigiordano.springboot.cache.CacheConfiguration;
+import com.andrianigiordano.springboot.encoding.EncodingConfiguration;
+import com.andrianigiordano.springboot.movies.MoviesService;
+import com.andrianigiordano.springboot.the_oscar_awards.TheOscarAwardsService;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.context.event.EventListener;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.http.converter.cbor.MappingJackson2CborHttpMessageConverter;
+import org.springframework.http.converter.smile.MappingJackson2SmileHttpMessageConverter;
+import org.springframework.stereotype.Service;
+
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Instant;
+import java.util.HexFormat;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+
+/**
+ * Servizio che materializza le risposte delle pagine principali (home, attori e Oscar), calcolate
+ * da query fisse, in snapshot immutabili già serializzati in JSON.
+ * <p>
+ * Gli snapshot vengono costruiti all'avvio e ricostruiti con {@link #refresh()}; le richieste
+ * ricevono sempre i byte già pronti con un ETag forte, e se il client invia lo stesso ETag in
+ * If-None-Match la risposta è 304 Not Modified senza corpo. Ogni snapshot è serializzato anche in
+ * CBOR e Smile, restituiti ai client che li chiedono nell'header Accept. Uno snapshot non ancora costruito
+ * (avvio in corso o costruzione fallita) viene calcolato alla prima richiesta.
+ */
+@Service
+public class SnapshotService {
+
+    private static final Logger log = LoggerFactory.getLogger(SnapshotService.class);
+
+    /** Film per la home page (/movies/get-home-movies). */
+    public static final String HOME_MOVIES = "home-movies";
+
+    /** Film della pagina attori (/movies/actors-home). */
+    public static final String ACTORS_HOME_MOVIES = "actors-home-movies";
+
+    /** Film della pagina Oscar (/movies/top100). */
+    public static final String OSCAR_MOVIES = "oscar-movies";
+
+    /** Attori della pagina attori (/actors/get-all). */
+    public static final String HOME_ACTORS = "home-actors";
+
+    /** Premi Oscar per categoria collegati ai film (/oscar/top100/by-category). */
+    public static final String OSCAR_AWARDS_BY_CATEGORY = "oscar-awards-by-category";
+
+    private final Map<String, Supplier<Object>> sources = new LinkedHashMap<>();
+    private final Map<String, Snapshot> snapshots = new ConcurrentHashMap<>();
+    private final Map<MediaType, ObjectMapper> objectMappers = new LinkedHashMap<>();
+    private final CacheManager cacheManager;
+
+    public SnapshotService(MoviesService moviesService, ActorsService actorsService, TheOscarAwardsService oscarAwardsService,
+                           ObjectMapper objectMapper, MappingJackson2CborHttpMessageConverter cborConverter,
+                           MappingJackson2SmileHttpMessageConverter smileConverter, CacheManager cacheManager) {
+        this.objectMappers.put(MediaType.APPLICATION_JSON, objectMapper);
+        this.objectMappers.put(MediaType.APPLICATION_CBOR, cborConverter.getObjectMapper());
+        this.objectMappers.put(EncodingConfiguration.APPLICATION_SMILE, smileConverter.getObjectMapper());
+        this.cacheManager = cacheManager;
+        sources.put(HOME_MOVIES, moviesService::getPosters);
+        sources.put(ACTORS_HOME_MOVIES, moviesService::getActors);
+        sources.put(OSCAR_MOVIES, moviesService::oscarsTop100);
+        sources.put(HOME_ACTORS, actorsService::getAllActors);
+        sources.put(OSCAR_AWARDS_BY_CATEGORY, oscarAwardsService::getTop100OscarsByCategory);
+    }
+
+    /**
+     * Costruisce gli snapshot all'avvio dell'applicazione.
+     * In caso di errore gli snapshot vengono calcolati alla prima richiesta.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void buildOnStartup() {
+        try {
+            refresh();
+        } catch (RuntimeException e) {
+            log.error("Costruzione degli snapshot fallita, verranno calcolati alla prima richiesta", e);
+        }
+    }
+
+    /**
+     * Ricalcola tutti gli snapshot dal database e li sostituisce a quelli correnti.
+     * Le liste dei film in cache vengono invalidate per leggere i dati aggiornati.
+     *
+     * @return nome, versione e dimensione di ogni snapshot
+     */
+    public synchronized List<Map<String, Object>> refresh() {
+        Cache movieLists = cacheManager.getCache(CacheConfiguration.MOVIE_LISTS);
+        if (movieLists != null) {
+            movieLists.invalidate();
+        }
+        for (String name : sources.keySet()) {
+            build(name);
+        }
+        return describe();
+    }
+
+    /**
+     * Restituisce lo snapshot corrente, costruendolo se non esiste ancora.
+     *
+     * @param name il nome dello snapshot
+     * @return lo snapshot
+     */
+    public Snapshot get(String name) {
+        Snapshot snapshot = snapshots.get(name);
+        return snapshot != null ? snapshot : buildIfMissing(name);
+    }
+
+    /**
+     * Risposta con lo snapshot indicato e il relativo ETag, nel formato scelto dall'header Accept
+     * (JSON se assente). Se la richiesta contiene lo stesso ETag in If-None-Match, Spring MVC risponde
+     * 304 senza scrivere il corpo. Con no-cache i client possono conservare la risposta ma devono
+     * riconvalidarla a ogni uso; Vary indica alle cache che la risposta dipende da Accept.
+     *
+     * @param name   il nome dello snapshot
+     * @param accept il valore dell'header Accept della richiesta, null se assente
+     * @return la risposta HTTP con il contenuto precalcolato
+     */
+    public ResponseEntity<byte[]> respond(String name, String accept) {
+        Snapshot snapshot = get(name);
+        MediaType format = EncodingConfiguration.negotiate(accept);
+        return ResponseEntity.ok()
+                .contentType(format)
+                .eTag(snapshot.getEtag(format))
+                .cacheControl(CacheControl.noCache())
+                .varyBy(HttpHeaders.ACCEPT)
+                .body(snapshot.getBody(format));
+    }
+
+    /**
+     * Descrizione degli snapshot correnti.
+     *
+     * @return nome, versione, dimensione in byte e data di costruzione di ogni snapshot
+     */
+    public List<Map<String, Object>> describe() {
+        return sources.keySet().stream()
+                .map(snapshots::get)
+                .filter(Objects::nonNull)
+                .map(snapshot -> {
+                    Map<String, Object> description = new LinkedHashMap<>();
+                    description.put("name", snapshot.getName());
+                    description.put("version", snapshot.getVersion());
+                    description.put("bytes", snapshot.getBody().length);
+                    description.put("cborBytes", snapshot.getBody(MediaType.APPLICATION_CBOR).length);
+                    description.put("smileBytes", snapshot.getBody(EncodingConfiguration.APPLICATION_SMILE).length);
+                    description.put("builtAt", snapshot.getBuiltAt().toString());
+                    return description;
+                })
+                .toList();
+    }
+
+    private synchronized Snapshot buildIfMissing(String name) {
+        Snapshot snapshot = snapshots.get(name);
+        return snapshot != null ? snapshot : build(name);
+    }
+
+    private Snapshot build(String name) {
+        Supplier<Object> source = sources.get(name);
+        if (source == null) {
+            throw new IllegalArgumentException("Snapshot sconosciuto: " + name);
+        }
+        long start = System.nanoTime();
+        Object value = source.get();
+        Map<MediaType, byte[]> bodies = new LinkedHashMap<>();
+        try {
+            for (Map.Entry<MediaType, ObjectMapper> entry : objectMappers.entrySet()) {
+                bodies.put(entry.getKey(), entry.getValue().writeValueAsBytes(value));
+            }
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Serializzazione dello snapshot " + name + " fallita", e);
+        }
+        byte[] body = bodies.get(MediaType.APPLICATION_JSON);
+        Snapshot snapshot = new Snapshot(name, bodies, sha256(body), Instant.now());
+        Snapshot previous = snapshots.put(name, snapshot);
+        log.info("Snapshot {} costruito: {} byte in {} ms{}", name, body.length, (System.nanoTime() - start) / 1_000_000,
+                previous != null && previous.getVersion().equals(snapshot.getVersion()) ? " (invariato)" : "");
+        return snapshot;
+    }
+
+    private static String sha256(byte[] body) {
+        try {
+            return HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(body));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
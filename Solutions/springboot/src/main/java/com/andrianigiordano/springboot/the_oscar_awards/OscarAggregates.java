@@ -0,0 +1,268 @@
+package com.andrianigiordano.springboot.the_oscar_awards;
+
+import java.util.*;
+import java.util.stream.Stream;
+
+/**
+ * Istantanea immutabile degli aggregati sugli Oscar, costruita con una sola lettura della tabella.
+ * <p>
+ * Per ogni categoria i conteggi sono memorizzati come somme prefisse per anno della cerimonia,
+ * così i totali su un intervallo di anni si ottengono con una sottrazione; film e persone sono
+ * già ordinati per vittorie e candidature; le candidature sono in liste ordinate per anno,
+ * una per ogni combinazione di categoria ed esito, su cui l'intervallo si trova con una ricerca binaria.
+ */
+final class OscarAggregates {
+
+    // Chiave della lista che contiene tutte le categorie
+    private static final String ALL_CATEGORIES = "";
+
+    private static final Comparator<OscarTallyDTO> BY_RANK = Comparator
+            .comparingInt(OscarTallyDTO::getWins).reversed()
+            .thenComparing(Comparator.comparingInt(OscarTallyDTO::getNominations).reversed())
+            .thenComparing(OscarTallyDTO::getName)
+            .thenComparing(tally -> tally.getYear() == null ? 0 : tally.getYear());
+
+    final int nominations;
+    final int minYear;
+    final int maxYear;
+
+    // Per anno della cerimonia (indice = anno - minYear)
+    private final int[] ceremonyByYear;
+    private final int[] nominationsByYear;
+    private final int[] winsByYear;
+    private final int[] categoriesByYear;
+
+    // Categorie in ordine alfabetico, con somme prefisse per anno (lunghezza = anni + 1)
+    private final String[] categories;
+    private final int[][] categoryNominations;
+    private final int[][] categoryWins;
+
+    private final List<OscarTallyDTO> filmRanking;
+    private final Map<String, List<OscarTallyDTO>> filmsByTitle;
+    private final List<OscarTallyDTO> peopleRanking;
+    private final Map<String, OscarTallyDTO> peopleByName;
+
+    // Liste di candidature per categoria ed esito (vedi listKey)
+    private final Map<String, AwardList> awardLists;
+
+    /**
+     * @param rows le candidature ordinate per anno della cerimonia
+     */
+    OscarAggregates(Stream<TheOscarAwards> rows) {
+        List<TheOscarAwards> all = rows.toList();
+        nominations = all.size();
+        minYear = all.isEmpty() ? 0 : all.get(0).getYearCeremony();
+        maxYear = all.isEmpty() ? -1 : all.get(all.size() - 1).getYearCeremony();
+        int years = maxYear - minYear + 1;
+
+        ceremonyByYear = new int[years];
+        nominationsByYear = new int[years];
+        winsByYear = new int[years];
+        categoriesByYear = new int[years];
+
+        Map<String, int[]> nominationsByCategory = new TreeMap<>();
+        Map<String, int[]> winsByCategory = new TreeMap<>();
+        Map<String, int[]> films = new HashMap<>();
+        Map<String, TheOscarAwards> filmSamples = new HashMap<>();
+        Map<String, int[]> people = new HashMap<>();
+        Map<String, List<TheOscarAwards>> lists = new HashMap<>();
+        Set<String> yearCategories = new HashSet<>();
+
+        for (TheOscarAwards award : all) {
+            int y = award.getYearCeremony() - minYear;
+            boolean won = Boolean.TRUE.equals(award.getWinner());
+            int win = won ? 1 : 0;
+
+            ceremonyByYear[y] = award.getCeremony();
+            nominationsByYear[y]++;
+            winsByYear[y] += win;
+            if (yearCategories.add(y + "|" + award.getCategory())) {
+                categoriesByYear[y]++;
+            }
+
+            nominationsByCategory.computeIfAbsent(award.getCategory(), c -> new int[years])[y]++;
+            winsByCategory.computeIfAbsent(award.getCategory(), c -> new int[years])[y] += win;
+
+            if (award.getFilm() != null && !award.getFilm().isBlank()) {
+                String filmKey = award.getYearFilm() + "|" + award.getFilm();
+                filmSamples.putIfAbsent(filmKey, award);
+                count(films, filmKey, win);
+            }
+            if (award.getName() != null && !award.getName().isBlank()) {
+                count(people, award.getName(), win);
+            }
+
+            for (String category : new String[]{ALL_CATEGORIES, award.getCategory()}) {
+                lists.computeIfAbsent(listKey(category, null), k -> new ArrayList<>()).add(award);
+                lists.computeIfAbsent(listKey(category, won), k -> new ArrayList<>()).add(award);
+            }
+        }
+
+        categories = nominationsByCategory.keySet().toArray(String[]::new);
+        categoryNominations = new int[categories.length][];
+        categoryWins = new int[categories.length][];
+        for (int c = 0; c < categories.length; c++) {
+            categoryNominations[c] = prefixSums(nominationsByCategory.get(categories[c]));
+            categoryWins[c] = prefixSums(winsByCategory.get(categories[c]));
+        }
+
+        List<OscarTallyDTO> filmTallies = new ArrayList<>(films.size());
+        Map<String, List<OscarTallyDTO>> titles = new HashMap<>();
+        films.forEach((key, counts) -> {
+            TheOscarAwards sample = filmSamples.get(key);
+            OscarTallyDTO tally = new OscarTallyDTO(sample.getFilm(), sample.getYearFilm(), counts[0], counts[1]);
+            filmTallies.add(tally);
+            titles.computeIfAbsent(normalize(sample.getFilm()), t -> new ArrayList<>()).add(tally);
+        });
+        filmTallies.sort(BY_RANK);
+        titles.values().forEach(tallies -> tallies.sort(Comparator.comparing(OscarTallyDTO::getYear)));
+        filmRanking = List.copyOf(filmTallies);
+        filmsByTitle = Map.copyOf(titles);
+
+        List<OscarTallyDTO> personTallies = new ArrayList<>(people.size());
+        Map<String, OscarTallyDTO> names = new HashMap<>();
+        people.forEach((name, counts) -> {
+            OscarTallyDTO tally = new OscarTallyDTO(name, null, counts[0], counts[1]);
+            personTallies.add(tally);
+            // A parità di nome normalizzato vince la persona con più vittorie
+            names.merge(normalize(name), tally, (a, b) -> BY_RANK.compare(a, b) <= 0 ? a : b);
+        });
+        personTallies.sort(BY_RANK);
+        peopleRanking = List.copyOf(personTallies);
+        peopleByName = Map.copyOf(names);
+
+        Map<String, AwardList> awardListsByKey = new HashMap<>();
+        lists.forEach((key, awards) -> awardListsByKey.put(key, new AwardList(awards)));
+        awardLists = Map.copyOf(awardListsByKey);
+    }
+
+    int categoryCount() {
+        return categories.length;
+    }
+
+    int filmCount() {
+        return filmRanking.size();
+    }
+
+    int personCount() {
+        return peopleRanking.size();
+    }
+
+    /**
+     * Candidature e vittorie di ogni categoria nelle cerimonie tra {@code from} e {@code to} (inclusi),
+     * omettendo le categorie senza candidature nell'intervallo.
+     */
+    List<OscarTallyDTO> categories(int from, int to) {
+        int lo = yearIndex(from);
+        int hi = yearIndex(to + 1);
+        List<OscarTallyDTO> result = new ArrayList<>();
+        for (int c = 0; c < categories.length; c++) {
+            int count = categoryNominations[c][hi] - categoryNominations[c][lo];
+            if (count > 0) {
+                result.add(new OscarTallyDTO(categories[c], null, count, categoryWins[c][hi] - categoryWins[c][lo]));
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Riepilogo delle cerimonie tenute tra {@code from} e {@code to} (inclusi), in ordine cronologico.
+     */
+    List<OscarYearDTO> years(int from, int to) {
+        List<OscarYearDTO> result = new ArrayList<>();
+        for (int y = yearIndex(from); y < yearIndex(to + 1); y++) {
+            if (nominationsByYear[y] > 0) {
+                result.add(new OscarYearDTO(minYear + y, ceremonyByYear[y], nominationsByYear[y], winsByYear[y], categoriesByYear[y]));
+            }
+        }
+        return result;
+    }
+
+    List<OscarTallyDTO> filmRanking() {
+        return filmRanking;
+    }
+
+    List<OscarTallyDTO> films(String title) {
+        return filmsByTitle.getOrDefault(normalize(title), List.of());
+    }
+
+    List<OscarTallyDTO> peopleRanking() {
+        return peopleRanking;
+    }
+
+    Optional<OscarTallyDTO> person(String name) {
+        return Optional.ofNullable(peopleByName.get(normalize(name)));
+    }
+
+    /**
+     * Candidature di una categoria (o di tutte, se null) con l'esito richiesto (o qualsiasi, se null).
+     */
+    AwardList awards(String category, Boolean winner) {
+        return awardLists.getOrDefault(listKey(category == null ? ALL_CATEGORIES : category, winner), AwardList.EMPTY);
+    }
+
+    // Indice nelle somme prefisse dell'anno, limitato all'intervallo delle cerimonie
+    private int yearIndex(int year) {
+        return Math.max(0, Math.min(year - minYear, maxYear - minYear + 1));
+    }
+
+    private static String listKey(String category, Boolean winner) {
+        return (winner == null ? "*" : winner.toString()) + "|" + category;
+    }
+
+    private static String normalize(String value) {
+        return value.trim().toLowerCase(Locale.ROOT);
+    }
+
+    private static void count(Map<String, int[]> counters, String key, int win) {
+        int[] counts = counters.computeIfAbsent(key, k -> new int[2]);
+        counts[0]++;
+        counts[1] += win;
+    }
+
+    private static int[] prefixSums(int[] values) {
+        int[] sums = new int[values.length + 1];
+        for (int i = 0; i < values.length; i++) {
+            sums[i + 1] = sums[i] + values[i];
+        }
+        return sums;
+    }
+
+    /**
+     * Candidature ordinate per anno della cerimonia, con gli anni in un array a parte
+     * per trovare con una ricerca binaria l'intervallo richiesto.
+     */
+    static final class AwardList {
+
+        static final AwardList EMPTY = new AwardList(List.of());
+
+        private final TheOscarAwards[] awards;
+        private final int[] years;
+
+        private AwardList(List<TheOscarAwards> awards) {
+            this.awards = awards.toArray(TheOscarAwards[]::new);
+            this.years = awards.stream().mapToInt(TheOscarAwards::getYearCeremony).toArray();
+        }
+
+        /**
+         * Posizione della prima candidatura con anno della cerimonia maggiore o uguale a {@code year}.
+         */
+        int lowerBound(int year) {
+            int lo = 0;
+            int hi = years.length;
+            while (lo < hi) {
+                int mid = (lo + hi) >>> 1;
+                if (years[mid] < year) {
+                    lo = mid + 1;
+                } else {
+                    hi = mid;
+                }
+            }
+            return lo;
+        }
+
+        List<TheOscarAwards> slice(int from, int to) {
+            return List.of(Arrays.copyOfRange(awards, from, to));
+        }
+    }
+}
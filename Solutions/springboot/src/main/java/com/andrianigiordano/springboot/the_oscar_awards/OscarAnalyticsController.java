@@ -0,0 +1,153 @@
+package com.andrianigiordano.springboot.the_oscar_awards;
+
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.tags.Tag;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Controller per le statistiche sugli Oscar, calcolate in memoria all'avvio.
+ */
+@RestController
+@RequestMapping("/oscar")
+@Tag(name = "Oscar Analytics", description = "Statistiche su candidature e vittorie agli Oscar")
+public class OscarAnalyticsController {
+
+    private final OscarAnalyticsService oscarAnalyticsService;
+
+    public OscarAnalyticsController(OscarAnalyticsService oscarAnalyticsService) {
+        this.oscarAnalyticsService = oscarAnalyticsService;
+    }
+
+    /**
+     * Candidature e vittorie per categoria, eventualmente limitate a un intervallo di anni.
+     *
+     * @param from primo anno della cerimonia
+     * @param to   ultimo anno della cerimonia
+     * @return i conteggi per categoria
+     */
+    @Operation(summary = "Statistiche per categoria", description = "Candidature e vittorie di ogni categoria nelle cerimonie dell'intervallo")
+    @GetMapping("/stats/categories")
+    public List<OscarTallyDTO> getCategoryStats(
+            @Parameter(description = "Primo anno della cerimonia (incluso)") @RequestParam(required = false) Integer from,
+            @Parameter(description = "Ultimo anno della cerimonia (incluso)") @RequestParam(required = false) Integer to) {
+        return oscarAnalyticsService.getCategoryStats(from, to);
+    }
+
+    /**
+     * Riepilogo di ogni cerimonia, eventualmente limitato a un intervallo di anni.
+     *
+     * @param from primo anno della cerimonia
+     * @param to   ultimo anno della cerimonia
+     * @return i conteggi per cerimonia
+     */
+    @Operation(summary = "Statistiche per cerimonia", description = "Candidature, vittorie e categorie di ogni cerimonia dell'intervallo")
+    @GetMapping("/stats/years")
+    public List<OscarYearDTO> getYearStats(
+            @Parameter(description = "Primo anno della cerimonia (incluso)") @RequestParam(required = false) Integer from,
+            @Parameter(description = "Ultimo anno della cerimonia (incluso)") @RequestParam(required = false) Integer to) {
+        return oscarAnalyticsService.getYearStats(from, to);
+    }
+
+    /**
+     * Classifica paginata dei film più premiati.
+     *
+     * @param page numero di pagina
+     * @param size dimensione della pagina
+     * @return la pagina della classifica
+     */
+    @Operation(summary = "Classifica dei film", description = "Film ordinati per vittorie e candidature agli Oscar")
+    @GetMapping("/stats/films")
+    public OscarPageDTO<OscarTallyDTO> getFilmRanking(
+            @Parameter(description = "Numero di pagina (da 0)") @RequestParam(defaultValue = "0") int page,
+            @Parameter(description = "Dimensione della pagina (massimo 500)") @RequestParam(required = false) Integer size) {
+        return oscarAnalyticsService.getFilmRanking(page, size);
+    }
+
+    /**
+     * Candidature e vittorie di un film.
+     *
+     * @param title il titolo del film
+     * @return i conteggi per ogni film con quel titolo, 404 se non ha candidature
+     */
+    @Operation(summary = "Statistiche di un film", description = "Candidature e vittorie dei film con il titolo indicato")
+    @GetMapping("/stats/films/{title}")
+    public ResponseEntity<List<OscarTallyDTO>> getFilmStats(
+            @Parameter(description = "Titolo del film") @PathVariable String title) {
+        List<OscarTallyDTO> films = oscarAnalyticsService.getFilmStats(title);
+        if (films.isEmpty()) {
+            return ResponseEntity.status(HttpStatus.NOT_FOUND).body(null);
+        }
+        return ResponseEntity.ok(films);
+    }
+
+    /**
+     * Classifica paginata delle persone più premiate.
+     *
+     * @param page numero di pagina
+     * @param size dimensione della pagina
+     * @return la pagina della classifica
+     */
+    @Operation(summary = "Classifica delle persone", description = "Persone ordinate per vittorie e candidature agli Oscar")
+    @GetMapping("/stats/people")
+    public OscarPageDTO<OscarTallyDTO> getPeopleRanking(
+            @Parameter(description = "Numero di pagina (da 0)") @RequestParam(defaultValue = "0") int page,
+            @Parameter(description = "Dimensione della pagina (massimo 500)") @RequestParam(required = false) Integer size) {
+        return oscarAnalyticsService.getPeopleRanking(page, size);
+    }
+
+    /**
+     * Candidature e vittorie di una persona.
+     *
+     * @param name il nome della persona
+     * @return i conteggi, 404 se la persona non ha candidature
+     */
+    @Operation(summary = "Statistiche di una persona", description = "Candidature e vittorie della persona indicata")
+    @GetMapping("/stats/people/{name}")
+    public ResponseEntity<OscarTallyDTO> getPersonStats(
+            @Parameter(description = "Nome della persona") @PathVariable String name) {
+        return oscarAnalyticsService.getPersonStats(name)
+                .map(ResponseEntity::ok)
+                .orElseGet(() -> ResponseEntity.status(HttpStatus.NOT_FOUND).body(null));
+    }
+
+    /**
+     * Elenco paginato delle candidature in un intervallo di anni, in ordine cronologico.
+     *
+     * @param from     primo anno della cerimonia
+     * @param to       ultimo anno della cerimonia
+     * @param category la categoria
+     * @param winner   filtro sull'esito
+     * @param page     numero di pagina
+     * @param size     dimensione della pagina
+     * @return la pagina delle candidature
+     */
+    @Operation(summary = "Elenco delle candidature", description = "Candidature paginate per intervallo di anni, categoria ed esito")
+    @GetMapping("/awards")
+    public OscarPageDTO<TheOscarAwards> getAwards(
+            @Parameter(description = "Primo anno della cerimonia (incluso)") @RequestParam(required = false) Integer from,
+            @Parameter(description = "Ultimo anno della cerimonia (incluso)") @RequestParam(required = false) Integer to,
+            @Parameter(description = "Categoria (tutte se assente)") @RequestParam(required = false) String category,
+            @Parameter(description = "true per i soli vincitori, false per i soli non vincitori") @RequestParam(required = false) Boolean winner,
+            @Parameter(description = "Numero di pagina (da 0)") @RequestParam(defaultValue = "0") int page,
+            @Parameter(description = "Dimensione della pagina (massimo 500)") @RequestParam(required = false) Integer size) {
+        return oscarAnalyticsService.getAwards(from, to, category, winner, page, size);
+    }
+
+    /**
+     * Ricalcola le statistiche dal database.
+     *
+     * @return statistiche sugli aggregati calcolati
+     */
+    @Operation(summary = "Ricalcola le statistiche", description = "Rilegge gli Oscar dal database e ricalcola gli aggregati in memoria")
+    @PostMapping("/stats/refresh")
+    public Map<String, Object> refresh() {
+        return oscarAnalyticsService.refresh();
+    }
+}
@@ -0,0 +1,209 @@
+package com.andrianigiordano.springboot.the_oscar_awards;
+
+import com.andrianigiordano.springboot.index.RebuildableIndex;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.stream.Stream;
+
+/**
+ * Servizio per le statistiche sugli Oscar: candidature e vittorie per categoria, cerimonia,
+ * film e persona, ed elenco paginato delle candidature in un intervallo di anni.
+ * <p>
+ * Gli aggregati vengono calcolati all'avvio con una sola lettura di the_oscar_awards_data e
+ * possono essere ricalcolati con {@link #refresh()}: le richieste non interrogano mai il database
+ * e continuano a essere servite dai vecchi aggregati durante il ricalcolo. Finché non sono pronti
+ * le richieste ricevono 503 (vedi {@link RebuildableIndex}).
+ */
+@Service
+public class OscarAnalyticsService {
+
+    private static final Logger log = LoggerFactory.getLogger(OscarAnalyticsService.class);
+
+    static final int DEFAULT_PAGE_SIZE = 50;
+
+    static final int MAX_PAGE_SIZE = 500;
+
+    private final TheOscarAwardsRepository theOscarAwardsRepository;
+    private final TransactionTemplate readOnlyTransaction;
+    private final RebuildableIndex<OscarAggregates> aggregates;
+
+    public OscarAnalyticsService(TheOscarAwardsRepository theOscarAwardsRepository,
+                                 PlatformTransactionManager transactionManager) {
+        this.theOscarAwardsRepository = theOscarAwardsRepository;
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+        this.aggregates = new RebuildableIndex<>("statistiche sugli Oscar", true, this::load);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void buildOnStartup() {
+        aggregates.buildOnStartup();
+    }
+
+    /**
+     * Ricalcola gli aggregati dal database e li sostituisce a quelli correnti.
+     *
+     * @return statistiche sugli aggregati calcolati
+     */
+    public Map<String, Object> refresh() {
+        long start = System.nanoTime();
+        OscarAggregates built = aggregates.rebuild();
+        long elapsedMillis = (System.nanoTime() - start) / 1_000_000;
+
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("nominations", built.nominations);
+        stats.put("firstYear", built.minYear);
+        stats.put("lastYear", built.maxYear);
+        stats.put("categories", built.categoryCount());
+        stats.put("films", built.filmCount());
+        stats.put("people", built.personCount());
+        stats.put("buildMillis", elapsedMillis);
+        return stats;
+    }
+
+    /**
+     * Calcola nuovi aggregati con una sola lettura di the_oscar_awards_data.
+     */
+    private OscarAggregates load() {
+        long start = System.nanoTime();
+        OscarAggregates built = readOnlyTransaction.execute(status -> {
+            try (Stream<TheOscarAwards> rows = theOscarAwardsRepository.streamAllNominations()) {
+                return new OscarAggregates(rows);
+            }
+        });
+        log.info("Statistiche sugli Oscar calcolate: {} candidature in {} ms", built.nominations, (System.nanoTime() - start) / 1_000_000);
+        return built;
+    }
+
+    /**
+     * Candidature e vittorie per categoria, in ordine alfabetico.
+     *
+     * @param from primo anno della cerimonia (incluso), null per nessun limite
+     * @param to   ultimo anno della cerimonia (incluso), null per nessun limite
+     * @return i conteggi delle categorie con almeno una candidatura nell'intervallo
+     */
+    public List<OscarTallyDTO> getCategoryStats(Integer from, Integer to) {
+        OscarAggregates current = aggregates.get();
+        return current.categories(fromYear(current, from, to), toYear(current, to));
+    }
+
+    /**
+     * Candidature, vittorie e numero di categorie per ogni cerimonia, in ordine cronologico.
+     *
+     * @param from primo anno della cerimonia (incluso), null per nessun limite
+     * @param to   ultimo anno della cerimonia (incluso), null per nessun limite
+     * @return il riepilogo delle cerimonie nell'intervallo
+     */
+    public List<OscarYearDTO> getYearStats(Integer from, Integer to) {
+        OscarAggregates current = aggregates.get();
+        return current.years(fromYear(current, from, to), toYear(current, to));
+    }
+
+    /**
+     * Classifica dei film per numero di vittorie e poi di candidature.
+     *
+     * @param page numero di pagina (da 0)
+     * @param size dimensione della pagina, null per il valore predefinito
+     * @return la pagina della classifica
+     */
+    public OscarPageDTO<OscarTallyDTO> getFilmRanking(int page, Integer size) {
+        return page(aggregates.get().filmRanking(), page, size);
+    }
+
+    /**
+     * Candidature e vittorie dei film con il titolo indicato (ignorando maiuscole e minuscole),
+     * uno per anno di uscita.
+     *
+     * @param title il titolo del film
+     * @return i conteggi, vuoti se il film non ha candidature
+     */
+    public List<OscarTallyDTO> getFilmStats(String title) {
+        return aggregates.get().films(title);
+    }
+
+    /**
+     * Classifica delle persone per numero di vittorie e poi di candidature.
+     *
+     * @param page numero di pagina (da 0)
+     * @param size dimensione della pagina, null per il valore predefinito
+     * @return la pagina della classifica
+     */
+    public OscarPageDTO<OscarTallyDTO> getPeopleRanking(int page, Integer size) {
+        return page(aggregates.get().peopleRanking(), page, size);
+    }
+
+    /**
+     * Candidature e vittorie della persona indicata (ignorando maiuscole e minuscole).
+     *
+     * @param name il nome della persona
+     * @return i conteggi, vuoto se la persona non ha candidature
+     */
+    public Optional<OscarTallyDTO> getPersonStats(String name) {
+        return aggregates.get().person(name);
+    }
+
+    /**
+     * Elenco paginato delle candidature in un intervallo di anni, in ordine cronologico.
+     *
+     * @param from     primo anno della cerimonia (incluso), null per nessun limite
+     * @param to       ultimo anno della cerimonia (incluso), null per nessun limite
+     * @param category la categoria, null per tutte
+     * @param winner   true per i soli vincitori, false per i soli non vincitori, null per tutti
+     * @param page     numero di pagina (da 0)
+     * @param size     dimensione della pagina, null per il valore predefinito
+     * @return la pagina delle candidature
+     */
+    public OscarPageDTO<TheOscarAwards> getAwards(Integer from, Integer to, String category, Boolean winner, int page, Integer size) {
+        OscarAggregates current = aggregates.get();
+        int pageSize = pageSize(page, size);
+        OscarAggregates.AwardList awards = current.awards(category, winner);
+        int lo = awards.lowerBound(fromYear(current, from, to));
+        int hi = awards.lowerBound(toYear(current, to) + 1);
+        int start = (int) Math.min((long) lo + (long) page * pageSize, hi);
+        int end = Math.min(start + pageSize, hi);
+        return new OscarPageDTO<>(page, pageSize, hi - lo, awards.slice(start, end));
+    }
+
+    private static OscarPageDTO<OscarTallyDTO> page(List<OscarTallyDTO> ranking, int page, Integer size) {
+        int pageSize = pageSize(page, size);
+        int start = (int) Math.min((long) page * pageSize, ranking.size());
+        int end = Math.min(start + pageSize, ranking.size());
+        return new OscarPageDTO<>(page, pageSize, ranking.size(), ranking.subList(start, end));
+    }
+
+    private static int pageSize(int page, Integer size) {
+        if (page < 0) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Il numero di pagina non può essere negativo");
+        }
+        if (size == null) {
+            return DEFAULT_PAGE_SIZE;
+        }
+        if (size < 1 || size > MAX_PAGE_SIZE) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "La dimensione della pagina deve essere tra 1 e " + MAX_PAGE_SIZE);
+        }
+        return size;
+    }
+
+    private static int fromYear(OscarAggregates current, Integer from, Integer to) {
+        if (from != null && to != null && from > to) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "L'anno iniziale non può essere successivo a quello finale");
+        }
+        return from == null ? current.minYear : Math.max(from, current.minYear);
+    }
+
+    private static int toYear(OscarAggregates current, Integer to) {
+        return to == null ? current.maxYear : Math.min(to, current.maxYear);
+    }
+}
@@ -0,0 +1,75 @@
+package com.andrianigiordano.springboot.the_oscar_awards;
+
+/**
+ * Premio Oscar arricchito con l'ID e il poster del film corrispondente nel catalogo
+ * (null se il film non è stato trovato).
+ */
+public class OscarAwardDTO {
+
+    private final int yearFilm;
+
+    private final Integer yearCeremony;
+
+    private final Integer ceremony;
+
+    private final String category;
+
+    private final String name;
+
+    private final String film;
+
+    private final Boolean winner;
+
+    private final Long filmId;
+
+    private final String posterUrl;
+
+    public OscarAwardDTO(TheOscarAwards award, Long filmId, String posterUrl) {
+        this.yearFilm = award.getYearFilm();
+        this.yearCeremony = award.getYearCeremony();
+        this.ceremony = award.getCeremony();
+        this.category = award.getCategory();
+        this.name = award.getName();
+        this.film = award.getFilm();
+        this.winner = award.getWinner();
+        this.filmId = filmId;
+        this.posterUrl = posterUrl;
+    }
+
+    // Getter
+    public int getYearFilm() {
+        return yearFilm;
+    }
+
+    public Integer getYearCeremony() {
+        return yearCeremony;
+    }
+
+    public Integer getCeremony() {
+        return ceremony;
+    }
+
+    public String getCategory() {
+        return category;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public String getFilm() {
+        return film;
+    }
+
+    public Boolean getWinner() {
+        return winner;
+    }
+
+    public Long getFilmId() {
+        return filmId;
+    }
+
+    public String getPosterUrl() {
+        return posterUrl;
+    }
+}
@@ -0,0 +1,50 @@
+package com.andrianigiordano.springboot.the_oscar_awards;
+
+import java.util.List;
+
+/**
+ * Pagina di risultati delle statistiche sugli Oscar, con il numero totale di elementi.
+ *
+ * @param <T> il tipo degli elementi della pagina
+ */
+public class OscarPageDTO<T> {
+
+    private final int page;
+
+    private final int size;
+
+    private final long total;
+
+    private final boolean hasMore;
+
+    private final List<T> items;
+
+    public OscarPageDTO(int page, int size, long total, List<T> items) {
+        this.page = page;
+        this.size = size;
+        this.total = total;
+        this.hasMore = (long) (page + 1) * size < total;
+        this.items = items;
+    }
+
+    // Getter
+    public int getPage() {
+        return page;
+    }
+
+    public int getSize() {
+        return size;
+    }
+
+    public long getTotal() {
+        return total;
+    }
+
+    public boolean isHasMore() {
+        return hasMore;
+    }
+
+    public List<T> getItems() {
+        return items;
+    }
+}
@@ -0,0 +1,40 @@
+package com.andrianigiordano.springboot.the_oscar_awards;
+
+/**
+ * Conteggio di candidature e vittorie agli Oscar per una categoria, un film o una persona.
+ * L'anno è valorizzato solo per i film, per distinguere titoli omonimi.
+ */
+public class OscarTallyDTO {
+
+    private final String name;
+
+    private final Integer year;
+
+    private final int nominations;
+
+    private final int wins;
+
+    public OscarTallyDTO(String name, Integer year, int nominations, int wins) {
+        this.name = name;
+        this.year = year;
+        this.nominations = nominations;
+        this.wins = wins;
+    }
+
+    // Getter
+    public String getName() {
+        return name;
+    }
+
+    public Integer getYear() {
+        return year;
+    }
+
+    public int getNominations() {
+        return nominations;
+    }
+
+    public int getWins() {
+        return wins;
+    }
+}
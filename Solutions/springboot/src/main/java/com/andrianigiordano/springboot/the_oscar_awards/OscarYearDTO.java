@@ -0,0 +1,46 @@
+package com.andrianigiordano.springboot.the_oscar_awards;
+
+/**
+ * Riepilogo di una cerimonia degli Oscar: candidature, vittorie e categorie assegnate.
+ */
+public class OscarYearDTO {
+
+    private final int yearCeremony;
+
+    private final int ceremony;
+
+    private final int nominations;
+
+    private final int wins;
+
+    private final int categories;
+
+    public OscarYearDTO(int yearCeremony, int ceremony, int nominations, int wins, int categories) {
+        this.yearCeremony = yearCeremony;
+        this.ceremony = ceremony;
+        this.nominations = nominations;
+        this.wins = wins;
+        this.categories = categories;
+    }
+
+    // Getter
+    public int getYearCeremony() {
+        return yearCeremony;
+    }
+
+    public int getCeremony() {
+        return ceremony;
+    }
+
+    public int getNominations() {
+        return nominations;
+    }
+
+    public int getWins() {
+        return wins;
+    }
+
+    public int getCategories() {
+        return categories;
+    }
+}
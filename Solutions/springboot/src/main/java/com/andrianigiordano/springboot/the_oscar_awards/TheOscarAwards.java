@@ -2,8 +2,13 @@ package com.andrianigiordano.springboot.the_oscar_awards;
 
 import jakarta.persistence.*;
 
+/**
+ * Premio (o candidatura) agli Oscar. La tabella non ha una chiave propria: l'identità è data
+ * da cerimonia, categoria, candidato e film, così premi diversi della stessa persona restano distinti.
+ */
 @Entity
 @Table(name = "the_oscar_awards_data")
+@IdClass(TheOscarAwardsId.class)
 public class TheOscarAwards {
 
     @Column(name = "year_film", nullable = false)
@@ -12,9 +17,11 @@ public class TheOscarAwards {
     @Column(name = "year_ceremony", nullable = false)
     private Integer yearCeremony;
 
+    @Id
     @Column(name = "ceremony", nullable = false)
     private Integer ceremony;
 
+    @Id
     @Column(name = "category", nullable = false)
     private String category;
 
@@ -22,8 +29,9 @@ public class TheOscarAwards {
     @Column(name = "name", nullable = false)
     private String name;
 
+    @Id
     @Column(name = "film", nullable = false)
-    private String film_name;
+    private String film;
 
     @Column(name = "winner", nullable = false)
     private Boolean winner;
@@ -37,7 +45,7 @@ public class TheOscarAwards {
         this.ceremony = ceremony;
         this.category = category;
         this.name = name;
-        this.film_name = film;
+        this.film = film;
         this.winner = winner;
     }
 
@@ -82,11 +90,11 @@ public class TheOscarAwards {
     }
 
     public String getFilm() {
-        return film_name;
+        return film;
     }
 
     public void setFilm(String film) {
-        this.film_name = film;
+        this.film = film;
     }
 
     public Boolean getWinner() {
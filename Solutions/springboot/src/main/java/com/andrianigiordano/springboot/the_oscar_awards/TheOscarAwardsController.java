@@ -1,9 +1,14 @@
 package com.andrianigiordano.springboot.the_oscar_awards;
 
+import com.andrianigiordano.springboot.metrics.QueryBudget;
+import com.andrianigiordano.springboot.snapshot.SnapshotService;
 import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.tags.Tag;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
 import java.util.List;
@@ -17,10 +22,12 @@ import java.util.List;
 public class TheOscarAwardsController {
 
     private final TheOscarAwardsService theOscarAwardsService;
+    private final SnapshotService snapshotService;
 
     @Autowired
-    public TheOscarAwardsController(TheOscarAwardsService theOscarAwardsService) {
+    public TheOscarAwardsController(TheOscarAwardsService theOscarAwardsService, SnapshotService snapshotService) {
         this.theOscarAwardsService = theOscarAwardsService;
+        this.snapshotService = snapshotService;
     }
 
     /**
@@ -29,8 +36,22 @@ public class TheOscarAwardsController {
      * @return Lista dei premi Oscar (max 100) ordinati per rilevanza o data.
      */
     @Operation(summary = "Top 100 premi Oscar", description = "Restituisce una lista dei primi 100 premi Oscar")
+    @QueryBudget(1)
     @GetMapping("/top100")
     public List<TheOscarAwards> getTop100Oscars() {
         return theOscarAwardsService.getTop100Oscars();
     }
+
+    /**
+     * Restituisce gli stessi premi di /oscar/top100 già collegati ai film del catalogo
+     * (ID e poster) e raggruppati per categoria.
+     *
+     * @return I premi per categoria.
+     */
+    @Operation(summary = "Premi Oscar per categoria con i film",
+            description = "Premi Oscar raggruppati per categoria, con ID e poster del film corrispondente nel catalogo")
+    @GetMapping("/top100/by-category")
+    public ResponseEntity<byte[]> getTop100OscarsByCategory(@Parameter(hidden = true) @RequestHeader(value = HttpHeaders.ACCEPT, required = false) String accept) {
+        return snapshotService.respond(SnapshotService.OSCAR_AWARDS_BY_CATEGORY, accept);
+    }
 }
@@ -0,0 +1,49 @@
+package com.andrianigiordano.springboot.the_oscar_awards;
+
+import java.io.Serial;
+import java.io.Serializable;
+import java.util.Objects;
+
+/**
+ * Chiave composta di {@link TheOscarAwards}: cerimonia, categoria, candidato e film.
+ */
+public class TheOscarAwardsId implements Serializable {
+
+    @Serial
+    private static final long serialVersionUID = 1L;
+
+    private Integer ceremony;
+
+    private String category;
+
+    private String name;
+
+    private String film;
+
+    public TheOscarAwardsId() {
+    }
+
+    public TheOscarAwardsId(Integer ceremony, String category, String name, String film) {
+        this.ceremony = ceremony;
+        this.category = category;
+        this.name = name;
+        this.film = film;
+    }
+
+    @Override
+    public boolean equals(Object other) {
+        if (this == other) {
+            return true;
+        }
+        if (!(other instanceof TheOscarAwardsId id)) {
+            return false;
+        }
+        return Objects.equals(ceremony, id.ceremony) && Objects.equals(category, id.category)
+                && Objects.equals(name, id.name) && Objects.equals(film, id.film);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(ceremony, category, name, film);
+    }
+}
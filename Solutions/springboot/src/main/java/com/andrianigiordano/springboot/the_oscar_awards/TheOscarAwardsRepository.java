@@ -1,17 +1,22 @@
 package com.andrianigiordano.springboot.the_oscar_awards;
 
-import org.springframework.data.domain.Pageable;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
+import java.util.stream.Stream;
 
 /**
  * Interfaccia del repository per l'accesso ai dati relativi agli Oscar.
  */
 @Repository // Indica che questa è una classe di repository, che gestisce l'accesso ai dati nel database
-public interface TheOscarAwardsRepository extends JpaRepository<TheOscarAwards, Long> {
+public interface TheOscarAwardsRepository extends JpaRepository<TheOscarAwards, TheOscarAwardsId> {
 
     /**
      * Metodo per ottenere gli Oscar relativi alla cerimonia con numero superiore a 90
@@ -21,4 +26,27 @@ public interface TheOscarAwardsRepository extends JpaRepository<TheOscarAwards,
      */
     @Query("SELECT o FROM TheOscarAwards o  where o.ceremony > 90 and o.winner = true")
     List<TheOscarAwards> findTheOscarAwards();  // Metodo per ottenere i top 100 Oscar
+
+    /**
+     * Legge tutte le candidature, ordinate per anno della cerimonia, come oggetti non gestiti
+     * dal contesto di persistenza, per costruire gli aggregati in memoria.
+     * Deve essere chiamato all'interno di una transazione; lo stream va chiuso dopo l'uso.
+     *
+     * @return Uno stream di tutte le candidature.
+     */
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "5000"))
+    @Query("SELECT new com.andrianigiordano.springboot.the_oscar_awards.TheOscarAwards(o.yearFilm, o.yearCeremony, o.ceremony, o.category, o.name, o.film, o.winner) " +
+           "FROM TheOscarAwards o ORDER BY o.yearCeremony, o.category, o.name, o.film")
+    Stream<TheOscarAwards> streamAllNominations();
+
+    /**
+     * Recupera le candidature dei film con uno dei titoli indicati, come oggetti non gestiti
+     * dal contesto di persistenza.
+     *
+     * @param films i titoli esatti dei film
+     * @return le candidature trovate, ordinate per anno della cerimonia
+     */
+    @Query("SELECT new com.andrianigiordano.springboot.the_oscar_awards.TheOscarAwards(o.yearFilm, o.yearCeremony, o.ceremony, o.category, o.name, o.film, o.winner) " +
+           "FROM TheOscarAwards o WHERE o.film IN :films ORDER BY o.yearCeremony, o.category, o.name")
+    List<TheOscarAwards> findByFilmIn(@Param("films") Collection<String> films);
 }
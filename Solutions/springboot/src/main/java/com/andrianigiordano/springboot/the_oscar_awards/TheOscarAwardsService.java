@@ -1,11 +1,14 @@
 package com.andrianigiordano.springboot.the_oscar_awards;
 
+import com.andrianigiordano.springboot.movies.MovieTitleMatch;
+import com.andrianigiordano.springboot.movies.MoviesRepository;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
-import java.util.List;
+import java.util.*;
 
 /**
  * Servizio che gestisce la logica di business relativa agli Oscar.
@@ -17,14 +20,19 @@ public class TheOscarAwardsService {
     // Variabile che rappresenta il repository per l'accesso ai dati sugli Oscar.
     private final TheOscarAwardsRepository theOscarAwardsRepository;
 
+    // Repository dei film, usato per collegare i premi ai film del catalogo.
+    private final MoviesRepository moviesRepository;
+
     /**
-     * Costruttore del servizio, che inietta il repository per l'accesso ai dati.
+     * Costruttore del servizio, che inietta i repository per l'accesso ai dati.
      *
      * @param theOscarAwardsRepository Il repository per l'accesso ai dati degli Oscar.
+     * @param moviesRepository         Il repository per l'accesso ai dati dei film.
      */
-    @Autowired // Inietta automaticamente il repository tramite il costruttore
-    public TheOscarAwardsService(TheOscarAwardsRepository theOscarAwardsRepository) {
+    @Autowired // Inietta automaticamente i repository tramite il costruttore
+    public TheOscarAwardsService(TheOscarAwardsRepository theOscarAwardsRepository, MoviesRepository moviesRepository) {
         this.theOscarAwardsRepository = theOscarAwardsRepository;
+        this.moviesRepository = moviesRepository;
     }
 
     /**
@@ -38,4 +46,44 @@ public class TheOscarAwardsService {
         // Chiama il metodo del repository per ottenere la lista degli Oscar
         return theOscarAwardsRepository.findTheOscarAwards();
     }
+
+    /**
+     * Metodo che recupera gli stessi premi di {@link #getTop100Oscars()} collegati ai film del catalogo
+     * e raggruppati per categoria.
+     * Il collegamento avviene per titolo e anno del film: i film candidati vengono letti con una sola
+     * query sui titoli dei premi e indicizzati in una mappa (titolo, anno), su cui si cerca ogni premio.
+     * A parità di titolo e anno viene scelto il film con ID minore.
+     *
+     * @return I premi per categoria, nell'ordine in cui le categorie compaiono; ogni premio ha ID e
+     * poster del film, null se il film non è nel catalogo.
+     */
+    @Transactional(readOnly = true)
+    public Map<String, List<OscarAwardDTO>> getTop100OscarsByCategory() {
+        List<TheOscarAwards> awards = theOscarAwardsRepository.findTheOscarAwards();
+        Set<String> titles = new HashSet<>();
+        for (TheOscarAwards award : awards) {
+            titles.add(award.getFilm());
+        }
+
+        Map<String, MovieTitleMatch> moviesByTitleAndYear = new HashMap<>();
+        if (!titles.isEmpty()) {
+            for (MovieTitleMatch movie : moviesRepository.findTitleMatches(titles)) {
+                if (movie.getDate() != null) {
+                    moviesByTitleAndYear.putIfAbsent(titleAndYear(movie.getName(), movie.getDate()), movie);
+                }
+            }
+        }
+
+        Map<String, List<OscarAwardDTO>> byCategory = new LinkedHashMap<>();
+        for (TheOscarAwards award : awards) {
+            MovieTitleMatch movie = moviesByTitleAndYear.get(titleAndYear(award.getFilm(), award.getYearFilm()));
+            byCategory.computeIfAbsent(award.getCategory(), category -> new ArrayList<>())
+                    .add(new OscarAwardDTO(award, movie != null ? movie.getId() : null, movie != null ? movie.getPosterUrl() : null));
+        }
+        return byCategory;
+    }
+
+    private static String titleAndYear(String title, int year) {
+        return year + "|" + title;
+    }
 }
@@ -0,0 +1,23 @@
+-- Indici usati dalle query del backend, creati all'avvio se mancanti
+-- (catalog.indexes.create-on-startup). Le istruzioni sono idempotenti.
+
+-- Paginazione keyset di /movies/get-all (ordinamento per rating o anno; per id basta la chiave primaria)
+CREATE INDEX IF NOT EXISTS movies_data_rating_id_idx ON movies_data (rating DESC, id);
+CREATE INDEX IF NOT EXISTS movies_data_date_id_idx ON movies_data (date DESC, id);
+
+-- Le tabelle collegate ai film usano la colonna id come riferimento al film
+CREATE INDEX IF NOT EXISTS posters_data_id_idx ON posters_data (id);
+CREATE INDEX IF NOT EXISTS actors_data_id_idx ON actors_data (id);
+CREATE INDEX IF NOT EXISTS crew_data_id_idx ON crew_data (id);
+CREATE INDEX IF NOT EXISTS genres_data_id_idx ON genres_data (id);
+CREATE INDEX IF NOT EXISTS countries_data_id_idx ON countries_data (id);
+CREATE INDEX IF NOT EXISTS languages_data_id_idx ON languages_data (id);
+CREATE INDEX IF NOT EXISTS studios_data_id_idx ON studios_data (id);
+CREATE INDEX IF NOT EXISTS themes_data_id_idx ON themes_data (id);
+
+-- Filmografia per nome (/people/{name}/filmography)
+CREATE INDEX IF NOT EXISTS actors_data_name_idx ON actors_data (name, id);
+CREATE INDEX IF NOT EXISTS crew_data_name_idx ON crew_data (name, id);
+
+-- Collegamento dei premi Oscar ai film per titolo e anno
+CREATE INDEX IF NOT EXISTS movies_data_name_date_idx ON movies_data (name, date);
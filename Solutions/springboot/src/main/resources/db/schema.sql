@@ -0,0 +1,69 @@
+-- Tabelle del catalogo in ium_database, create dal caricamento dei CSV (profilo ingest) se mancanti.
+-- Le istruzioni sono idempotenti: le tabelle già create dai notebook di pulizia non vengono modificate.
+-- Le colonne sono quelle di CatalogFile e delle entità JPA; le tabelle figlie usano la colonna id
+-- come riferimento al film.
+
+CREATE TABLE IF NOT EXISTS movies_data (
+    id          BIGINT PRIMARY KEY,
+    name        TEXT NOT NULL,
+    date        INTEGER,
+    tagline     TEXT,
+    description TEXT,
+    minute      INTEGER,
+    rating      DOUBLE PRECISION
+);
+
+CREATE TABLE IF NOT EXISTS posters_data (
+    id   BIGINT,
+    link TEXT
+);
+
+CREATE TABLE IF NOT EXISTS actors_data (
+    id   BIGINT,
+    name TEXT,
+    role TEXT
+);
+
+CREATE TABLE IF NOT EXISTS crew_data (
+    id   BIGINT,
+    role TEXT,
+    name TEXT
+);
+
+CREATE TABLE IF NOT EXISTS genres_data (
+    id    BIGINT,
+    genre TEXT
+);
+
+CREATE TABLE IF NOT EXISTS countries_data (
+    id      BIGINT,
+    country TEXT
+);
+
+CREATE TABLE IF NOT EXISTS languages_data (
+    id       BIGINT,
+    type     TEXT,
+    language TEXT
+);
+
+CREATE TABLE IF NOT EXISTS studios_data (
+    id     BIGINT,
+    studio TEXT
+);
+
+CREATE TABLE IF NOT EXISTS themes_data (
+    id    BIGINT,
+    theme TEXT
+);
+
+CREATE TABLE IF NOT EXISTS the_oscar_awards_data (
+    year_film     INTEGER NOT NULL,
+    year_ceremony INTEGER NOT NULL,
+    ceremony      INTEGER NOT NULL,
+    category      TEXT    NOT NULL,
+    name          TEXT    NOT NULL,
+    film          TEXT    NOT NULL,
+    winner        BOOLEAN NOT NULL
+);
+
+-- Gli indici sono in db/indexes.sql e vengono creati dopo il caricamento
@@ -0,0 +1,331 @@
+package com.andrianigiordano.springboot;
+
+import com.andrianigiordano.springboot.bench.BenchCatalogConfiguration;
+import com.andrianigiordano.springboot.bench.CatalogSeeder;
+import com.andrianigiordano.springboot.bench.LatencyRecorder;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.net.URI;
+import java.net.URLEncoder;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+
+/**
+ * Test di carico end-to-end: l'applicazione completa gira sul database del profilo bench
+ * (H2 in modalità PostgreSQL, al posto di ium_database) popolato con il catalogo di prova,
+ * e un gruppo di utenti virtuali visita le pagine del server Express generando le stesse chiamate
+ * al backend, con le stesse richieste condizionali (ETag) per gli snapshot.
+ * <p>
+ * Ogni utente sceglie una pagina secondo il peso di {@link Page} e attende la risposta completa
+ * prima della successiva (modello chiuso, senza pause). Alla fine vengono stampati throughput
+ * e percentili per pagina e per endpoint; il test fallisce se una risposta ha uno stato inatteso.
+ * <p>
+ * Non richiede rete né servizi esterni. Esempio:
+ * ./gradlew benchmark --tests '*LoadTestBenchmark' -Dbench.load.users=64 -Dbench.load.seconds=60
+ */
+@Tag("benchmark")
+@ActiveProfiles("bench")
+@Import(BenchCatalogConfiguration.class)
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+class LoadTestBenchmark {
+
+    private static final int USERS = Integer.getInteger("bench.load.users", 32);
+
+    private static final int SECONDS = Integer.getInteger("bench.load.seconds", 30);
+
+    private static final int WARMUP_SECONDS = Integer.getInteger("bench.load.warmup-seconds", 5);
+
+    private static final String[] MOVIE_QUERIES = {"dark", "love", "blade", "inter", "the last", "summer", "ghost", "akira", "perfect"};
+
+    private static final String[] ACTOR_QUERIES = {"ryan", "tom", "zen", "anna", "rossi", "smith", "yuki", "costa"};
+
+    /**
+     * Pagine del server Express con il loro peso nel traffico e le chiamate al backend che generano.
+     */
+    enum Page {
+        HOME(30),
+        MOVIE(30),
+        CATALOG(6),
+        SEARCH_MOVIES(10),
+        SEARCH_ACTORS(6),
+        ACTORS(6),
+        ACTOR(6),
+        OSCAR(6);
+
+        private final int weight;
+
+        Page(int weight) {
+            this.weight = weight;
+        }
+    }
+
+    private static final List<String> MOVIE_PAGE_PATHS = List.of(
+            "/movies/get-movie-by-id", "/movies/get-crew-by-id", "/movies/get-countries-by-id",
+            "/movies/get-languages-by-id", "/movies/get-genres-by-id", "/movies/get-studios-by-id",
+            "/movies/get-themes-by-id");
+
+    // Endpoint per cui 404 è una risposta prevista: film senza temi, studi, ecc. e persone senza film
+    private static final Set<String> NOT_FOUND_EXPECTED = Set.of(
+            "GET /movies/get-crew-by-id", "GET /movies/get-countries-by-id", "GET /movies/get-languages-by-id",
+            "GET /movies/get-genres-by-id", "GET /movies/get-studios-by-id", "GET /movies/get-themes-by-id",
+            "GET /people/{name}/filmography");
+
+    @LocalServerPort
+    private int port;
+
+    @Autowired
+    private CatalogSeeder catalogSeeder;
+
+    private final HttpClient client = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1).build();
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    // Nomi di attori esistenti, per le pagine dei singoli attori
+    private List<String> actorNames;
+
+    @Test
+    void mixedTrafficPerEndpoint() throws Exception {
+        actorNames = loadActorNames();
+        assertFalse(actorNames.isEmpty());
+
+        run(WARMUP_SECONDS);
+        Report report = run(SECONDS);
+
+        System.out.println(String.format(Locale.ROOT, "=== Test di carico: %d utenti, %d s, catalogo di %d film ===",
+                USERS, SECONDS, catalogSeeder.getMovieCount()));
+        System.out.println(String.format(Locale.ROOT, "totale %.0f pagine/s, %.0f richieste/s, %d errori",
+                report.pages() / (double) SECONDS, report.requests() / (double) SECONDS, report.errors()));
+        System.out.println("--- per pagina ---");
+        report.pages.forEach((page, recorder) -> System.out.println(line(page.name(), recorder)));
+        System.out.println("--- per endpoint ---");
+        report.endpoints.forEach((endpoint, recorder) -> System.out.println(line(endpoint, recorder)));
+        report.errorsByEndpoint.forEach((endpoint, count) -> System.out.println("errori " + endpoint + ": " + count));
+
+        assertEquals(0, report.errors(), "Risposte con stato inatteso: " + report.errorsByEndpoint);
+    }
+
+    private static String line(String name, LatencyRecorder recorder) {
+        return String.format(Locale.ROOT, "%-36s %7.1f/s %s", name, recorder.count() / (double) SECONDS, recorder.summary());
+    }
+
+    private List<String> loadActorNames() throws Exception {
+        List<String> names = new ArrayList<>(List.of("Ryan Gosling", "Zendaya", "Tom Holland"));
+        for (String query : ACTOR_QUERIES) {
+            HttpResponse<String> response = client.send(get("/search-actors?query=" + encode(query), null), HttpResponse.BodyHandlers.ofString());
+            for (JsonNode actor : objectMapper.readTree(response.body()).path("actors")) {
+                if (names.size() < 500) {
+                    names.add(actor.path("name").asText());
+                }
+            }
+        }
+        return names;
+    }
+
+    private Report run(int seconds) throws Exception {
+        long deadline = System.nanoTime() + seconds * 1_000_000_000L;
+        ExecutorService executor = Executors.newFixedThreadPool(USERS);
+        try {
+            List<Future<Report>> users = new ArrayList<>();
+            for (int u = 0; u < USERS; u++) {
+                VirtualUser user = new VirtualUser(new Random(u));
+                users.add(executor.submit(() -> user.browseUntil(deadline)));
+            }
+            Report total = new Report();
+            for (Future<Report> user : users) {
+                total.merge(user.get());
+            }
+            return total;
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    /**
+     * Utente che naviga tra le pagine, con i propri ETag per le richieste condizionali.
+     * Non è condiviso tra thread.
+     */
+    private final class VirtualUser {
+
+        private final Random random;
+
+        private final Map<String, String> etags = new HashMap<>();
+
+        private final Report report = new Report();
+
+        private final int totalWeight = Arrays.stream(Page.values()).mapToInt(page -> page.weight).sum();
+
+        VirtualUser(Random random) {
+            this.random = random;
+        }
+
+        Report browseUntil(long deadline) throws Exception {
+            while (System.nanoTime() < deadline) {
+                Page page = nextPage();
+                long start = System.nanoTime();
+                visit(page);
+                report.pages.computeIfAbsent(page, p -> new LatencyRecorder()).record(System.nanoTime() - start);
+            }
+            return report;
+        }
+
+        private Page nextPage() {
+            int pick = random.nextInt(totalWeight);
+            for (Page page : Page.values()) {
+                pick -= page.weight;
+                if (pick < 0) {
+                    return page;
+                }
+            }
+            throw new IllegalStateException();
+        }
+
+        private void visit(Page page) throws Exception {
+            switch (page) {
+                case HOME -> call("GET /movies/get-home-movies", get("/movies/get-home-movies", etag("/movies/get-home-movies")));
+                case MOVIE -> {
+                    long movieId = popularMovieId();
+                    List<Call> calls = new ArrayList<>();
+                    for (String path : MOVIE_PAGE_PATHS) {
+                        calls.add(new Call("GET " + path, get(path + "?movieId=" + movieId, null)));
+                    }
+                    callInParallel(calls);
+                }
+                case CATALOG -> call("GET /movies/get-all", get("/movies/get-all", null));
+                case SEARCH_MOVIES -> call("GET /search-movies", get("/search-movies?query=" + encode(pick(MOVIE_QUERIES)), null));
+                case SEARCH_ACTORS -> {
+                    HttpResponse<String> response = call("GET /search-actors", get("/search-actors?query=" + encode(pick(ACTOR_QUERIES)), null));
+                    List<Long> ids = new ArrayList<>();
+                    for (JsonNode actor : objectMapper.readTree(response.body()).path("actors")) {
+                        ids.add(actor.path("id").asLong());
+                    }
+                    if (!ids.isEmpty()) {
+                        call("POST /movies/get-by-ids", HttpRequest.newBuilder(uri("/movies/get-by-ids"))
+                                .header("Content-Type", "application/json")
+                                .POST(HttpRequest.BodyPublishers.ofString(objectMapper.writeValueAsString(ids)))
+                                .build());
+                    }
+                }
+                case ACTORS -> callInParallel(List.of(
+                        new Call("GET /actors/get-all", get("/actors/get-all", etag("/actors/get-all"))),
+                        new Call("GET /movies/actors-home", get("/movies/actors-home", etag("/movies/actors-home")))));
+                case ACTOR -> call("GET /people/{name}/filmography", get("/people/" + encode(actorNames.get(random.nextInt(actorNames.size())))
+                        .replace("+", "%20") + "/filmography?type=actor&size=200", null));
+                case OSCAR -> call("GET /oscar/top100/by-category", get("/oscar/top100/by-category", etag("/oscar/top100/by-category")));
+            }
+        }
+
+        // I film più popolari vengono visitati più spesso, come nel traffico reale
+        private long popularMovieId() {
+            double r = random.nextDouble();
+            return CatalogSeeder.FIRST_MOVIE_ID + (long) (r * r * r * catalogSeeder.getMovieCount());
+        }
+
+        private String pick(String[] values) {
+            return values[random.nextInt(values.length)];
+        }
+
+        private String etag(String path) {
+            return etags.get(path);
+        }
+
+        private HttpResponse<String> call(String endpoint, HttpRequest request) throws Exception {
+            long start = System.nanoTime();
+            HttpResponse<String> response = client.send(request, HttpResponse.BodyHandlers.ofString());
+            record(endpoint, response, System.nanoTime() - start);
+            return response;
+        }
+
+        // Come Promise.all nel server Express: le chiamate partono insieme e si attende l'ultima
+        private void callInParallel(List<Call> calls) {
+            long start = System.nanoTime();
+            List<CompletableFuture<HttpResponse<String>>> responses = new ArrayList<>();
+            List<CompletableFuture<Long>> completedAt = new ArrayList<>();
+            for (Call call : calls) {
+                CompletableFuture<HttpResponse<String>> response = client.sendAsync(call.request, HttpResponse.BodyHandlers.ofString());
+                responses.add(response);
+                completedAt.add(response.thenApply(r -> System.nanoTime()));
+            }
+            CompletableFuture.allOf(completedAt.toArray(CompletableFuture[]::new)).join();
+            for (int i = 0; i < calls.size(); i++) {
+                record(calls.get(i).endpoint, responses.get(i).join(), completedAt.get(i).join() - start);
+            }
+        }
+
+        private void record(String endpoint, HttpResponse<String> response, long nanos) {
+            report.endpoints.computeIfAbsent(endpoint, e -> new LatencyRecorder()).record(nanos);
+            int status = response.statusCode();
+            if (status == 200) {
+                response.headers().firstValue("ETag").ifPresent(etag -> etags.put(response.request().uri().getPath(), etag));
+            } else if (status != 304 && !(status == 404 && NOT_FOUND_EXPECTED.contains(endpoint))) {
+                report.errorsByEndpoint.merge(endpoint + " (" + status + ")", 1, Integer::sum);
+            }
+        }
+    }
+
+    private record Call(String endpoint, HttpRequest request) {
+    }
+
+    /**
+     * Latenze per pagina e per endpoint, ed errori, di uno o più utenti.
+     */
+    private static final class Report {
+
+        private final Map<Page, LatencyRecorder> pages = new EnumMap<>(Page.class);
+
+        private final Map<String, LatencyRecorder> endpoints = new TreeMap<>();
+
+        private final Map<String, Integer> errorsByEndpoint = new TreeMap<>();
+
+        void merge(Report other) {
+            other.pages.forEach((page, recorder) -> pages.computeIfAbsent(page, p -> new LatencyRecorder()).merge(recorder));
+            other.endpoints.forEach((endpoint, recorder) -> endpoints.computeIfAbsent(endpoint, e -> new LatencyRecorder()).merge(recorder));
+            other.errorsByEndpoint.forEach((endpoint, count) -> errorsByEndpoint.merge(endpoint, count, Integer::sum));
+        }
+
+        long pages() {
+            return pages.values().stream().mapToLong(LatencyRecorder::count).sum();
+        }
+
+        long requests() {
+            return endpoints.values().stream().mapToLong(LatencyRecorder::count).sum();
+        }
+
+        int errors() {
+            return errorsByEndpoint.values().stream().mapToInt(Integer::intValue).sum();
+        }
+    }
+
+    private HttpRequest get(String pathAndQuery, String etag) {
+        HttpRequest.Builder request = HttpRequest.newBuilder(uri(pathAndQuery));
+        if (etag != null) {
+            request.header("If-None-Match", etag);
+        }
+        return request.build();
+    }
+
+    private URI uri(String pathAndQuery) {
+        return URI.create("http://localhost:" + port + pathAndQuery);
+    }
+
+    private static String encode(String value) {
+        return URLEncoder.encode(value, StandardCharsets.UTF_8);
+    }
+}
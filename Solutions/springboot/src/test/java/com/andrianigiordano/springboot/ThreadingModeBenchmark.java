@@ -0,0 +1,144 @@
+package com.andrianigiordano.springboot;
+
+import com.andrianigiordano.springboot.bench.BenchCatalogConfiguration;
+import com.andrianigiordano.springboot.bench.LatencyRecorder;
+import com.andrianigiordano.springboot.bench.SlowDatabaseConfiguration;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.autoconfigure.thread.Threading;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Confronta throughput e percentili dell'applicazione servita dai thread di Tomcat e dai thread
+ * virtuali (profilo {@code virtual}), con molti client concorrenti e un database lento simulato
+ * da {@link SlowDatabaseConfiguration}.
+ * <p>
+ * Il traffico alterna una richiesta che interroga il database (/movies/get-all) e una servita
+ * dalla memoria (/oscar/stats/years): con i thread della piattaforma le seconde restano in coda
+ * dietro le prime quando tutti i thread di Tomcat sono occupati ad attendere una connessione.
+ * Entrambe le modalità usano lo stesso pool di connessioni, quindi il throughput verso il database
+ * è lo stesso e la differenza sta nella concorrenza che l'applicazione riesce a sostenere.
+ * <p>
+ * Parametri: -Dbench.threads.clients (400), -Dbench.threads.seconds (15), -Dbench.db.latency-ms (20),
+ * -Dbench.threads.pool-size (50). La modalità virtuale richiede Java 21+ e viene saltata altrimenti.
+ */
+@Tag("benchmark")
+class ThreadingModeBenchmark {
+
+    private static final int CLIENTS = Integer.getInteger("bench.threads.clients", 400);
+
+    private static final int SECONDS = Integer.getInteger("bench.threads.seconds", 15);
+
+    private static final int WARMUP_SECONDS = 3;
+
+    private static final long DB_LATENCY_MILLIS = Long.getLong("bench.db.latency-ms", 20);
+
+    private static final int POOL_SIZE = Integer.getInteger("bench.threads.pool-size", 50);
+
+    private static final String DATABASE_PATH = "/movies/get-all?size=20&sort=rating";
+
+    private static final String MEMORY_PATH = "/oscar/stats/years";
+
+    @Test
+    void platformVersusVirtualThreads() throws Exception {
+        List<String> report = new ArrayList<>();
+        report.add(String.format(Locale.ROOT, "%d client, %d s, latenza del database %d ms, pool di %d connessioni",
+                CLIENTS, SECONDS, DB_LATENCY_MILLIS, POOL_SIZE));
+        report.addAll(run(false));
+        report.addAll(run(true));
+
+        System.out.println("=== Thread della piattaforma vs thread virtuali ===");
+        report.forEach(System.out::println);
+    }
+
+    private List<String> run(boolean virtual) throws Exception {
+        String mode = virtual ? "virtuali   " : "piattaforma";
+        try (ConfigurableApplicationContext context = start(virtual)) {
+            if (virtual && !Threading.VIRTUAL.isActive(context.getEnvironment())) {
+                return List.of(mode + " saltata: richiede Java 21+ (in uso " + Runtime.version() + ")");
+            }
+            // Le due modalità vanno confrontate con lo stesso pool di connessioni
+            assertEquals(POOL_SIZE, context.getEnvironment().getRequiredProperty("spring.datasource.hikari.maximum-pool-size", Integer.class));
+            int port = context.getEnvironment().getRequiredProperty("local.server.port", Integer.class);
+            HttpClient client = HttpClient.newBuilder()
+                    .version(HttpClient.Version.HTTP_1_1)
+                    .connectTimeout(Duration.ofSeconds(10))
+                    .build();
+
+            runClients(client, port, WARMUP_SECONDS);
+            LatencyRecorder[] results = runClients(client, port, SECONDS);
+
+            int total = results[0].count() + results[1].count();
+            return List.of(
+                    String.format(Locale.ROOT, "%s %.0f richieste/s", mode, total / (double) SECONDS),
+                    String.format(Locale.ROOT, "  database  %s", results[0].summary()),
+                    String.format(Locale.ROOT, "  memoria   %s", results[1].summary()));
+        }
+    }
+
+    private ConfigurableApplicationContext start(boolean virtual) {
+        return new SpringApplicationBuilder(SpringbootApplication.class, BenchCatalogConfiguration.class, SlowDatabaseConfiguration.class)
+                .profiles(virtual ? new String[]{"bench", "virtual"} : new String[]{"bench"})
+                // Argomenti da riga di comando: prevalgono sui file dei profili bench e virtual,
+                // che altrimenti sostituirebbero URL del database e dimensioni del pool
+                .run("--server.port=0",
+                        "--bench.db.latency-ms=" + DB_LATENCY_MILLIS,
+                        "--spring.datasource.hikari.maximum-pool-size=" + POOL_SIZE,
+                        "--spring.datasource.hikari.connection-timeout=30000",
+                        // Un database in memoria distinto per ogni avvio
+                        "--spring.datasource.url=jdbc:h2:mem:threading_" + (virtual ? "virtual" : "platform")
+                                + ";MODE=PostgreSQL;DATABASE_TO_LOWER=TRUE;DEFAULT_NULL_ORDERING=HIGH;NON_KEYWORDS=DATE,MINUTE,VALUE");
+    }
+
+    /**
+     * Esegue il carico per la durata indicata.
+     *
+     * @return le latenze delle richieste al database e di quelle servite dalla memoria
+     */
+    private LatencyRecorder[] runClients(HttpClient client, int port, int seconds) throws Exception {
+        long deadline = System.nanoTime() + seconds * 1_000_000_000L;
+        HttpRequest database = HttpRequest.newBuilder(URI.create("http://localhost:" + port + DATABASE_PATH)).build();
+        HttpRequest memory = HttpRequest.newBuilder(URI.create("http://localhost:" + port + MEMORY_PATH)).build();
+        ExecutorService executor = Executors.newFixedThreadPool(CLIENTS);
+        try {
+            List<Future<LatencyRecorder[]>> clients = new ArrayList<>();
+            for (int c = 0; c < CLIENTS; c++) {
+                int offset = c;
+                clients.add(executor.submit(() -> {
+                    LatencyRecorder[] recorders = {new LatencyRecorder(), new LatencyRecorder()};
+                    for (int i = offset; System.nanoTime() < deadline; i++) {
+                        int kind = i % 2;
+                        long start = System.nanoTime();
+                        HttpResponse<Void> response = client.send(kind == 0 ? database : memory, HttpResponse.BodyHandlers.discarding());
+                        recorders[kind].record(System.nanoTime() - start);
+                        assertEquals(200, response.statusCode());
+                    }
+                    return recorders;
+                }));
+            }
+            LatencyRecorder[] total = {new LatencyRecorder(), new LatencyRecorder()};
+            for (Future<LatencyRecorder[]> recorders : clients) {
+                total[0].merge(recorders.get()[0]);
+                total[1].merge(recorders.get()[1]);
+            }
+            return total;
+        } finally {
+            executor.shutdown();
+        }
+    }
+}
@@ -0,0 +1,19 @@
+package com.andrianigiordano.springboot.bench;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+/**
+ * Configurazione di test che popola il database del profilo bench con il catalogo di prova.
+ * Va importata dai benchmark insieme a {@code @ActiveProfiles("bench")}.
+ */
+@TestConfiguration
+public class BenchCatalogConfiguration {
+
+    @Bean
+    public CatalogSeeder catalogSeeder(JdbcTemplate jdbcTemplate, @Value("${bench.catalog.movies:20000}") int movieCount) {
+        return new CatalogSeeder(jdbcTemplate, movieCount);
+    }
+}
@@ -0,0 +1,220 @@
+package com.andrianigiordano.springboot.bench;
+
+import org.springframework.beans.factory.InitializingBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.sql.init.dependency.DependsOnDatabaseInitialization;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Popola il database del profilo bench con un catalogo di prova deterministico
+ * (stesso seme, stessi dati) che ricalca la forma delle tabelle di ium_database:
+ * film con poster, cast, crew, generi, paesi, lingue, studi, temi e premi Oscar.
+ * Il catalogo include anche i film e gli attori usati dalle query della home.
+ */
+@DependsOnDatabaseInitialization
+public class CatalogSeeder implements InitializingBean {
+
+    /**
+     * ID del primo film generato, come nel dataset originale.
+     */
+    public static final long FIRST_MOVIE_ID = 1_000_001L;
+
+    private static final int BATCH_SIZE = 5_000;
+
+    private static final String[] WORDS = {
+            "Dark", "Night", "Love", "Story", "Last", "City", "Dream", "Blood", "Star", "War", "Girl", "Man",
+            "House", "Shadow", "Return", "Secret", "Lost", "World", "Fire", "Ice", "Heart", "King", "Queen",
+            "River", "Road", "Summer", "Winter", "Ghost", "Island", "Moon", "Sun", "Time", "Game", "Song",
+            "Silent", "Wild", "Little", "Big", "Red", "Blue", "Black", "White", "Golden", "Broken", "Hidden",
+            "Street", "Train", "Garden", "Storm", "Ocean", "Mountain", "Journey", "Promise", "Kingdom", "Empire",
+            "Paradise", "Angel", "Devil", "Hunter", "Soldier", "Child", "Father", "Mother", "Brother", "Sister"
+    };
+
+    private static final String[] FIRST_NAMES = {
+            "Anna", "Marco", "Giulia", "Luca", "Sofia", "Paolo", "Elena", "Davide", "Sara", "Matteo", "Kenji",
+            "Yuki", "Maria", "John", "Emma", "James", "Olivia", "Pierre", "Claire", "Hans", "Ingrid", "Carlos",
+            "Lucia", "Ahmed", "Leila", "Ivan", "Olga", "Wei", "Mei", "Ravi", "Priya", "Tom", "Ryan", "Emily"
+    };
+
+    private static final String[] LAST_NAMES = {
+            "Rossi", "Bianchi", "Ferrari", "Russo", "Romano", "Smith", "Johnson", "Brown", "Taylor", "Martin",
+            "Tanaka", "Suzuki", "Dubois", "Moreau", "Schmidt", "Weber", "Garcia", "Lopez", "Haddad", "Ivanov",
+            "Petrova", "Wang", "Li", "Patel", "Sharma", "Kowalski", "Nowak", "Andersson", "Nielsen", "Costa"
+    };
+
+    private static final String[] CREW_ROLES = {
+            "Director", "Writer", "Producer", "Editor", "Composer", "Cinematography", "Casting", "Costume design"
+    };
+
+    private static final String[] GENRES = {
+            "Drama", "Comedy", "Thriller", "Action", "Romance", "Horror", "Documentary", "Animation",
+            "Science Fiction", "Fantasy", "Adventure", "Crime", "Mystery", "Family", "Music", "History",
+            "War", "Western", "TV Movie"
+    };
+
+    private static final String[] COUNTRIES = {
+            "USA", "UK", "Italy", "France", "Germany", "Japan", "South Korea", "India", "Spain", "Canada",
+            "Mexico", "Brazil", "China", "Sweden", "Denmark", "Australia", "Argentina", "Iran", "Poland", "Russia"
+    };
+
+    private static final String[] LANGUAGES = {
+            "English", "Italian", "French", "German", "Japanese", "Korean", "Hindi", "Spanish", "Mandarin",
+            "Swedish", "Danish", "Portuguese", "Persian", "Polish", "Russian"
+    };
+
+    private static final String[] LANGUAGE_TYPES = {"Language", "Primary language", "Spoken language"};
+
+    private static final String[] THEMES = {
+            "Humanity and the world around us", "Crude humor and satire", "Moving relationship stories",
+            "Emotional and captivating fantasy storytelling", "Surreal and thought-provoking visions of life and death",
+            "Violent crime and drugs", "Epic heroes", "Horror, the undead and monster classics",
+            "Intense violence and sexual transgression", "Underdogs and coming of age", "Politics and human rights",
+            "Music, dance and performance", "Thrillers and murder mysteries", "Touching and sentimental family stories",
+            "Space and science fiction adventures", "War and historical battles", "Quirky and charming comedy",
+            "Gritty crime and noir", "Teen school antics", "Dreamlike psychedelic visions"
+    };
+
+    private static final String[] OSCAR_CATEGORIES = {
+            "BEST PICTURE", "DIRECTING", "ACTOR IN A LEADING ROLE", "ACTRESS IN A LEADING ROLE",
+            "ACTOR IN A SUPPORTING ROLE", "ACTRESS IN A SUPPORTING ROLE", "WRITING (Original Screenplay)",
+            "CINEMATOGRAPHY", "FILM EDITING", "MUSIC (Original Score)", "ANIMATED FEATURE FILM"
+    };
+
+    private static final Object[][] FEATURED_MOVIES = {
+            {"Interstellar", 2014}, {"Akira", 1988}, {"Perfect Days", 2023}, {"Blade Runner 2049", 2017}, {"Shrek", 2001}
+    };
+
+    private static final String[] FEATURED_ACTORS = {"Ryan Gosling", "Zendaya", "Tom Holland"};
+
+    private final JdbcTemplate jdbcTemplate;
+
+    private final int movieCount;
+
+    public CatalogSeeder(JdbcTemplate jdbcTemplate, @Value("${bench.catalog.movies:20000}") int movieCount) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.movieCount = movieCount;
+    }
+
+    public int getMovieCount() {
+        return movieCount;
+    }
+
+    @Override
+    public void afterPropertiesSet() {
+        Random random = new Random(42);
+        Rows movies = new Rows("INSERT INTO movies_data (id, name, date, tagline, description, minute, rating) VALUES (?, ?, ?, ?, ?, ?, ?)");
+        Rows posters = new Rows("INSERT INTO posters_data (id, link) VALUES (?, ?)");
+        Rows actors = new Rows("INSERT INTO actors_data (id, name, role) VALUES (?, ?, ?)");
+        Rows crew = new Rows("INSERT INTO crew_data (id, role, name) VALUES (?, ?, ?)");
+        Rows genres = new Rows("INSERT INTO genres_data (id, genre) VALUES (?, ?)");
+        Rows countries = new Rows("INSERT INTO countries_data (id, country) VALUES (?, ?)");
+        Rows languages = new Rows("INSERT INTO languages_data (id, type, language) VALUES (?, ?, ?)");
+        Rows studios = new Rows("INSERT INTO studios_data (id, studio) VALUES (?, ?)");
+        Rows themes = new Rows("INSERT INTO themes_data (id, theme) VALUES (?, ?)");
+        Rows oscars = new Rows("INSERT INTO the_oscar_awards_data (year_film, year_ceremony, ceremony, category, name, film, winner) VALUES (?, ?, ?, ?, ?, ?, ?)");
+
+        for (int i = 0; i < movieCount; i++) {
+            long id = FIRST_MOVIE_ID + i;
+            String title;
+            int year;
+            if (i < FEATURED_MOVIES.length) {
+                title = (String) FEATURED_MOVIES[i][0];
+                year = (Integer) FEATURED_MOVIES[i][1];
+            } else {
+                title = pick(random, WORDS) + " " + pick(random, WORDS) + (random.nextInt(4) == 0 ? " " + pick(random, WORDS) : "");
+                year = 1920 + random.nextInt(105);
+            }
+            Double rating = random.nextInt(10) == 0 ? null : Math.round((0.5 + random.nextDouble() * 4.5) * 100) / 100.0;
+            int minute = random.nextInt(8) == 0 ? 5 + random.nextInt(30) : 70 + random.nextInt(110);
+            movies.add(id, title, year, "The " + pick(random, WORDS).toLowerCase() + " never ends.",
+                    "A story about " + pick(random, WORDS).toLowerCase() + " and " + pick(random, WORDS).toLowerCase() + ". "
+                            + "Lorem ipsum dolor sit amet, consectetur adipiscing elit, sed do eiusmod tempor incididunt.".repeat(3),
+                    minute, rating);
+            if (random.nextInt(10) < 8) {
+                posters.add(id, "https://a.ltrbxd.com/resized/film-poster/" + id + "-0-230-0-345-crop.jpg");
+            }
+
+            int castSize = 2 + random.nextInt(10);
+            for (int c = 0; c < castSize; c++) {
+                String actor = (c == 0 && i % 50 < FEATURED_ACTORS.length) ? FEATURED_ACTORS[i % 50] : personName(random);
+                actors.add(id, actor, pick(random, FIRST_NAMES));
+            }
+            crew.add(id, "Director", personName(random));
+            int crewSize = 2 + random.nextInt(8);
+            for (int c = 0; c < crewSize; c++) {
+                crew.add(id, pick(random, CREW_ROLES), personName(random));
+            }
+            for (String genre : distinct(random, GENRES, 1 + random.nextInt(3))) {
+                genres.add(id, genre);
+            }
+            for (String country : distinct(random, COUNTRIES, 1 + random.nextInt(2))) {
+                countries.add(id, country);
+            }
+            for (String language : distinct(random, LANGUAGES, 1 + random.nextInt(3))) {
+                languages.add(id, pick(random, LANGUAGE_TYPES), language);
+            }
+            studios.add(id, pick(random, WORDS) + " " + (random.nextBoolean() ? "Pictures" : "Films"));
+            if (random.nextInt(3) > 0) {
+                for (String theme : distinct(random, THEMES, 1 + random.nextInt(3))) {
+                    themes.add(id, theme);
+                }
+            }
+            if (year >= 2015 && random.nextInt(40) == 0) {
+                int ceremony = year - 1927;
+                oscars.add(year, year + 1, ceremony, pick(random, OSCAR_CATEGORIES), personName(random), title, random.nextInt(5) == 0);
+            }
+        }
+
+        for (Rows rows : List.of(movies, posters, actors, crew, genres, countries, languages, studios, themes, oscars)) {
+            rows.flush();
+        }
+    }
+
+    private static String personName(Random random) {
+        return pick(random, FIRST_NAMES) + " " + pick(random, LAST_NAMES);
+    }
+
+    private static String pick(Random random, String[] values) {
+        return values[random.nextInt(values.length)];
+    }
+
+    private static List<String> distinct(Random random, String[] values, int count) {
+        List<String> result = new ArrayList<>(count);
+        int start = random.nextInt(values.length);
+        for (int i = 0; i < count; i++) {
+            result.add(values[(start + i * 7) % values.length]);
+        }
+        return result;
+    }
+
+    /**
+     * Accumula le righe di una tabella e le inserisce a blocchi con batch JDBC.
+     */
+    private class Rows {
+        private final String sql;
+
+        private final List<Object[]> pending = new ArrayList<>(BATCH_SIZE);
+
+        Rows(String sql) {
+            this.sql = sql;
+        }
+
+        void add(Object... values) {
+            pending.add(values);
+            if (pending.size() == BATCH_SIZE) {
+                flush();
+            }
+        }
+
+        void flush() {
+            if (!pending.isEmpty()) {
+                jdbcTemplate.batchUpdate(sql, pending);
+                pending.clear();
+            }
+        }
+    }
+}
@@ -0,0 +1,64 @@
+package com.andrianigiordano.springboot.bench;
+
+import java.util.Arrays;
+import java.util.Locale;
+
+/**
+ * Raccoglie le latenze di un benchmark (in nanosecondi) e ne calcola media e percentili.
+ * Non è thread-safe: ogni thread di carico usa il proprio recorder, poi i recorder vengono uniti.
+ */
+public class LatencyRecorder {
+
+    private long[] samples = new long[1024];
+
+    private int count;
+
+    public void record(long nanos) {
+        if (count == samples.length) {
+            samples = Arrays.copyOf(samples, count * 2);
+        }
+        samples[count++] = nanos;
+    }
+
+    public void merge(LatencyRecorder other) {
+        for (int i = 0; i < other.count; i++) {
+            record(other.samples[i]);
+        }
+    }
+
+    public int count() {
+        return count;
+    }
+
+    public double meanMillis() {
+        if (count == 0) {
+            return 0;
+        }
+        long total = 0;
+        for (int i = 0; i < count; i++) {
+            total += samples[i];
+        }
+        return total / (double) count / 1_000_000.0;
+    }
+
+    /**
+     * Restituisce il percentile richiesto in millisecondi (metodo nearest-rank).
+     *
+     * @param percentile il percentile, tra 0 e 100
+     * @return la latenza del percentile in millisecondi
+     */
+    public double percentileMillis(double percentile) {
+        if (count == 0) {
+            return 0;
+        }
+        long[] sorted = Arrays.copyOf(samples, count);
+        Arrays.sort(sorted);
+        int rank = (int) Math.ceil(percentile / 100.0 * count);
+        return sorted[Math.max(0, Math.min(count - 1, rank - 1))] / 1_000_000.0;
+    }
+
+    public String summary() {
+        return String.format(Locale.ROOT, "n=%d mean=%.3fms p50=%.3fms p95=%.3fms p99=%.3fms max=%.3fms",
+                count, meanMillis(), percentileMillis(50), percentileMillis(95), percentileMillis(99), percentileMillis(100));
+    }
+}
@@ -0,0 +1,82 @@
+package com.andrianigiordano.springboot.bench;
+
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.core.env.Environment;
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+
+/**
+ * Configurazione di test che simula un database lento: ogni esecuzione di uno statement attende
+ * {@code bench.db.latency-ms} millisecondi prima di essere inoltrata a H2, come farebbe una query
+ * su un PostgreSQL remoto o sotto carico. L'attesa avviene fuori dal database, quindi le query
+ * concorrenti attendono in parallelo e il limite resta il pool di connessioni.
+ */
+@TestConfiguration
+public class SlowDatabaseConfiguration {
+
+    @Bean
+    public static BeanPostProcessor slowDataSourcePostProcessor(Environment environment) {
+        long latencyMillis = environment.getProperty("bench.db.latency-ms", Long.class, 0L);
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                if (latencyMillis > 0 && bean instanceof DataSource dataSource) {
+                    return new SlowDataSource(dataSource, latencyMillis);
+                }
+                return bean;
+            }
+        };
+    }
+
+    /**
+     * DataSource che restituisce connessioni i cui statement attendono prima di ogni esecuzione.
+     */
+    static final class SlowDataSource extends DelegatingDataSource {
+
+        private final long latencyMillis;
+
+        SlowDataSource(DataSource target, long latencyMillis) {
+            super(target);
+            this.latencyMillis = latencyMillis;
+        }
+
+        @Override
+        public Connection getConnection() throws SQLException {
+            return wrap(Connection.class, super.getConnection());
+        }
+
+        @Override
+        public Connection getConnection(String username, String password) throws SQLException {
+            return wrap(Connection.class, super.getConnection(username, password));
+        }
+
+        @SuppressWarnings("unchecked")
+        private <T> T wrap(Class<T> type, T target) {
+            InvocationHandler handler = (proxy, method, args) -> {
+                if (method.getName().startsWith("execute") && target instanceof Statement) {
+                    Thread.sleep(latencyMillis);
+                }
+                try {
+                    Object result = method.invoke(target, args);
+                    // Gli statement creati dalla connessione vengono a loro volta rallentati
+                    if (result instanceof Statement && method.getReturnType().isInterface()) {
+                        return wrap((Class<Object>) method.getReturnType(), result);
+                    }
+                    return result;
+                } catch (InvocationTargetException e) {
+                    throw e.getCause();
+                }
+            };
+            return (T) Proxy.newProxyInstance(getClass().getClassLoader(), new Class<?>[]{type}, handler);
+        }
+    }
+}
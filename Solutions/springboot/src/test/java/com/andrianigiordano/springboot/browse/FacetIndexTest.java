@@ -0,0 +1,149 @@
+package com.andrianigiordano.springboot.browse;
+
+import com.andrianigiordano.springboot.movies.MovieCursor;
+import org.junit.jupiter.api.Test;
+
+import java.util.*;
+import java.util.function.Predicate;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class FacetIndexTest {
+
+    private static final String[] GENRES = {"Drama", "Comedy", "Animation", "Horror", "Documentary"};
+    private static final String[] LANGUAGES = {"English", "Japanese", "French", "Italian"};
+
+    private record Movie(long id, Integer date, Integer minute, Double rating, Set<String> genres,
+                         Set<String> languages, String studio) {
+    }
+
+    private final List<Movie> movies = new ArrayList<>();
+    private final FacetIndex index;
+
+    FacetIndexTest() {
+        Random random = new Random(42);
+        FacetIndex.Builder builder = new FacetIndex.Builder();
+        for (int i = 0; i < 600; i++) {
+            long id = 1000 + i * 3L;
+            Integer date = random.nextInt(10) == 0 ? null : 1950 + random.nextInt(75);
+            Integer minute = random.nextInt(10) == 0 ? null : 60 + random.nextInt(150);
+            // Rating su pochi valori, così che ci siano molti pari merito
+            Double rating = random.nextInt(8) == 0 ? null : random.nextInt(11) / 2.0;
+            Set<String> genres = new HashSet<>();
+            Set<String> languages = new HashSet<>();
+            for (int g = 0; g < 1 + random.nextInt(3); g++) {
+                genres.add(GENRES[random.nextInt(GENRES.length)]);
+            }
+            for (int l = 0; l < random.nextInt(3); l++) {
+                languages.add(LANGUAGES[random.nextInt(LANGUAGES.length)]);
+            }
+            // Abbastanza studi da usare i valori per documento nei conteggi
+            String studio = "Studio " + random.nextInt(120);
+            movies.add(new Movie(id, date, minute, rating, genres, languages, studio));
+
+            builder.movie(id, date, minute, rating);
+            genres.forEach(genre -> builder.value(FacetIndex.GENRE, id, genre));
+            // Stessa lingua ripetuta con un altro tipo, come nella tabella delle lingue
+            languages.forEach(language -> builder.value(FacetIndex.LANGUAGE, id, language).value(FacetIndex.LANGUAGE, id, language));
+            builder.value(FacetIndex.STUDIO, id, studio);
+        }
+        index = builder.build();
+    }
+
+    @Test
+    void resultsMatchNaiveFilterForEverySort() {
+        List<BrowseFilter> filters = List.of(
+                new BrowseFilter(),
+                new BrowseFilter().with(FacetIndex.GENRE, List.of("drama")),
+                new BrowseFilter().with(FacetIndex.GENRE, List.of("Animation", "Horror")).with(FacetIndex.LANGUAGE, List.of("Japanese")),
+                new BrowseFilter().with(FacetIndex.DECADE, List.of(1990, 2000)).rating(3.0, null),
+                new BrowseFilter().runtime(95, 125).rating(1.5, 3.5),
+                new BrowseFilter().with(FacetIndex.STUDIO, List.of("Studio 7", "Studio 8", "Unknown")),
+                new BrowseFilter().with(FacetIndex.GENRE, List.of("Unknown")));
+        for (BrowseFilter filter : filters) {
+            Predicate<Movie> predicate = predicate(filter);
+            for (MovieCursor.Sort sort : MovieCursor.Sort.values()) {
+                long[] expected = movies.stream().filter(predicate).sorted(comparator(sort)).mapToLong(Movie::id).toArray();
+                for (int offset : new int[]{0, 7, 100, expected.length}) {
+                    FacetIndex.Result result = index.search(filter, sort, offset, 25, 0);
+                    long[] page = Arrays.copyOfRange(expected, Math.min(offset, expected.length), Math.min(offset + 25, expected.length));
+                    assertArrayEquals(page, result.movieIds, sort + ", offset " + offset);
+                    assertEquals(expected.length, result.total);
+                }
+            }
+        }
+    }
+
+    @Test
+    void facetCountsIgnoreOwnFilter() {
+        BrowseFilter filter = new BrowseFilter()
+                .with(FacetIndex.GENRE, List.of("Drama"))
+                .with(FacetIndex.STUDIO, List.of("Studio 1", "Studio 2", "Studio 3"));
+        Map<String, List<FacetCountDTO>> facets = index.search(filter, MovieCursor.Sort.RATING, 0, 10, 200).facets;
+
+        // Generi contati tra i film degli studi scelti, studi tra i drammatici
+        Map<String, Integer> genres = new TreeMap<>();
+        Map<String, Integer> studios = new TreeMap<>();
+        for (Movie movie : movies) {
+            if (Set.of("Studio 1", "Studio 2", "Studio 3").contains(movie.studio())) {
+                movie.genres().forEach(genre -> genres.merge(genre, 1, Integer::sum));
+            }
+            if (movie.genres().contains("Drama")) {
+                studios.merge(movie.studio(), 1, Integer::sum);
+            }
+        }
+        assertEquals(genres, asMap(facets.get(FacetIndex.GENRE)));
+        assertEquals(studios, asMap(facets.get(FacetIndex.STUDIO)));
+
+        List<FacetCountDTO> top = index.search(filter, MovieCursor.Sort.RATING, 0, 10, 3).facets.get(FacetIndex.STUDIO);
+        List<Integer> expected = studios.values().stream().sorted(Comparator.reverseOrder()).limit(3).toList();
+        assertEquals(expected, top.stream().map(FacetCountDTO::getCount).toList());
+    }
+
+    private static Map<String, Integer> asMap(List<FacetCountDTO> counts) {
+        Map<String, Integer> map = new TreeMap<>();
+        counts.forEach(count -> map.put(count.getValue(), count.getCount()));
+        return map;
+    }
+
+    private static Predicate<Movie> predicate(BrowseFilter filter) {
+        Predicate<Movie> predicate = movie -> true;
+        List<String> genres = filter.values(FacetIndex.GENRE).stream().map(value -> value.toLowerCase(Locale.ROOT)).toList();
+        if (!genres.isEmpty()) {
+            predicate = predicate.and(movie -> movie.genres().stream().anyMatch(genre -> genres.contains(genre.toLowerCase(Locale.ROOT))));
+        }
+        List<String> languages = filter.values(FacetIndex.LANGUAGE);
+        if (!languages.isEmpty()) {
+            predicate = predicate.and(movie -> movie.languages().stream().anyMatch(languages::contains));
+        }
+        List<String> studios = filter.values(FacetIndex.STUDIO);
+        if (!studios.isEmpty()) {
+            predicate = predicate.and(movie -> studios.contains(movie.studio()));
+        }
+        List<String> decades = filter.values(FacetIndex.DECADE);
+        if (!decades.isEmpty()) {
+            predicate = predicate.and(movie -> movie.date() != null && decades.contains(String.valueOf(movie.date() / 10 * 10)));
+        }
+        if (filter.getMinRuntime() != null || filter.getMaxRuntime() != null) {
+            int min = filter.getMinRuntime() != null ? filter.getMinRuntime() : Integer.MIN_VALUE;
+            int max = filter.getMaxRuntime() != null ? filter.getMaxRuntime() : Integer.MAX_VALUE;
+            predicate = predicate.and(movie -> movie.minute() != null && movie.minute() >= min && movie.minute() <= max);
+        }
+        if (filter.getMinRating() != null || filter.getMaxRating() != null) {
+            double min = filter.getMinRating() != null ? filter.getMinRating() : Double.NEGATIVE_INFINITY;
+            double max = filter.getMaxRating() != null ? filter.getMaxRating() : Double.POSITIVE_INFINITY;
+            predicate = predicate.and(movie -> movie.rating() != null && movie.rating() >= min && movie.rating() <= max);
+        }
+        return predicate;
+    }
+
+    private static Comparator<Movie> comparator(MovieCursor.Sort sort) {
+        Comparator<Movie> byId = Comparator.comparingLong(Movie::id);
+        return switch (sort) {
+            case ID -> byId;
+            case RATING -> Comparator.comparing(Movie::rating, Comparator.nullsLast(Comparator.reverseOrder())).thenComparing(byId);
+            case DATE -> Comparator.comparing(Movie::date, Comparator.nullsLast(Comparator.reverseOrder())).thenComparing(byId);
+        };
+    }
+}
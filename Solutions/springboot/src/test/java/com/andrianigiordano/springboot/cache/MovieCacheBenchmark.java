@@ -0,0 +1,129 @@
+package com.andrianigiordano.springboot.cache;
+
+import com.andrianigiordano.springboot.bench.BenchCatalogConfiguration;
+import com.andrianigiordano.springboot.bench.CatalogSeeder;
+import com.andrianigiordano.springboot.bench.LatencyRecorder;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Misura l'effetto delle cache Caffeine sulle letture del catalogo: latenza delle letture per ID a cache
+ * vuota e piena, e numero di query eseguite quando molte richieste concorrenti chiedono la stessa chiave
+ * non ancora in cache. Le liste della home (top100, actors-home, get-home-movies) sono snapshot
+ * precalcolati e non passano dalle cache, quindi non sono misurate qui.
+ */
+@Tag("benchmark")
+@ActiveProfiles("bench")
+@Import(BenchCatalogConfiguration.class)
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+class MovieCacheBenchmark {
+
+    /** Endpoint serviti dalle cache movies, movie-details e movie-attributes, per lo stesso film. */
+    private static final List<String> CACHED_PATHS = List.of(
+            "/movies/" + CatalogSeeder.FIRST_MOVIE_ID + "/details",
+            "/movies/get-movie-by-id?movieId=" + CatalogSeeder.FIRST_MOVIE_ID,
+            "/movies/get-genres-by-id?movieId=" + CatalogSeeder.FIRST_MOVIE_ID);
+
+    /** Chiave della prova di concorrenza: una sola query STRING_AGG se non è già in cache. */
+    private static final String STAMPEDE_PATH = "/movies/get-crew-by-id?movieId=" + (CatalogSeeder.FIRST_MOVIE_ID + 7);
+
+    private static final int CONCURRENT_CLIENTS = 32;
+
+    @LocalServerPort
+    private int port;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private CatalogSeeder catalogSeeder;
+
+    @Autowired
+    private CacheController cacheController;
+
+    private final HttpClient client = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1).build();
+
+    @Test
+    void coldVersusWarmAndStampede() throws Exception {
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        System.out.println("=== Cache del catalogo ===");
+
+        for (String path : CACHED_PATHS) {
+            LatencyRecorder cold = new LatencyRecorder();
+            LatencyRecorder warm = new LatencyRecorder();
+            for (int i = 0; i < 20; i++) {
+                cacheController.evict(null);
+                cold.record(timedGet(path));
+                warm.record(timedGet(path));
+            }
+            System.out.println(path + " a cache vuota " + cold.summary());
+            System.out.println(path + " a cache piena " + warm.summary());
+        }
+
+        cacheController.evict(null);
+        LatencyRecorder cold = new LatencyRecorder();
+        LatencyRecorder warm = new LatencyRecorder();
+        for (int i = 0; i < 2_000; i++) {
+            String path = "/movies/get-crew-by-id?movieId=" + (CatalogSeeder.FIRST_MOVIE_ID + i);
+            cold.record(timedGet(path));
+            warm.record(timedGet(path));
+        }
+        System.out.println("/movies/get-crew-by-id a cache vuota " + cold.summary());
+        System.out.println("/movies/get-crew-by-id a cache piena " + warm.summary());
+
+        // Tutti i client partono insieme sulla stessa chiave a cache vuota: la query deve essere una sola
+        cacheController.evict(null);
+        statistics.clear();
+        ExecutorService executor = Executors.newFixedThreadPool(CONCURRENT_CLIENTS);
+        try {
+            CountDownLatch start = new CountDownLatch(1);
+            List<Future<Long>> requests = new ArrayList<>();
+            for (int c = 0; c < CONCURRENT_CLIENTS; c++) {
+                requests.add(executor.submit(() -> {
+                    start.await();
+                    return timedGet(STAMPEDE_PATH);
+                }));
+            }
+            start.countDown();
+            for (Future<Long> request : requests) {
+                request.get();
+            }
+        } finally {
+            executor.shutdown();
+        }
+        long statements = statistics.getPrepareStatementCount();
+        System.out.println(CONCURRENT_CLIENTS + " richieste concorrenti a cache vuota su " + STAMPEDE_PATH + ": " + statements + " query");
+        assertEquals(1, statements);
+        System.out.println("statistiche " + cacheController.stats());
+    }
+
+    private long timedGet(String path) throws Exception {
+        HttpRequest request = HttpRequest.newBuilder(URI.create("http://localhost:" + port + path)).build();
+        long start = System.nanoTime();
+        HttpResponse<byte[]> response = client.send(request, HttpResponse.BodyHandlers.ofByteArray());
+        long elapsed = System.nanoTime() - start;
+        assertEquals(200, response.statusCode());
+        return elapsed;
+    }
+}
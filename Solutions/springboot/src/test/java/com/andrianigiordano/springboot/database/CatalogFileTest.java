@@ -0,0 +1,67 @@
+package com.andrianigiordano.springboot.database;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.jdbc.datasource.init.ResourceDatabasePopulator;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CatalogFileTest {
+
+    @Test
+    void copyStatementFollowsCsvHeader() {
+        assertEquals("COPY crew_data (id, name, role) FROM STDIN WITH (FORMAT csv, HEADER true, ENCODING 'UTF8')",
+                CatalogFile.CREW.copyStatement("\uFEFFid,\"name\",Role"));
+
+        IllegalArgumentException error = assertThrows(IllegalArgumentException.class,
+                () -> CatalogFile.MOVIES.copyStatement("id,name,date,poster"));
+        assertTrue(error.getMessage().contains("poster"), error.getMessage());
+    }
+
+    @Test
+    void indexesAreReadFromIndexScript() throws IOException {
+        String script = new ClassPathResource(CatalogIndexInitializer.INDEXES_SCRIPT).getContentAsString(StandardCharsets.UTF_8);
+        Map<String, List<String>> indexes = CatalogIngestionService.indexesByTable(script);
+
+        assertEquals(List.of("movies_data_rating_id_idx", "movies_data_date_id_idx", "movies_data_name_date_idx"),
+                indexes.get("movies_data"));
+        assertEquals(List.of("actors_data_id_idx", "actors_data_name_idx"), indexes.get("actors_data"));
+        // Ogni indice dello script appartiene a una tabella caricata dai CSV
+        for (String table : indexes.keySet()) {
+            assertTrue(Arrays.stream(CatalogFile.values()).anyMatch(file -> file.getTable().equals(table)), table);
+        }
+    }
+
+    @Test
+    void schemaScriptCreatesEveryCatalogTableOnAnEmptyDatabase() throws SQLException {
+        DriverManagerDataSource dataSource = new DriverManagerDataSource(
+                "jdbc:h2:mem:catalog_schema;MODE=PostgreSQL;DATABASE_TO_LOWER=TRUE;NON_KEYWORDS=DATE,MINUTE;DB_CLOSE_DELAY=-1");
+        ResourceDatabasePopulator schema = new ResourceDatabasePopulator(new ClassPathResource(CatalogIngestionService.SCHEMA_SCRIPT));
+        // Idempotente: la seconda esecuzione non fallisce sulle tabelle esistenti
+        schema.execute(dataSource);
+        schema.execute(dataSource);
+
+        try (Connection connection = dataSource.getConnection()) {
+            for (CatalogFile file : CatalogFile.values()) {
+                List<String> columns = new ArrayList<>();
+                try (ResultSet resultSet = connection.getMetaData().getColumns(null, null, file.getTable(), null)) {
+                    while (resultSet.next()) {
+                        columns.add(resultSet.getString("COLUMN_NAME"));
+                    }
+                }
+                assertEquals(file.getColumns(), columns, file.getTable());
+            }
+        }
+    }
+}
@@ -0,0 +1,98 @@
+package com.andrianigiordano.springboot.encoding;
+
+import com.andrianigiordano.springboot.bench.BenchCatalogConfiguration;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.client.TestRestTemplate;
+import org.springframework.context.annotation.Import;
+import org.springframework.http.*;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.zip.GZIPInputStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Verifica che gli endpoint restituiscano gli stessi dati in JSON, CBOR e Smile secondo l'header
+ * Accept, sia quelli serializzati da Spring MVC sia gli snapshot precalcolati, e che le risposte
+ * grandi vengano compresse con gzip.
+ */
+@ActiveProfiles("bench")
+@Import(BenchCatalogConfiguration.class)
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, properties = {
+        "bench.catalog.movies=300",
+        // Database H2 distinto: il contesto di QueryBudgetTest resta in cache con il proprio catalogo
+        "spring.datasource.url=jdbc:h2:mem:content_negotiation;MODE=PostgreSQL;DATABASE_TO_LOWER=TRUE;DEFAULT_NULL_ORDERING=HIGH;NON_KEYWORDS=DATE,MINUTE,VALUE"
+})
+class ContentNegotiationTest {
+
+    private static final ObjectMapper JSON = new ObjectMapper();
+
+    @Autowired
+    private TestRestTemplate restTemplate;
+
+    @ParameterizedTest
+    @ValueSource(strings = {"/movies/get-all?size=50", "/movies/get-home-movies", "/oscar/top100"})
+    void binaryFormatsCarrySameDataAsJson(String url) throws IOException {
+        ResponseEntity<byte[]> json = get(url, MediaType.APPLICATION_JSON_VALUE, null);
+        JsonNode expected = JSON.readTree(json.getBody());
+
+        ResponseEntity<byte[]> cbor = get(url, MediaType.APPLICATION_CBOR_VALUE, null);
+        assertTrue(MediaType.APPLICATION_CBOR.isCompatibleWith(cbor.getHeaders().getContentType()));
+        assertEquals(expected, new ObjectMapper(new CBORFactory()).readTree(cbor.getBody()));
+
+        ResponseEntity<byte[]> smile = get(url, "application/x-jackson-smile", null);
+        assertTrue(EncodingConfiguration.APPLICATION_SMILE.isCompatibleWith(smile.getHeaders().getContentType()));
+        assertEquals(expected, new ObjectMapper(new SmileFactory()).readTree(smile.getBody()));
+        assertTrue(cbor.getBody().length < json.getBody().length, "CBOR non più piccolo del JSON");
+    }
+
+    @Test
+    void snapshotsHaveOneEtagPerFormat() {
+        String json = get("/movies/get-home-movies", null, null).getHeaders().getETag();
+        String cbor = get("/movies/get-home-movies", "application/cbor, application/json;q=0.5", null).getHeaders().getETag();
+        assertNotEquals(json, cbor);
+        assertEquals(json.substring(0, json.length() - 1) + "-cbor\"", cbor);
+
+        HttpHeaders headers = new HttpHeaders();
+        headers.setAccept(java.util.List.of(MediaType.APPLICATION_CBOR));
+        headers.setIfNoneMatch(cbor);
+        ResponseEntity<byte[]> notModified = restTemplate.exchange("/movies/get-home-movies", HttpMethod.GET, new HttpEntity<>(headers), byte[].class);
+        assertEquals(HttpStatus.NOT_MODIFIED, notModified.getStatusCode());
+        assertTrue(notModified.getHeaders().getVary().contains(HttpHeaders.ACCEPT));
+    }
+
+    @Test
+    void largeResponsesAreCompressed() throws IOException {
+        ResponseEntity<byte[]> plain = get("/movies/get-all?size=200", null, null);
+        ResponseEntity<byte[]> compressed = get("/movies/get-all?size=200", null, "gzip");
+        assertEquals("gzip", compressed.getHeaders().getFirst(HttpHeaders.CONTENT_ENCODING));
+        assertTrue(compressed.getBody().length < plain.getBody().length);
+        try (InputStream in = new GZIPInputStream(new ByteArrayInputStream(compressed.getBody()))) {
+            assertEquals(JSON.readTree(plain.getBody()), JSON.readTree(in));
+        }
+    }
+
+    private ResponseEntity<byte[]> get(String url, String accept, String acceptEncoding) {
+        HttpHeaders headers = new HttpHeaders();
+        if (accept != null) {
+            headers.set(HttpHeaders.ACCEPT, accept);
+        }
+        if (acceptEncoding != null) {
+            headers.set(HttpHeaders.ACCEPT_ENCODING, acceptEncoding);
+        }
+        ResponseEntity<byte[]> response = restTemplate.exchange(url, HttpMethod.GET, new HttpEntity<>(headers), byte[].class);
+        assertEquals(HttpStatus.OK, response.getStatusCode(), url);
+        return response;
+    }
+}
@@ -0,0 +1,80 @@
+package com.andrianigiordano.springboot.graphql;
+
+import com.andrianigiordano.springboot.bench.BenchCatalogConfiguration;
+import com.fasterxml.jackson.databind.JsonNode;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.client.TestRestTemplate;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.time.Duration;
+import java.util.Map;
+
+import static org.awaitility.Awaitility.await;
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Verifica che una pagina composta con GraphQL esegua un numero di query SQL che non dipende dal
+ * numero di film (i campi collegati sono caricati a lotti) e che le query troppo profonde o troppo
+ * costose vengano rifiutate. Stessa configurazione di QueryBudgetTest, così il contesto è condiviso.
+ */
+@ActiveProfiles("bench")
+@Import(BenchCatalogConfiguration.class)
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, properties = {
+        "bench.catalog.movies=500",
+        "search.index.enabled=false",
+        "metrics.query-budget.default=0"
+})
+class GraphQlApiTest {
+
+    private static final String PAGE = """
+            {
+              movies(ids: [1000001, 1000002, 1000003, 1000004, 1000005, 1000006, 1000007, 1000008, 1000009, 1000010]) {
+                id title description posterUrl
+                crew { name role } genres countries languages { type language } studios themes
+                cast { name role movie { title } }
+                oscars { category winner }
+              }
+            }""";
+
+    @Autowired
+    private TestRestTemplate restTemplate;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Test
+    void pageUsesOneQueryPerFieldNotPerMovie() {
+        JsonNode response = execute(PAGE);
+        assertFalse(response.has("errors"), response.toString());
+        JsonNode movies = response.path("data").path("movies");
+        assertEquals(10, movies.size());
+        assertEquals("1000001", movies.get(0).path("id").asText());
+        assertFalse(movies.get(0).path("genres").isEmpty());
+        assertFalse(movies.get(0).path("crew").isEmpty());
+
+        // film, descrizione, tabelle figlie, cast, Oscar, film del cast: 6 query per qualsiasi numero di film
+        DistributionSummary queries = await().atMost(Duration.ofSeconds(5))
+                .until(() -> meterRegistry.find("http.server.requests.queries").tag("method", "POST").tag("uri", "/graphql").summary(),
+                        summary -> summary != null && summary.count() > 0);
+        assertTrue(queries.max() <= 6, "Query eseguite per la pagina GraphQL: " + queries.max());
+    }
+
+    @Test
+    void tooDeepOrTooComplexQueriesAreRejected() {
+        JsonNode deep = execute("{ movie(id: 1000001) { cast { movie { cast { movie { cast { movie { title } } } } } } } }");
+        assertTrue(deep.has("errors"), deep.toString());
+        assertTrue(deep.path("data").isNull() || deep.path("data").isMissingNode(), deep.toString());
+
+        JsonNode complex = execute("{ searchMovies(query: \"e\", size: 500) { title cast { name movie { title crew { name } } } } }");
+        assertTrue(complex.has("errors"), complex.toString());
+    }
+
+    private JsonNode execute(String query) {
+        return restTemplate.postForObject("/graphql", Map.of("query", query), JsonNode.class);
+    }
+}
@@ -0,0 +1,67 @@
+package com.andrianigiordano.springboot.index;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class RebuildableIndexTest {
+
+    @Test
+    void requestsBeforeTheFirstBuildGetServiceUnavailableWhileItRunsInBackground() throws Exception {
+        AtomicInteger builds = new AtomicInteger();
+        CountDownLatch release = new CountDownLatch(1);
+        CountDownLatch built = new CountDownLatch(1);
+        String caller = Thread.currentThread().getName();
+        RebuildableIndex<String> index = new RebuildableIndex<>("indice di prova", false, () -> {
+            assertNotEquals(caller, Thread.currentThread().getName(), "costruito sul thread della richiesta");
+            await(release);
+            builds.incrementAndGet();
+            built.countDown();
+            return "v1";
+        });
+        index.buildOnStartup();
+
+        // Le richieste durante la costruzione non ne avviano altre
+        for (int i = 0; i < 3; i++) {
+            ResponseStatusException e = assertThrows(ResponseStatusException.class, index::get);
+            assertEquals(HttpStatus.SERVICE_UNAVAILABLE, e.getStatusCode());
+        }
+        release.countDown();
+        assertTrue(built.await(10, TimeUnit.SECONDS));
+        while (index.modify(current -> current == null)) {
+            Thread.sleep(5);
+        }
+
+        assertEquals("v1", index.get());
+        assertEquals(1, builds.get());
+    }
+
+    @Test
+    void rebuildReplacesTheCurrentVersion() {
+        AtomicInteger version = new AtomicInteger();
+        RebuildableIndex<Integer> index = new RebuildableIndex<>("indice di prova", true, version::incrementAndGet);
+        index.buildOnStartup();
+        assertEquals(1, index.get());
+        assertEquals(2, index.rebuild());
+        assertEquals(2, index.get());
+        int modified = index.modify(current -> current + 1);
+        assertEquals(3, modified);
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(10, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,97 @@
+package com.andrianigiordano.springboot.metrics;
+
+import com.andrianigiordano.springboot.bench.BenchCatalogConfiguration;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.client.TestRestTemplate;
+import org.springframework.context.annotation.Import;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.time.Duration;
+
+import static org.awaitility.Awaitility.await;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Verifica che gli endpoint che leggono dal database restino nel proprio {@link QueryBudget}:
+ * un endpoint che serializza entità con relazioni non caricate (N+1) supera il budget e fa fallire il test.
+ * L'indice di ricerca in memoria è disattivato, così le ricerche passano dalle query sul database.
+ */
+@ActiveProfiles("bench")
+@Import(BenchCatalogConfiguration.class)
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, properties = {
+        "bench.catalog.movies=500",
+        "search.index.enabled=false",
+        "metrics.query-budget.default=0"
+})
+class QueryBudgetTest {
+
+    @Autowired
+    private TestRestTemplate restTemplate;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @ParameterizedTest(name = "{0} {1}")
+    @CsvSource({
+            "GET, /movies/get-all?size=50, /movies/get-all",
+            "GET, /movies/get-all?size=50&sort=rating, /movies/get-all",
+            "GET, /movies/get-movie-by-id?movieId=1000003, /movies/get-movie-by-id",
+            "GET, /movies/get-by-ids?ids=1000001&ids=1000002&ids=1000003, /movies/get-by-ids",
+            "POST, /movies/get-by-ids, /movies/get-by-ids",
+            "GET, /movies/1000004/details, /movies/{id}/details",
+            "GET, /movies/search-movies?name=the, /movies/search-movies",
+            "GET, /movies/get-crew-by-id?movieId=1000005, /movies/get-crew-by-id",
+            "GET, /movies/get-genres-by-id?movieId=1000005, /movies/get-genres-by-id",
+            "GET, /search-movies?query=dark, /search-movies",
+            "GET, /search-movies?query=e&page=2&size=20, /search-movies",
+            "GET, /search-actors?query=ryan, /search-actors",
+            "GET, /search-actors?query=a&page=1&size=50, /search-actors",
+            "GET, /actors/get-actor-by-name?name=Zendaya, /actors/get-actor-by-name",
+            "GET, /people/Zendaya/filmography, /people/{name}/filmography",
+            "GET, /people/degrees-of-separation?from=Zendaya&to=Ryan Gosling, /people/degrees-of-separation",
+            "GET, /oscar/top100, /oscar/top100",
+            "GET, /movies/1000006/similar, /movies/{id}/similar",
+            "GET, /browse?genre=Drama&genre=Comedy&decade=1990&minRating=2, /browse"
+    })
+    void endpointStaysWithinQueryBudget(String method, String url, String pattern) {
+        HttpHeaders headers = new HttpHeaders();
+        headers.setContentType(MediaType.APPLICATION_JSON);
+        String body = "POST".equals(method) ? "[1000001, 1000002, 1000003, 1000004, 1000005]" : null;
+        ResponseEntity<String> response = restTemplate.exchange(url, HttpMethod.valueOf(method), new HttpEntity<>(body, headers), String.class);
+        assertTrue(response.getStatusCode().is2xxSuccessful(), url + " -> " + response.getStatusCode());
+
+        // Il conteggio viene registrato a fine richiesta, dopo che la risposta è già stata inviata
+        DistributionSummary queries = await().atMost(Duration.ofSeconds(5))
+                .until(() -> meterRegistry.find(QueryMetricsFilter.METRIC_NAME).tag("method", method).tag("uri", pattern).summary(),
+                        summary -> summary != null);
+        assertTrue(queries.max() > 0, "Nessuna query conteggiata per " + pattern);
+        assertEquals(0, overBudget(method, pattern), pattern + " ha superato il budget: " + queries.max() + " query");
+    }
+
+    @Test
+    void requestOverBudgetIsReported() {
+        // /snapshots/refresh non dichiara un budget e legge dal database: supera il budget predefinito di 0
+        ResponseEntity<String> response = restTemplate.postForEntity("/snapshots/refresh", null, String.class);
+        assertTrue(response.getStatusCode().is2xxSuccessful());
+
+        await().atMost(Duration.ofSeconds(5)).until(() -> overBudget("POST", "/snapshots/refresh") == 1);
+    }
+
+    private double overBudget(String method, String pattern) {
+        Counter counter = meterRegistry.find(QueryBudgetInterceptor.METRIC_NAME).tag("method", method).tag("uri", pattern).counter();
+        return counter != null ? counter.count() : 0;
+    }
+}
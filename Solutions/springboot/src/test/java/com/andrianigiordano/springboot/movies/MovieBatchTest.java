@@ -0,0 +1,87 @@
+package com.andrianigiordano.springboot.movies;
+
+import com.andrianigiordano.springboot.bench.BenchCatalogConfiguration;
+import com.andrianigiordano.springboot.bench.CatalogSeeder;
+import com.fasterxml.jackson.databind.JsonNode;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.client.TestRestTemplate;
+import org.springframework.context.annotation.Import;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.LongStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Comportamento di GET e POST /movies/get-by-ids: ordine richiesto, duplicati, ID mancanti e limite
+ * movies.batch.max-size. Stessa configurazione di QueryBudgetTest, così il contesto è condiviso.
+ */
+@ActiveProfiles("bench")
+@Import(BenchCatalogConfiguration.class)
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, properties = {
+        "bench.catalog.movies=500",
+        "search.index.enabled=false",
+        "metrics.query-budget.default=0"
+})
+class MovieBatchTest {
+
+    private static final long FIRST = CatalogSeeder.FIRST_MOVIE_ID;
+
+    @Autowired
+    private TestRestTemplate restTemplate;
+
+    @Value("${movies.batch.max-size}")
+    private int maxBatchSize;
+
+    @Test
+    void moviesAreReturnedInRequestedOrderWithoutDuplicates() {
+        List<Long> ids = List.of(FIRST + 7, FIRST + 2, FIRST + 7, FIRST + 40, FIRST + 2);
+        for (JsonNode body : List.of(get(ids).getBody(), post(ids).getBody())) {
+            assertEquals(List.of(FIRST + 7, FIRST + 2, FIRST + 40), longs(body.get("movies"), "id"));
+            assertEquals(List.of(), longs(body.get("missing"), null));
+        }
+    }
+
+    @Test
+    void missingIdsAreReportedInRequestedOrder() {
+        List<Long> ids = List.of(FIRST + 3, 42L, FIRST + 1, 9_999_999L, 42L);
+        for (JsonNode body : List.of(get(ids).getBody(), post(ids).getBody())) {
+            assertEquals(List.of(FIRST + 3, FIRST + 1), longs(body.get("movies"), "id"));
+            assertEquals(List.of(42L, 9_999_999L), longs(body.get("missing"), null));
+        }
+    }
+
+    @Test
+    void batchesOverTheMaximumSizeAreRejected() {
+        List<Long> allowed = LongStream.range(FIRST, FIRST + maxBatchSize).boxed().toList();
+        assertEquals(HttpStatus.OK, post(allowed).getStatusCode());
+
+        List<Long> tooMany = new ArrayList<>(allowed);
+        tooMany.add(FIRST);
+        assertEquals(HttpStatus.BAD_REQUEST, get(tooMany).getStatusCode());
+        assertEquals(HttpStatus.BAD_REQUEST, post(tooMany).getStatusCode());
+    }
+
+    private ResponseEntity<JsonNode> get(List<Long> ids) {
+        String query = ids.stream().map(id -> "ids=" + id).collect(Collectors.joining("&"));
+        return restTemplate.getForEntity("/movies/get-by-ids?" + query, JsonNode.class);
+    }
+
+    private ResponseEntity<JsonNode> post(List<Long> ids) {
+        return restTemplate.postForEntity("/movies/get-by-ids", ids, JsonNode.class);
+    }
+
+    private static List<Long> longs(JsonNode array, String field) {
+        List<Long> values = new ArrayList<>();
+        array.forEach(node -> values.add((field != null ? node.get(field) : node).asLong()));
+        return values;
+    }
+}
@@ -0,0 +1,126 @@
+package com.andrianigiordano.springboot.movies;
+
+import com.andrianigiordano.springboot.bench.BenchCatalogConfiguration;
+import com.andrianigiordano.springboot.bench.CatalogSeeder;
+import com.andrianigiordano.springboot.bench.LatencyRecorder;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.List;
+import java.util.Locale;
+import java.util.Random;
+import java.util.concurrent.CompletableFuture;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Confronta la pagina del film composta con le sette chiamate get-*-by-id (in parallelo, come fa
+ * il server Express) con la singola chiamata a /movies/{id}/details, misurando latenza,
+ * query SQL, connessioni e transazioni per pagina.
+ */
+@Tag("benchmark")
+@ActiveProfiles("bench")
+@Import(BenchCatalogConfiguration.class)
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+class MovieDetailsBenchmark {
+
+    private static final int WARMUP_PAGES = 300;
+
+    private static final int MEASURED_PAGES = 2_000;
+
+    private static final List<String> SEVEN_CALL_PATHS = List.of(
+            "/movies/get-movie-by-id", "/movies/get-crew-by-id", "/movies/get-countries-by-id",
+            "/movies/get-languages-by-id", "/movies/get-genres-by-id", "/movies/get-studios-by-id",
+            "/movies/get-themes-by-id");
+
+    @LocalServerPort
+    private int port;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private CatalogSeeder catalogSeeder;
+
+    private final HttpClient client = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1).build();
+
+    @Test
+    void detailsEndpointVersusSevenCalls() {
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+
+        run(this::sevenCallPage, WARMUP_PAGES, new Random(1));
+        run(this::detailsPage, WARMUP_PAGES, new Random(1));
+
+        statistics.clear();
+        LatencyRecorder sevenCalls = run(this::sevenCallPage, MEASURED_PAGES, new Random(7));
+        long sevenCallStatements = statistics.getPrepareStatementCount();
+        long sevenCallConnections = statistics.getConnectCount();
+        long sevenCallTransactions = statistics.getTransactionCount();
+
+        statistics.clear();
+        LatencyRecorder details = run(this::detailsPage, MEASURED_PAGES, new Random(7));
+        long detailsStatements = statistics.getPrepareStatementCount();
+        long detailsConnections = statistics.getConnectCount();
+        long detailsTransactions = statistics.getTransactionCount();
+
+        System.out.println("=== Pagina del film: " + MEASURED_PAGES + " pagine, catalogo di " + catalogSeeder.getMovieCount() + " film ===");
+        System.out.println(report("7 chiamate get-*-by-id", 7, sevenCalls, sevenCallStatements, sevenCallConnections, sevenCallTransactions));
+        System.out.println(report("/movies/{id}/details", 1, details, detailsStatements, detailsConnections, detailsTransactions));
+
+        assertTrue(detailsStatements <= 2L * MEASURED_PAGES, "al massimo due query per pagina");
+        assertTrue(detailsStatements < sevenCallStatements);
+    }
+
+    private LatencyRecorder run(PageLoader loader, int pages, Random random) {
+        LatencyRecorder recorder = new LatencyRecorder();
+        for (int i = 0; i < pages; i++) {
+            long movieId = CatalogSeeder.FIRST_MOVIE_ID + random.nextInt(catalogSeeder.getMovieCount());
+            long start = System.nanoTime();
+            loader.load(movieId);
+            recorder.record(System.nanoTime() - start);
+        }
+        return recorder;
+    }
+
+    private void sevenCallPage(long movieId) {
+        List<CompletableFuture<HttpResponse<String>>> calls = SEVEN_CALL_PATHS.stream()
+                .map(path -> client.sendAsync(get(path + "?movieId=" + movieId), HttpResponse.BodyHandlers.ofString()))
+                .toList();
+        CompletableFuture.allOf(calls.toArray(CompletableFuture[]::new)).join();
+        assertEquals(200, calls.get(0).join().statusCode());
+        assertEquals(200, calls.get(1).join().statusCode());
+    }
+
+    private void detailsPage(long movieId) {
+        HttpResponse<String> response = client.sendAsync(get("/movies/" + movieId + "/details"), HttpResponse.BodyHandlers.ofString()).join();
+        assertEquals(200, response.statusCode());
+    }
+
+    private HttpRequest get(String path) {
+        return HttpRequest.newBuilder(URI.create("http://localhost:" + port + path)).GET().build();
+    }
+
+    private static String report(String name, int httpCalls, LatencyRecorder latency, long statements, long connections, long transactions) {
+        return String.format(Locale.ROOT, "%-24s http/pagina=%d query/pagina=%.2f connessioni/pagina=%.2f transazioni/pagina=%.2f %s",
+                name, httpCalls, statements / (double) latency.count(), connections / (double) latency.count(),
+                transactions / (double) latency.count(), latency.summary());
+    }
+
+    @FunctionalInterface
+    private interface PageLoader {
+        void load(long movieId);
+    }
+}
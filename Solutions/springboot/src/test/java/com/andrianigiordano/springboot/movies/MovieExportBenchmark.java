@@ -0,0 +1,107 @@
+package com.andrianigiordano.springboot.movies;
+
+import com.andrianigiordano.springboot.bench.BenchCatalogConfiguration;
+import com.andrianigiordano.springboot.bench.CatalogSeeder;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryPoolMXBean;
+import java.lang.management.MemoryType;
+import java.lang.management.MemoryUsage;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.Iterator;
+import java.util.Locale;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Misura l'export NDJSON dell'intero catalogo: throughput e heap occupato dopo le garbage
+ * collection durante l'export. Eseguendolo con cataloghi di dimensioni diverse
+ * (-Dbench.catalog.movies=...) l'heap deve restare lo stesso.
+ */
+@Tag("benchmark")
+@ActiveProfiles("bench")
+@Import(BenchCatalogConfiguration.class)
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+class MovieExportBenchmark {
+
+    @LocalServerPort
+    private int port;
+
+    @Autowired
+    private CatalogSeeder catalogSeeder;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Test
+    void exportThroughputAndHeap() throws Exception {
+        HttpClient client = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1).build();
+        HttpRequest request = HttpRequest.newBuilder(URI.create("http://localhost:" + port + "/movies/export")).build();
+
+        System.gc();
+        long baseline = heapAfterGc();
+        AtomicLong peak = new AtomicLong(baseline);
+        ScheduledExecutorService sampler = Executors.newSingleThreadScheduledExecutor();
+        sampler.scheduleAtFixedRate(() -> peak.accumulateAndGet(heapAfterGc(), Math::max), 0, 20, TimeUnit.MILLISECONDS);
+
+        long start = System.nanoTime();
+        long lines = 0;
+        long bytes = 0;
+        HttpResponse<Stream<String>> response = client.send(request, HttpResponse.BodyHandlers.ofLines());
+        try (Stream<String> body = response.body()) {
+            Iterator<String> iterator = body.iterator();
+            while (iterator.hasNext()) {
+                String line = iterator.next();
+                if (lines == 0) {
+                    JsonNode first = objectMapper.readTree(line);
+                    assertEquals(CatalogSeeder.FIRST_MOVIE_ID, first.get("movie").get("id").asLong());
+                    assertTrue(first.has("genres") && first.has("crew"));
+                }
+                lines++;
+                bytes += line.length() + 1;
+            }
+        }
+        double seconds = (System.nanoTime() - start) / 1e9;
+        sampler.shutdownNow();
+
+        assertEquals(200, response.statusCode());
+        assertEquals(catalogSeeder.getMovieCount(), lines);
+        System.out.println("=== Export NDJSON del catalogo ===");
+        System.out.println(String.format(Locale.ROOT, "%d film, %.1f MB in %.2f s: %.0f film/s, %.1f MB/s",
+                lines, bytes / 1e6, seconds, lines / seconds, bytes / 1e6 / seconds));
+        System.out.println(String.format(Locale.ROOT, "heap dopo GC: iniziale %.1f MB, massimo durante l'export %.1f MB",
+                baseline / 1e6, peak.get() / 1e6));
+    }
+
+    /**
+     * Heap occupato subito dopo l'ultima garbage collection, cioè senza gli oggetti già non più raggiungibili.
+     */
+    private static long heapAfterGc() {
+        long used = 0;
+        for (MemoryPoolMXBean pool : ManagementFactory.getMemoryPoolMXBeans()) {
+            MemoryUsage usage = pool.getCollectionUsage();
+            if (pool.getType() == MemoryType.HEAP && usage != null) {
+                used += usage.getUsed();
+            }
+        }
+        return used;
+    }
+}
@@ -0,0 +1,41 @@
+package com.andrianigiordano.springboot.movies;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class MovieExportServiceTest {
+
+    @Test
+    void exportsMoviesWithoutDate() throws Exception {
+        MoviesRepository repository = mock(MoviesRepository.class);
+        when(repository.streamExportRows()).thenReturn(Stream.of(
+                new Object[]{1L, "Senza data", null, null, "Trama", null, null, null},
+                new Object[]{2L, "Con data", 1999, "Tagline", "Trama", 120, 3.5, "https://poster"}));
+        when(repository.findAttributesByMovieIds(anyList())).thenReturn(List.of());
+        ObjectMapper objectMapper = new ObjectMapper();
+        MovieExportService service = new MovieExportService(repository, mock(PlatformTransactionManager.class), objectMapper);
+
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        assertEquals(2, service.export(output));
+
+        String[] lines = output.toString(StandardCharsets.UTF_8).split("\n");
+        assertEquals(2, lines.length);
+        JsonNode first = objectMapper.readTree(lines[0]).get("movie");
+        assertEquals(1L, first.get("id").asLong());
+        assertTrue(first.get("date").isNull());
+        assertEquals(1999, objectMapper.readTree(lines[1]).get("movie").get("date").asInt());
+    }
+}
@@ -0,0 +1,120 @@
+package com.andrianigiordano.springboot.people;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CollaborationGraphTest {
+
+    @Test
+    void collaboratorsAreCountedOncePerSharedMovie() {
+        CollaborationGraph graph = new CollaborationGraph.Builder()
+                .credit(1, "Ann").credit(1, "Bob").credit(1, "Bob").credit(1, "Cid")
+                .credit(2, "Ann").credit(2, "Bob")
+                .credit(3, "Ann").credit(3, "Dan").credit(3, "Cid")
+                .credit(4, "Eve").credit(4, "Bob")
+                .build();
+
+        List<String> names = new ArrayList<>();
+        List<Integer> counts = new ArrayList<>();
+        for (int[] entry : graph.topCollaborators(graph.person("Ann"), 10)) {
+            names.add(graph.name(entry[0]));
+            counts.add(entry[1]);
+        }
+        assertEquals(List.of("Bob", "Cid", "Dan"), names);
+        assertEquals(List.of(2, 2, 1), counts);
+        assertEquals(1, graph.topCollaborators(graph.person("Ann"), 1).size());
+        assertEquals(-1, graph.person("Nobody"));
+    }
+
+    @Test
+    void placeholderNamesAreNotPeople() {
+        CollaborationGraph graph = new CollaborationGraph.Builder()
+                .credit(1, "Ann").credit(1, "Unknown").credit(1, "Cid")
+                .credit(2, "Bob").credit(2, "unknown ").credit(2, " ")
+                .credit(3, "Unknown").credit(3, "Dan")
+                .build();
+
+        assertEquals(-1, graph.person("Unknown"));
+        assertNull(graph.shortestPath(graph.person("Ann"), graph.person("Bob"), 6));
+        List<int[]> collaborators = graph.topCollaborators(graph.person("Ann"), 10);
+        assertEquals(1, collaborators.size());
+        assertEquals("Cid", graph.name(collaborators.get(0)[0]));
+    }
+
+    @Test
+    void bidirectionalSearchFindsShortestPaths() {
+        Random random = new Random(11);
+        int people = 300;
+        CollaborationGraph.Builder builder = new CollaborationGraph.Builder();
+        List<int[]> casts = new ArrayList<>();
+        for (int movie = 0; movie < 220; movie++) {
+            int[] cast = random.ints(2 + random.nextInt(3), 0, people).toArray();
+            casts.add(cast);
+            for (int person : cast) {
+                builder.credit(1000 + movie, name(person));
+            }
+        }
+        CollaborationGraph graph = builder.build();
+
+        for (int from = 0; from < people; from += 7) {
+            int[] expected = distances(from, people, casts);
+            for (int to = 0; to < people; to += 3) {
+                if (graph.person(name(from)) < 0 || graph.person(name(to)) < 0) {
+                    continue;
+                }
+                int[] path = graph.shortestPath(graph.person(name(from)), graph.person(name(to)), 50);
+                if (expected[to] < 0) {
+                    assertNull(path, name(from) + " -> " + name(to));
+                    continue;
+                }
+                assertNotNull(path, name(from) + " -> " + name(to));
+                assertEquals(expected[to], path.length / 2, name(from) + " -> " + name(to));
+                assertEquals(name(from), graph.name(path[0]));
+                assertEquals(name(to), graph.name(path[path.length - 1]));
+                // Ogni coppia di persone consecutive ha partecipato al film che le separa
+                for (int i = 1; i < path.length; i += 2) {
+                    int[] cast = casts.get((int) graph.movieId(path[i]) - 1000);
+                    String before = graph.name(path[i - 1]);
+                    String after = graph.name(path[i + 1]);
+                    assertTrue(Arrays.stream(cast).anyMatch(person -> name(person).equals(before)));
+                    assertTrue(Arrays.stream(cast).anyMatch(person -> name(person).equals(after)));
+                }
+                if (expected[to] > 1) {
+                    assertNull(graph.shortestPath(graph.person(name(from)), graph.person(name(to)), expected[to] - 1));
+                }
+            }
+        }
+    }
+
+    private static String name(int person) {
+        return "Person " + person;
+    }
+
+    /**
+     * BFS semplice sul grafo tra persone: distanza da from di ogni persona, -1 se non raggiungibile.
+     */
+    private static int[] distances(int from, int people, List<int[]> casts) {
+        int[] distance = new int[people];
+        Arrays.fill(distance, -1);
+        distance[from] = 0;
+        Deque<Integer> queue = new ArrayDeque<>(List.of(from));
+        while (!queue.isEmpty()) {
+            int person = queue.poll();
+            for (int[] cast : casts) {
+                if (Arrays.stream(cast).noneMatch(p -> p == person)) {
+                    continue;
+                }
+                for (int other : cast) {
+                    if (distance[other] < 0) {
+                        distance[other] = distance[person] + 1;
+                        queue.add(other);
+                    }
+                }
+            }
+        }
+        return distance;
+    }
+}
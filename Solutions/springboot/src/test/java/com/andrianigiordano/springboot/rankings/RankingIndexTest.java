@@ -0,0 +1,85 @@
+package com.andrianigiordano.springboot.rankings;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.*;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class RankingIndexTest {
+
+    private static final String[] GENRES = {"drama", "comedy", "horror", "animation"};
+    private static final String[] COUNTRIES = {"italy", "usa", "japan"};
+    private static final int CAPACITY = 5;
+
+    private final Random random = new Random(3);
+
+    @Test
+    void incrementalUpdatesMatchFullRebuild() {
+        Map<Long, RankedMovie> movies = new HashMap<>();
+        for (long id = 1; id <= 300; id++) {
+            movies.put(id, randomMovie(id));
+        }
+        RankingIndex index = new RankingIndex(movies.values(), CAPACITY);
+        assertMatchesNaive(index, movies);
+
+        for (int round = 0; round < 30; round++) {
+            Map<Long, RankedMovie> changed = new HashMap<>();
+            for (int i = 0; i < 10; i++) {
+                long id = 1 + random.nextInt(320);
+                // Nuovo rating o nuovi valori, nuovo film oppure film eliminato
+                RankedMovie movie = random.nextInt(4) == 0 ? null : randomMovie(id);
+                changed.put(id, movie);
+                if (movie == null) {
+                    movies.remove(id);
+                } else {
+                    movies.put(id, movie);
+                }
+            }
+            index.update(changed);
+            assertMatchesNaive(index, movies);
+        }
+    }
+
+    private RankedMovie randomMovie(long id) {
+        Set<String> genres = new HashSet<>();
+        for (int i = random.nextInt(3); i > 0; i--) {
+            genres.add(GENRES[random.nextInt(GENRES.length)]);
+        }
+        Set<String> countries = new HashSet<>();
+        for (int i = random.nextInt(3); i > 0; i--) {
+            countries.add(COUNTRIES[random.nextInt(COUNTRIES.length)]);
+        }
+        Integer date = random.nextInt(10) == 0 ? null : 1960 + random.nextInt(60);
+        Integer minute = random.nextInt(10) == 0 ? null : 70 + random.nextInt(120);
+        return new RankedMovie(id, random.nextInt(9) / 2.0, minute, date, genres, countries);
+    }
+
+    private static void assertMatchesNaive(RankingIndex index, Map<Long, RankedMovie> movies) {
+        List<String> genres = new ArrayList<>(Arrays.asList(GENRES));
+        genres.add(null);
+        List<Integer> decades = new ArrayList<>(List.of(1970, 2010));
+        decades.add(null);
+        List<String> countries = new ArrayList<>(Arrays.asList(COUNTRIES));
+        countries.add(null);
+        for (String genre : genres) {
+            for (Integer decade : decades) {
+                for (String country : countries) {
+                    for (Integer minRuntime : new Integer[]{null, 150}) {
+                        List<Long> expected = movies.values().stream()
+                                .filter(movie -> movie.matches(genre, decade, country))
+                                .filter(movie -> minRuntime == null || movie.minute >= minRuntime)
+                                .sorted(RankedMovie.RANKING)
+                                .limit(CAPACITY)
+                                .map(movie -> movie.id)
+                                .toList();
+                        String combination = RankingIndex.key(genre, decade, country) + " >= " + minRuntime;
+                        assertEquals(expected, index.top(genre, decade, country, minRuntime, CAPACITY), combination);
+                    }
+                    long size = movies.values().stream().filter(movie -> movie.matches(genre, decade, country)).count();
+                    assertEquals(size, index.size(genre, decade, country));
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,59 @@
+package com.andrianigiordano.springboot.search;
+
+import com.andrianigiordano.springboot.actors.ActorCreditDTO;
+import com.andrianigiordano.springboot.actors.ActorsRepository;
+import com.andrianigiordano.springboot.movies.MoviesRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class SearchIndexServiceTest {
+
+    // Righe di actors_data: "Ann Lee" ha due ruoli nel film 1
+    private static final List<ActorCreditDTO> CREDITS = List.of(
+            new ActorCreditDTO(1L, "Ann Lee", "Twin A"),
+            new ActorCreditDTO(1L, "Ann Lee", "Twin B"),
+            new ActorCreditDTO(2L, "Ann Lee", "Doctor"),
+            new ActorCreditDTO(1L, "Ann Loo", "Nurse"),
+            new ActorCreditDTO(3L, "Bob Ray", "Pilot"));
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void pagesOfActorCreditsNeverExceedTheSizeWithRepeatedRoles() {
+        ActorsRepository actorsRepository = mock(ActorsRepository.class);
+        MoviesRepository moviesRepository = mock(MoviesRepository.class);
+        when(moviesRepository.streamSearchRows()).thenReturn(Stream.empty());
+        when(actorsRepository.streamNamesAndMovieIds()).thenReturn(CREDITS.stream()
+                .map(credit -> new Object[]{credit.getName(), credit.getId()}));
+        // Come la query reale, restituisce il prodotto cartesiano tra film e nomi richiesti
+        when(actorsRepository.findCredits(anyCollection(), anyCollection())).thenAnswer(invocation -> {
+            Collection<Long> movieIds = invocation.getArgument(0);
+            Collection<String> names = invocation.getArgument(1);
+            return CREDITS.stream()
+                    .filter(credit -> movieIds.contains(credit.getId()) && names.contains(credit.getName()))
+                    .toList();
+        });
+        SearchIndexService service = new SearchIndexService(moviesRepository, actorsRepository,
+                mock(PlatformTransactionManager.class), true, 500, 10_000, 1_000);
+        service.refresh();
+
+        List<String> roles = new ArrayList<>();
+        for (int page = 0; page < 3; page++) {
+            SearchHits<ActorCreditDTO> hits = service.searchActors("ann", page, 2);
+            assertEquals(4, hits.getTotal());
+            assertTrue(hits.getItems().size() <= 2, "pagina " + page);
+            hits.getItems().forEach(credit -> roles.add(credit.getRole()));
+        }
+        assertEquals(List.of("Twin A", "Twin B", "Doctor", "Nurse"), roles);
+    }
+}
@@ -0,0 +1,110 @@
+package com.andrianigiordano.springboot.search;
+
+import com.andrianigiordano.springboot.bench.BenchCatalogConfiguration;
+import com.andrianigiordano.springboot.bench.LatencyRecorder;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.net.URI;
+import java.net.URLEncoder;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+
+/**
+ * Misura l'autocompletamento: latenza dell'indice in-process, throughput e percentili
+ * dell'endpoint /suggest con più client concorrenti, e occupazione in memoria delle strutture.
+ */
+@Tag("benchmark")
+@ActiveProfiles("bench")
+@Import(BenchCatalogConfiguration.class)
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+class SuggestBenchmark {
+
+    private static final String[] PREFIXES = {
+            "d", "da", "dar", "dark", "s", "sh", "shr", "the", "l", "lo", "lov", "b", "bl", "bla", "blade r",
+            "a", "an", "ann", "anna r", "m", "ma", "mar", "marco", "r", "ry", "ryan", "t", "to", "tom h", "z", "zen"
+    };
+
+    private static final int CLIENTS = 16;
+
+    private static final int REQUESTS_PER_CLIENT = 2_000;
+
+    @LocalServerPort
+    private int port;
+
+    @Autowired
+    private SearchIndexService searchIndexService;
+
+    @Test
+    void suggestLatencyThroughputAndMemory() throws Exception {
+        assertFalse(searchIndexService.suggest("s", 10).getMovies().isEmpty());
+
+        LatencyRecorder inProcess = new LatencyRecorder();
+        Random random = new Random(11);
+        for (int i = 0; i < 200_000; i++) {
+            String prefix = PREFIXES[random.nextInt(PREFIXES.length)];
+            long start = System.nanoTime();
+            searchIndexService.suggest(prefix, 10);
+            if (i >= 50_000) {
+                inProcess.record(System.nanoTime() - start);
+            }
+        }
+
+        HttpClient client = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1).build();
+        runClients(client, 200);
+        long start = System.nanoTime();
+        LatencyRecorder http = runClients(client, REQUESTS_PER_CLIENT);
+        double seconds = (System.nanoTime() - start) / 1e9;
+
+        System.out.println("=== Autocompletamento ===");
+        System.out.println("indice in-process     " + inProcess.summary());
+        System.out.println(String.format(Locale.ROOT, "GET /suggest (%d client) %.0f richieste/s %s", CLIENTS, http.count() / seconds, http.summary()));
+        System.out.println("memoria               " + searchIndexService.suggestStats());
+    }
+
+    private LatencyRecorder runClients(HttpClient client, int requestsPerClient) throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(CLIENTS);
+        try {
+            List<Future<LatencyRecorder>> clients = new ArrayList<>();
+            for (int c = 0; c < CLIENTS; c++) {
+                Random random = new Random(c);
+                clients.add(executor.submit(() -> {
+                    LatencyRecorder recorder = new LatencyRecorder();
+                    for (int i = 0; i < requestsPerClient; i++) {
+                        String prefix = URLEncoder.encode(PREFIXES[random.nextInt(PREFIXES.length)], StandardCharsets.UTF_8);
+                        HttpRequest request = HttpRequest.newBuilder(URI.create("http://localhost:" + port + "/suggest?q=" + prefix)).build();
+                        long start = System.nanoTime();
+                        HttpResponse<String> response = client.send(request, HttpResponse.BodyHandlers.ofString());
+                        recorder.record(System.nanoTime() - start);
+                        assertEquals(200, response.statusCode());
+                    }
+                    return recorder;
+                }));
+            }
+            LatencyRecorder total = new LatencyRecorder();
+            for (Future<LatencyRecorder> recorder : clients) {
+                total.merge(recorder.get());
+            }
+            return total;
+        } finally {
+            executor.shutdown();
+        }
+    }
+}
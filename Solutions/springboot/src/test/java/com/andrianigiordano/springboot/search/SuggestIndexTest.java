@@ -0,0 +1,68 @@
+package com.andrianigiordano.springboot.search;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+
+class SuggestIndexTest {
+
+    private static final String[] TITLES = {
+            "Shrek", "Shrek 2", "Shining", "Shutter Island", "Akira", "Amélie", "Été violent", "Ötzi", "Zodiac"
+    };
+
+    private static final float[] SCORES = {
+            3.5f, 3.0f, 4.2f, 3.9f, 4.1f, 3.9f, 2.0f, 1.0f, 3.6f
+    };
+
+    @Test
+    void completionsAreOrderedByScore() {
+        SuggestIndex index = SuggestIndex.build(TITLES, SCORES);
+        assertArrayEquals(new int[]{2, 3, 0, 1}, index.suggest("sh", 10));
+        assertArrayEquals(new int[]{0, 1}, index.suggest("SHREK", 10));
+        assertArrayEquals(new int[]{1}, index.suggest("shrek 2", 10));
+    }
+
+    @Test
+    void tiesPreferShorterThenAlphabeticalKeys() {
+        String[] titles = {"Up", "Ub", "Upside", "U\u0430"};
+        SuggestIndex index = SuggestIndex.build(titles, new float[]{1f, 1f, 1f, 1f});
+        // "U\u0430" termina con la a cirillica, che nell'ordine dei caratteri segue le lettere latine
+        assertArrayEquals(new int[]{1, 0, 3, 2}, index.suggest("u", 10));
+    }
+
+    @Test
+    void limitTruncatesTheBestCompletions() {
+        SuggestIndex index = SuggestIndex.build(TITLES, SCORES);
+        assertArrayEquals(new int[]{2, 3}, index.suggest("sh", 2));
+        assertArrayEquals(new int[]{2}, index.suggest("sh", 1));
+        assertArrayEquals(new int[0], index.suggest("sh", 0));
+    }
+
+    @Test
+    void emptyPrefixMatchesEveryKey() {
+        SuggestIndex index = SuggestIndex.build(TITLES, SCORES);
+        // "Amélie" e "Shutter Island" hanno lo stesso punteggio: viene prima la chiave più corta
+        assertArrayEquals(new int[]{2, 4, 5, 3}, index.suggest("", 4));
+        assertArrayEquals(new int[]{2, 4, 5, 3, 8, 0, 1, 6, 7}, index.suggest("", 100));
+    }
+
+    @Test
+    void prefixesOutsideTheKeysMatchNothing() {
+        SuggestIndex index = SuggestIndex.build(TITLES, SCORES);
+        assertArrayEquals(new int[0], index.suggest("zz", 10));
+        assertArrayEquals(new int[0], index.suggest("\uffff", 10));
+        assertArrayEquals(new int[0], index.suggest("aa", 10));
+        assertArrayEquals(new int[0], index.suggest("shrek 23", 10));
+        assertArrayEquals(new int[0], SuggestIndex.build(new String[0], new float[0]).suggest("a", 10));
+    }
+
+    @Test
+    void nonAsciiPrefixesAreMatchedIgnoringCase() {
+        SuggestIndex index = SuggestIndex.build(TITLES, SCORES);
+        assertArrayEquals(new int[]{6}, index.suggest("ÉTÉ", 10));
+        assertArrayEquals(new int[]{7}, index.suggest("öt", 10));
+        assertArrayEquals(new int[]{5}, index.suggest("amé", 10));
+        // Senza normalizzazione degli accenti "ame" non completa "Amélie"
+        assertArrayEquals(new int[0], index.suggest("ame", 10));
+    }
+}
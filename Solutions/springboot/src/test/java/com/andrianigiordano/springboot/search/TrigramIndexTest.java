@@ -0,0 +1,91 @@
+package com.andrianigiordano.springboot.search;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.Locale;
+import java.util.Random;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class TrigramIndexTest {
+
+    private static final String[] TITLES = {
+            "Blade Runner", "Blade Runner 2049", "Runner Runner", "The Blade", "Bladerunner Story",
+            "Akira", "Shrek", "Shrek 2", "Interstellar", "Perfect Days", "Days of Heaven", "ab"
+    };
+
+    @Test
+    void matchesHaveSameSemanticsAsLikeIgnoringCase() {
+        TrigramIndex index = TrigramIndex.build(TITLES);
+        for (String query : new String[]{"blade", "RUNNER", "er 2", "days", "a", "ab", "", "xyz", "shrek 2", "e r"}) {
+            String needle = query.toLowerCase(Locale.ROOT);
+            int[] expected = IntStream.range(0, TITLES.length)
+                    .filter(doc -> TITLES[doc].toLowerCase(Locale.ROOT).contains(needle))
+                    .toArray();
+            int[] actual = index.search(query, TITLES.length);
+            Arrays.sort(actual);
+            assertArrayEquals(expected, actual, "query: " + query);
+        }
+    }
+
+    @Test
+    void resultsAreRankedByMatchQuality() {
+        TrigramIndex index = TrigramIndex.build(TITLES);
+        int[] result = index.search("Blade Runner", 10);
+        // Identico, poi prefisso; "Bladerunner Story" non contiene lo spazio e non corrisponde
+        assertArrayEquals(new int[]{0, 1}, result);
+
+        result = index.search("runner", 10);
+        // Prefisso più corto, poi inizio di parola, poi a metà parola
+        assertEquals(2, result[0]);
+        assertArrayEquals(new int[]{2, 0, 1, 4}, result);
+    }
+
+    @Test
+    void wordStartsFollowASpaceLikeTheDatabaseFallback() {
+        TrigramIndex index = TrigramIndex.build(new String[]{"Blade-Runner", "Bladerunner Runner", "Xrunnerx"});
+        // Conta qualsiasi occorrenza dopo uno spazio, come LIKE '% runner%'; il trattino non separa le parole
+        assertArrayEquals(new int[]{1, 2, 0}, index.search("runner", 10));
+    }
+
+    @Test
+    void pagesAreSlicesOfTheFullRanking() {
+        TrigramIndex index = TrigramIndex.build(TITLES);
+        for (String query : new String[]{"runner", "a", "e", "days", "xyz"}) {
+            int[] all = index.search(query, TITLES.length);
+            for (int size = 1; size <= 4; size++) {
+                for (int offset = 0; offset <= all.length + 1; offset += size) {
+                    TrigramIndex.Result page = index.search(query, offset, size);
+                    int[] expected = Arrays.copyOfRange(all, Math.min(offset, all.length), Math.min(offset + size, all.length));
+                    assertArrayEquals(expected, page.getDocs(), "query: " + query + ", offset: " + offset);
+                    assertEquals(all.length, page.getTotal(), "query: " + query);
+                }
+            }
+        }
+    }
+
+    @Test
+    void randomQueriesMatchNaiveScan() {
+        Random random = new Random(3);
+        String alphabet = "abcde ";
+        String[] texts = new String[2_000];
+        for (int i = 0; i < texts.length; i++) {
+            StringBuilder text = new StringBuilder();
+            for (int c = 0, length = 1 + random.nextInt(20); c < length; c++) {
+                text.append(alphabet.charAt(random.nextInt(alphabet.length())));
+            }
+            texts[i] = random.nextBoolean() ? text.toString().toUpperCase(Locale.ROOT) : text.toString();
+        }
+        TrigramIndex index = TrigramIndex.build(texts);
+        for (int q = 0; q < 300; q++) {
+            String query = texts[random.nextInt(texts.length)];
+            int from = random.nextInt(query.length());
+            String needle = query.substring(from, Math.min(query.length(), from + 1 + random.nextInt(6))).toLowerCase(Locale.ROOT);
+            long expected = Arrays.stream(texts).filter(text -> text.toLowerCase(Locale.ROOT).contains(needle)).count();
+            assertEquals(expected, index.search(needle, Integer.MAX_VALUE).length, "query: " + needle);
+        }
+    }
+}
@@ -0,0 +1,95 @@
+package com.andrianigiordano.springboot.similar;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.*;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class MinHashIndexTest {
+
+    @Test
+    void identicalAndOverlappingMoviesAreRankedBySimilarity() {
+        MinHashIndex index = new MinHashIndex.Builder()
+                .feature(1, "genre", "Drama").feature(1, "theme", "Love").feature(1, "crew", "Wong Kar-wai")
+                .feature(1, "crew", "Christopher Doyle")
+                // Stesse caratteristiche, con maiuscole diverse e un duplicato
+                .feature(2, "genre", "drama").feature(2, "theme", "LOVE").feature(2, "crew", "Wong Kar-wai")
+                .feature(2, "crew", "Christopher Doyle").feature(2, "crew", "Christopher Doyle")
+                .feature(3, "genre", "Drama").feature(3, "theme", "Love").feature(3, "crew", "Wong Kar-wai")
+                .feature(4, "genre", "Horror").feature(4, "crew", "John Carpenter")
+                // Stesso valore ma tipo diverso: non è una caratteristica in comune
+                .feature(5, "theme", "Drama")
+                .build(32, 1);
+
+        List<MinHashIndex.Match> matches = index.similar(1, 10, 1000);
+        assertEquals(List.of(2L, 3L), matches.stream().map(match -> match.movieId).toList());
+        assertEquals(1.0, matches.get(0).similarity);
+        assertEquals(0.75, matches.get(1).similarity);
+
+        assertEquals(List.of(), index.similar(99, 10, 1000));
+        assertEquals(1, index.similar(1, 1, 1000).size());
+    }
+
+    @Test
+    void placeholderValuesAreNotFeatures() {
+        MinHashIndex index = new MinHashIndex.Builder()
+                .feature(1, "genre", "Drama").feature(1, "crew", "Unknown")
+                .feature(2, "genre", "Drama").feature(2, "crew", "unknown")
+                .feature(3, "genre", "Horror").feature(3, "crew", "Unknown")
+                .build(32, 1);
+
+        // Il segnaposto non conta né come caratteristica in comune né nella dimensione degli insiemi
+        List<MinHashIndex.Match> matches = index.similar(1, 10, 1000);
+        assertEquals(List.of(2L), matches.stream().map(match -> match.movieId).toList());
+        assertEquals(1.0, matches.get(0).similarity);
+    }
+
+    @Test
+    void findsMostHighlySimilarPairsWithExactScores() {
+        Random random = new Random(7);
+        MinHashIndex.Builder builder = new MinHashIndex.Builder();
+        List<Set<Integer>> sets = new ArrayList<>();
+        for (int movie = 0; movie < 400; movie++) {
+            Set<Integer> set = new HashSet<>();
+            if (movie % 2 == 1) {
+                // Ogni film dispari è una variante del precedente, con somiglianza alta
+                set.addAll(sets.get(movie - 1));
+                set.remove(set.iterator().next());
+                set.add(10_000 + movie);
+            } else {
+                while (set.size() < 12) {
+                    set.add(random.nextInt(2000));
+                }
+            }
+            sets.add(set);
+            for (int feature : set) {
+                builder.feature(movie, "crew", String.valueOf(feature));
+            }
+        }
+        MinHashIndex index = builder.build(16, 2);
+
+        int found = 0;
+        for (int movie = 0; movie < sets.size(); movie += 2) {
+            List<MinHashIndex.Match> matches = index.similar(movie, 5, 1000);
+            for (MinHashIndex.Match match : matches) {
+                assertEquals(jaccard(sets.get(movie), sets.get((int) match.movieId)), match.similarity, 1e-12);
+            }
+            for (int i = 1; i < matches.size(); i++) {
+                assertTrue(matches.get(i - 1).similarity >= matches.get(i).similarity);
+            }
+            if (!matches.isEmpty() && matches.get(0).movieId == movie + 1) {
+                found++;
+            }
+        }
+        // Con somiglianza 11/13 la probabilità di non condividere nessun bucket è trascurabile
+        assertEquals(sets.size() / 2, found);
+    }
+
+    private static double jaccard(Set<Integer> a, Set<Integer> b) {
+        Set<Integer> shared = new HashSet<>(a);
+        shared.retainAll(b);
+        return (double) shared.size() / (a.size() + b.size() - shared.size());
+    }
+}
@@ -0,0 +1,67 @@
+-- Schema delle tabelle di ium_database usato dal profilo bench.
+-- Come nel database reale, le tabelle figlie usano la colonna id come riferimento al film.
+
+CREATE TABLE movies_data (
+    id          BIGINT PRIMARY KEY,
+    name        VARCHAR(512) NOT NULL,
+    date        INTEGER,
+    tagline     VARCHAR(1024),
+    description TEXT,
+    minute      INTEGER,
+    rating      DOUBLE PRECISION
+);
+
+CREATE TABLE posters_data (
+    id   BIGINT,
+    link VARCHAR(1024) NOT NULL
+);
+
+CREATE TABLE actors_data (
+    id   BIGINT,
+    name VARCHAR(512),
+    role VARCHAR(1024)
+);
+
+CREATE TABLE crew_data (
+    id   BIGINT,
+    role VARCHAR(255),
+    name VARCHAR(512)
+);
+
+CREATE TABLE genres_data (
+    id    BIGINT,
+    genre VARCHAR(255)
+);
+
+CREATE TABLE countries_data (
+    id      BIGINT,
+    country VARCHAR(255)
+);
+
+CREATE TABLE languages_data (
+    id       BIGINT,
+    type     VARCHAR(255),
+    language VARCHAR(255)
+);
+
+CREATE TABLE studios_data (
+    id     BIGINT,
+    studio VARCHAR(512) NOT NULL
+);
+
+CREATE TABLE themes_data (
+    id    BIGINT,
+    theme VARCHAR(512)
+);
+
+CREATE TABLE the_oscar_awards_data (
+    year_film     INTEGER      NOT NULL,
+    year_ceremony INTEGER      NOT NULL,
+    ceremony      INTEGER      NOT NULL,
+    category      VARCHAR(255) NOT NULL,
+    name          VARCHAR(512) NOT NULL,
+    film          VARCHAR(512) NOT NULL,
+    winner        BOOLEAN      NOT NULL
+);
+
+-- Gli indici vengono creati dall'applicazione con db/indexes.sql